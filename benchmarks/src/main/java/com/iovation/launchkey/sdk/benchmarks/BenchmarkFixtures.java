@@ -0,0 +1,170 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.benchmarks;
+
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keys and payloads shared by the benchmarks. Keys are generated locally for the LaunchKey API and for a Service
+ * entity so that requests, responses, and server sent events can be produced and consumed exactly as they would be
+ * against the LaunchKey API. Payloads are sized to match real responses.
+ */
+public class BenchmarkFixtures {
+    public static final String API_IDENTIFIER = "lka";
+    public static final String BASE_URL = "https://api.launchkey.com";
+
+    private final Provider provider;
+    private final RSAPrivateKey apiPrivateKey;
+    private final RSAPublicKey apiPublicKey;
+    private final String apiKeyId;
+    private final RSAPrivateKey entityPrivateKey;
+    private final RSAPublicKey entityPublicKey;
+    private final String entityKeyId;
+    private final EntityIdentifier entity;
+
+    public BenchmarkFixtures() {
+        provider = new BouncyCastleProvider();
+        KeyPair apiKeyPair = generateKeyPair(provider);
+        apiPrivateKey = (RSAPrivateKey) apiKeyPair.getPrivate();
+        apiPublicKey = (RSAPublicKey) apiKeyPair.getPublic();
+        apiKeyId = JCECrypto.getRsaPublicKeyFingerprint(provider, apiPublicKey);
+        KeyPair entityKeyPair = generateKeyPair(provider);
+        entityPrivateKey = (RSAPrivateKey) entityKeyPair.getPrivate();
+        entityPublicKey = (RSAPublicKey) entityKeyPair.getPublic();
+        entityKeyId = JCECrypto.getRsaPublicKeyFingerprint(provider, entityPublicKey);
+        entity = new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID());
+    }
+
+    public Provider getProvider() {
+        return provider;
+    }
+
+    public RSAPrivateKey getApiPrivateKey() {
+        return apiPrivateKey;
+    }
+
+    public RSAPublicKey getApiPublicKey() {
+        return apiPublicKey;
+    }
+
+    public String getApiKeyId() {
+        return apiKeyId;
+    }
+
+    public String getApiPublicKeyPEM() {
+        return JCECrypto.getPEMFromRSAPublicKey(apiPublicKey);
+    }
+
+    public Map<String, RSAPrivateKey> getApiPrivateKeys() {
+        Map<String, RSAPrivateKey> keys = new HashMap<>();
+        keys.put(apiKeyId, apiPrivateKey);
+        return keys;
+    }
+
+    public RSAPrivateKey getEntityPrivateKey() {
+        return entityPrivateKey;
+    }
+
+    public RSAPublicKey getEntityPublicKey() {
+        return entityPublicKey;
+    }
+
+    public String getEntityKeyId() {
+        return entityKeyId;
+    }
+
+    public Map<String, RSAPrivateKey> getEntityPrivateKeys() {
+        Map<String, RSAPrivateKey> keys = new HashMap<>();
+        keys.put(entityKeyId, entityPrivateKey);
+        return keys;
+    }
+
+    public EntityIdentifier getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return JSON of an authorization request with a policy, context, and push message
+     */
+    public String getAuthorizationRequestJSON() {
+        return "{\"username\":\"benchmark-user\",\"context\":\"Log in to the benchmark application from Portland, OR\"," +
+                "\"title\":\"Benchmark Login\",\"ttl\":300,\"push_title\":\"Benchmark\",\"push_body\":\"Approve login\"," +
+                "\"policy\":{\"minimum_requirements\":[{\"requirement\":\"authenticated\",\"any\":2," +
+                "\"knowledge\":0,\"inherence\":0,\"possession\":0}],\"factors\":[{\"factor\":\"device integrity\"," +
+                "\"requirement\":\"forced requirement\",\"quickfail\":false,\"priority\":1," +
+                "\"attributes\":{\"factor enabled\":1}}]}}";
+    }
+
+    /**
+     * @param authorizationRequestId Authorization request ID
+     * @return JSON of a device authorization response as would be encrypted in the auth_jwe attribute
+     */
+    public String getAuthorizationResponseDeviceJSON(UUID authorizationRequestId) {
+        return "{\"type\":\"AUTHORIZED\",\"reason\":\"APPROVED\",\"denial_reason\":null,\"auth_request\":\"" +
+                authorizationRequestId + "\",\"device_id\":\"" + UUID.randomUUID() + "\"," +
+                "\"service_pins\":[\"1234\",\"2345\",\"3456\",\"4567\",\"5678\"]}";
+    }
+
+    /**
+     * @param authJwe Encrypted device response
+     * @return JSON of an authorization response server sent event core
+     */
+    public String getServerSentEventAuthorizationResponseCoreJSON(String authJwe) {
+        return "{\"auth\":\"legacy-auth-unused\",\"auth_jwe\":\"" + authJwe + "\"," +
+                "\"user_push_id\":\"" + UUID.randomUUID() + "\"," +
+                "\"service_user_hash\":\"Ozaj2RqKXW7eHsWv7TeqbNObh8iPLTQmoDj8LAUHoQj\"," +
+                "\"org_user_hash\":\"JZIIdDqcTYZYp9HKBNKAAuwgfmAXkLbrzw4yxm4aRN1\"," +
+                "\"public_key_id\":\"" + entityKeyId + "\"}";
+    }
+
+    /**
+     * @param count Number of services
+     * @return JSON of a services list response such as an Organization with many Services would receive
+     */
+    public String getServicesListJSON(int count) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) builder.append(',');
+            UUID id = UUID.randomUUID();
+            builder.append("{\"id\":\"").append(id).append("\",")
+                    .append("\"name\":\"Benchmark Service ").append(i).append("\",")
+                    .append("\"description\":\"Service ").append(i).append(" used for benchmarking the SDK\",")
+                    .append("\"icon\":\"https://www.example.com/icons/").append(id).append(".png\",")
+                    .append("\"callback_url\":\"https://www.example.com/launchkey/").append(id).append("/webhook\",")
+                    .append("\"active\":true}");
+        }
+        return builder.append(']').toString();
+    }
+
+    private static KeyPair generateKeyPair(Provider provider) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA", provider);
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA is not available from the provider", e);
+        }
+    }
+}
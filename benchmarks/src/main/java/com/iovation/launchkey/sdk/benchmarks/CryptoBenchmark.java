@@ -0,0 +1,105 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.benchmarks;
+
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RSA, digest, and PEM operations of {@link JCECrypto} performed for every request and response. The benchmarks
+ * suffixed with PerCallGetInstance obtain a new {@link Cipher}, {@link MessageDigest}, or {@link KeyFactory} from the
+ * provider for every operation as JCECrypto did before reusing them, as a baseline for the reused instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+    private static final String RSA_CRYPTO_CIPHER = "RSA/ECB/OAEPWithSHA1AndMGF1Padding";
+
+    private BenchmarkFixtures fixtures;
+    private JCECrypto crypto;
+    private byte[] message;
+    private byte[] encrypted;
+    private byte[] payload;
+    private String pem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        crypto = new JCECrypto(fixtures.getProvider());
+        message = "A message small enough for RSA".getBytes(StandardCharsets.UTF_8);
+        encrypted = crypto.encryptRSA(message, fixtures.getEntityPublicKey());
+        payload = fixtures.getServicesListJSON(50).getBytes(StandardCharsets.UTF_8);
+        pem = fixtures.getApiPublicKeyPEM();
+    }
+
+    @Benchmark
+    public byte[] encryptRSA() {
+        return crypto.encryptRSA(message, fixtures.getEntityPublicKey());
+    }
+
+    @Benchmark
+    public byte[] decryptRSA() {
+        return crypto.decryptRSA(encrypted, fixtures.getEntityPrivateKey());
+    }
+
+    @Benchmark
+    public byte[] sha256() throws NoSuchAlgorithmException {
+        return crypto.sha256(payload);
+    }
+
+    @Benchmark
+    public RSAPublicKey getRSAPublicKeyFromPEM() {
+        return crypto.getRSAPublicKeyFromPEM(pem);
+    }
+
+    @Benchmark
+    public String getRsaPublicKeyFingerprint() {
+        return crypto.getRsaPublicKeyFingerprint(fixtures.getApiPublicKey());
+    }
+
+    @Benchmark
+    public byte[] encryptRSAPerCallGetInstance() throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(RSA_CRYPTO_CIPHER, fixtures.getProvider());
+        cipher.init(Cipher.ENCRYPT_MODE, fixtures.getEntityPublicKey());
+        return cipher.doFinal(message);
+    }
+
+    @Benchmark
+    public byte[] decryptRSAPerCallGetInstance() throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(RSA_CRYPTO_CIPHER, fixtures.getProvider());
+        cipher.init(Cipher.DECRYPT_MODE, fixtures.getEntityPrivateKey());
+        return cipher.doFinal(encrypted);
+    }
+
+    @Benchmark
+    public byte[] sha256PerCallGetInstance() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256", fixtures.getProvider()).digest(payload);
+    }
+
+    @Benchmark
+    public RSAPublicKey getRSAPublicKeyFromPEMPerCallGetInstance() {
+        return JCECrypto.getRSAPublicKeyFromPEM(fixtures.getProvider(), pem);
+    }
+}
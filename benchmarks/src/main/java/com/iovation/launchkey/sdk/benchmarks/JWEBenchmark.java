@@ -0,0 +1,58 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.benchmarks;
+
+import com.iovation.launchkey.sdk.crypto.jwe.JWEFailure;
+import com.iovation.launchkey.sdk.crypto.jwe.Jose4jJWEService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypting request bodies and decrypting response bodies with {@link Jose4jJWEService} for a small body, such as
+ * an authorization request, and a large body, such as a list of Services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWEBenchmark {
+    @Param({"small", "large"})
+    public String payloadSize;
+
+    private BenchmarkFixtures fixtures;
+    private Jose4jJWEService jweService;
+    private String payload;
+    private String encrypted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JWEFailure {
+        fixtures = new BenchmarkFixtures();
+        jweService = new Jose4jJWEService(fixtures.getEntityPrivateKey());
+        payload = "small".equals(payloadSize)
+                ? fixtures.getAuthorizationRequestJSON() : fixtures.getServicesListJSON(50);
+        encrypted = jweService.encrypt(
+                payload, fixtures.getEntityPublicKey(), fixtures.getEntityKeyId(), "application/json");
+    }
+
+    @Benchmark
+    public String encrypt() throws JWEFailure {
+        return jweService.encrypt(payload, fixtures.getApiPublicKey(), fixtures.getApiKeyId(), "application/json");
+    }
+
+    @Benchmark
+    public String decrypt() throws JWEFailure {
+        return jweService.decrypt(encrypted);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.benchmarks;
+
+import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTError;
+import com.iovation.launchkey.sdk.crypto.jwt.Jose4jJWTService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing request JWTs and verifying response JWTs with {@link Jose4jJWTService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTBenchmark {
+    private static final String CONTENT_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private BenchmarkFixtures fixtures;
+    private Jose4jJWTService entityJWTService;
+    private String issuer;
+    private String responseJWT;
+    private String responseTokenId;
+    private Date responseDate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JWTError {
+        fixtures = new BenchmarkFixtures();
+        issuer = fixtures.getEntity().toString();
+        entityJWTService = new Jose4jJWTService(
+                BenchmarkFixtures.API_IDENTIFIER, fixtures.getEntityPrivateKeys(), fixtures.getEntityKeyId(), 5);
+        Jose4jJWTService apiJWTService =
+                new Jose4jJWTService(issuer, fixtures.getApiPrivateKeys(), fixtures.getApiKeyId(), 5);
+        responseTokenId = UUID.randomUUID().toString();
+        responseDate = new Date();
+        responseJWT = apiJWTService.encode(responseTokenId, BenchmarkFixtures.API_IDENTIFIER, issuer, responseDate,
+                "POST", "/service/v3/auths", "S256", CONTENT_HASH);
+    }
+
+    @Benchmark
+    public String encode() throws JWTError {
+        return entityJWTService.encode(UUID.randomUUID().toString(), issuer, issuer, new Date(), "POST",
+                "/service/v3/auths", "S256", CONTENT_HASH);
+    }
+
+    @Benchmark
+    public JWTClaims decode() throws JWTError {
+        return entityJWTService.decode(fixtures.getApiPublicKey(), issuer, responseTokenId, responseDate, responseJWT);
+    }
+}
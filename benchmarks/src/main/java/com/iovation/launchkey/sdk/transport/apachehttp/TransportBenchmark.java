@@ -0,0 +1,172 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iovation.launchkey.sdk.benchmarks.BenchmarkFixtures;
+import com.iovation.launchkey.sdk.cache.HashCache;
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.crypto.jwe.Jose4jJWEService;
+import com.iovation.launchkey.sdk.crypto.jwt.Jose4jJWTService;
+import com.iovation.launchkey.sdk.error.BaseException;
+import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import com.iovation.launchkey.sdk.transport.domain.ServerSentEvent;
+import com.iovation.launchkey.sdk.transport.domain.ServicesListPostResponseService;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request and response pipeline of {@link ApacheHttpTransport} without network I/O: building a signed and
+ * encrypted request, decrypting a response body, and verifying and decrypting a server sent event. It shares the
+ * transport package to reach the package private request builder and response wrapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportBenchmark {
+    private static final String WEBHOOK_PATH = "/webhook";
+
+    private BenchmarkFixtures fixtures;
+    private ApacheHttpTransport transport;
+    private ApiRequestBuilderFactory requestBuilderFactory;
+    private Object authorizationRequest;
+    private byte[] encryptedServicesList;
+    private Map<String, List<String>> serverSentEventHeaders;
+    private String serverSentEventBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixtures = new BenchmarkFixtures();
+        String entity = fixtures.getEntity().toString();
+        JCECrypto crypto = new JCECrypto(fixtures.getProvider());
+        ObjectMapper objectMapper = new ObjectMapper();
+        Jose4jJWTService jwtService = new Jose4jJWTService(
+                BenchmarkFixtures.API_IDENTIFIER, fixtures.getEntityPrivateKeys(), fixtures.getEntityKeyId(), 5);
+        Jose4jJWEService jweService = new Jose4jJWEService(fixtures.getEntityPrivateKey());
+
+        HashCache publicKeyCache = new HashCache();
+        publicKeyCache.put("LaunchKeyPublicKey:" + fixtures.getApiKeyId(), fixtures.getApiPublicKeyPEM());
+        EntityKeyMap entityKeyMap = new EntityKeyMap();
+        entityKeyMap.addKey(fixtures.getEntity(), fixtures.getEntityKeyId(), fixtures.getEntityPrivateKey());
+
+        transport = new ApacheHttpTransport(new PingHttpClient(), crypto, objectMapper, publicKeyCache,
+                BenchmarkFixtures.BASE_URL, fixtures.getEntity(), jwtService, jweService, Integer.MAX_VALUE, 0,
+                entityKeyMap);
+        requestBuilderFactory = new ApiRequestBuilderFactory(
+                entity, BenchmarkFixtures.BASE_URL, objectMapper, crypto, jwtService, jweService);
+        authorizationRequest = objectMapper.readValue(fixtures.getAuthorizationRequestJSON(), Map.class);
+
+        Jose4jJWEService apiJWEService = new Jose4jJWEService(fixtures.getApiPrivateKey());
+        encryptedServicesList = apiJWEService.encrypt(fixtures.getServicesListJSON(50),
+                fixtures.getEntityPublicKey(), fixtures.getEntityKeyId(), "application/json")
+                .getBytes(StandardCharsets.UTF_8);
+
+        String authJwe = apiJWEService.encrypt(fixtures.getAuthorizationResponseDeviceJSON(UUID.randomUUID()),
+                fixtures.getEntityPublicKey(), fixtures.getEntityKeyId(), "application/json");
+        serverSentEventBody = apiJWEService.encrypt(fixtures.getServerSentEventAuthorizationResponseCoreJSON(authJwe),
+                fixtures.getEntityPublicKey(), fixtures.getEntityKeyId(), "application/json");
+        Jose4jJWTService apiJWTService =
+                new Jose4jJWTService(entity, fixtures.getApiPrivateKeys(), fixtures.getApiKeyId(), 3600);
+        String contentHash = HexEncoder.encode(crypto.sha256(serverSentEventBody.getBytes(StandardCharsets.UTF_8)));
+        String jwt = apiJWTService.encode(UUID.randomUUID().toString(), BenchmarkFixtures.API_IDENTIFIER, entity,
+                new Date(), "POST", WEBHOOK_PATH, "S256", contentHash);
+        serverSentEventHeaders = new HashMap<>();
+        serverSentEventHeaders.put("X-IOV-JWT", Collections.singletonList(jwt));
+        serverSentEventHeaders.put("Content-Type", Collections.singletonList("application/jose"));
+    }
+
+    @Benchmark
+    public HttpUriRequest buildSignedRequest() throws BaseException {
+        return requestBuilderFactory
+                .create(fixtures.getApiPublicKey(), fixtures.getApiKeyId(), new Date())
+                .setMethod("POST")
+                .setPath("/service/v3/auths")
+                .setTransportObject(authorizationRequest)
+                .setSubject(fixtures.getEntity().toString())
+                .build(UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public ServicesListPostResponseService[] decryptResponse() throws BaseException {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity(
+                encryptedServicesList, ContentType.create("application/jose")));
+        return transport.decryptResponse(
+                new ReplayHttpResponse(response), ServicesListPostResponseService[].class);
+    }
+
+    @Benchmark
+    public ServerSentEvent handleServerSentEvent() throws BaseException {
+        return transport.handleServerSentEvent(serverSentEventHeaders, "POST", WEBHOOK_PATH, serverSentEventBody);
+    }
+
+    /**
+     * HTTP client answering every request with a ping response so that the API time offset can be established
+     * without network I/O.
+     */
+    @SuppressWarnings("deprecation")
+    private static class PingHttpClient extends CloseableHttpClient {
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            final BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+            response.setEntity(new StringEntity(
+                    "{\"api_time\":\"" + format.format(new Date()) + "\"}", ContentType.APPLICATION_JSON));
+            return (CloseableHttpResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{CloseableHttpResponse.class}, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            return "close".equals(method.getName()) ? null : method.invoke(response, args);
+                        }
+                    });
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public HttpParams getParams() {
+            return new BasicHttpParams();
+        }
+
+        @Override
+        public ClientConnectionManager getConnectionManager() {
+            return null;
+        }
+    }
+}
@@ -9,6 +9,10 @@ import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
 import org.apache.http.ssl.TrustStrategy;
@@ -56,10 +60,19 @@ public class RootCommand implements Callable<Void> {
     }
 
     FactoryFactory getFactoryFactory() throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return getFactoryFactory(null);
+    }
+
+    /**
+     * @param httpAsyncClient Started async HTTP client for non-blocking calls. May be null.
+     */
+    FactoryFactory getFactoryFactory(HttpAsyncClient httpAsyncClient)
+            throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
         Provider provider = new BouncyCastleProvider();
         FactoryFactoryBuilder builder = new FactoryFactoryBuilder()
                 .setJCEProvider(provider)
-                .setAPIBaseURL(baseUrl);
+                .setAPIBaseURL(baseUrl)
+                .setHttpAsyncClient(httpAsyncClient);
 
         if (noVerify) {
             HttpClient httpClient = getHttpClientWithoutSslVerify();
@@ -70,6 +83,29 @@ public class RootCommand implements Callable<Void> {
         return factoryFactory;
     }
 
+    /**
+     * Create an async HTTP client which verifies SSL certificates unless verification was disabled. It must be started
+     * before it is used and closed once it is no longer needed.
+     */
+    CloseableHttpAsyncClient getHttpAsyncClient()
+            throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom();
+        if (noVerify) {
+            builder.setSSLContext(getSslContextWithoutVerify());
+        }
+        return builder.build();
+    }
+
+    private static SSLContext getSslContextWithoutVerify()
+            throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
+        return SSLContexts.custom().loadTrustMaterial(null, new TrustStrategy() {
+            @Override
+            public boolean isTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+                return true;
+            }
+        }).build();
+    }
+
     private static HttpClient getHttpClientWithoutSslVerify() throws NoSuchAlgorithmException, KeyStoreException, KeyManagementException {
         final SSLContextBuilder builder = SSLContexts.custom();
         builder.loadTrustMaterial(null, new TrustStrategy() {
@@ -1,17 +1,22 @@
 package com.iovation.launchkey.sdk.example.cli;
 
+import com.iovation.launchkey.sdk.client.AuthorizationResponseWatcher;
 import com.iovation.launchkey.sdk.client.ServiceClient;
+import com.iovation.launchkey.sdk.client.ServiceFactory;
 import com.iovation.launchkey.sdk.domain.service.AuthorizationRequest;
 import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
 import com.iovation.launchkey.sdk.domain.service.DenialReason;
 import com.iovation.launchkey.sdk.error.AuthorizationInProgress;
 import com.iovation.launchkey.sdk.error.AuthorizationRequestCanceled;
 import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 import picocli.CommandLine;
 
 import java.io.File;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 @SuppressWarnings("unused")
 @CommandLine.Command(name = "service")
@@ -64,8 +69,10 @@ class ServiceCommand {
             @CommandLine.Option(names = {"-n", "--non-fraud-denial-reasons"}, arity = "0..1",
                     description = "[Directory Service Only] The number of denial reasons not flagged as fraud for the authorization request.") Integer nonFraudReasons
     ) throws Exception {
-        try {
-            ServiceClient serviceClient = getServiceClient();
+        try (CloseableHttpAsyncClient httpAsyncClient = rootCommand.getHttpAsyncClient()) {
+            httpAsyncClient.start();
+            ServiceFactory serviceFactory = getServiceFactory(httpAsyncClient);
+            ServiceClient serviceClient = serviceFactory.makeServiceClient();
             AuthorizationRequest authRequest = serviceClient.createAuthorizationRequest(
                     username, context, null, title, ttl, pushTitle, pushBody, getDenialReasons(fraudReasons, nonFraudReasons));
             System.out.println();
@@ -73,26 +80,28 @@ class ServiceCommand {
             System.out.println("    Auth Request: " + authRequest);
             System.out.print("Checking for response from the End User");
             System.out.println();
-            AuthorizationResponse authorizationResponse;
-            long started = new Date().getTime();
-            while (new Date().getTime() - started <= 600000) {
-                    Thread.sleep(1000L);
-                    System.out.print(".");
-                    authorizationResponse = serviceClient.getAuthorizationResponse(authRequest.getId());
-                    if (authorizationResponse != null) {
-                        System.out.println("Authorization request response received:");
-                        System.out.println("    Request ID:    " + authorizationResponse.getAuthorizationRequestId());
-                        System.out.println("    Authorized:    " + naForNull(authorizationResponse.isAuthorized()));
-                        System.out.println("    Type:          " + naForNull(authorizationResponse.getType()));
-                        System.out.println("    Reason:        " + naForNull(authorizationResponse.getReason()));
-                        System.out.println("    Denial Reason: " + naForNull(authorizationResponse.getDenialReason()));
-                        System.out.println("    Fraud:         " + naForNull(authorizationResponse.isFraud()));
-                        System.out.println("    Device ID:     " + authorizationResponse.getDeviceId());
-                        System.out.println("    Svc User Hash: " + authorizationResponse.getServiceUserHash());
-                        System.out.println("    User Push ID:  " + authorizationResponse.getUserPushId());
-                        System.out.println("    Org User Hash: " + naForNull(authorizationResponse.getOrganizationUserHash()));
-                        break;
-                    }
+            AuthorizationResponseWatcher watcher = serviceFactory.makeAuthorizationResponseWatcher(1);
+            try {
+                AuthorizationResponse authorizationResponse = watcher.watch(
+                        authRequest.getId(), ttl == null ? AuthorizationResponseWatcher.DEFAULT_TTL : ttl, null).get();
+                System.out.println("Authorization request response received:");
+                System.out.println("    Request ID:    " + authorizationResponse.getAuthorizationRequestId());
+                System.out.println("    Authorized:    " + naForNull(authorizationResponse.isAuthorized()));
+                System.out.println("    Type:          " + naForNull(authorizationResponse.getType()));
+                System.out.println("    Reason:        " + naForNull(authorizationResponse.getReason()));
+                System.out.println("    Denial Reason: " + naForNull(authorizationResponse.getDenialReason()));
+                System.out.println("    Fraud:         " + naForNull(authorizationResponse.isFraud()));
+                System.out.println("    Device ID:     " + authorizationResponse.getDeviceId());
+                System.out.println("    Svc User Hash: " + authorizationResponse.getServiceUserHash());
+                System.out.println("    User Push ID:  " + authorizationResponse.getUserPushId());
+                System.out.println("    Org User Hash: " + naForNull(authorizationResponse.getOrganizationUserHash()));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            } finally {
+                watcher.shutdown();
             }
         } catch (AuthorizationRequestTimedOutError e) {
             System.out.println();
@@ -120,6 +129,10 @@ class ServiceCommand {
     }
 
     private ServiceClient getServiceClient() throws Exception {
+        return getServiceFactory(null).makeServiceClient();
+    }
+
+    private ServiceFactory getServiceFactory(HttpAsyncClient httpAsyncClient) throws Exception {
         Scanner sc = new Scanner(privateKeyFile);
         StringBuilder buffer = new StringBuilder();
         while (sc.hasNextLine()) {
@@ -127,8 +140,7 @@ class ServiceCommand {
         }
         String key = buffer.toString();
 
-        return rootCommand.getFactoryFactory()
-                .makeServiceFactory(serviceId, key).makeServiceClient();
+        return rootCommand.getFactoryFactory(httpAsyncClient).makeServiceFactory(serviceId, key);
     }
 
     private static String naForNull(String value) {
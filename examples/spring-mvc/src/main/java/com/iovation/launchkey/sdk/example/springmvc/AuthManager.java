@@ -1,6 +1,8 @@
 package com.iovation.launchkey.sdk.example.springmvc;
 
 import com.iovation.launchkey.sdk.FactoryFactoryBuilder;
+import com.iovation.launchkey.sdk.client.AuthorizationResponseWatcher;
+import com.iovation.launchkey.sdk.client.PendingAuthorizationRegistry;
 import com.iovation.launchkey.sdk.client.ServiceClient;
 import com.iovation.launchkey.sdk.client.ServiceFactory;
 import com.iovation.launchkey.sdk.domain.service.AuthorizationRequest;
@@ -9,6 +11,8 @@ import com.iovation.launchkey.sdk.domain.webhook.AuthorizationResponseWebhookPac
 import com.iovation.launchkey.sdk.domain.webhook.WebhookPackage;
 import com.iovation.launchkey.sdk.domain.webhook.ServiceUserSessionEndWebhookPackage;
 import com.iovation.launchkey.sdk.error.BaseException;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,12 +26,15 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 @Component
 public class AuthManager {
     private static final Logger LOG = LoggerFactory.getLogger(AuthManager.class);
     private final ServiceClient serviceClient;
+    private final PendingAuthorizationRegistry pendingAuthorizations;
     private final Map<String, String> sessionAuthRequestMap;
     private final Map<String, Boolean> sessionAuthenticationMap;
     private final Map<String, List<String>> userHashSessionMap;
@@ -64,8 +71,12 @@ public class AuthManager {
         }
         String privateKey = sb.toString();
 
+        // The authorization response watcher polls with non-blocking calls made by an async HTTP client
+        CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault();
+        httpAsyncClient.start();
         FactoryFactoryBuilder builder = new FactoryFactoryBuilder()
                 .setJCEProvider(new BouncyCastleProvider())
+                .setHttpAsyncClient(httpAsyncClient)
                 .setOffsetTTL(60);
         if (baseURL != null) {
             builder.setAPIBaseURL(baseURL);
@@ -73,19 +84,25 @@ public class AuthManager {
         ServiceFactory factory = builder.build().makeServiceFactory(serviceId, privateKey);
 
         serviceClient = factory.makeServiceClient();
+        // Responses arrive by webhook. Any which have not arrived after the fallback delay are polled for.
+        pendingAuthorizations = new PendingAuthorizationRegistry(factory.makeAuthorizationResponseWatcher(),
+                Executors.newSingleThreadScheduledExecutor(),
+                PendingAuthorizationRegistry.DEFAULT_POLLING_FALLBACK_DELAY_MILLIS);
         sessionAuthenticationMap = Collections.synchronizedMap(new HashMap<String, Boolean>());
         sessionAuthRequestMap = new ConcurrentHashMap<>();
         userHashSessionMap = new ConcurrentHashMap<>();
         sessionUsernameMap = new ConcurrentHashMap<>();
     }
 
-    void login(String username, String context) throws AuthException {
+    Future<AuthorizationResponse> login(String username, String context) throws AuthException {
         try {
             AuthorizationRequest authorizationRequest = serviceClient.createAuthorizationRequest(username, context);
             String sessionId = getSessionId();
             sessionAuthRequestMap.put(sessionId, authorizationRequest.getId());
             sessionAuthenticationMap.put(sessionId, null);
             sessionUsernameMap.put(sessionId, username);
+            return pendingAuthorizations.register(
+                    authorizationRequest.getId(), AuthorizationResponseWatcher.DEFAULT_TTL, null);
         } catch (BaseException apiException) {
             throw new AuthException("Error logging in with username: " + username, apiException);
         }
@@ -129,44 +146,55 @@ public class AuthManager {
         return value == null ? "N/A" : value.toString();
     }
 
+    void authorizationResponded(AuthorizationResponse authorizationResponse) throws AuthException {
+        try {
+            String authRequestId = authorizationResponse.getAuthorizationRequestId();
+            String sessionId = null;
+            for (Map.Entry<String, String> entry : sessionAuthRequestMap.entrySet()) {
+                if (entry.getValue().equals(authRequestId)) {
+                    sessionId = entry.getKey();
+                    break;
+                }
+            }
+            LOG.debug("Authorization request " + (authorizationResponse.isAuthorized() ? "accepted" : "denied") + " by user");
+            LOG.debug("    Type:          " + naForNull(authorizationResponse.getType()));
+            LOG.debug("    Reason:        " + naForNull(authorizationResponse.getReason()));
+            LOG.debug("    Denial Reason: " + naForNull(authorizationResponse.getDenialReason()));
+            LOG.debug("    Fraud:         " + naForNull(authorizationResponse.isFraud()));
+            LOG.debug("    Device ID:     " + authorizationResponse.getDeviceId());
+            LOG.debug("    Svc User Hash: " + authorizationResponse.getServiceUserHash());
+            LOG.debug("    User Push ID:  " + authorizationResponse.getUserPushId());
+            LOG.debug("    Org User Hash: " + naForNull(authorizationResponse.getOrganizationUserHash()));
+            if (null == sessionId) {
+                throw new AuthException("No session found for getServiceService request: " + authRequestId);
+            }
+            sessionAuthenticationMap.put(sessionId, authorizationResponse.isAuthorized());
+            List<String> sessionList = userHashSessionMap.get(authorizationResponse.getServiceUserHash());
+
+            if (null == sessionList) { // If no session list exists for the user hash, create one in the map
+                sessionList = Collections.synchronizedList(new ArrayList<String>());
+                userHashSessionMap.put(authorizationResponse.getServiceUserHash(), sessionList);
+            }
+
+            // If the session does not already exist in the session list add it
+            if (!sessionList.contains(sessionId)) {
+                sessionList.add(sessionId);
+            }
+            serviceClient.sessionStart(sessionUsernameMap.get(sessionId));
+        } catch (BaseException apiException) {
+            throw new AuthException("Error starting session", apiException);
+        }
+    }
+
     void handleWebhook(Map<String, List<String>> headers, String body, String method, String path) throws AuthException {
         try {
             WebhookPackage webhookPackage = serviceClient.handleWebhook(headers, body, method, path);
             if (webhookPackage instanceof AuthorizationResponseWebhookPackage) {
-                AuthorizationResponse authorizationResponse = ((AuthorizationResponseWebhookPackage) webhookPackage).getAuthorizationResponse();
-                String authRequestId = authorizationResponse.getAuthorizationRequestId();
-                String sessionId = null;
-                for (Map.Entry<String, String> entry : sessionAuthRequestMap.entrySet()) {
-                    if (entry.getValue().equals(authRequestId)) {
-                        sessionId = entry.getKey();
-                        break;
-                    }
-                }
-                LOG.debug("Authorization request " + (authorizationResponse.isAuthorized() ? "accepted" : "denied") + " by user");
-                LOG.debug("    Type:          " + naForNull(authorizationResponse.getType()));
-                LOG.debug("    Reason:        " + naForNull(authorizationResponse.getReason()));
-                LOG.debug("    Denial Reason: " + naForNull(authorizationResponse.getDenialReason()));
-                LOG.debug("    Fraud:         " + naForNull(authorizationResponse.isFraud()));
-                LOG.debug("    Device ID:     " + authorizationResponse.getDeviceId());
-                LOG.debug("    Svc User Hash: " + authorizationResponse.getServiceUserHash());
-                LOG.debug("    User Push ID:  " + authorizationResponse.getUserPushId());
-                LOG.debug("    Org User Hash: " + naForNull(authorizationResponse.getOrganizationUserHash()));
-                if (null == sessionId) {
+                if (!pendingAuthorizations.handle(webhookPackage)) {
+                    String authRequestId = ((AuthorizationResponseWebhookPackage) webhookPackage)
+                            .getAuthorizationResponse().getAuthorizationRequestId();
                     throw new AuthException("No session found for getServiceService request: " + authRequestId);
                 }
-                sessionAuthenticationMap.put(sessionId, authorizationResponse.isAuthorized());
-                List<String> sessionList = userHashSessionMap.get(authorizationResponse.getServiceUserHash());
-
-                if (null == sessionList) { // If no session list exists for the user hash, create one in the map
-                    sessionList = Collections.synchronizedList(new ArrayList<String>());
-                    userHashSessionMap.put(authorizationResponse.getServiceUserHash(), sessionList);
-                }
-
-                // If the session does not already exist in the session list add it
-                if (!sessionList.contains(sessionId)) {
-                    sessionList.add(sessionId);
-                }
-                serviceClient.sessionStart(sessionUsernameMap.get(sessionId));
             } else if (webhookPackage instanceof ServiceUserSessionEndWebhookPackage) {
                 String userHash = ((ServiceUserSessionEndWebhookPackage) webhookPackage).getServiceUserHash();
                 for (String sessionId : userHashSessionMap.get(userHash)) {
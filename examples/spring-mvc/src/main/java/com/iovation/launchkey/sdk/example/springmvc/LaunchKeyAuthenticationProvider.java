@@ -1,5 +1,7 @@
 package com.iovation.launchkey.sdk.example.springmvc;
 
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
 import com.iovation.launchkey.sdk.error.BaseException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
@@ -7,6 +9,8 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class LaunchKeyAuthenticationProvider implements AuthenticationProvider {
 
@@ -23,26 +27,30 @@ public class LaunchKeyAuthenticationProvider implements AuthenticationProvider {
         String username = authentication.getName();
 
         try {
+            Future<AuthorizationResponse> authorizationResponse;
             synchronized (this) {
                 authRequestCounter++;
-                this.authManager.login(username, String.format("Login Request #%s", authRequestCounter));
+                authorizationResponse =
+                        this.authManager.login(username, String.format("Login Request #%s", authRequestCounter));
             }
-            Boolean authorized = null;
-            while (authorized == null) {
-                Thread.sleep(100L);
-                authorized = this.authManager.isAuthorized();
+            AuthorizationResponse response = authorizationResponse.get();
+            this.authManager.authorizationResponded(response);
+            if (!response.isAuthorized()) {
+                throw new InsufficientAuthenticationException("The login request was denied");
             }
-            if (authorized == null) {
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthorizationRequestTimedOutError) {
                 throw new InsufficientAuthenticationException("The login request was not responded to in sufficient time");
-            } else if (!authorized) {
-                throw new InsufficientAuthenticationException("The login request was denied");
             }
+            throw new BadCredentialsException("Login failure", e.getCause());
         } catch (InterruptedException e) {
-            throw new AuthenticationServiceException("Sleep error");
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted waiting for the login request");
         } catch (AuthManager.AuthException e) {
             if (e.getCause() instanceof BaseException) {
                 throw new BadCredentialsException("Login failure", e.getCause());
             }
+            throw new AuthenticationServiceException(e.getMessage());
         }
 
         return new UsernamePasswordAuthenticationToken(username, authentication.getCredentials(), new ArrayList<GrantedAuthority>());
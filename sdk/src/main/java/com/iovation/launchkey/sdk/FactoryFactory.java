@@ -8,18 +8,37 @@ import com.iovation.launchkey.sdk.client.ServiceFactory;
 import com.iovation.launchkey.sdk.crypto.JCECrypto;
 import com.iovation.launchkey.sdk.crypto.jwe.Jose4jJWEService;
 import com.iovation.launchkey.sdk.crypto.jwt.Jose4jJWTService;
+import com.iovation.launchkey.sdk.error.*;
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolStats;
+import com.iovation.launchkey.sdk.metrics.LatencyHistogram;
 import com.iovation.launchkey.sdk.transport.Transport;
 import com.iovation.launchkey.sdk.transport.apachehttp.ApacheHttpTransport;
+import com.iovation.launchkey.sdk.transport.apachehttp.AsyncHttpTransport;
+import com.iovation.launchkey.sdk.transport.apachehttp.IdleConnectionEvictor;
+import com.iovation.launchkey.sdk.transport.apachehttp.InstrumentedConnectionManager;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportOptions;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier.EntityType;
 import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import org.apache.http.HttpHost;
 import org.apache.http.client.HttpClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 
+import java.net.URI;
 import java.security.Provider;
 import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Factory for building {@link ServiceFactory},
@@ -28,6 +47,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class FactoryFactory {
     private final HttpClient httpClient;
+    private final HttpAsyncClient httpAsyncClient;
     private final Cache keyCache;
     private final Provider provider;
     private final String apiBaseURL;
@@ -36,6 +56,16 @@ public class FactoryFactory {
     private final int offsetTTL;
     private final int currentPublicKeyTTL;
     private final EntityKeyMap entityKeyMap;
+    private final InstrumentedConnectionManager connectionManager;
+    private final IdleConnectionEvictor connectionEvictor;
+    private final TransportOptions transportOptions;
+    /**
+     * Transports of the factories made by this factory, held weakly so that discarded factories can be collected
+     */
+    private final Map<ApacheHttpTransport, Boolean> transports =
+            Collections.synchronizedMap(new WeakHashMap<ApacheHttpTransport, Boolean>());
+    private ScheduledExecutorService scheduler;
+    private ExecutorService responseExecutor;
 
     /**
      * @param provider JCE provider
@@ -54,8 +84,39 @@ public class FactoryFactory {
             Provider provider, HttpClient httpClient, Cache keyCache,
             String apiBaseURL, String apiIdentifier, int requestExpireSeconds,
             int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap) {
+        this(provider, httpClient, null, keyCache, apiBaseURL, apiIdentifier, requestExpireSeconds, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, null, null, new TransportOptions());
+    }
+
+    /**
+     * @param provider JCE provider
+     * @param httpClient HTTP client
+     * @param httpAsyncClient Started non-blocking HTTP client used to create non-blocking clients. When null,
+     * non-blocking clients are not available.
+     * @param keyCache Caching for public keys from LaunchKey API
+     * @param apiBaseURL Base URL for the Platform API
+     * @param apiIdentifier JWT identifier for the API. Used to send requests with the proper ID and validate
+     * responses and server sent events.
+     * @param requestExpireSeconds The number of seconds until a request JWT should expire.
+     * @param offsetTTL The number of seconds the API time offset will live before obtaining another using a ping call.
+     * @param currentPublicKeyTTL The number of seconds to current public key as reported by a public key call will
+     * live before obtaining the value again from the API.
+     * @param entityKeyMap Mapping of entity private keys to allow for parsing Server Sent Events from entities
+     * @param connectionManager Connection manager of the HTTP client whose pool statistics are exposed by this
+     * factory. May be null when they are not available.
+     * @param connectionEvictor Evictor of idle connections of the HTTP client. It is started now and stopped by
+     * {@link #shutdown()}. May be null.
+     * @param transportOptions Optional collaborators shared by every transport created by this factory
+     */
+    public FactoryFactory(
+            Provider provider, HttpClient httpClient, HttpAsyncClient httpAsyncClient, Cache keyCache,
+            String apiBaseURL, String apiIdentifier, int requestExpireSeconds,
+            int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap,
+            InstrumentedConnectionManager connectionManager, IdleConnectionEvictor connectionEvictor,
+            TransportOptions transportOptions) {
         this.provider = provider;
         this.httpClient = httpClient;
+        this.httpAsyncClient = httpAsyncClient;
         this.apiBaseURL = apiBaseURL;
         this.apiIdentifier = apiIdentifier;
         this.requestExpireSeconds = requestExpireSeconds;
@@ -63,6 +124,92 @@ public class FactoryFactory {
         this.offsetTTL = offsetTTL;
         this.currentPublicKeyTTL = currentPublicKeyTTL;
         this.entityKeyMap = entityKeyMap;
+        this.connectionManager = connectionManager;
+        this.connectionEvictor = connectionEvictor;
+        this.transportOptions = transportOptions;
+        if (connectionEvictor != null) {
+            connectionEvictor.start();
+        }
+    }
+
+    /**
+     * @return Current statistics of the HTTP connection pool or null when the HTTP client was not built by
+     * {@link FactoryFactoryBuilder}
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return connectionManager == null ? null : connectionManager.getPoolStats();
+    }
+
+    /**
+     * @return Histogram of the time in nanoseconds requests waited to lease an HTTP connection or null when the HTTP
+     * client was not built by {@link FactoryFactoryBuilder}
+     */
+    public LatencyHistogram getConnectionLeaseWaitHistogram() {
+        return connectionManager == null ? null : connectionManager.getLeaseWaitHistogram();
+    }
+
+    /**
+     * Warm up the transports of every service, directory, and organization factory made by this factory which is
+     * still referenced. Each transport obtains the API time offset and current public key and initializes its
+     * cryptography. Call it once the factories are made and before the application reports itself ready to receive
+     * traffic.
+     *
+     * @throws CommunicationErrorException If there was an error communicating with the LaunchKey API
+     * @throws InvalidResponseException When a response from the LaunchKey API is invalid
+     * @throws MarshallingError If there was an error marshaling synthetic data or unmarshalling a response
+     * @throws CryptographyError When there is an error signing, encrypting, verifying, or decrypting synthetic data
+     * @throws InvalidCredentialsException When the credentials of an entity are not valid
+     * @see ServiceFactory#warmUp()
+     */
+    public void warmUp() throws CommunicationErrorException, InvalidResponseException, MarshallingError,
+            CryptographyError, InvalidCredentialsException {
+        for (ApacheHttpTransport transport : getTransports()) {
+            transport.warmUp();
+        }
+    }
+
+    /**
+     * Open pooled connections to the LaunchKey API and then warm up the transports of every factory made by this
+     * factory. Connections are only opened when the HTTP client was built by {@link FactoryFactoryBuilder}.
+     *
+     * @param connections Number of idle connections the pool should hold for the LaunchKey API
+     * @param connectTimeoutMillis Timeout to lease and connect each connection
+     * @throws CommunicationErrorException If there was an error communicating with the LaunchKey API
+     * @throws InvalidResponseException When a response from the LaunchKey API is invalid
+     * @throws MarshallingError If there was an error marshaling synthetic data or unmarshalling a response
+     * @throws CryptographyError When there is an error signing, encrypting, verifying, or decrypting synthetic data
+     * @throws InvalidCredentialsException When the credentials of an entity are not valid
+     * @see #warmUp()
+     */
+    public void warmUp(int connections, int connectTimeoutMillis) throws CommunicationErrorException,
+            InvalidResponseException, MarshallingError, CryptographyError, InvalidCredentialsException {
+        if (connectionManager != null && connections > 0) {
+            URI uri = URI.create(apiBaseURL);
+            connectionManager.open(new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme()), connections,
+                    connectTimeoutMillis, 0L);
+        }
+        warmUp();
+    }
+
+    /**
+     * Stop the background threads of this factory: the idle connection evictor, the scheduler refreshing the API time
+     * offset and current public keys, and the threads processing non-blocking responses. The background refresh of
+     * every transport made by this factory is cancelled. The HTTP clients are not closed. Clients made by this factory
+     * should not be used afterwards.
+     */
+    public synchronized void shutdown() {
+        for (ApacheHttpTransport transport : getTransports()) {
+            transport.close();
+        }
+        if (connectionEvictor != null) {
+            connectionEvictor.shutdown();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (responseExecutor != null) {
+            responseExecutor.shutdown();
+        }
     }
 
     public ServiceFactory makeServiceFactory(String serviceId, String privateKeyPEM) {
@@ -120,19 +267,92 @@ public class FactoryFactory {
         for (Map.Entry<String, RSAPrivateKey> entry : privateKeys.entrySet()) {
             entityKeyMap.addKey(entityIdentifier, entry.getKey(), entry.getValue());
         }
-        return new ApacheHttpTransport(
-                httpClient,
-                new JCECrypto(provider),
-                getObjectMapper(),
-                keyCache,
-                apiBaseURL,
-                entityIdentifier,
-                new Jose4jJWTService(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds),
-                new Jose4jJWEService(privateKeys.get(currentPrivateKeyId)),
-                offsetTTL,
-                currentPublicKeyTTL,
-                entityKeyMap
-        );
+        JCECrypto crypto = new JCECrypto(provider);
+        Jose4jJWTService jwtService =
+                new Jose4jJWTService(apiIdentifier, privateKeys, currentPrivateKeyId, requestExpireSeconds);
+        Jose4jJWEService jweService = new Jose4jJWEService(privateKeys.get(currentPrivateKeyId));
+        ApacheHttpTransport transport;
+        if (httpAsyncClient == null) {
+            transport = new ApacheHttpTransport(
+                    httpClient,
+                    crypto,
+                    getObjectMapper(),
+                    keyCache,
+                    apiBaseURL,
+                    entityIdentifier,
+                    jwtService,
+                    jweService,
+                    offsetTTL,
+                    currentPublicKeyTTL,
+                    entityKeyMap,
+                    getScheduler(),
+                    transportOptions
+            );
+        } else {
+            transport = new AsyncHttpTransport(
+                    httpClient,
+                    httpAsyncClient,
+                    getResponseExecutor(),
+                    crypto,
+                    getObjectMapper(),
+                    keyCache,
+                    apiBaseURL,
+                    entityIdentifier,
+                    jwtService,
+                    jweService,
+                    offsetTTL,
+                    currentPublicKeyTTL,
+                    entityKeyMap,
+                    getScheduler(),
+                    transportOptions
+            );
+        }
+        transports.put(transport, Boolean.TRUE);
+        return transport;
+    }
+
+    private List<ApacheHttpTransport> getTransports() {
+        synchronized (transports) {
+            return new ArrayList<>(transports.keySet());
+        }
+    }
+
+    /**
+     * Scheduler for background work shared by all transports created by this factory. The single daemon thread is
+     * started on first use and will not prevent the JVM from exiting.
+     */
+    private synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "launchkey-sdk-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * Executor verifying and decrypting the responses of non-blocking calls shared by all transports created by this
+     * factory. Its daemon threads are started on demand and end after a minute without work.
+     */
+    private synchronized ExecutorService getResponseExecutor() {
+        if (responseExecutor == null) {
+            responseExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "launchkey-sdk-response-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return responseExecutor;
     }
 
     private ObjectMapper getObjectMapper() {
@@ -12,15 +12,25 @@
 
 package com.iovation.launchkey.sdk;
 
+import com.iovation.launchkey.sdk.cache.BoundedCache;
 import com.iovation.launchkey.sdk.cache.Cache;
-import com.iovation.launchkey.sdk.cache.HashCache;
 import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolListener;
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier.EntityType;
+import com.iovation.launchkey.sdk.transport.apachehttp.CircuitBreaker;
+import com.iovation.launchkey.sdk.transport.apachehttp.ConcurrencyLimiter;
+import com.iovation.launchkey.sdk.transport.apachehttp.IdleConnectionEvictor;
+import com.iovation.launchkey.sdk.transport.apachehttp.InstrumentedConnectionManager;
+import com.iovation.launchkey.sdk.transport.apachehttp.RequestCoalescer;
+import com.iovation.launchkey.sdk.transport.apachehttp.RetryPolicy;
+import com.iovation.launchkey.sdk.transport.apachehttp.ServerHintKeepAliveStrategy;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportOptions;
 import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.nio.client.HttpAsyncClient;
 
 import java.security.Provider;
 import java.security.Security;
@@ -32,16 +42,26 @@ import java.util.concurrent.TimeUnit;
  * Builder for building a {@link FactoryFactory}
  */
 public class FactoryFactoryBuilder {
-
     private Provider jceProvider = null;
     private Provider jceProviderInstance = null;
     private HttpClient httpClient = null;
+    private HttpAsyncClient httpAsyncClient = null;
     private Cache keyCache = null;
+    private TransportMetricsListener metricsListener = null;
+    private ConnectionPoolListener connectionPoolListener = null;
+    private int connectionPoolPendingThreshold = 0;
+    private InstrumentedConnectionManager connectionManager = null;
+    private RetryPolicy retryPolicy = new RetryPolicy();
+    private ConcurrencyLimiter concurrencyLimiter = null;
+    private CircuitBreaker circuitBreaker = null;
+    private RequestCoalescer requestCoalescer = null;
 
     private String apiBaseURL = "https://api.launchkey.com";
     private String apiIdentifier = "lka";
     private Integer httpClientMaxClients = 200;
     private Integer httpClientConnectionTTLSecs = 30;
+    private int httpClientIdleConnectionTimeoutSecs = 20;
+    private int httpClientValidateAfterInactivityMillis = 2000;
     private Integer requestExpireSeconds = 5;
     private int offsetTTL = 3600;
     private int currentPublicKeyTTL = 300;
@@ -53,16 +73,28 @@ public class FactoryFactoryBuilder {
      * @return Client Factory Factory
      */
     public FactoryFactory build() {
+        HttpClient httpClient = getHttpClient();
+        IdleConnectionEvictor connectionEvictor = connectionManager == null ? null : new IdleConnectionEvictor(
+                connectionManager, httpClientIdleConnectionTimeoutSecs, TimeUnit.SECONDS);
         return new FactoryFactory(
                 getJceProvider(),
-                getHttpClient(),
+                httpClient,
+                httpAsyncClient,
                 getKeyCache(),
                 getApiBaseURL(),
                 getApiIdentifier(),
                 getRequestExpireSeconds(),
                 offsetTTL,
                 currentPublicKeyTTL,
-                entityKeyMap
+                entityKeyMap,
+                connectionManager,
+                connectionEvictor,
+                new TransportOptions()
+                        .setMetricsListener(metricsListener)
+                        .setRetryPolicy(retryPolicy)
+                        .setConcurrencyLimiter(concurrencyLimiter)
+                        .setCircuitBreaker(circuitBreaker)
+                        .setRequestCoalescer(requestCoalescer)
         );
 
     }
@@ -97,6 +129,20 @@ public class FactoryFactoryBuilder {
      */
     public FactoryFactoryBuilder setHttpClient(HttpClient httpClient) {
         this.httpClient = httpClient;
+        this.connectionManager = null;
+        return this;
+    }
+
+    /**
+     * Set the Apache HTTP async client that will be utilized for making non-blocking requests of the Platform API.
+     * The client must be started before it is used. When no async client is set, non-blocking clients such as
+     * {@link com.iovation.launchkey.sdk.client.AsyncServiceClient} are not available.
+     *
+     * @param httpAsyncClient Started Apache HTTP async client
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttpAsyncClient(HttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
         return this;
     }
 
@@ -128,11 +174,123 @@ public class FactoryFactoryBuilder {
         return this;
     }
 
+    /**
+     * Set the number of seconds an HTTP client connection may be idle in the connection pool before it is closed. It
+     * is also the longest a connection is kept alive, even if the server's Keep-Alive header allows longer. Set it
+     * below the idle timeout of any proxy or load balancer between the SDK and the Platform API. This value will be
+     * ignored if an {@link HttpClient} is set with {@link #setHttpClient(HttpClient)}
+     *
+     * @param httpClientIdleConnectionTimeoutSecs Seconds a pooled connection may be idle before it is closed
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttpClientIdleConnectionTimeoutSecs(int httpClientIdleConnectionTimeoutSecs) {
+        this.httpClientIdleConnectionTimeoutSecs = httpClientIdleConnectionTimeoutSecs;
+        return this;
+    }
+
+    /**
+     * Set the number of milliseconds an HTTP client connection may be idle in the connection pool before it is
+     * checked for having been closed by the server when it is leased. This value will be ignored if an
+     * {@link HttpClient} is set with {@link #setHttpClient(HttpClient)}
+     *
+     * @param httpClientValidateAfterInactivityMillis Milliseconds of inactivity after which a pooled connection is
+     * validated before reuse. A negative value disables validation.
+     * @return this
+     */
+    public FactoryFactoryBuilder setHttpClientValidateAfterInactivityMillis(
+            int httpClientValidateAfterInactivityMillis) {
+        this.httpClientValidateAfterInactivityMillis = httpClientValidateAfterInactivityMillis;
+        return this;
+    }
+
     public FactoryFactoryBuilder setKeyCache(Cache keyCache) {
         this.keyCache = keyCache;
         return this;
     }
 
+    /**
+     * Set a listener to be notified of the per phase timings, payload sizes, status codes, and errors of each call to
+     * the LaunchKey API. Use a {@link com.iovation.launchkey.sdk.metrics.HistogramTransportMetricsListener} to keep
+     * histograms which can be read in process.
+     *
+     * @param metricsListener Transport metrics listener
+     * @return this
+     */
+    public FactoryFactoryBuilder setTransportMetricsListener(TransportMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
+    /**
+     * Set the policy for retrying calls which only read from the LaunchKey API after an I/O error or a 502, 503, or
+     * 504 response. The policy and its retry budget are shared by all clients of the built factory. Defaults to a
+     * {@link RetryPolicy} with its default attempts, delays, and budget.
+     *
+     * @param retryPolicy Retry policy or null to disable retries
+     * @return this
+     */
+    public FactoryFactoryBuilder setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Set a limiter which adapts the number of concurrent calls to each endpoint for each entity to the rate limiting,
+     * availability, and latency of the LaunchKey API and can cap the rate of calls for each entity. Calls over the
+     * limit fail with {@link com.iovation.launchkey.sdk.error.RateLimited} without being sent. The limiter is shared
+     * by all clients of the built factory. Calls are not limited by default.
+     *
+     * @param concurrencyLimiter Concurrency limiter or null to not limit calls
+     * @return this
+     */
+    public FactoryFactoryBuilder setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
+
+    /**
+     * Set a circuit breaker which fails calls to an endpoint of the LaunchKey API immediately with
+     * {@link com.iovation.launchkey.sdk.error.CircuitOpen} while recent calls to that endpoint have failed or been
+     * slow. Each endpoint has its own circuit. The circuit breaker is shared by all clients of the built factory.
+     * Calls are always made by default.
+     *
+     * @param circuitBreaker Circuit breaker or null to always make calls
+     * @return this
+     */
+    public FactoryFactoryBuilder setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * Set a coalescer which lets identical calls reading services, directories, keys, policies, devices, or sessions
+     * made while such a call is in flight share that call and its response rather than making calls of their own. The
+     * coalescer is shared by all clients of the built factory. Every call is made by default.
+     *
+     * @param requestCoalescer Request coalescer or null to make every call
+     * @return this
+     */
+    public FactoryFactoryBuilder setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+        return this;
+    }
+
+    /**
+     * Set a listener to be notified when more requests are waiting to lease a connection from the HTTP connection pool
+     * than the pending threshold. This value will be ignored if an {@link HttpClient} is set with
+     * {@link #setHttpClient(HttpClient)}
+     *
+     * @param connectionPoolListener Connection pool listener
+     * @param pendingThreshold Number of requests which may wait to lease a connection before the listener is notified
+     * @return this
+     */
+    public FactoryFactoryBuilder setConnectionPoolListener(ConnectionPoolListener connectionPoolListener,
+                                                           int pendingThreshold) {
+        this.connectionPoolListener = connectionPoolListener;
+        this.connectionPoolPendingThreshold = pendingThreshold;
+        return this;
+    }
+
     public FactoryFactoryBuilder setOffsetTTL(int offsetTTL) {
         this.offsetTTL = offsetTTL;
         return this;
@@ -199,15 +357,21 @@ public class FactoryFactoryBuilder {
     @SuppressWarnings("Duplicates")
     private HttpClient getHttpClient() {
         if (httpClient == null) {
-            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+            connectionManager = new InstrumentedConnectionManager(
                     httpClientConnectionTTLSecs,
-                    TimeUnit.SECONDS
+                    TimeUnit.SECONDS,
+                    connectionPoolPendingThreshold,
+                    connectionPoolListener
             );
             connectionManager.setMaxTotal(httpClientMaxClients);
             // Set max per route as there is only one route
             connectionManager.setDefaultMaxPerRoute(httpClientMaxClients);
+            connectionManager.setValidateAfterInactivity(httpClientValidateAfterInactivityMillis);
+            long idleConnectionTimeoutMillis = TimeUnit.SECONDS.toMillis(httpClientIdleConnectionTimeoutSecs);
             httpClient = HttpClients.custom()
                     .setConnectionManager(connectionManager)
+                    .setKeepAliveStrategy(
+                            new ServerHintKeepAliveStrategy(idleConnectionTimeoutMillis, idleConnectionTimeoutMillis))
                     .disableAutomaticRetries()
                     .disableRedirectHandling()
                     .disableAuthCaching()
@@ -235,7 +399,7 @@ public class FactoryFactoryBuilder {
 
     private Cache getKeyCache() {
         if (keyCache == null) {
-            keyCache = new HashCache();
+            keyCache = new BoundedCache();
         }
         return keyCache;
     }
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In memory cache with a maximum size and a time to live for each entry.
+ * <p>
+ * Entries are evicted by segmented LRU. New entries start in a probationary segment and are promoted to a protected
+ * segment when read again, so a burst of entries read only once cannot evict the entries which are read often. The
+ * least recently used probationary entry is evicted first.
+ * <p>
+ * Reads do not lock. They are recorded in a buffer which is applied to the eviction order by whichever thread next
+ * obtains the eviction lock. Reads may be dropped from the buffer when it is full, which only affects eviction order.
+ */
+public class BoundedCache implements StatsCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+    public static final long DEFAULT_TTL_SECONDS = 3600L;
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final int maximumSize;
+    private final int maximumProtectedSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Node> store = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Queue<Node> readBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+    private final Queue<Node> removalBuffer = new ConcurrentLinkedQueue<>();
+    private final Node probation = new Node(null, null, 0L);
+    private final Node protectedSegment = new Node(null, null, 0L);
+    private final CacheStatsCounter stats = new CacheStatsCounter();
+    private int size;
+    private int protectedSize;
+
+    /**
+     * Create a cache of {@link #DEFAULT_MAXIMUM_SIZE} entries which live for {@link #DEFAULT_TTL_SECONDS} seconds
+     */
+    public BoundedCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param maximumSize Maximum number of entries
+     * @param ttl Time each entry lives after it is put
+     * @param unit Unit of the time to live
+     */
+    public BoundedCache(int maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumProtectedSize = (int) (maximumSize * PROTECTED_RATIO);
+        this.ttlNanos = unit.toNanos(ttl);
+        probation.prev = probation.next = probation;
+        protectedSegment.prev = protectedSegment.next = protectedSegment;
+    }
+
+    @Override
+    public String get(String key) throws CacheException {
+        Node node;
+        try {
+            node = store.get(key);
+        } catch (Exception e) {
+            throw new CacheException("Cache error on get!", e);
+        }
+        if (node == null) {
+            stats.recordGet(null);
+            return null;
+        }
+        if (currentTimeNanos() - node.expires >= 0) {
+            if (store.remove(key, node)) {
+                stats.recordEviction();
+                removalBuffer.add(node);
+                tryDrainBuffers();
+            }
+            stats.recordGet(null);
+            return null;
+        }
+        if (readBufferSize.get() < READ_BUFFER_SIZE) {
+            readBufferSize.incrementAndGet();
+            readBuffer.add(node);
+        }
+        if (readBufferSize.get() >= READ_BUFFER_SIZE / 2) {
+            tryDrainBuffers();
+        }
+        stats.recordGet(node.value);
+        return node.value;
+    }
+
+    @Override
+    public void put(String key, String value) throws CacheException {
+        if (key == null || value == null) {
+            throw new CacheException("Cache error on put!", new NullPointerException());
+        }
+        Node node = new Node(key, value, currentTimeNanos() + ttlNanos);
+        evictionLock.lock();
+        try {
+            drainBuffers();
+            Node previous = store.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(probation, node);
+            while (size > maximumSize) {
+                Node victim = probation.prev != probation ? probation.prev : protectedSegment.prev;
+                if (store.remove(victim.key, victim)) {
+                    stats.recordEviction();
+                }
+                unlink(victim);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void recordLoad(CacheMissReason reason, long loadTimeNanos) {
+        stats.recordLoad(reason, loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats.snapshot(store.size());
+    }
+
+    /**
+     * @return Number of entries in the cache, including expired entries which have not yet been removed
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * @return Current time in nanoseconds. Overridden in tests.
+     */
+    long currentTimeNanos() {
+        return System.nanoTime();
+    }
+
+    private void tryDrainBuffers() {
+        if (evictionLock.tryLock()) {
+            try {
+                drainBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply buffered removals and reads to the eviction order. Must hold the eviction lock.
+     */
+    private void drainBuffers() {
+        Node node;
+        while ((node = removalBuffer.poll()) != null) {
+            unlink(node);
+        }
+        while ((node = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            if (node.segment == null) {
+                continue;
+            }
+            if (node.segment == probation) {
+                unlink(node);
+                link(protectedSegment, node);
+                if (protectedSize > maximumProtectedSize) {
+                    Node demoted = protectedSegment.prev;
+                    unlink(demoted);
+                    link(probation, demoted);
+                }
+            } else {
+                unlinkFromList(node);
+                linkToList(protectedSegment, node);
+            }
+        }
+    }
+
+    private void link(Node segment, Node node) {
+        if (segment == protectedSegment) {
+            protectedSize++;
+        }
+        node.segment = segment;
+        linkToList(segment, node);
+        size++;
+    }
+
+    private void unlink(Node node) {
+        if (node.segment == null) {
+            return;
+        }
+        if (node.segment == protectedSegment) {
+            protectedSize--;
+        }
+        unlinkFromList(node);
+        node.segment = null;
+        size--;
+    }
+
+    private static void linkToList(Node head, Node node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+    }
+
+    private static void unlinkFromList(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node.next = null;
+    }
+
+    private static class Node {
+        private final String key;
+        private final String value;
+        private final long expires;
+        // Guarded by the eviction lock
+        private Node segment;
+        private Node prev;
+        private Node next;
+
+        private Node(String key, String value, long expires) {
+            this.key = key;
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+/**
+ * Reason a value had to be loaded from its source rather than used from a cache
+ */
+public enum CacheMissReason {
+    /**
+     * The cache did not have a value for the key
+     */
+    ABSENT,
+    /**
+     * The cache had a value for the key which could not be used, such as a public key PEM which could not be parsed
+     */
+    UNUSABLE,
+    /**
+     * The cache raised an error
+     */
+    ERROR,
+    /**
+     * The cache did not respond in time
+     */
+    TIMEOUT
+}
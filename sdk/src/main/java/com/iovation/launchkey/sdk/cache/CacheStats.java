@@ -0,0 +1,130 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the statistics of a {@link StatsCache}
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final Map<CacheMissReason, Long> loadCounts;
+    private final long totalLoadTimeNanos;
+    private final long evictionCount;
+    private final long size;
+
+    /**
+     * @param hitCount Number of gets which returned a value
+     * @param missCount Number of gets which returned null
+     * @param loadCounts Number of loads by the reason the value was not used from the cache
+     * @param totalLoadTimeNanos Total time in nanoseconds taken by loads
+     * @param evictionCount Number of entries evicted or expired
+     * @param size Number of entries in the cache or -1 when it is not known
+     */
+    public CacheStats(long hitCount, long missCount, Map<CacheMissReason, Long> loadCounts, long totalLoadTimeNanos,
+                      long evictionCount, long size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCounts = Collections.unmodifiableMap(new EnumMap<>(loadCounts));
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * @return Number of gets which returned a value
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of gets which returned null
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return Ratio of hits to gets or 1.0 when there have been no gets
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return Number of values loaded from their source
+     */
+    public long getLoadCount() {
+        long loadCount = 0;
+        for (Long count : loadCounts.values()) {
+            loadCount += count;
+        }
+        return loadCount;
+    }
+
+    /**
+     * @param reason Reason the value was not used from the cache
+     * @return Number of values loaded from their source for the reason
+     */
+    public long getLoadCount(CacheMissReason reason) {
+        Long count = loadCounts.get(reason);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return Total time in nanoseconds taken by loads
+     */
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    /**
+     * @return Average time in nanoseconds taken by a load or 0.0 when there have been no loads
+     */
+    public double getAverageLoadTimeNanos() {
+        long loadCount = getLoadCount();
+        return loadCount == 0 ? 0.0 : (double) totalLoadTimeNanos / loadCount;
+    }
+
+    /**
+     * @return Number of entries evicted or expired
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return Number of entries in the cache or -1 when it is not known
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadCounts=" + loadCounts +
+                ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+                ", evictionCount=" + evictionCount +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe counters from which {@link StatsCache} implementations report their {@link CacheStats}
+ */
+public class CacheStatsCounter {
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final Map<CacheMissReason, AtomicLong> loadCounts = new EnumMap<>(CacheMissReason.class);
+    private final AtomicLong totalLoadTimeNanos = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public CacheStatsCounter() {
+        for (CacheMissReason reason : CacheMissReason.values()) {
+            loadCounts.put(reason, new AtomicLong());
+        }
+    }
+
+    /**
+     * Record a get which returned a value when the value is not null or a miss otherwise
+     *
+     * @param value Value returned by the get
+     */
+    public void recordGet(String value) {
+        (value == null ? missCount : hitCount).incrementAndGet();
+    }
+
+    public void recordLoad(CacheMissReason reason, long loadTimeNanos) {
+        loadCounts.get(reason).incrementAndGet();
+        totalLoadTimeNanos.addAndGet(loadTimeNanos);
+    }
+
+    public void recordEviction() {
+        evictionCount.incrementAndGet();
+    }
+
+    /**
+     * @param size Number of entries in the cache or -1 when it is not known
+     * @return Snapshot of the counters
+     */
+    public CacheStats snapshot(long size) {
+        Map<CacheMissReason, Long> counts = new EnumMap<>(CacheMissReason.class);
+        for (Map.Entry<CacheMissReason, AtomicLong> entry : loadCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return new CacheStats(hitCount.get(), missCount.get(), counts, totalLoadTimeNanos.get(),
+                evictionCount.get(), size);
+    }
+}
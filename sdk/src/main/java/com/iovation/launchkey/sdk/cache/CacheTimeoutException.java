@@ -0,0 +1,26 @@
+/**
+ * Copyright 2017 iovation, Inc. All rights reserved.
+ * <p/>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+/**
+ * Exception thrown when a cache did not respond within its timeout
+ */
+public class CacheTimeoutException extends CacheException {
+    /**
+     * @param message the detail message
+     * @param cause the cause or null when it is unknown
+     */
+    public CacheTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
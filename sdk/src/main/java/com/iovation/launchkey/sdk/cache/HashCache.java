@@ -14,8 +14,9 @@ package com.iovation.launchkey.sdk.cache;
 
 import java.util.concurrent.ConcurrentHashMap;
 
-public class HashCache implements Cache {
+public class HashCache implements StatsCache {
     private final ConcurrentHashMap<String, String> store;
+    private final CacheStatsCounter stats = new CacheStatsCounter();
 
     public HashCache() {
         store = new ConcurrentHashMap<>();
@@ -24,7 +25,9 @@ public class HashCache implements Cache {
     @Override
     public String get(String key) throws CacheException {
         try {
-            return store.get(key);
+            String value = store.get(key);
+            stats.recordGet(value);
+            return value;
         } catch (Exception e) {
             throw new CacheException("Cache error on get!", e);
         }
@@ -38,4 +41,14 @@ public class HashCache implements Cache {
             throw new CacheException("Cache error on put!", e);
         }
     }
+
+    @Override
+    public void recordLoad(CacheMissReason reason, long loadTimeNanos) {
+        stats.recordLoad(reason, loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats.snapshot(store.size());
+    }
 }
@@ -12,8 +12,9 @@
 
 package com.iovation.launchkey.sdk.cache;
 
-public class JavaxCache implements Cache {
+public class JavaxCache implements StatsCache {
     private final javax.cache.Cache<String, String> store;
+    private final CacheStatsCounter stats = new CacheStatsCounter();
 
     public JavaxCache(javax.cache.Cache<String, String> store) {
         this.store = store;
@@ -22,7 +23,9 @@ public class JavaxCache implements Cache {
     @Override
     public String get(String key) throws CacheException {
         try {
-            return store.get(key);
+            String value = store.get(key);
+            stats.recordGet(value);
+            return value;
         } catch (Exception e) {
             throw new CacheException("Cache error on get!", e);
         }
@@ -36,4 +39,14 @@ public class JavaxCache implements Cache {
             throw new CacheException("Cache error on put!", e);
         }
     }
+
+    @Override
+    public void recordLoad(CacheMissReason reason, long loadTimeNanos) {
+        stats.recordLoad(reason, loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats.snapshot(-1L);
+    }
 }
@@ -0,0 +1,358 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Cache persisted to a memory mapped local file so that entries survive restarts and are shared by every process on
+ * the host using the same file.
+ * <p>
+ * Entries are appended to the file as records of key length, value length, a CRC32 of the key and value, and the UTF-8
+ * key and value. The key length is written last, so a record being appended by another process is either not seen or
+ * fails its CRC and is read once complete. Any number of processes may read the file at once. Appends and compaction
+ * are serialized across processes with a file lock, so share one instance per file within a process.
+ * <p>
+ * Entries are held in memory once read. The file is checked for records appended by other processes when a key is
+ * not found in memory. When the file is full, the latest value of each key is compacted into a new file, twice the
+ * size if needed, which replaces it. Processes using the replaced file switch to the new one on their next miss or
+ * put. Platforms such as Windows do not allow replacing a file which is mapped. There, the latest values are instead
+ * written over the file in place and the generation in its header is incremented, so that processes using the file
+ * read it again on their next miss or put. Mapped buffers are never unmapped explicitly. They are released when
+ * garbage collected.
+ * <p>
+ * Entries do not expire. A value is kept until a new value is put for its key, so the cache suits values which never
+ * go stale for their key, such as public keys by fingerprint.
+ */
+public class MappedFileCache implements StatsCache, Closeable {
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+    static final int MAGIC = 0x4C4B4331;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 12;
+    private static final int STATE_OFFSET = 4;
+    private static final int GENERATION_OFFSET = 8;
+    private static final int STATE_ACTIVE = 0;
+    private static final int STATE_SUPERSEDED = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final int minimumCapacity;
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    private final CacheStatsCounter stats = new CacheStatsCounter();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int end;
+    private int generation;
+
+    /**
+     * @param file File in which to persist the cache. It is created if it does not exist.
+     * @throws CacheException When the file cannot be opened or is not a cache file
+     */
+    public MappedFileCache(File file) throws CacheException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param file File in which to persist the cache. It is created if it does not exist.
+     * @param capacity Size in bytes of the file when created
+     * @throws CacheException When the file cannot be opened or is not a cache file
+     */
+    public MappedFileCache(File file, int capacity) throws CacheException {
+        if (capacity <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Capacity must be greater than " + HEADER_SIZE + " bytes");
+        }
+        this.file = file;
+        this.minimumCapacity = capacity;
+        synchronized (this) {
+            try {
+                open();
+            } catch (IOException e) {
+                throw new CacheException("Unable to open cache file " + file, e);
+            }
+        }
+    }
+
+    @Override
+    public String get(String key) throws CacheException {
+        if (key == null) {
+            throw new CacheException("Cache error on get!", new NullPointerException());
+        }
+        String value = entries.get(key);
+        if (value == null) {
+            synchronized (this) {
+                try {
+                    ensureCurrent();
+                    read();
+                } catch (IOException | RuntimeException e) {
+                    throw new CacheException("Cache error on get!", e);
+                }
+            }
+            value = entries.get(key);
+        }
+        stats.recordGet(value);
+        return value;
+    }
+
+    @Override
+    public synchronized void put(String key, String value) throws CacheException {
+        if (key == null || value == null) {
+            throw new CacheException("Cache error on put!", new NullPointerException());
+        }
+        if (key.isEmpty()) {
+            throw new CacheException("Cache error on put!", new IllegalArgumentException("Key must not be empty"));
+        }
+        try {
+            FileLock lock = lock();
+            try {
+                read();
+                if (value.equals(entries.get(key))) {
+                    return;
+                }
+                byte[] keyBytes = key.getBytes(UTF_8);
+                byte[] valueBytes = value.getBytes(UTF_8);
+                int length = RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length;
+                while (end + length > capacity) {
+                    lock = compact(lock, length);
+                }
+                write(buffer, end, keyBytes, valueBytes);
+                end += length;
+                entries.put(key, value);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new CacheException("Cache error on put!", e);
+        }
+    }
+
+    @Override
+    public void recordLoad(CacheMissReason reason, long loadTimeNanos) {
+        stats.recordLoad(reason, loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats.snapshot(entries.size());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Open the file, initializing it if it is new, and read its records
+     */
+    private void open() throws IOException, CacheException {
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (FileLock ignored = channel.lock()) {
+            capacity = (int) Math.max(minimumCapacity, channel.size());
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            int magic = buffer.getInt(0);
+            if (magic == 0) {
+                buffer.putInt(STATE_OFFSET, STATE_ACTIVE);
+                buffer.putInt(0, MAGIC);
+            } else if (magic != MAGIC) {
+                channel.close();
+                throw new CacheException("File " + file + " is not a cache file");
+            }
+            generation = buffer.getInt(GENERATION_OFFSET);
+        }
+        entries.clear();
+        end = HEADER_SIZE;
+        read();
+    }
+
+    /**
+     * @return Whether the open file was neither replaced nor compacted in place by another process since it was opened
+     */
+    private boolean isCurrent() {
+        return buffer.getInt(STATE_OFFSET) != STATE_SUPERSEDED && buffer.getInt(GENERATION_OFFSET) == generation;
+    }
+
+    /**
+     * Open the file again when it was replaced or compacted in place by another process
+     */
+    private void ensureCurrent() throws IOException {
+        if (!isCurrent()) {
+            channel.close();
+            try {
+                open();
+            } catch (CacheException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Lock the current file against appends and compaction by other processes
+     */
+    private FileLock lock() throws IOException {
+        while (true) {
+            ensureCurrent();
+            FileLock lock = channel.lock();
+            if (isCurrent()) {
+                return lock;
+            }
+            lock.release();
+        }
+    }
+
+    /**
+     * Read the complete records appended since the last read
+     */
+    private void read() {
+        while (end + RECORD_HEADER_SIZE <= capacity) {
+            int keyLength = buffer.getInt(end);
+            int valueLength = buffer.getInt(end + 4);
+            if (keyLength <= 0 || valueLength < 0
+                    || (long) end + RECORD_HEADER_SIZE + keyLength + valueLength > capacity) {
+                return;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            byte[] valueBytes = new byte[valueLength];
+            ByteBuffer view = buffer.duplicate();
+            view.position(end + RECORD_HEADER_SIZE);
+            view.get(keyBytes).get(valueBytes);
+            if (buffer.getInt(end + 8) != checksum(keyBytes, valueBytes)) {
+                return;
+            }
+            entries.put(new String(keyBytes, UTF_8), new String(valueBytes, UTF_8));
+            end += RECORD_HEADER_SIZE + keyLength + valueLength;
+        }
+    }
+
+    /**
+     * Replace the file with one holding the latest value of each key and room for a record of the required length.
+     * Releases the lock on the current file.
+     *
+     * @return Lock on the new file
+     */
+    private FileLock compact(FileLock lock, int required) throws IOException {
+        int live = HEADER_SIZE;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            live += RECORD_HEADER_SIZE + entry.getKey().getBytes(UTF_8).length
+                    + entry.getValue().getBytes(UTF_8).length;
+        }
+        int newCapacity = Math.max(minimumCapacity, capacity);
+        while (live + required > newCapacity / 2) {
+            newCapacity *= 2;
+        }
+        ByteBuffer records = ByteBuffer.allocate(live);
+        records.putInt(0, MAGIC);
+        records.putInt(STATE_OFFSET, STATE_ACTIVE);
+        records.putInt(GENERATION_OFFSET, generation + 1);
+        int position = HEADER_SIZE;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            byte[] keyBytes = entry.getKey().getBytes(UTF_8);
+            byte[] valueBytes = entry.getValue().getBytes(UTF_8);
+            write(records, position, keyBytes, valueBytes);
+            position += RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length;
+        }
+        File compacted = new File(file.getPath() + ".compact");
+        try (FileChannel newChannel = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (records.hasRemaining()) {
+                newChannel.write(records);
+            }
+            newChannel.write(ByteBuffer.allocate(1), newCapacity - 1);
+            newChannel.force(true);
+        }
+        try {
+            replace(compacted.toPath(), file.toPath());
+        } catch (IOException e) {
+            Files.deleteIfExists(compacted.toPath());
+            records.rewind();
+            compactInPlace(records, newCapacity);
+            return lock;
+        }
+        ByteBuffer superseded = ByteBuffer.allocate(4);
+        superseded.putInt(0, STATE_SUPERSEDED);
+        channel.write(superseded, STATE_OFFSET);
+        channel.force(false);
+        lock.release();
+        channel.close();
+        try {
+            open();
+        } catch (CacheException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        FileLock newLock = lock();
+        read();
+        return newLock;
+    }
+
+    /**
+     * Replace the cache file with the compacted file
+     */
+    void replace(Path compacted, Path target) throws IOException {
+        Files.move(compacted, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Write the compacted records over the locked file when it cannot be replaced. The new generation is written
+     * first so that other processes stop trusting their position in the file, and the space after the records is
+     * cleared so that no earlier record can be read after a later append.
+     */
+    private void compactInPlace(ByteBuffer records, int newCapacity) throws IOException {
+        int newGeneration = records.getInt(GENERATION_OFFSET);
+        buffer.putInt(GENERATION_OFFSET, newGeneration);
+        if (newCapacity > capacity) {
+            channel.write(ByteBuffer.allocate(1), newCapacity - 1);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+            capacity = newCapacity;
+        }
+        ByteBuffer view = buffer.duplicate();
+        records.position(HEADER_SIZE);
+        view.position(HEADER_SIZE);
+        view.put(records);
+        view.put(new byte[view.remaining()]);
+        buffer.force();
+        generation = newGeneration;
+        end = HEADER_SIZE;
+        entries.clear();
+        read();
+    }
+
+    private static void write(ByteBuffer buffer, int position, byte[] keyBytes, byte[] valueBytes) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + RECORD_HEADER_SIZE);
+        view.put(keyBytes).put(valueBytes);
+        buffer.putInt(position + 8, checksum(keyBytes, valueBytes));
+        buffer.putInt(position + 4, valueBytes.length);
+        buffer.putInt(position, keyBytes.length);
+    }
+
+    private static int checksum(byte[] keyBytes, byte[] valueBytes) {
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(valueBytes);
+        return (int) crc.getValue();
+    }
+}
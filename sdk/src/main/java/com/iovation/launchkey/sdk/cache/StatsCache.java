@@ -0,0 +1,32 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+/**
+ * Cache which reports statistics on its use. Hits, misses, evictions and size are recorded by the cache. Loads are
+ * recorded by the caller which loaded the value from its source after a miss.
+ */
+public interface StatsCache extends Cache {
+    /**
+     * Record that a value was loaded from its source to be put in the cache
+     *
+     * @param reason Reason the value was not used from the cache
+     * @param loadTimeNanos Time in nanoseconds taken to load the value
+     */
+    void recordLoad(CacheMissReason reason, long loadTimeNanos);
+
+    /**
+     * @return Statistics since the cache was created
+     */
+    CacheStats getStats();
+}
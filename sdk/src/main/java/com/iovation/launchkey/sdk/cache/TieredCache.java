@@ -0,0 +1,186 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache which keeps a small in process near cache in front of a slower backing cache such as a {@link JavaxCache}
+ * backed by a remote JCache provider.
+ * <p>
+ * Reads are served from the near cache when possible and otherwise read through to the backing cache, waiting no
+ * longer than the timeout. Values read from the backing cache are kept in the near cache. Puts are made to the near
+ * cache immediately and written behind to the backing cache. A key which was absent from the backing cache, or whose
+ * read failed or timed out, is remembered for the negative TTL. Gets for it during that time return null without
+ * calling the backing cache, so a slow or failing backing cache delays at most one read per key. Reads of the backing
+ * cache which fail or time out are counted as misses and throw a {@link CacheException}, or a
+ * {@link CacheTimeoutException} when they timed out, so that callers can record the {@link CacheMissReason}.
+ * <p>
+ * {@link #close()} stops the threads calling the backing cache when they were created by this cache.
+ */
+public class TieredCache implements StatsCache, Closeable {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 100L;
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 5000L;
+    public static final int DEFAULT_NEAR_CACHE_SIZE = 100;
+    static final int DEFAULT_THREADS = 2;
+    static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final String NEGATIVE = "";
+
+    private final Cache nearCache;
+    private final Cache backingCache;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final long timeoutMillis;
+    private final Cache negativeCache;
+    private final CacheStatsCounter stats = new CacheStatsCounter();
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * Create a tiered cache with a {@link BoundedCache} of {@link #DEFAULT_NEAR_CACHE_SIZE} entries as the near cache
+     * and a small pool of daemon threads to call the backing cache. The pool is shut down by {@link #close()}.
+     *
+     * @param backingCache Backing cache
+     */
+    public TieredCache(Cache backingCache) {
+        this(new BoundedCache(DEFAULT_NEAR_CACHE_SIZE, BoundedCache.DEFAULT_TTL_SECONDS, TimeUnit.SECONDS),
+                backingCache, newExecutor(), true, DEFAULT_TIMEOUT_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS);
+    }
+
+    /**
+     * @param nearCache In process cache checked first
+     * @param backingCache Backing cache read through to and written behind to
+     * @param executor Executor on which the backing cache is called. It is owned by the caller and not shut down by
+     * {@link #close()}.
+     * @param timeoutMillis Maximum time to wait for a read from the backing cache
+     * @param negativeTtlMillis Time a key absent from or failing in the backing cache is not read from it again
+     */
+    public TieredCache(Cache nearCache, Cache backingCache, ExecutorService executor, long timeoutMillis,
+                       long negativeTtlMillis) {
+        this(nearCache, backingCache, executor, false, timeoutMillis, negativeTtlMillis);
+    }
+
+    private TieredCache(Cache nearCache, Cache backingCache, ExecutorService executor, boolean ownsExecutor,
+                        long timeoutMillis, long negativeTtlMillis) {
+        this.nearCache = nearCache;
+        this.backingCache = backingCache;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.timeoutMillis = timeoutMillis;
+        this.negativeCache = new BoundedCache(
+                BoundedCache.DEFAULT_MAXIMUM_SIZE, negativeTtlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String get(final String key) throws CacheException {
+        String value = nearCache.get(key);
+        if (value != null || negativeCache.get(key) != null) {
+            stats.recordGet(value);
+            return value;
+        }
+        Future<String> future;
+        try {
+            future = executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return backingCache.get(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            negativeCache.put(key, NEGATIVE);
+            stats.recordGet(null);
+            throw new CacheException("Backing cache is saturated", e);
+        }
+        try {
+            value = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            negativeCache.put(key, NEGATIVE);
+            stats.recordGet(null);
+            throw new CacheTimeoutException("Backing cache get timed out", e);
+        } catch (ExecutionException e) {
+            negativeCache.put(key, NEGATIVE);
+            stats.recordGet(null);
+            throw new CacheException("Cache error on get!", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            stats.recordGet(null);
+            throw new CacheException("Interrupted waiting for backing cache", e);
+        }
+        if (value == null) {
+            negativeCache.put(key, NEGATIVE);
+        } else {
+            nearCache.put(key, value);
+        }
+        stats.recordGet(value);
+        return value;
+    }
+
+    @Override
+    public void put(final String key, final String value) throws CacheException {
+        nearCache.put(key, value);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        backingCache.put(key, value);
+                    } catch (CacheException | RuntimeException e) {
+                        logger.warn("Unable to write " + key + " to the backing cache", e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Backing cache is saturated, not writing " + key + " to it", e);
+        }
+    }
+
+    @Override
+    public void recordLoad(CacheMissReason reason, long loadTimeNanos) {
+        stats.recordLoad(reason, loadTimeNanos);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats.snapshot(-1L);
+    }
+
+    /**
+     * Shut down the threads calling the backing cache when they were created by this cache. Writes already queued for
+     * the backing cache are still made. The backing cache is not closed.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(DEFAULT_THREADS, DEFAULT_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "launchkey-cache-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.directory.Device;
+import com.iovation.launchkey.sdk.domain.directory.DirectoryUserDeviceLinkData;
+import com.iovation.launchkey.sdk.domain.directory.Session;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of the Directory User device and session calls of {@link DirectoryClient}. Each method returns
+ * immediately. The returned {@link Future} and the optional {@link FutureCallback} are completed with the result or
+ * failed with the same exception the matching {@link DirectoryClient} method would have thrown.
+ * <p>
+ * The first call, or a call made after the API time offset or current public key expired without being refreshed in
+ * the background, obtains them with blocking calls before it returns. Warm up the factory to avoid it.
+ */
+public interface AsyncDirectoryClient {
+    /**
+     * Begin the process of Linking a Subscriber Authenticator Device with an End User based on the Directory User ID.
+     * If no Directory User exists for the Directory User ID, the Directory User will be created.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future information for completing the Device Linking process
+     * @see DirectoryClient#linkDevice(String)
+     */
+    Future<DirectoryUserDeviceLinkData> linkDevice(String userId, FutureCallback<DirectoryUserDeviceLinkData> callback);
+
+    /**
+     * Begin the process of Linking a Subscriber Authenticator Device with an End User based on the Directory User ID.
+     * If no Directory User exists for the Directory User ID, the Directory User will be created.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param ttl Number of seconds the linking code returned in the response will be valid.
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future information for completing the Device Linking process
+     * @see DirectoryClient#linkDevice(String, Integer)
+     */
+    Future<DirectoryUserDeviceLinkData> linkDevice(
+            String userId, Integer ttl, FutureCallback<DirectoryUserDeviceLinkData> callback);
+
+    /**
+     * Get a list of Subscriber Authenticator Devices for a Directory User. If not Directory User exists for the
+     * Directory User ID, the future completes with an empty list.
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future list of devices for the specified user identifier
+     * @see DirectoryClient#getLinkedDevices(String)
+     */
+    Future<List<Device>> getLinkedDevices(String userId, FutureCallback<List<Device>> callback);
+
+    /**
+     * Unlink a users device
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param deviceId The unique identifier of the Device you wish to Unlink
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the device has been unlinked
+     * @throws IllegalArgumentException When the Device ID is not a valid UUID
+     * @see DirectoryClient#unlinkDevice(String, String)
+     */
+    Future<Void> unlinkDevice(String userId, String deviceId, FutureCallback<Void> callback);
+
+    /**
+     * Get Service User Sessions for all Services in which a Session was started for the Directory User
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future list of sessions for the specified user identifier
+     * @see DirectoryClient#getAllServiceSessions(String)
+     */
+    Future<List<Session>> getAllServiceSessions(String userId, FutureCallback<List<Session>> callback);
+
+    /**
+     * End Service User Sessions for all Services in which a Session was started for the Directory User
+     *
+     * @param userId Unique value identifying the End User in the your system
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the sessions have been ended
+     * @see DirectoryClient#endAllServiceSessions(String)
+     */
+    Future<Void> endAllServiceSessions(String userId, FutureCallback<Void> callback);
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthPolicy;
+import com.iovation.launchkey.sdk.domain.service.AuthorizationRequest;
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.domain.service.DenialReason;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of the authorization and session calls of {@link ServiceClient}. Each method returns
+ * immediately. The returned {@link Future} and the optional {@link FutureCallback} are completed with the result or
+ * failed with the same exception the matching {@link ServiceClient} method would have thrown.
+ * <p>
+ * The first call, or a call made after the API time offset or current public key expired without being refreshed in
+ * the background, obtains them with blocking calls before it returns. Warm up the factory to avoid it.
+ */
+public interface AsyncServiceClient {
+    /**
+     * Create an authorization request for the provided user.  This will NOT begin a user session.
+     *
+     * @param userIdentifier LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param context Arbitrary string of data up to 400 characters to be presented to the End User during
+     * authorization to provide context regarding the individual authorization request
+     * @param policy Authorization policy override for this authorization request.
+     * @param title String of data up to 200 characters to be presented to the End User during
+     * authorization as the title of the individual authorization request
+     * @param ttl Time for this authorization request to be valid. If no value is provided, the system default will be used.
+     * @param pushTitle Title for push notification.
+     * @param pushBody Body of push notification.
+     * @param denialReasons List of denial reasons to present to the user if they deny the request.
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future authorization request
+     * @see ServiceClient#createAuthorizationRequest(String, String, AuthPolicy, String, Integer, String, String, List)
+     */
+    Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl, String pushTitle,
+            String pushBody, List<DenialReason> denialReasons, FutureCallback<AuthorizationRequest> callback);
+
+    /**
+     * Create an authorization request for the provided user.  This will NOT begin a user session.
+     *
+     * @param userIdentifier LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future authorization request
+     * @see ServiceClient#createAuthorizationRequest(String)
+     */
+    Future<AuthorizationRequest> createAuthorizationRequest(
+            String userIdentifier, FutureCallback<AuthorizationRequest> callback);
+
+    /**
+     * Cancel an authorization request.
+     *
+     * @param authorizationRequestId Unique identifier returned by the create authorization request call
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the authorization request has been canceled
+     * @see ServiceClient#cancelAuthorizationRequest(String)
+     */
+    Future<Void> cancelAuthorizationRequest(String authorizationRequestId, FutureCallback<Void> callback);
+
+    /**
+     * Request the response for a previous authorization call. The future completes with null if the user has not
+     * yet responded.
+     *
+     * @param authorizationRequestId Unique identifier returned by the create authorization request call
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future authorization response
+     * @see ServiceClient#getAuthorizationResponse(String)
+     */
+    Future<AuthorizationResponse> getAuthorizationResponse(
+            String authorizationRequestId, FutureCallback<AuthorizationResponse> callback);
+
+    /**
+     * Request to start a Service Session for the End User which was derived from a authorization request
+     *
+     * @param user LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param authorizationRequestId Unique identifier for the authorization request. May be null.
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the session has been started
+     * @see ServiceClient#sessionStart(String, String)
+     */
+    Future<Void> sessionStart(String user, String authorizationRequestId, FutureCallback<Void> callback);
+
+    /**
+     * Request to end a Service Session for the End User
+     *
+     * @param user LaunchKey Username, User Push ID, or Directory User ID for the End User
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the session has been ended
+     * @see ServiceClient#sessionEnd(String)
+     */
+    Future<Void> sessionEnd(String user, FutureCallback<Void> callback);
+}
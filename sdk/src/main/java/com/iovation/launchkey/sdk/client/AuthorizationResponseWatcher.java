@@ -0,0 +1,296 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CircuitOpen;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.EntityNotFound;
+import com.iovation.launchkey.sdk.error.Forbidden;
+import com.iovation.launchkey.sdk.error.InvalidRequestException;
+import com.iovation.launchkey.sdk.error.RateLimited;
+import com.iovation.launchkey.sdk.error.Unauthorized;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls for the responses to many pending authorization requests from a small shared scheduler rather than a thread
+ * per request.
+ * <p>
+ * Each authorization request is first polled after the minimum delay. The delay grows by half after every poll
+ * without a response up to the maximum delay, as users who have not responded quickly tend to take longer. Polling
+ * ends when the user responds, when the request is canceled or denied by the API, or once the request's TTL has
+ * passed. An expired request fails with {@link AuthorizationRequestTimedOutError}. I/O errors, server errors, request
+ * timeouts, rate limiting, and open circuits are retried within the TTL. Invalid requests, unknown entities, and
+ * authorization failures end polling.
+ * <p>
+ * Polls are made with the non-blocking {@link AsyncServiceClient} and the next poll is scheduled once a poll
+ * completes, so scheduler threads only start polls and never wait on the API. Polls are signed on a scheduler thread,
+ * which obtains the API time offset or current public key with a blocking call when they are not yet known. Warm up
+ * the factory to avoid it.
+ */
+public class AuthorizationResponseWatcher {
+    /**
+     * TTL in seconds used when the authorization request TTL is not known. It is the LaunchKey API default.
+     */
+    public static final int DEFAULT_TTL = 300;
+    public static final long DEFAULT_MINIMUM_DELAY_MILLIS = 1000L;
+    public static final long DEFAULT_MAXIMUM_DELAY_MILLIS = 10000L;
+    public static final int DEFAULT_THREADS = 2;
+
+    private final AsyncServiceClient serviceClient;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final long minimumDelayMillis;
+    private final long maximumDelayMillis;
+    private final ConcurrentMap<String, PendingAuthorization> pending = new ConcurrentHashMap<>();
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * Create a watcher with its own scheduler of daemon threads. Call {@link #shutdown()} to release it.
+     *
+     * @param serviceClient Service client used to poll for responses
+     */
+    public AuthorizationResponseWatcher(AsyncServiceClient serviceClient) {
+        this(serviceClient, DEFAULT_THREADS);
+    }
+
+    /**
+     * Create a watcher with its own scheduler of daemon threads. Call {@link #shutdown()} to release it.
+     *
+     * @param serviceClient Service client used to poll for responses
+     * @param threads Number of scheduler threads starting polls
+     */
+    public AuthorizationResponseWatcher(AsyncServiceClient serviceClient, int threads) {
+        this(serviceClient, newScheduler(threads), true, DEFAULT_MINIMUM_DELAY_MILLIS, DEFAULT_MAXIMUM_DELAY_MILLIS);
+    }
+
+    /**
+     * @param serviceClient Service client used to poll for responses
+     * @param scheduler Scheduler on which polls are started. It is not shut down by {@link #shutdown()}.
+     */
+    public AuthorizationResponseWatcher(AsyncServiceClient serviceClient, ScheduledExecutorService scheduler) {
+        this(serviceClient, scheduler, DEFAULT_MINIMUM_DELAY_MILLIS, DEFAULT_MAXIMUM_DELAY_MILLIS);
+    }
+
+    /**
+     * @param serviceClient Service client used to poll for responses
+     * @param scheduler Scheduler on which polls are started. It is not shut down by {@link #shutdown()}.
+     * @param minimumDelayMillis Delay before the first poll of a request
+     * @param maximumDelayMillis Maximum delay between polls of a request
+     */
+    public AuthorizationResponseWatcher(AsyncServiceClient serviceClient, ScheduledExecutorService scheduler,
+                                        long minimumDelayMillis, long maximumDelayMillis) {
+        this(serviceClient, scheduler, false, minimumDelayMillis, maximumDelayMillis);
+    }
+
+    private AuthorizationResponseWatcher(AsyncServiceClient serviceClient, ScheduledExecutorService scheduler,
+                                         boolean ownsScheduler, long minimumDelayMillis, long maximumDelayMillis) {
+        if (minimumDelayMillis <= 0 || maximumDelayMillis < minimumDelayMillis) {
+            throw new IllegalArgumentException(
+                    "Minimum delay must be positive and maximum delay must not be less than the minimum delay");
+        }
+        this.serviceClient = serviceClient;
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+        this.minimumDelayMillis = minimumDelayMillis;
+        this.maximumDelayMillis = maximumDelayMillis;
+    }
+
+    /**
+     * Watch for the response to an authorization request whose TTL is the API default.
+     *
+     * @param authorizationRequestId Unique identifier of the authorization request
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future authorization response
+     * @see #watch(String, int, FutureCallback)
+     */
+    public Future<AuthorizationResponse> watch(
+            String authorizationRequestId, FutureCallback<AuthorizationResponse> callback) {
+        return watch(authorizationRequestId, DEFAULT_TTL, callback);
+    }
+
+    /**
+     * Watch for the response to an authorization request. The future completes with the response once the user
+     * responds. It fails with {@link AuthorizationRequestTimedOutError} when the user does not respond within the TTL
+     * or with the exception a poll failed with for any error which cannot be retried. Cancelling the future stops
+     * polling for the request.
+     *
+     * @param authorizationRequestId Unique identifier of the authorization request
+     * @param ttl TTL in seconds of the authorization request
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future authorization response
+     * @throws IllegalStateException When the authorization request is already being watched
+     */
+    public Future<AuthorizationResponse> watch(
+            String authorizationRequestId, int ttl, FutureCallback<AuthorizationResponse> callback) {
+        PendingAuthorization pendingAuthorization = new PendingAuthorization(
+                authorizationRequestId, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttl), callback);
+        if (pending.putIfAbsent(authorizationRequestId, pendingAuthorization) != null) {
+            throw new IllegalStateException(
+                    "Authorization request " + authorizationRequestId + " is already being watched");
+        }
+        pendingAuthorization.schedule(minimumDelayMillis);
+        return pendingAuthorization.future;
+    }
+
+    /**
+     * @return Number of authorization requests being watched
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop watching all authorization requests. Their futures are cancelled. The scheduler is shut down if it was
+     * created by this watcher.
+     */
+    public void shutdown() {
+        for (PendingAuthorization pendingAuthorization : pending.values()) {
+            pendingAuthorization.future.cancel(true);
+        }
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static ScheduledExecutorService newScheduler(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1");
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "launchkey-auth-watcher-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private class PendingAuthorization implements Runnable, FutureCallback<AuthorizationResponse> {
+        private final String authorizationRequestId;
+        private final long expires;
+        private final BasicFuture<AuthorizationResponse> future;
+        private volatile ScheduledFuture<?> scheduled;
+        private volatile Future<AuthorizationResponse> poll;
+        private volatile long delayMillis;
+
+        private PendingAuthorization(
+                String authorizationRequestId, long expires, FutureCallback<AuthorizationResponse> callback) {
+            this.authorizationRequestId = authorizationRequestId;
+            this.expires = expires;
+            this.future = new BasicFuture<AuthorizationResponse>(callback) {
+                @Override
+                public boolean cancel(boolean mayInterruptIfRunning) {
+                    boolean cancelled = super.cancel(mayInterruptIfRunning);
+                    pending.remove(PendingAuthorization.this.authorizationRequestId, PendingAuthorization.this);
+                    ScheduledFuture<?> currentScheduled = scheduled;
+                    if (currentScheduled != null) {
+                        currentScheduled.cancel(false);
+                    }
+                    Future<AuthorizationResponse> currentPoll = poll;
+                    if (currentPoll != null) {
+                        currentPoll.cancel(true);
+                    }
+                    return cancelled;
+                }
+            };
+        }
+
+        /**
+         * Start a poll. The next poll is scheduled when it completes.
+         */
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                poll = serviceClient.getAuthorizationResponse(authorizationRequestId, this);
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void completed(AuthorizationResponse response) {
+            if (response != null) {
+                pending.remove(authorizationRequestId, this);
+                future.completed(response);
+            } else {
+                scheduleNext();
+            }
+        }
+
+        @Override
+        public void failed(Exception e) {
+            if (e instanceof RateLimited || e instanceof CircuitOpen) {
+                logger.debug("Backing off polling for authorization request " + authorizationRequestId, e);
+                delayMillis = maximumDelayMillis;
+                scheduleNext();
+            } else if (e instanceof InvalidRequestException || e instanceof EntityNotFound
+                    || e instanceof Forbidden || e instanceof Unauthorized) {
+                fail(e);
+            } else if (e instanceof CommunicationErrorException) {
+                // I/O errors, server errors, and request timeouts are transient
+                logger.debug("Error polling for authorization request " + authorizationRequestId, e);
+                scheduleNext();
+            } else {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void cancelled() {
+            // The poll was cancelled along with the future or by the HTTP client shutting down
+            future.cancel(false);
+        }
+
+        private void scheduleNext() {
+            if (future.isDone()) {
+                return;
+            }
+            if (System.currentTimeMillis() >= expires) {
+                fail(new AuthorizationRequestTimedOutError());
+                return;
+            }
+            schedule(Math.min(maximumDelayMillis, delayMillis + delayMillis / 2));
+        }
+
+        /**
+         * Schedule the next poll after the delay or at expiration, whichever is sooner
+         */
+        private void schedule(long delayMillis) {
+            this.delayMillis = delayMillis;
+            long remaining = Math.max(0L, expires - System.currentTimeMillis());
+            try {
+                scheduled = scheduler.schedule(this, Math.min(delayMillis, remaining), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            pending.remove(authorizationRequestId, this);
+            future.failed(e);
+        }
+    }
+}
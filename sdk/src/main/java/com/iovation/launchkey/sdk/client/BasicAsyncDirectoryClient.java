@@ -0,0 +1,94 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.directory.Device;
+import com.iovation.launchkey.sdk.domain.directory.DirectoryUserDeviceLinkData;
+import com.iovation.launchkey.sdk.domain.directory.Session;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+public class BasicAsyncDirectoryClient implements AsyncDirectoryClient {
+    private final EntityIdentifier directory;
+    private final AsyncTransport transport;
+
+    public BasicAsyncDirectoryClient(UUID directoryId, AsyncTransport transport) {
+        this.directory = new EntityIdentifier(EntityIdentifier.EntityType.DIRECTORY, directoryId);
+        this.transport = transport;
+    }
+
+    @Override
+    public Future<DirectoryUserDeviceLinkData> linkDevice(
+            String userId, FutureCallback<DirectoryUserDeviceLinkData> callback) {
+        return linkDevice(userId, null, callback);
+    }
+
+    @Override
+    public Future<DirectoryUserDeviceLinkData> linkDevice(
+            String userId, Integer ttl, FutureCallback<DirectoryUserDeviceLinkData> callback) {
+        DirectoryV3DevicesPostRequest request = new DirectoryV3DevicesPostRequest(userId, ttl);
+        TransformingFutureCallback<DirectoryV3DevicesPostResponse, DirectoryUserDeviceLinkData> transformer =
+                new TransformingFutureCallback<DirectoryV3DevicesPostResponse, DirectoryUserDeviceLinkData>(callback) {
+                    @Override
+                    DirectoryUserDeviceLinkData transform(DirectoryV3DevicesPostResponse response) {
+                        return new DirectoryUserDeviceLinkData(response.getCode(), response.getQRCode());
+                    }
+                };
+        return transformer.chain(transport.directoryV3DevicesPost(request, directory, transformer));
+    }
+
+    @Override
+    public Future<List<Device>> getLinkedDevices(String userId, FutureCallback<List<Device>> callback) {
+        DirectoryV3DevicesListPostRequest request = new DirectoryV3DevicesListPostRequest(userId);
+        TransformingFutureCallback<DirectoryV3DevicesListPostResponse, List<Device>> transformer =
+                new TransformingFutureCallback<DirectoryV3DevicesListPostResponse, List<Device>>(callback) {
+                    @Override
+                    List<Device> transform(DirectoryV3DevicesListPostResponse response) {
+                        return BasicDirectoryClient.getDevices(response);
+                    }
+                };
+        return transformer.chain(transport.directoryV3DevicesListPost(request, directory, transformer));
+    }
+
+    @Override
+    public Future<Void> unlinkDevice(String userId, String deviceId, FutureCallback<Void> callback) {
+        DirectoryV3DevicesDeleteRequest request =
+                BasicDirectoryClient.getDirectoryV3DevicesDeleteRequest(userId, deviceId);
+        return transport.directoryV3devicesDelete(request, directory, callback);
+    }
+
+    @Override
+    public Future<List<Session>> getAllServiceSessions(String userId, FutureCallback<List<Session>> callback) {
+        DirectoryV3SessionsListPostRequest request = new DirectoryV3SessionsListPostRequest(userId);
+        TransformingFutureCallback<DirectoryV3SessionsListPostResponse, List<Session>> transformer =
+                new TransformingFutureCallback<DirectoryV3SessionsListPostResponse, List<Session>>(callback) {
+                    @Override
+                    List<Session> transform(DirectoryV3SessionsListPostResponse response) {
+                        return BasicDirectoryClient.getSessions(response);
+                    }
+                };
+        return transformer.chain(transport.directoryV3SessionsListPost(request, directory, transformer));
+    }
+
+    @Override
+    public Future<Void> endAllServiceSessions(String userId, FutureCallback<Void> callback) {
+        DirectoryV3SessionsDeleteRequest request = new DirectoryV3SessionsDeleteRequest(userId);
+        return transport.directoryV3SessionsDelete(request, directory, callback);
+    }
+}
@@ -58,6 +58,10 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
             CryptographyError {
         DirectoryV3DevicesListPostRequest request = new DirectoryV3DevicesListPostRequest(userId);
         DirectoryV3DevicesListPostResponse response = transport.directoryV3DevicesListPost(request, directory);
+        return getDevices(response);
+    }
+
+    static List<Device> getDevices(DirectoryV3DevicesListPostResponse response) {
         List<Device> devices = new ArrayList<>();
         for (DirectoryV3DevicesListPostResponseDevice responseDevice : response.getDevices()) {
             devices.add(new Device(
@@ -76,6 +80,11 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
     public void unlinkDevice(String userId, String deviceId) throws PlatformErrorException,
             UnknownEntityException, InvalidResponseException, InvalidStateException,
             InvalidCredentialsException, CommunicationErrorException, MarshallingError, CryptographyError {
+        DirectoryV3DevicesDeleteRequest request = getDirectoryV3DevicesDeleteRequest(userId, deviceId);
+        transport.directoryV3devicesDelete(request, directory);
+    }
+
+    static DirectoryV3DevicesDeleteRequest getDirectoryV3DevicesDeleteRequest(String userId, String deviceId) {
         UUID deviceUUID;
         try {
             deviceUUID = UUID.fromString(deviceId);
@@ -83,8 +92,7 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
             throw new IllegalArgumentException("Invalid Device ID", e);
 
         }
-        DirectoryV3DevicesDeleteRequest request = new DirectoryV3DevicesDeleteRequest(userId, deviceUUID);
-        transport.directoryV3devicesDelete(request, directory);
+        return new DirectoryV3DevicesDeleteRequest(userId, deviceUUID);
     }
 
     @Override
@@ -94,6 +102,10 @@ public class BasicDirectoryClient extends ServiceManagingBaseClient implements D
             CryptographyError {
         final DirectoryV3SessionsListPostRequest request = new DirectoryV3SessionsListPostRequest(userId);
         final DirectoryV3SessionsListPostResponse response = transport.directoryV3SessionsListPost(request, directory);
+        return getSessions(response);
+    }
+
+    static List<Session> getSessions(DirectoryV3SessionsListPostResponse response) {
         List<Session> sessions = new ArrayList<>();
         for (DirectoryV3SessionsListPostResponseSession session : response.getSessions()) {
             sessions.add(new Session(session.getServiceId(), session.getServiceName(), session.getServiceIcon(),
@@ -65,6 +65,18 @@ public class BasicServiceClient implements ServiceClient {
                                                            String title, Integer ttl, String pushTitle, String pushBody,
                                                            List<DenialReason> denialReasons)
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, InvalidCredentialsException, CryptographyError {
+        ServiceV3AuthsPostRequest request = getServiceV3AuthsPostRequest(
+                userIdentifier, context, policy, title, ttl, pushTitle, pushBody, denialReasons);
+        ServiceV3AuthsPostResponse response = transport.serviceV3AuthsPost(request, serviceEntity);
+        return new AuthorizationRequest(
+                response.getAuthRequest().toString(),
+                response.getPushPackage());
+
+    }
+
+    static ServiceV3AuthsPostRequest getServiceV3AuthsPostRequest(
+            String userIdentifier, String context, AuthPolicy policy, String title, Integer ttl, String pushTitle,
+            String pushBody, List<DenialReason> denialReasons) {
         com.iovation.launchkey.sdk.transport.domain.AuthPolicy requestPolicy;
         if (policy == null) {
             requestPolicy = null;
@@ -97,13 +109,8 @@ public class BasicServiceClient implements ServiceClient {
             }
         }
 
-        ServiceV3AuthsPostRequest request = new ServiceV3AuthsPostRequest(
+        return new ServiceV3AuthsPostRequest(
                 userIdentifier, requestPolicy, context, title, ttl, pushTitle, pushBody, requestDenialReasons);
-        ServiceV3AuthsPostResponse response = transport.serviceV3AuthsPost(request, serviceEntity);
-        return new AuthorizationRequest(
-                response.getAuthRequest().toString(),
-                response.getPushPackage());
-
     }
 
     @Override
@@ -152,7 +159,7 @@ public class BasicServiceClient implements ServiceClient {
         return response;
     }
 
-    private AuthorizationResponse getAuthorizationResponse(AuthsResponse authsResponse) {
+    static AuthorizationResponse getAuthorizationResponse(AuthsResponse authsResponse) {
         AuthorizationResponse response;
         AuthorizationResponse.Type type;
         if (authsResponse.getType() == null) {
@@ -203,7 +210,7 @@ public class BasicServiceClient implements ServiceClient {
         return response;
     }
 
-    private UUID getAuthRequestIdFromString(String uuid) {
+    static UUID getAuthRequestIdFromString(String uuid) {
         UUID authorizationRequestUUID;
         try {
             authorizationRequestUUID = UUID.fromString(uuid);
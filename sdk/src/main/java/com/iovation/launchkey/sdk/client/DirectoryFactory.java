@@ -12,7 +12,10 @@
 
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.error.*;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.WarmUpTransport;
 
 import java.util.UUID;
 
@@ -29,9 +32,57 @@ public class DirectoryFactory {
         return new BasicDirectoryClient(directoryId, transport);
     }
 
+    /**
+     * Make a non-blocking client for the Directory User device and session calls. Requires the factory to have been
+     * built with an asynchronous HTTP client.
+     *
+     * @return Non-blocking directory client
+     * @throws IllegalStateException When the transport does not support non-blocking calls
+     */
+    public AsyncDirectoryClient makeAsyncDirectoryClient() {
+        if (!(transport instanceof AsyncTransport)) {
+            throw new IllegalStateException("Transport does not support non-blocking calls");
+        }
+        return new BasicAsyncDirectoryClient(directoryId, (AsyncTransport) transport);
+    }
+
     public ServiceClient makeServiceClient(String serviceId) {
         if (serviceId == null) throw new IllegalArgumentException("Argument serviceId cannot be null.");
         UUID serviceUUID = UUID.fromString(serviceId);
         return new BasicServiceClient(serviceUUID, transport);
     }
+
+    /**
+     * Make a non-blocking service client. Requires the factory to have been built with an asynchronous HTTP client.
+     *
+     * @param serviceId Identifier of the service
+     * @return Non-blocking service client
+     * @throws IllegalStateException When the transport does not support non-blocking calls
+     */
+    public AsyncServiceClient makeAsyncServiceClient(String serviceId) {
+        if (serviceId == null) throw new IllegalArgumentException("Argument serviceId cannot be null.");
+        UUID serviceUUID = UUID.fromString(serviceId);
+        if (!(transport instanceof AsyncTransport)) {
+            throw new IllegalStateException("Transport does not support non-blocking calls");
+        }
+        return new BasicAsyncServiceClient(serviceUUID, (AsyncTransport) transport);
+    }
+
+    /**
+     * Warm up the transport of the Directory so that the first calls of its clients do not wait for the API time
+     * offset, the current public key, a connection, or the initialization of its cryptography. Returns once the
+     * transport is warm. Does nothing when the transport cannot be warmed up.
+     *
+     * @throws CommunicationErrorException If there was an error communicating with the LaunchKey API
+     * @throws InvalidResponseException When a response from the LaunchKey API is invalid
+     * @throws MarshallingError If there was an error marshaling synthetic data or unmarshalling a response
+     * @throws CryptographyError When there is an error signing, encrypting, verifying, or decrypting synthetic data
+     * @throws InvalidCredentialsException When the credentials of the entity are not valid
+     */
+    public void warmUp() throws CommunicationErrorException, InvalidResponseException, MarshallingError,
+            CryptographyError, InvalidCredentialsException {
+        if (transport instanceof WarmUpTransport) {
+            ((WarmUpTransport) transport).warmUp();
+        }
+    }
 }
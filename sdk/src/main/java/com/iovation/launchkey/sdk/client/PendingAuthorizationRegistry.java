@@ -0,0 +1,220 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.domain.webhook.AuthorizationResponseWebhookPackage;
+import com.iovation.launchkey.sdk.domain.webhook.WebhookPackage;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.concurrent.*;
+
+/**
+ * Registry of pending authorization requests by authorization request ID which routes authorization response webhooks
+ * to whoever is waiting on the response.
+ * <p>
+ * Register each authorization request once it is created and pass every {@link WebhookPackage} returned by
+ * {@link ServiceClient#handleWebhook(java.util.Map, String, String, String)} to {@link #handle(WebhookPackage)}. The
+ * waiting future is completed as soon as the webhook is handled. A request whose webhook has not arrived after the
+ * polling fallback delay is handed to an {@link AuthorizationResponseWatcher} to be polled. A request which is still
+ * pending when its TTL passes fails with {@link AuthorizationRequestTimedOutError}.
+ */
+public class PendingAuthorizationRegistry {
+    public static final long DEFAULT_POLLING_FALLBACK_DELAY_MILLIS = 30000L;
+
+    private final AuthorizationResponseWatcher watcher;
+    private final ScheduledExecutorService scheduler;
+    private final long pollingFallbackDelayMillis;
+    private final ConcurrentMap<String, PendingAuthorization> pending = new ConcurrentHashMap<>();
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * Create a registry without a polling fallback. Requests are only completed by webhooks.
+     *
+     * @param scheduler Scheduler used to expire requests
+     */
+    public PendingAuthorizationRegistry(ScheduledExecutorService scheduler) {
+        this(null, scheduler, 0L);
+    }
+
+    /**
+     * @param watcher Watcher polling for requests whose webhook has not arrived in time. May be null to disable the
+     * polling fallback.
+     * @param scheduler Scheduler used to start the polling fallback and to expire requests
+     * @param pollingFallbackDelayMillis Time to wait for a webhook before polling for the response
+     */
+    public PendingAuthorizationRegistry(AuthorizationResponseWatcher watcher, ScheduledExecutorService scheduler,
+                                        long pollingFallbackDelayMillis) {
+        this.watcher = watcher;
+        this.scheduler = scheduler;
+        this.pollingFallbackDelayMillis = pollingFallbackDelayMillis;
+    }
+
+    /**
+     * Register an authorization request whose response is expected via webhook.
+     *
+     * @param authorizationRequestId Unique identifier of the authorization request
+     * @param ttl TTL in seconds of the authorization request
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future authorization response. Cancelling it removes the request from the registry.
+     * @throws IllegalStateException When the authorization request is already registered
+     */
+    public Future<AuthorizationResponse> register(
+            String authorizationRequestId, int ttl, FutureCallback<AuthorizationResponse> callback) {
+        PendingAuthorization pendingAuthorization = new PendingAuthorization(authorizationRequestId, callback);
+        if (pending.putIfAbsent(authorizationRequestId, pendingAuthorization) != null) {
+            throw new IllegalStateException(
+                    "Authorization request " + authorizationRequestId + " is already registered");
+        }
+        long ttlMillis = TimeUnit.SECONDS.toMillis(ttl);
+        try {
+            pendingAuthorization.expiration = scheduler.schedule(
+                    pendingAuthorization.new Expiration(), ttlMillis, TimeUnit.MILLISECONDS);
+            if (watcher != null && pollingFallbackDelayMillis < ttlMillis) {
+                pendingAuthorization.pollingFallback = scheduler.schedule(
+                        pendingAuthorization.new PollingFallback(ttlMillis - pollingFallbackDelayMillis),
+                        pollingFallbackDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            pendingAuthorization.fail(e);
+        }
+        return pendingAuthorization.future;
+    }
+
+    /**
+     * Complete the future of the authorization request the response belongs to.
+     *
+     * @param authorizationResponse Authorization response
+     * @return True if a pending authorization request was completed
+     */
+    public boolean complete(AuthorizationResponse authorizationResponse) {
+        PendingAuthorization pendingAuthorization = pending.get(authorizationResponse.getAuthorizationRequestId());
+        return pendingAuthorization != null && pendingAuthorization.complete(authorizationResponse);
+    }
+
+    /**
+     * Route a handled webhook to the authorization request waiting on it.
+     *
+     * @param webhookPackage Webhook package returned by {@link ServiceClient#handleWebhook}
+     * @return True if the webhook was an authorization response for a pending authorization request
+     */
+    public boolean handle(WebhookPackage webhookPackage) {
+        return webhookPackage instanceof AuthorizationResponseWebhookPackage && complete(
+                ((AuthorizationResponseWebhookPackage) webhookPackage).getAuthorizationResponse());
+    }
+
+    /**
+     * @return Number of pending authorization requests
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private class PendingAuthorization {
+        private final String authorizationRequestId;
+        private final BasicFuture<AuthorizationResponse> future;
+        private volatile ScheduledFuture<?> expiration;
+        private volatile ScheduledFuture<?> pollingFallback;
+        private volatile Future<AuthorizationResponse> polling;
+
+        private PendingAuthorization(String authorizationRequestId, FutureCallback<AuthorizationResponse> callback) {
+            this.authorizationRequestId = authorizationRequestId;
+            this.future = new BasicFuture<AuthorizationResponse>(callback) {
+                @Override
+                public boolean cancel(boolean mayInterruptIfRunning) {
+                    release();
+                    return super.cancel(mayInterruptIfRunning);
+                }
+            };
+        }
+
+        private boolean complete(AuthorizationResponse authorizationResponse) {
+            release();
+            return future.completed(authorizationResponse);
+        }
+
+        private void fail(Exception e) {
+            release();
+            future.failed(e);
+        }
+
+        /**
+         * Remove the request from the registry and stop expiration and polling
+         */
+        private void release() {
+            pending.remove(authorizationRequestId, this);
+            cancel(expiration);
+            cancel(pollingFallback);
+            cancel(polling);
+        }
+
+        private void cancel(Future<?> task) {
+            if (task != null && !task.isDone()) {
+                task.cancel(false);
+            }
+        }
+
+        private class Expiration implements Runnable {
+            @Override
+            public void run() {
+                fail(new AuthorizationRequestTimedOutError());
+            }
+        }
+
+        private class PollingFallback implements Runnable {
+            private final long remainingMillis;
+
+            private PollingFallback(long remainingMillis) {
+                this.remainingMillis = remainingMillis;
+            }
+
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    return;
+                }
+                logger.debug("No webhook received for authorization request " + authorizationRequestId +
+                        ", polling for the response");
+                try {
+                    polling = watcher.watch(authorizationRequestId,
+                            (int) TimeUnit.MILLISECONDS.toSeconds(remainingMillis),
+                            new FutureCallback<AuthorizationResponse>() {
+                                @Override
+                                public void completed(AuthorizationResponse result) {
+                                    complete(result);
+                                }
+
+                                @Override
+                                public void failed(Exception e) {
+                                    fail(e);
+                                }
+
+                                @Override
+                                public void cancelled() {
+                                    // Cancelled by this registry after the request was completed by a webhook
+                                }
+                            });
+                    if (future.isDone()) {
+                        cancel(polling);
+                    }
+                } catch (IllegalStateException e) {
+                    logger.warn("Unable to poll for authorization request " + authorizationRequestId, e);
+                }
+            }
+        }
+    }
+}
@@ -12,7 +12,10 @@
 
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.error.*;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.WarmUpTransport;
 
 import java.util.UUID;
 
@@ -29,4 +32,74 @@ public class ServiceFactory {
     public ServiceClient makeServiceClient() {
         return new BasicServiceClient(serviceId, transport);
     }
+
+    /**
+     * Make a non-blocking service client. Requires the factory to have been built with an asynchronous HTTP client.
+     *
+     * @return Non-blocking service client
+     * @throws IllegalStateException When the transport does not support non-blocking calls
+     */
+    public AsyncServiceClient makeAsyncServiceClient() {
+        if (!(transport instanceof AsyncTransport)) {
+            throw new IllegalStateException("Transport does not support non-blocking calls");
+        }
+        return new BasicAsyncServiceClient(serviceId, (AsyncTransport) transport);
+    }
+
+    /**
+     * Make a watcher which polls for the responses to pending authorization requests of the Service with non-blocking
+     * calls scheduled from its own small pool of daemon threads. Requires the factory to have been built with an
+     * asynchronous HTTP client.
+     *
+     * @return Authorization response watcher
+     * @throws IllegalStateException When the transport does not support non-blocking calls
+     */
+    public AuthorizationResponseWatcher makeAuthorizationResponseWatcher() {
+        return makeAuthorizationResponseWatcher(AuthorizationResponseWatcher.DEFAULT_THREADS);
+    }
+
+    /**
+     * Make a watcher which polls for the responses to pending authorization requests of the Service with non-blocking
+     * calls scheduled from its own pool of daemon threads. Requires the factory to have been built with an
+     * asynchronous HTTP client.
+     *
+     * @param threads Number of scheduler threads starting polls
+     * @return Authorization response watcher
+     * @throws IllegalStateException When the transport does not support non-blocking calls
+     */
+    public AuthorizationResponseWatcher makeAuthorizationResponseWatcher(int threads) {
+        return new AuthorizationResponseWatcher(makeAsyncServiceClient(), threads);
+    }
+
+    /**
+     * Make a processor which verifies and decrypts webhooks for the Service on its own pool of daemon threads rather
+     * than on the thread which received them.
+     *
+     * @param threads Number of worker threads
+     * @param queueCapacity Maximum number of webhooks waiting for a worker before further webhooks are rejected
+     * @return Webhook processor
+     */
+    public WebhookProcessor makeWebhookProcessor(int threads, int queueCapacity) {
+        return new WebhookProcessor(makeServiceClient(), threads, queueCapacity,
+                WebhookProcessor.SaturationPolicy.REJECT, 0L);
+    }
+
+    /**
+     * Warm up the transport of the Service so that the first calls of its clients do not wait for the API time
+     * offset, the current public key, a connection, or the initialization of its cryptography. Returns once the
+     * transport is warm and may be used to gate the readiness of an application. Does nothing when the transport
+     * cannot be warmed up.
+     *
+     * @throws CommunicationErrorException If there was an error communicating with the LaunchKey API
+     * @throws InvalidResponseException When a response from the LaunchKey API is invalid
+     * @throws MarshallingError If there was an error marshaling synthetic data or unmarshalling a response
+     * @throws CryptographyError When there is an error signing, encrypting, verifying, or decrypting synthetic data
+     * @throws InvalidCredentialsException When the credentials of the entity are not valid
+     */
+    public void warmUp() throws CommunicationErrorException, InvalidResponseException, MarshallingError,
+            CryptographyError, InvalidCredentialsException {
+        if (transport instanceof WarmUpTransport) {
+            ((WarmUpTransport) transport).warmUp();
+        }
+    }
 }
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.error.BaseException;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.concurrent.Future;
+
+/**
+ * Callback for a transport future which transforms the transport result into a domain result and completes a
+ * domain future with it.
+ *
+ * @param <S> Transport result type
+ * @param <T> Domain result type
+ */
+abstract class TransformingFutureCallback<S, T> implements FutureCallback<S> {
+    private final BasicFuture<T> future;
+    private volatile Future<S> source;
+
+    TransformingFutureCallback(FutureCallback<T> callback) {
+        future = new BasicFuture<T>(callback) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                Future<S> current = source;
+                if (current != null) {
+                    current.cancel(mayInterruptIfRunning);
+                }
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+    }
+
+    abstract T transform(S result) throws BaseException;
+
+    /**
+     * @param source Transport future whose cancellation should follow the domain future
+     * @return Domain future
+     */
+    Future<T> chain(Future<S> source) {
+        this.source = source;
+        return future;
+    }
+
+    @Override
+    public void completed(S result) {
+        try {
+            future.completed(transform(result));
+        } catch (BaseException | RuntimeException e) {
+            future.failed(e);
+        }
+    }
+
+    @Override
+    public void failed(Exception e) {
+        future.failed(e);
+    }
+
+    @Override
+    public void cancelled() {
+        future.cancel();
+    }
+}
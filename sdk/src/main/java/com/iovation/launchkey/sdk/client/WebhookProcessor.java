@@ -0,0 +1,304 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.webhook.WebhookPackage;
+import com.iovation.launchkey.sdk.error.BaseException;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies and decrypts webhooks on a sized worker pool rather than on the thread which received them.
+ * <p>
+ * Deliveries are accepted into a bounded queue. When the queue is full a delivery is rejected immediately with a
+ * {@link RejectedExecutionException} or, with {@link SaturationPolicy#BLOCK}, the receiving thread waits up to the
+ * maximum wait for space before it is rejected. Respond to a rejected delivery with a 503 so that it is retried. Queue
+ * depth, processing counts and latencies are available for monitoring.
+ */
+public class WebhookProcessor {
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * What to do with a delivery when the queue is full
+     */
+    public enum SaturationPolicy {
+        /**
+         * Reject the delivery immediately
+         */
+        REJECT,
+        /**
+         * Wait for space in the queue up to the maximum wait before rejecting the delivery
+         */
+        BLOCK
+    }
+
+    private final ServiceClient serviceClient;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final SaturationPolicy saturationPolicy;
+    private final long maximumWaitMillis;
+    private final Semaphore capacity;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong totalProcessingNanos = new AtomicLong();
+    private final AtomicLong maximumProcessingNanos = new AtomicLong();
+    private volatile boolean shutdown;
+
+    /**
+     * Create a processor with a worker per available processor which rejects deliveries once
+     * {@link #DEFAULT_QUEUE_CAPACITY} are waiting. Call {@link #shutdown()} to release its workers.
+     *
+     * @param serviceClient Service client used to handle webhooks
+     */
+    public WebhookProcessor(ServiceClient serviceClient) {
+        this(serviceClient, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY,
+                SaturationPolicy.REJECT, 0L);
+    }
+
+    /**
+     * Create a processor with its own pool of daemon worker threads. Call {@link #shutdown()} to release them.
+     *
+     * @param serviceClient Service client used to handle webhooks
+     * @param threads Number of worker threads
+     * @param queueCapacity Maximum number of deliveries waiting for a worker
+     * @param saturationPolicy What to do with a delivery when the queue is full
+     * @param maximumWaitMillis Maximum time to wait for space in the queue with {@link SaturationPolicy#BLOCK}
+     */
+    public WebhookProcessor(ServiceClient serviceClient, int threads, int queueCapacity,
+                            SaturationPolicy saturationPolicy, long maximumWaitMillis) {
+        this(serviceClient, newExecutor(threads), true, threads + queueCapacity, saturationPolicy,
+                maximumWaitMillis);
+    }
+
+    /**
+     * @param serviceClient Service client used to handle webhooks
+     * @param executor Executor on which webhooks are handled. It is not shut down by {@link #shutdown()}.
+     * @param maximumPending Maximum number of deliveries waiting for or being handled by the executor
+     * @param saturationPolicy What to do with a delivery when the maximum pending deliveries are reached
+     * @param maximumWaitMillis Maximum time to wait for a pending delivery to finish with
+     * {@link SaturationPolicy#BLOCK}
+     */
+    public WebhookProcessor(ServiceClient serviceClient, Executor executor, int maximumPending,
+                            SaturationPolicy saturationPolicy, long maximumWaitMillis) {
+        this(serviceClient, executor, false, maximumPending, saturationPolicy, maximumWaitMillis);
+    }
+
+    private WebhookProcessor(ServiceClient serviceClient, Executor executor, boolean ownsExecutor,
+                             int maximumPending, SaturationPolicy saturationPolicy, long maximumWaitMillis) {
+        if (maximumPending <= 0) {
+            throw new IllegalArgumentException("Maximum pending deliveries must be positive");
+        }
+        if (maximumWaitMillis < 0) {
+            throw new IllegalArgumentException("Maximum wait must not be negative");
+        }
+        this.serviceClient = serviceClient;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.saturationPolicy = saturationPolicy;
+        this.maximumWaitMillis = maximumWaitMillis;
+        this.capacity = new Semaphore(maximumPending);
+    }
+
+    /**
+     * Accept a webhook delivery for processing. The future completes with the result of
+     * {@link ServiceClient#handleWebhook(Map, String, String, String)} or fails with the exception it threw.
+     *
+     * @param headers A generic map of request headers
+     * @param body The body of the webhook request
+     * @param method The method of the webhook request
+     * @param path The path of the webhook request
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future webhook package
+     * @throws RejectedExecutionException When the processor is saturated or shut down
+     */
+    public Future<WebhookPackage> submit(Map<String, List<String>> headers, String body, String method, String path,
+                                         FutureCallback<WebhookPackage> callback) {
+        if (shutdown || !acquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Webhook processor is " + (shutdown ? "shut down" : "saturated"));
+        }
+        Delivery delivery = new Delivery(headers, body, method, path, callback);
+        queued.incrementAndGet();
+        try {
+            executor.execute(delivery);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            capacity.release();
+            rejected.incrementAndGet();
+            throw e;
+        }
+        return delivery.future;
+    }
+
+    /**
+     * @return Number of deliveries waiting for a worker
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return Number of deliveries being handled
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return Number of deliveries handled successfully
+     */
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /**
+     * @return Number of deliveries which failed to be handled
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return Number of deliveries rejected because the processor was saturated or shut down
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return Average time in milliseconds deliveries waited for a worker
+     */
+    public double getAverageQueueTimeMillis() {
+        return averageMillis(totalQueueNanos.get());
+    }
+
+    /**
+     * @return Average time in milliseconds taken to handle a delivery
+     */
+    public double getAverageProcessingTimeMillis() {
+        return averageMillis(totalProcessingNanos.get());
+    }
+
+    /**
+     * @return Longest time in milliseconds taken to handle a delivery
+     */
+    public double getMaximumProcessingTimeMillis() {
+        return maximumProcessingNanos.get() / 1000000.0;
+    }
+
+    /**
+     * Stop accepting deliveries. Accepted deliveries are still handled. The worker pool is shut down once they are if
+     * it was created by this processor.
+     */
+    public void shutdown() {
+        shutdown = true;
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private boolean acquire() {
+        if (saturationPolicy == SaturationPolicy.REJECT || maximumWaitMillis == 0L) {
+            return capacity.tryAcquire();
+        }
+        try {
+            return capacity.tryAcquire(maximumWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private double averageMillis(long totalNanos) {
+        long count = processed.get() + failed.get();
+        return count == 0 ? 0.0 : totalNanos / 1000000.0 / count;
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "launchkey-webhook-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private static void updateMaximum(AtomicLong maximum, long value) {
+        long current;
+        while (value > (current = maximum.get()) && !maximum.compareAndSet(current, value)) {
+            // Retry until this value is stored or a larger one has been
+        }
+    }
+
+    private class Delivery implements Runnable {
+        private final Map<String, List<String>> headers;
+        private final String body;
+        private final String method;
+        private final String path;
+        private final BasicFuture<WebhookPackage> future;
+        private final long accepted = System.nanoTime();
+
+        private Delivery(Map<String, List<String>> headers, String body, String method, String path,
+                         FutureCallback<WebhookPackage> callback) {
+            this.headers = headers;
+            this.body = body;
+            this.method = method;
+            this.path = path;
+            this.future = new BasicFuture<>(callback);
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            try {
+                if (future.isCancelled()) {
+                    return;
+                }
+                totalQueueNanos.addAndGet(started - accepted);
+                try {
+                    WebhookPackage webhookPackage = serviceClient.handleWebhook(headers, body, method, path);
+                    record(started, processed);
+                    future.completed(webhookPackage);
+                } catch (BaseException | RuntimeException e) {
+                    record(started, failed);
+                    future.failed(e);
+                }
+            } finally {
+                active.decrementAndGet();
+                capacity.release();
+            }
+        }
+
+        private void record(long started, AtomicLong counter) {
+            long elapsed = System.nanoTime() - started;
+            totalProcessingNanos.addAndGet(elapsed);
+            updateMaximum(maximumProcessingNanos, elapsed);
+            counter.incrementAndGet();
+        }
+    }
+}
@@ -51,6 +51,15 @@ public interface Crypto {
      */
     RSAPublicKey getRSAPublicKeyFromPEM(String publicKey);
 
+    /**
+     * Get the public key of the provided private key
+     *
+     * @param privateKey RSA private key including its public exponent
+     * @return RSA Public Key object
+     * @throws IllegalArgumentException When the public exponent is not available from the private key
+     */
+    RSAPublicKey getRSAPublicKey(RSAPrivateKey privateKey) throws IllegalArgumentException;
+
     /**
      * Generate a 256 bit hash with the Secure Hash Algorithm
      * @param input Data to hash
@@ -27,6 +27,9 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.RSAPublicKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -36,14 +39,16 @@ public class JCECrypto implements Crypto {
 
     private static final String RSA_CRYPTO_CIPHER = "RSA/ECB/OAEPWithSHA1AndMGF1Padding";
     private static final Base64 BASE_64 = new Base64(0);
+    private static final JCEEngine DEFAULT_ENGINE = new JCEEngine(null);
+    private static volatile Map<Provider, JCEEngine> engines = Collections.emptyMap();
 
-    private final Provider provider;
+    private final JCEEngine engine;
 
     /**
      * @param provider Crypto Provider
      */
     public JCECrypto(Provider provider) {
-        this.provider = provider;
+        this.engine = getEngine(provider);
     }
 
     @Override
@@ -58,7 +63,16 @@ public class JCECrypto implements Crypto {
 
     @Override
     public RSAPublicKey getRSAPublicKeyFromPEM(String publicKey) {
-        return getRSAPublicKeyFromPEM(provider, publicKey);
+        try {
+            return getRSAPublicKeyFromPEM(engine.getKeyFactory("RSA"), publicKey);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Algorithm SHA256withRSA is not available", e);
+        }
+    }
+
+    @Override
+    public RSAPublicKey getRSAPublicKey(RSAPrivateKey privateKey) throws IllegalArgumentException {
+        return getRSAPublicKey(engine, privateKey);
     }
 
     @Override
@@ -78,12 +92,12 @@ public class JCECrypto implements Crypto {
 
     @Override
     public String getRsaPublicKeyFingerprint(RSAPublicKey key) throws IllegalArgumentException {
-        return getRsaPublicKeyFingerprint(provider, key);
+        return getRsaPublicKeyFingerprint(engine, key);
     }
 
     @Override
     public String getRsaPublicKeyFingerprint(RSAPrivateKey key) throws IllegalArgumentException {
-        return getRsaPublicKeyFingerprint(provider, key);
+        return getRsaPublicKeyFingerprint(engine, key);
     }
 
     /**
@@ -95,7 +109,7 @@ public class JCECrypto implements Crypto {
      */
     public static RSAPrivateKey getRSAPrivateKeyFromPEM(Provider provider, String pem) {
         try {
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA", provider);
+            KeyFactory keyFactory = getEngine(provider).getKeyFactory("RSA");
             return (RSAPrivateKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(getKeyBytesFromPEM(pem)));
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalArgumentException("Algorithm SHA256withRSA is not available", e);
@@ -113,25 +127,68 @@ public class JCECrypto implements Crypto {
      */
     public static RSAPublicKey getRSAPublicKeyFromPEM(Provider provider, String pem) {
         try {
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA", provider);
-            return (RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(getKeyBytesFromPEM(pem)));
+            return getRSAPublicKeyFromPEM(getEngine(provider).getKeyFactory("RSA"), pem);
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalArgumentException("Algorithm SHA256withRSA is not available", e);
+        }
+    }
+
+    public static String getRsaPublicKeyFingerprint(Provider provider, RSAPrivateKey key) throws IllegalArgumentException {
+        return getRsaPublicKeyFingerprint(getEngine(provider), key);
+    }
+
+    public static String getRsaPublicKeyFingerprint(Provider provider, RSAPublicKey key) throws IllegalArgumentException {
+        return getRsaPublicKeyFingerprint(getEngine(provider), key);
+    }
+
+    /**
+     * Get the engine of a provider. Engines are kept per provider and shared by every instance and static method.
+     * Applications only use a few providers, so the map is copied when a provider is added and read without locking.
+     * Providers are compared by identity as their equality compares every service they provide.
+     */
+    private static JCEEngine getEngine(Provider provider) {
+        if (provider == null) {
+            return DEFAULT_ENGINE;
+        }
+        JCEEngine engine = engines.get(provider);
+        return engine == null ? addEngine(provider) : engine;
+    }
+
+    private static synchronized JCEEngine addEngine(Provider provider) {
+        JCEEngine engine = engines.get(provider);
+        if (engine == null) {
+            engine = new JCEEngine(provider);
+            Map<Provider, JCEEngine> copy = new IdentityHashMap<>(engines);
+            copy.put(provider, engine);
+            engines = copy;
+        }
+        return engine;
+    }
+
+    private static RSAPublicKey getRSAPublicKeyFromPEM(KeyFactory keyFactory, String pem) {
+        try {
+            return (RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(getKeyBytesFromPEM(pem)));
         } catch (InvalidKeySpecException e) {
             throw new IllegalArgumentException("Invalid PEM provided", e);
         }
     }
 
-    public static String getRsaPublicKeyFingerprint(Provider provider, RSAPrivateKey key) throws IllegalArgumentException {
+    private static String getRsaPublicKeyFingerprint(JCEEngine engine, RSAPrivateKey key) {
+        return getRsaPublicKeyFingerprint(engine, getRSAPublicKey(engine, key));
+    }
+
+    private static RSAPublicKey getRSAPublicKey(JCEEngine engine, RSAPrivateKey key) {
+        if (!(key instanceof RSAPrivateCrtKey)) {
+            throw new IllegalArgumentException("Public exponent of the private key is not available");
+        }
         try {
             RSAPublicKeySpec publicKeySpec = new java.security.spec.RSAPublicKeySpec(
                     key.getModulus(),
                     ((RSAPrivateCrtKey) key).getPublicExponent()
             );
 
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA", provider);
-            RSAPublicKey publicKey = (RSAPublicKey) keyFactory.generatePublic(publicKeySpec);
-            return getRsaPublicKeyFingerprint(provider, publicKey);
+            KeyFactory keyFactory = engine.getKeyFactory("RSA");
+            return (RSAPublicKey) keyFactory.generatePublic(publicKeySpec);
         } catch (InvalidKeySpecException e) {
             throw new IllegalArgumentException("Invalid key", e);
         } catch (NoSuchAlgorithmException e) {
@@ -139,9 +196,18 @@ public class JCECrypto implements Crypto {
         }
     }
 
-    public static String getRsaPublicKeyFingerprint(Provider provider, RSAPublicKey key) throws IllegalArgumentException {
+    /**
+     * MD5 comes from the default providers when the engine's provider does not provide it, as fingerprints were
+     * always generated with the default providers
+     */
+    private static String getRsaPublicKeyFingerprint(JCEEngine engine, RSAPublicKey key) {
         try {
-            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            MessageDigest md5;
+            try {
+                md5 = engine.getMessageDigest("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                md5 = DEFAULT_ENGINE.getMessageDigest("MD5");
+            }
             StringBuilder buf = new StringBuilder();
             char[] hex = Hex.encodeHex(md5.digest(key.getEncoded()));
             for (int i = 0; i < hex.length; i += 2) {
@@ -203,7 +269,7 @@ public class JCECrypto implements Crypto {
 
     private byte[] processRSA(byte[] message, Key key, int mode) {
         try {
-            Cipher rsaDecryptCipher = Cipher.getInstance(RSA_CRYPTO_CIPHER, provider);
+            Cipher rsaDecryptCipher = engine.getCipher(RSA_CRYPTO_CIPHER);
             rsaDecryptCipher.init(mode, key);
             return rsaDecryptCipher.doFinal(message);
         } catch (IllegalBlockSizeException e) {
@@ -220,7 +286,6 @@ public class JCECrypto implements Crypto {
     }
 
     private byte[] getDigest(byte[] input, String algorithm) throws NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance(algorithm, provider);
-        return digest.digest(input);
+        return engine.getMessageDigest(algorithm).digest(input);
     }
 }
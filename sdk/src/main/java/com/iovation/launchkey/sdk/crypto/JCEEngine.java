@@ -0,0 +1,98 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Source of provider bound {@link Cipher}, {@link KeyFactory}, and {@link MessageDigest} instances. The getInstance
+ * methods perform a provider lookup on every call which is costly with providers such as BouncyCastle. Instances are
+ * not thread safe, so each thread gets its own instance per algorithm which is created on first use and reused for
+ * the life of the thread.
+ */
+class JCEEngine {
+    private final Provider provider;
+    private final ThreadLocal<Instances> instances = new ThreadLocal<Instances>() {
+        @Override
+        protected Instances initialValue() {
+            return new Instances();
+        }
+    };
+
+    /**
+     * @param provider Provider for all instances. When null, the default provider lookup is used.
+     */
+    JCEEngine(Provider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * @param transformation Cipher transformation
+     * @return Cipher for the current thread. It must be initialized before each use.
+     */
+    Cipher getCipher(String transformation) throws NoSuchAlgorithmException, NoSuchPaddingException {
+        Map<String, Cipher> ciphers = instances.get().ciphers;
+        Cipher cipher = ciphers.get(transformation);
+        if (cipher == null) {
+            cipher = provider == null ? Cipher.getInstance(transformation)
+                    : Cipher.getInstance(transformation, provider);
+            ciphers.put(transformation, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * @param algorithm Key algorithm
+     * @return KeyFactory for the current thread
+     */
+    KeyFactory getKeyFactory(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, KeyFactory> keyFactories = instances.get().keyFactories;
+        KeyFactory keyFactory = keyFactories.get(algorithm);
+        if (keyFactory == null) {
+            keyFactory = provider == null ? KeyFactory.getInstance(algorithm)
+                    : KeyFactory.getInstance(algorithm, provider);
+            keyFactories.put(algorithm, keyFactory);
+        }
+        return keyFactory;
+    }
+
+    /**
+     * @param algorithm Digest algorithm
+     * @return Reset MessageDigest for the current thread
+     */
+    MessageDigest getMessageDigest(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, MessageDigest> digests = instances.get().digests;
+        MessageDigest digest = digests.get(algorithm);
+        if (digest == null) {
+            digest = provider == null ? MessageDigest.getInstance(algorithm)
+                    : MessageDigest.getInstance(algorithm, provider);
+            digests.put(algorithm, digest);
+        } else {
+            digest.reset();
+        }
+        return digest;
+    }
+
+    private static class Instances {
+        private final Map<String, Cipher> ciphers = new HashMap<>();
+        private final Map<String, KeyFactory> keyFactories = new HashMap<>();
+        private final Map<String, MessageDigest> digests = new HashMap<>();
+    }
+}
@@ -26,13 +26,32 @@ import java.security.PublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Jose4jJWTService implements ParsedJWTService {
+    private static final int ALLOWED_CLOCK_SKEW_SECONDS = 5;
+    static final int MAX_VERIFYING_CONSUMERS = 32;
+    private static final AlgorithmConstraints ALGORITHM_CONSTRAINTS = new AlgorithmConstraints(
+            AlgorithmConstraints.ConstraintType.WHITELIST,
+            AlgorithmIdentifiers.RSA_USING_SHA256,
+            AlgorithmIdentifiers.RSA_USING_SHA384,
+            AlgorithmIdentifiers.RSA_USING_SHA512
+    );
+    private static final JwtConsumer PARSING_CONSUMER = new JwtConsumerBuilder()
+            .setSkipAllValidators()
+            .setSkipSignatureVerification()
+            .build();
 
-public class Jose4jJWTService implements JWTService {
     private final String apiIdentifier;
     private final Map<String, RSAPrivateKey> privateKeys;
     private final String currentPrivateKeyId;
     private final int requestExpireSeconds;
+    private final ConcurrentMap<ConsumerKey, CachedConsumer> verifyingConsumers = new ConcurrentHashMap<>();
+    private final AtomicLong consumerUses = new AtomicLong();
 
     /**
      * @param apiIdentifier JWT identifier for the Platform API. Used as the apiIdentifier for encoding and the
@@ -98,34 +117,27 @@ public class Jose4jJWTService implements JWTService {
 
     @Override
     public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime, String jwt) throws JWTError {
+        return decode(publicKey, expectedAudience, expectedTokenId, currentTime, parse(jwt));
+    }
+
+    @Override
+    public JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime, JWTData jwtData) throws JWTError {
+        if (!(jwtData instanceof ParsedJWTData)) {
+            throw new JWTError("JWT data was not obtained from this JWT service", null);
+        }
+        return decode(publicKey, expectedAudience, expectedTokenId, currentTime, ((ParsedJWTData) jwtData).context);
+    }
+
+    private JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime, JwtContext jwtContext) throws JWTError {
         JWTClaims claims;
         try {
-            AlgorithmConstraints algorithmConstraints = new AlgorithmConstraints(
-                    AlgorithmConstraints.ConstraintType.WHITELIST,
-                    AlgorithmIdentifiers.RSA_USING_SHA256,
-                    AlgorithmIdentifiers.RSA_USING_SHA384,
-                    AlgorithmIdentifiers.RSA_USING_SHA512
-            );
-
-            NumericDate evaluationTime = NumericDate.fromMilliseconds(currentTime.getTime());
-            JwtConsumerBuilder builder = new JwtConsumerBuilder()
-                    .setVerificationKey(publicKey)
-                    .setEvaluationTime(evaluationTime)
-                    .setAllowedClockSkewInSeconds(5)
-                    .setExpectedAudience(expectedAudience)
-                    .setExpectedIssuer(apiIdentifier)
-                    .setRequireIssuedAt()
-                    .setRequireNotBefore()
-                    .setRequireExpirationTime()
-                    .setJwsAlgorithmConstraints(algorithmConstraints);
+            getVerifyingConsumer(publicKey, expectedAudience).processContext(jwtContext);
+            validate(new TimeValidator(NumericDate.fromMilliseconds(currentTime.getTime())), jwtContext);
             if (expectedTokenId != null) {
-                builder.setRequireJwtId()
-                        .registerValidator(new JwtIdValidator(expectedTokenId))
-                        .build();
+                validate(new JwtIdValidator(expectedTokenId), jwtContext);
             }
-            JwtConsumer jwtConsumer = builder.build();
 
-            JwtClaims libraryClaims = jwtConsumer.processToClaims(jwt);
+            JwtClaims libraryClaims = jwtContext.getJwtClaims();
             Map responseClaims = libraryClaims.getClaimValue("response", Map.class) == null ? new HashMap<String, Object>(): libraryClaims.getClaimValue("response", Map.class);
             Map requestClaims = libraryClaims.getClaimValue("request", Map.class) == null ? new HashMap<String, Object>(): libraryClaims.getClaimValue("request", Map.class);
             Object bodyHashFunction = responseClaims.get("func") == null ? requestClaims.get("func") : responseClaims.get("func");
@@ -157,14 +169,17 @@ public class Jose4jJWTService implements JWTService {
 
     @Override
     public JWTData getJWTData(String jwt) throws JWTError {
+        return parse(jwt);
+    }
+
+    /**
+     * Parse the JWT once without verifying or validating it. The parsed JWT is retained so that it can be verified
+     * and validated by {@link #decode(PublicKey, String, String, Date, JWTData)} without parsing it again.
+     */
+    private ParsedJWTData parse(String jwt) throws JWTError {
         String keyId = null;
-        JWTData jwtData;
         try {
-            JwtConsumer consumer = new JwtConsumerBuilder()
-                    .setSkipAllValidators()
-                    .setSkipSignatureVerification()
-                    .build();
-            JwtContext jwtContext = consumer.process(jwt);
+            JwtContext jwtContext = PARSING_CONSUMER.process(jwt);
             for (JsonWebStructure joseObject : jwtContext.getJoseObjects()) {
                 keyId = joseObject.getKeyIdHeaderValue();
                 if (keyId != null) {
@@ -174,17 +189,63 @@ public class Jose4jJWTService implements JWTService {
             if (keyId == null) {
                 throw new JWTError("No kid found!", null);
             }
-            JwtClaims claims = consumer.processToClaims(jwt);
-            jwtData = new JWTData(
+            JwtClaims claims = jwtContext.getJwtClaims();
+            List<String> audience = claims.getAudience();
+            return new ParsedJWTData(
                     claims.getIssuer(),
                     claims.getSubject(),
-                    claims.getAudience().get(0),
-                    keyId
+                    audience == null || audience.isEmpty() ? null : audience.get(0),
+                    keyId,
+                    jwtContext
             );
         } catch (InvalidJwtException|MalformedClaimException e) {
             throw new JWTError("An error occurred parsing the JWT", e);
         }
-        return jwtData;
+    }
+
+    /**
+     * Get the consumer verifying the signature, issuer, and audience for the key and audience. Consumers are immutable
+     * once built and are reused for every JWT signed by the same key for the same audience. The time and JWT ID
+     * validations differ for every JWT and are performed separately. Once the maximum number of consumers is cached,
+     * the least recently used consumer is evicted for each new one.
+     */
+    JwtConsumer getVerifyingConsumer(PublicKey publicKey, String expectedAudience) {
+        ConsumerKey consumerKey = new ConsumerKey(publicKey, expectedAudience);
+        CachedConsumer cached = verifyingConsumers.get(consumerKey);
+        if (cached == null) {
+            cached = new CachedConsumer(new JwtConsumerBuilder()
+                    .setVerificationKey(publicKey)
+                    .setJwsAlgorithmConstraints(ALGORITHM_CONSTRAINTS)
+                    .setSkipAllDefaultValidators()
+                    .registerValidator(new IssuerValidator(apiIdentifier))
+                    .registerValidator(new AudienceValidator(expectedAudience))
+                    .build());
+            while (verifyingConsumers.size() >= MAX_VERIFYING_CONSUMERS) {
+                evictLeastRecentlyUsedConsumer();
+            }
+            verifyingConsumers.put(consumerKey, cached);
+        }
+        cached.lastUsed = consumerUses.incrementAndGet();
+        return cached.consumer;
+    }
+
+    private void evictLeastRecentlyUsedConsumer() {
+        Map.Entry<ConsumerKey, CachedConsumer> eldest = null;
+        for (Map.Entry<ConsumerKey, CachedConsumer> entry : verifyingConsumers.entrySet()) {
+            if (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed) {
+                eldest = entry;
+            }
+        }
+        if (eldest != null) {
+            verifyingConsumers.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static void validate(Validator validator, JwtContext jwtContext) throws MalformedClaimException, JWTError {
+        String error = validator.validate(jwtContext);
+        if (error != null) {
+            throw new JWTError("JWT validation failed: " + error, null);
+        }
     }
 
     /**
@@ -204,4 +265,118 @@ public class Jose4jJWTService implements JWTService {
             return jti != null && jti.equals(expected) ? null : "Mismatched JWT ID";
         }
     }
+
+    /**
+     * Validator to assert the issuer (iss) is the expected value
+     */
+    private static class IssuerValidator implements Validator {
+        private final String expected;
+
+        private IssuerValidator(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public String validate(JwtContext jwtContext) throws MalformedClaimException {
+            String issuer = jwtContext.getJwtClaims().getIssuer();
+            return issuer != null && issuer.equals(expected) ? null : "Mismatched issuer";
+        }
+    }
+
+    /**
+     * Validator to assert the audience (aud) contains the expected value
+     */
+    private static class AudienceValidator implements Validator {
+        private final String expected;
+
+        private AudienceValidator(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public String validate(JwtContext jwtContext) throws MalformedClaimException {
+            List<String> audience = jwtContext.getJwtClaims().getAudience();
+            return audience != null && audience.contains(expected) ? null : "Mismatched audience";
+        }
+    }
+
+    /**
+     * Validator to assert the issued at (iat), not before (nbf), and expiration (exp) claims are present and that the
+     * JWT is valid at the evaluation time allowing for clock skew
+     */
+    private static class TimeValidator implements Validator {
+        private final NumericDate evaluationTime;
+
+        private TimeValidator(NumericDate evaluationTime) {
+            this.evaluationTime = evaluationTime;
+        }
+
+        @Override
+        public String validate(JwtContext jwtContext) throws MalformedClaimException {
+            JwtClaims claims = jwtContext.getJwtClaims();
+            NumericDate issuedAt = claims.getIssuedAt();
+            NumericDate notBefore = claims.getNotBefore();
+            NumericDate expirationTime = claims.getExpirationTime();
+            if (issuedAt == null) {
+                return "No Issued At (iat) claim present";
+            }
+            if (notBefore == null) {
+                return "No Not Before (nbf) claim present";
+            }
+            if (expirationTime == null) {
+                return "No Expiration Time (exp) claim present";
+            }
+            if (evaluationTime.getValue() - ALLOWED_CLOCK_SKEW_SECONDS >= expirationTime.getValue()) {
+                return "The JWT is no longer valid";
+            }
+            if (evaluationTime.getValue() + ALLOWED_CLOCK_SKEW_SECONDS < notBefore.getValue()) {
+                return "The JWT is not yet valid";
+            }
+            return null;
+        }
+    }
+
+    private static class CachedConsumer {
+        private final JwtConsumer consumer;
+        private volatile long lastUsed;
+
+        private CachedConsumer(JwtConsumer consumer) {
+            this.consumer = consumer;
+        }
+    }
+
+    private static class ConsumerKey {
+        private final PublicKey publicKey;
+        private final String audience;
+
+        private ConsumerKey(PublicKey publicKey, String audience) {
+            this.publicKey = publicKey;
+            this.audience = audience;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConsumerKey)) return false;
+            ConsumerKey that = (ConsumerKey) o;
+            return publicKey.equals(that.publicKey) && (audience != null ? audience.equals(that.audience) : that.audience == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * publicKey.hashCode() + (audience != null ? audience.hashCode() : 0);
+        }
+    }
+
+    /**
+     * JWT data retaining the parsed JWT for verification
+     */
+    private static class ParsedJWTData extends JWTData {
+        private final JwtContext context;
+
+        private ParsedJWTData(String issuer, String subject, String audience, String keyId, JwtContext context) {
+            super(issuer, subject, audience, keyId);
+            this.context = context;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.error;
+
+/**
+ * The exception thrown without making the request when the circuit breaker for the endpoint is open because recent
+ * calls to it have failed or been slow. Calls are allowed again once the circuit has been open for its open duration
+ * and probe calls to the endpoint have succeeded.
+ */
+public class CircuitOpen extends CommunicationErrorException {
+    /**
+     * @param message the detail message (which is saved for later retrieval
+     * by the {@link #getMessage()} method).
+     * @param cause the cause (which is saved for later retrieval by the
+     * {@link #getCause()} method).  (A <tt>null</tt> value is
+     * permitted, and indicates that the cause is nonexistent or
+     * unknown.)
+     * @param errorCode The status code received from the Platform API. It will be null if the error was not receive
+     */
+    public CircuitOpen(String message, Throwable cause, String errorCode) {
+        super(message, cause, errorCode);
+    }
+}
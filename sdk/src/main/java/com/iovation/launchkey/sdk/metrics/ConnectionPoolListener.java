@@ -0,0 +1,38 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.metrics;
+
+/**
+ * Listener notified when requests queue for connections from the HTTP connection pool. Waiting on the pool is
+ * time spent in the SDK rather than at the LaunchKey API and usually means the pool is too small for the load.
+ * <p>
+ * Listeners are called on the thread leasing a connection and must be fast and thread safe. Exceptions thrown by a
+ * listener are ignored.
+ */
+public interface ConnectionPoolListener {
+    /**
+     * The number of requests waiting to lease a connection rose above the pending threshold. It is not called again
+     * until the threshold has been cleared.
+     *
+     * @param stats Pool statistics when the threshold was exceeded
+     */
+    void pendingThresholdExceeded(ConnectionPoolStats stats);
+
+    /**
+     * The number of requests waiting to lease a connection fell back to or below the pending threshold after it had
+     * been exceeded.
+     *
+     * @param stats Pool statistics when the threshold was cleared
+     */
+    void pendingThresholdCleared(ConnectionPoolStats stats);
+}
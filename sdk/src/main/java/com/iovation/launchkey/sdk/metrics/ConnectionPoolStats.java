@@ -0,0 +1,96 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.metrics;
+
+/**
+ * Snapshot of the state of an HTTP connection pool
+ */
+public class ConnectionPoolStats {
+    private final int leased;
+    private final int available;
+    private final int pending;
+    private final int max;
+
+    /**
+     * @param leased Number of connections leased to requests in flight
+     * @param available Number of idle connections available to be leased
+     * @param pending Number of requests waiting to lease a connection
+     * @param max Maximum number of connections in the pool
+     */
+    public ConnectionPoolStats(int leased, int available, int pending, int max) {
+        this.leased = leased;
+        this.available = available;
+        this.pending = pending;
+        this.max = max;
+    }
+
+    /**
+     * @return Number of connections leased to requests in flight
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return Number of idle connections available to be leased
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * @return Number of requests waiting to lease a connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return Maximum number of connections in the pool
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConnectionPoolStats)) return false;
+
+        ConnectionPoolStats that = (ConnectionPoolStats) o;
+
+        if (leased != that.leased) return false;
+        if (available != that.available) return false;
+        if (pending != that.pending) return false;
+        return max == that.max;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = leased;
+        result = 31 * result + available;
+        result = 31 * result + pending;
+        result = 31 * result + max;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "leased=" + leased +
+                ", available=" + available +
+                ", pending=" + pending +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport metrics listener which keeps a {@link LatencyHistogram} of call and phase durations and payload sizes, and
+ * counts of status codes and errors, for each endpoint so that they can be read in process.
+ */
+public class HistogramTransportMetricsListener implements TransportMetricsListener {
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void phaseCompleted(String endpoint, TransportPhase phase, long durationNanos) {
+        getOrCreate(endpoint).phases.get(phase).record(durationNanos);
+    }
+
+    @Override
+    public void callCompleted(String endpoint, int statusCode, long requestBytes, long responseBytes,
+                              long durationNanos, Throwable error) {
+        EndpointMetrics metrics = getOrCreate(endpoint);
+        metrics.calls.record(durationNanos);
+        if (requestBytes >= 0) {
+            metrics.requestBytes.record(requestBytes);
+        }
+        if (responseBytes >= 0) {
+            metrics.responseBytes.record(responseBytes);
+        }
+        increment(metrics.statusCodes, statusCode);
+        if (error != null) {
+            increment(metrics.errors, error.getClass());
+        }
+    }
+
+    /**
+     * @return Endpoints which have been called
+     */
+    public Set<String> getEndpoints() {
+        return Collections.unmodifiableSet(endpoints.keySet());
+    }
+
+    /**
+     * @param endpoint Endpoint such as "GET /service/v3/auths/{id}"
+     * @return Histogram of call durations in nanoseconds
+     */
+    public LatencyHistogram getCallHistogram(String endpoint) {
+        return getOrCreate(endpoint).calls;
+    }
+
+    /**
+     * @param endpoint Endpoint such as "GET /service/v3/auths/{id}"
+     * @param phase Phase of the call
+     * @return Histogram of phase durations in nanoseconds
+     */
+    public LatencyHistogram getPhaseHistogram(String endpoint, TransportPhase phase) {
+        return getOrCreate(endpoint).phases.get(phase);
+    }
+
+    /**
+     * @param endpoint Endpoint such as "GET /service/v3/auths/{id}"
+     * @return Histogram of request body lengths in bytes
+     */
+    public LatencyHistogram getRequestBytesHistogram(String endpoint) {
+        return getOrCreate(endpoint).requestBytes;
+    }
+
+    /**
+     * @param endpoint Endpoint such as "GET /service/v3/auths/{id}"
+     * @return Histogram of response body lengths in bytes
+     */
+    public LatencyHistogram getResponseBytesHistogram(String endpoint) {
+        return getOrCreate(endpoint).responseBytes;
+    }
+
+    /**
+     * @param endpoint Endpoint such as "GET /service/v3/auths/{id}"
+     * @param statusCode HTTP status code or -1 for calls without a response
+     * @return Number of calls completed with the status code
+     */
+    public long getStatusCodeCount(String endpoint, int statusCode) {
+        return get(getOrCreate(endpoint).statusCodes, statusCode);
+    }
+
+    /**
+     * @param endpoint Endpoint such as "GET /service/v3/auths/{id}"
+     * @param errorClass Class of error
+     * @return Number of calls failed with exactly the class of error
+     */
+    public long getErrorCount(String endpoint, Class<? extends Throwable> errorClass) {
+        return get(getOrCreate(endpoint).errors, errorClass);
+    }
+
+    private EndpointMetrics getOrCreate(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            EndpointMetrics created = new EndpointMetrics();
+            metrics = endpoints.putIfAbsent(endpoint, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    private static <K> void increment(ConcurrentMap<K, AtomicLong> counts, K key) {
+        AtomicLong count = counts.get(key);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = counts.putIfAbsent(key, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private static <K> long get(ConcurrentMap<K, AtomicLong> counts, K key) {
+        AtomicLong count = counts.get(key);
+        return count == null ? 0L : count.get();
+    }
+
+    private static class EndpointMetrics {
+        private final LatencyHistogram calls = new LatencyHistogram();
+        private final Map<TransportPhase, LatencyHistogram> phases =
+                new EnumMap<>(TransportPhase.class);
+        private final LatencyHistogram requestBytes = new LatencyHistogram();
+        private final LatencyHistogram responseBytes = new LatencyHistogram();
+        private final ConcurrentMap<Integer, AtomicLong> statusCodes = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        private EndpointMetrics() {
+            for (TransportPhase phase : TransportPhase.values()) {
+                phases.put(phase, new LatencyHistogram());
+            }
+        }
+    }
+}
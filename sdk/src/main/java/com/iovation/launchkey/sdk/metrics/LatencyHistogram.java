@@ -0,0 +1,124 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of non-negative long values such as latencies in nanoseconds or sizes in bytes.
+ * <p>
+ * Like an HDR histogram, values are counted in buckets whose width grows with the magnitude of the value. Each power
+ * of two range is split into {@value #SUB_BUCKET_COUNT} buckets so percentiles are accurate to within about 1.6% of
+ * the value. Recording is a few atomic increments. Reads see values recorded concurrently without blocking them.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value Value to record. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retry until this value is stored or a larger one has been
+        }
+    }
+
+    /**
+     * @return Number of values recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Largest value recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return Mean of the values recorded or 0.0 when none have been
+     */
+    public double getMean() {
+        long total = count.get();
+        return total == 0 ? 0.0 : (double) sum.get() / total;
+    }
+
+    /**
+     * @param percentile Percentile from 0.0 to 100.0
+     * @return Upper bound of the bucket holding the value at the percentile or 0 when no values have been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket - SUB_BUCKET_COUNT;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50.0) +
+                ", p99=" + getValueAtPercentile(99.0) +
+                ", max=" + getMax() +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.metrics;
+
+/**
+ * Listener notified of the timings of calls made by a transport to the LaunchKey API.
+ * <p>
+ * Endpoints are identified by the HTTP method and path with identifiers in the path replaced by "{id}", for example
+ * "GET /service/v3/auths/{id}". Listeners are called on the thread making the call and must be fast and thread safe.
+ * Exceptions thrown by a listener are ignored.
+ */
+public interface TransportMetricsListener {
+    /**
+     * A phase of a call completed
+     *
+     * @param endpoint Endpoint called
+     * @param phase Phase which completed
+     * @param durationNanos Duration of the phase in nanoseconds
+     */
+    void phaseCompleted(String endpoint, TransportPhase phase, long durationNanos);
+
+    /**
+     * A call completed. The response is decrypted after the call completes and its decryption is reported as a phase
+     * afterwards.
+     *
+     * @param endpoint Endpoint called
+     * @param statusCode HTTP status code of the response or -1 when there was no response
+     * @param requestBytes Length of the request body or -1 when it is not known
+     * @param responseBytes Length of the response body or -1 when it is not known
+     * @param durationNanos Duration of the call in nanoseconds
+     * @param error Error which failed the call or null when it succeeded
+     */
+    void callCompleted(String endpoint, int statusCode, long requestBytes, long responseBytes, long durationNanos,
+                       Throwable error);
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.metrics;
+
+/**
+ * Phase of a call to the LaunchKey API timed by the transport
+ */
+public enum TransportPhase {
+    /**
+     * Obtaining the current LaunchKey API public key used to encrypt the request
+     */
+    CURRENT_PUBLIC_KEY,
+    /**
+     * Obtaining the LaunchKey API time offset used to date the request
+     */
+    API_TIME_OFFSET,
+    /**
+     * Marshaling and JWE encrypting the request body
+     */
+    REQUEST_ENCRYPTION,
+    /**
+     * Signing the request JWT
+     */
+    REQUEST_SIGNATURE,
+    /**
+     * Leasing a connection, sending the request and receiving the response headers
+     */
+    HTTP_EXCHANGE,
+    /**
+     * Verifying the response JWT, content hash and headers including obtaining the public key which signed it
+     */
+    RESPONSE_VALIDATION,
+    /**
+     * Decrypting and un-marshaling the response body
+     */
+    RESPONSE_DECRYPTION
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport;
+
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Non-blocking variant of the authorization, session, and directory user device endpoints of {@link Transport}. Each
+ * call returns immediately with a {@link Future} which is completed when the response has been received, verified,
+ * and decrypted. Errors are reported via {@link java.util.concurrent.ExecutionException#getCause()} or
+ * {@link FutureCallback#failed(Exception)} as the same exceptions thrown by the blocking {@link Transport} methods.
+ * <p>
+ * Requests are signed on the calling thread. Implementations may make blocking calls on the calling thread to obtain
+ * the API time offset or current public key needed to sign a request when they are not yet known.
+ */
+public interface AsyncTransport {
+    /**
+     * Create an authorization request
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future response from the LaunchKey API
+     * @see Transport#serviceV3AuthsPost(ServiceV3AuthsPostRequest, EntityIdentifier)
+     */
+    Future<ServiceV3AuthsPostResponse> serviceV3AuthsPost(ServiceV3AuthsPostRequest request, EntityIdentifier subject,
+                                                          FutureCallback<ServiceV3AuthsPostResponse> callback);
+
+    /**
+     * Get the response for an authorization request. The future will complete with null if the user has not
+     * yet responded.
+     *
+     * @param authRequestId Identifier for the authorization request as returned by
+     * {@link #serviceV3AuthsPost(ServiceV3AuthsPostRequest, EntityIdentifier, FutureCallback)}
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future response from the LaunchKey API
+     * @see Transport#serviceV3AuthsGet(UUID, EntityIdentifier)
+     */
+    Future<ServiceV3AuthsGetResponse> serviceV3AuthsGet(UUID authRequestId, EntityIdentifier subject,
+                                                        FutureCallback<ServiceV3AuthsGetResponse> callback);
+
+    /**
+     * Cancel an authorization request
+     *
+     * @param authRequestId Identifier for the authorization request as returned by
+     * {@link #serviceV3AuthsPost(ServiceV3AuthsPostRequest, EntityIdentifier, FutureCallback)}
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the request has been canceled
+     * @see Transport#serviceV3AuthsDelete(UUID, EntityIdentifier)
+     */
+    Future<Void> serviceV3AuthsDelete(UUID authRequestId, EntityIdentifier subject, FutureCallback<Void> callback);
+
+    /**
+     * Begin a user service session which will optionally be associated with an authorization request.
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the session has been started
+     * @see Transport#serviceV3SessionsPost(ServiceV3SessionsPostRequest, EntityIdentifier)
+     */
+    Future<Void> serviceV3SessionsPost(ServiceV3SessionsPostRequest request, EntityIdentifier subject,
+                                       FutureCallback<Void> callback);
+
+    /**
+     * End a user service session. If a session does not exists, no error is raised.
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Service entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the session has been ended
+     * @see Transport#serviceV3SessionsDelete(ServiceV3SessionsDeleteRequest, EntityIdentifier)
+     */
+    Future<Void> serviceV3SessionsDelete(ServiceV3SessionsDeleteRequest request, EntityIdentifier subject,
+                                         FutureCallback<Void> callback);
+
+    /**
+     * Begin the process of linking a device to a directory user
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future response from the LaunchKey API
+     * @see Transport#directoryV3DevicesPost(DirectoryV3DevicesPostRequest, EntityIdentifier)
+     */
+    Future<DirectoryV3DevicesPostResponse> directoryV3DevicesPost(
+            DirectoryV3DevicesPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesPostResponse> callback);
+
+    /**
+     * Get the devices linked to a directory user
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future response from the LaunchKey API
+     * @see Transport#directoryV3DevicesListPost(DirectoryV3DevicesListPostRequest, EntityIdentifier)
+     */
+    Future<DirectoryV3DevicesListPostResponse> directoryV3DevicesListPost(
+            DirectoryV3DevicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesListPostResponse> callback);
+
+    /**
+     * Unlink a device from a directory user
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the device has been unlinked
+     * @see Transport#directoryV3devicesDelete(DirectoryV3DevicesDeleteRequest, EntityIdentifier)
+     */
+    Future<Void> directoryV3devicesDelete(DirectoryV3DevicesDeleteRequest request, EntityIdentifier subject,
+                                          FutureCallback<Void> callback);
+
+    /**
+     * Get the service sessions of a directory user
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future response from the LaunchKey API
+     * @see Transport#directoryV3SessionsListPost(DirectoryV3SessionsListPostRequest, EntityIdentifier)
+     */
+    Future<DirectoryV3SessionsListPostResponse> directoryV3SessionsListPost(
+            DirectoryV3SessionsListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3SessionsListPostResponse> callback);
+
+    /**
+     * End all service sessions of a directory user
+     *
+     * @param request Transport object with information that will be marshaled for the request.
+     * @param subject Directory entity for the subject
+     * @param callback Callback to be notified upon completion. May be null.
+     * @return Future which completes when the sessions have been ended
+     * @see Transport#directoryV3SessionsDelete(DirectoryV3SessionsDeleteRequest, EntityIdentifier)
+     */
+    Future<Void> directoryV3SessionsDelete(DirectoryV3SessionsDeleteRequest request, EntityIdentifier subject,
+                                           FutureCallback<Void> callback);
+}
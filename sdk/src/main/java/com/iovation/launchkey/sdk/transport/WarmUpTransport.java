@@ -0,0 +1,35 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport;
+
+import com.iovation.launchkey.sdk.error.*;
+
+/**
+ * Transport which can perform the one time work of its first call ahead of time. Warming up a transport before it
+ * receives traffic keeps the cost of obtaining the API time offset and current public key, opening a connection, and
+ * loading and initializing the JSON, JWT, JWE, and JCE code out of the latency of the first calls.
+ */
+public interface WarmUpTransport {
+    /**
+     * Obtain the API time offset and current public key from the API and sign, encrypt, verify, and decrypt synthetic
+     * data with the same code used for calls. No other data is sent to the API. Returns once the transport is warm.
+     *
+     * @throws CommunicationErrorException If there was an error communicating with the endpoint
+     * @throws InvalidResponseException When the response is invalid
+     * @throws MarshallingError If there was an error marshaling the synthetic data or unmarshalling a response
+     * @throws CryptographyError When there is an error signing, encrypting, verifying, or decrypting synthetic data
+     * @throws InvalidCredentialsException When the credentials of the entity are not valid
+     */
+    void warmUp() throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException;
+}
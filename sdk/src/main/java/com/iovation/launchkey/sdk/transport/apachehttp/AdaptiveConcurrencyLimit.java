@@ -0,0 +1,113 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit on the number of concurrent calls which adapts to the API with additive increase and multiplicative decrease.
+ * Each call completed in time raises the limit by the reciprocal of the limit, so about one per round of calls at the
+ * limit. A call which is rate limited, finds the API unavailable, or takes longer than the latency threshold lowers
+ * the limit by the backoff ratio. Only calls started after the last decrease can lower it again so that one burst of
+ * failures lowers the limit once.
+ */
+public class AdaptiveConcurrencyLimit {
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    private long rejectedCount;
+
+    /**
+     * @param initialLimit Limit before any call has completed
+     * @param minimumLimit Lowest the limit may go
+     * @param maximumLimit Highest the limit may go
+     * @param latencyThresholdNanos Latency above which a call lowers the limit. Zero to ignore latency.
+     * @param backoffRatio Ratio by which the limit is multiplied when it is lowered
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minimumLimit, int maximumLimit, long latencyThresholdNanos,
+                             double backoffRatio) {
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * @return Current limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return Number of calls in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return Number of calls rejected as the limit was reached
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Wait until the number of calls in flight is below the limit and count the call as in flight
+     *
+     * @param deadlineNanos {@link System#nanoTime()} after which to stop waiting
+     * @return True if the call may be made
+     * @throws InterruptedException When interrupted while waiting
+     */
+    synchronized boolean acquire(long deadlineNanos) throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                rejectedCount++;
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Count the call as no longer in flight and adapt the limit to its outcome
+     *
+     * @param startedNanos {@link System#nanoTime()} when the call was started
+     * @param statusCode HTTP status code of the response or -1 when there was no response. Calls without a response
+     * do not change the limit.
+     */
+    synchronized void release(long startedNanos, int statusCode) {
+        inFlight--;
+        long now = System.nanoTime();
+        if (statusCode == 429 || statusCode == 503
+                || (statusCode > 0 && latencyThresholdNanos > 0 && now - startedNanos > latencyThresholdNanos)) {
+            if (startedNanos - lastDecrease > 0) {
+                limit = Math.max(minimumLimit, limit * backoffRatio);
+                lastDecrease = now;
+            }
+        } else if (statusCode > 0) {
+            limit = Math.min(maximumLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+}
@@ -1,11 +1,15 @@
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
 import com.iovation.launchkey.sdk.cache.Cache;
 import com.iovation.launchkey.sdk.cache.CacheException;
+import com.iovation.launchkey.sdk.cache.CacheMissReason;
+import com.iovation.launchkey.sdk.cache.CacheTimeoutException;
+import com.iovation.launchkey.sdk.cache.StatsCache;
 import com.iovation.launchkey.sdk.crypto.Crypto;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEFailure;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
@@ -13,40 +17,44 @@ import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTError;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.crypto.jwt.ParsedJWTService;
 import com.iovation.launchkey.sdk.error.*;
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
+import com.iovation.launchkey.sdk.metrics.TransportPhase;
 import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.WarmUpTransport;
 import com.iovation.launchkey.sdk.transport.domain.*;
 import com.iovation.launchkey.sdk.transport.domain.Error;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.HeaderGroup;
 import org.apache.http.util.EntityUtils;
 
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
 
-public class ApacheHttpTransport implements Transport {
+public class ApacheHttpTransport implements Transport, WarmUpTransport, Closeable {
 
     private static final Base64 BASE_64 = new Base64(0);
     private static final String IOV_JWT_HEADER = "X-IOV-JWT";
-    private static int serverTimeOffset = 0;
-    private static Date serverTimeOffsetExpires = null;
+    private static final String WARM_UP_METHOD = "POST";
+    private static final String WARM_UP_PATH = "/warm-up";
     private final Log logger;
     private final EntityKeyMap entityKeyMap;
-    private PublicKeyData currentPublicKeyData = null;
-    private Date currentPublicKeyDataExpires = null;
 
     private final ApiRequestBuilderFactory rbf;
     private final ObjectMapper objectMapper;
@@ -55,9 +63,16 @@ public class ApacheHttpTransport implements Transport {
     private final JWTService jwtService;
     private final JWEService jweService;
     private final Cache publicKeyCache;
-    private final int offsetTTL;
-    private final int currentPublicKeyTTL;
+    private final ParsedPublicKeyCache parsedPublicKeyCache;
+    private final ReplayHttpResponse.BufferCounters responseBufferCounters = new ReplayHttpResponse.BufferCounters();
+    private final ServerTimeOffset serverTimeOffset;
+    private final RefreshAheadValue<PublicKeyData> currentPublicKeyData;
     private final EntityIdentifier issuer;
+    private final TransportMetricsListener metricsListener;
+    private final RetryPolicy retryPolicy;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final RequestCoalescer requestCoalescer;
 
 
     public ApacheHttpTransport(HttpClient httpClient, Crypto crypto, ObjectMapper objectMapper,
@@ -65,6 +80,38 @@ public class ApacheHttpTransport implements Transport {
                                JWTService jwtService, JWEService jweService,
                                int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap
     ) {
+        this(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer, jwtService, jweService, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, null, new TransportOptions());
+    }
+
+    /**
+     * @param httpClient HTTP client
+     * @param crypto Crypto provider
+     * @param objectMapper Jackson object mapper
+     * @param publicKeyCache Caching for public keys from LaunchKey API
+     * @param baseUrl Base URL for the Platform API
+     * @param issuer Entity issuing the requests
+     * @param jwtService JWT service
+     * @param jweService JWE service
+     * @param offsetTTL The number of seconds the API time offset will live before obtaining another using a ping call.
+     * @param currentPublicKeyTTL The number of seconds the current public key will live before obtaining it again
+     * @param entityKeyMap Mapping of entity private keys
+     * @param scheduler Scheduler used to refresh the API time offset and current public key in the background. When
+     * null, they are refreshed on the request thread once they expire.
+     * @param options Optional metrics listener, retry policy, concurrency limiter, circuit breaker, and request
+     * coalescer
+     */
+    public ApacheHttpTransport(HttpClient httpClient, Crypto crypto, ObjectMapper objectMapper,
+                               Cache publicKeyCache, String baseUrl, EntityIdentifier issuer,
+                               JWTService jwtService, JWEService jweService,
+                               int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap,
+                               ScheduledExecutorService scheduler, TransportOptions options
+    ) {
+        this.metricsListener = options.getMetricsListener();
+        this.retryPolicy = options.getRetryPolicy();
+        this.concurrencyLimiter = options.getConcurrencyLimiter();
+        this.circuitBreaker = options.getCircuitBreaker();
+        this.requestCoalescer = options.getRequestCoalescer();
         this.objectMapper = objectMapper;
         this.objectMapper.setDateFormat(new StdDateFormat());
         this.crypto = crypto;
@@ -72,9 +119,18 @@ public class ApacheHttpTransport implements Transport {
         this.jwtService = jwtService;
         this.jweService = jweService;
         this.publicKeyCache = publicKeyCache;
+        this.parsedPublicKeyCache = new ParsedPublicKeyCache();
         this.entityKeyMap = entityKeyMap;
-        this.offsetTTL = offsetTTL;
-        this.currentPublicKeyTTL = currentPublicKeyTTL;
+        this.serverTimeOffset = new ServerTimeOffset(this, offsetTTL, scheduler);
+        this.currentPublicKeyData =
+                new RefreshAheadValue<PublicKeyData>(currentPublicKeyTTL, scheduler, "current public key") {
+                    @Override
+                    PublicKeyData load()
+                            throws CommunicationErrorException, InvalidResponseException, MarshallingError,
+                            CryptographyError, InvalidCredentialsException {
+                        return getPublicKeyData(null);
+                    }
+                };
         this.issuer = issuer;
         logger = LogFactory.getLog(getClass());
         rbf = new ApiRequestBuilderFactory(issuer.toString(), baseUrl, objectMapper, crypto, jwtService, jweService);
@@ -129,7 +185,6 @@ public class ApacheHttpTransport implements Transport {
             throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
             InvalidCredentialsException, AuthorizationRequestTimedOutError,
             NoKeyFoundException {
-        ServiceV3AuthsGetResponse response;
         HttpResponse httpResponse;
 
         String path = "/service/v3/auths/" + authRequestId.toString();
@@ -138,7 +193,13 @@ public class ApacheHttpTransport implements Transport {
         } catch (RequestTimedOut e) {
             throw new AuthorizationRequestTimedOutError();
         }
+        return processServiceV3AuthsGetResponse(httpResponse, subject);
+    }
 
+    ServiceV3AuthsGetResponse processServiceV3AuthsGetResponse(HttpResponse httpResponse, EntityIdentifier subject)
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            NoKeyFoundException {
+        ServiceV3AuthsGetResponse response;
         int statusCode = httpResponse.getStatusLine().getStatusCode();
         if (statusCode == 204) { // User has not responded
             response = null;
@@ -147,11 +208,17 @@ public class ApacheHttpTransport implements Transport {
                     decryptResponse(httpResponse, ServiceV3AuthsGetResponseCore.class);
 
             EntityIdentifier audience;
-            try {
-                JWTData jwtData = jwtService.getJWTData(getJWT(httpResponse));
-                audience = EntityIdentifier.fromString(jwtData.getAudience());
-            } catch (JWTError jwtError){
-                    throw new CryptographyError("Unable to parse JWT to get key info!", jwtError);
+            JWTContext jwtContext = httpResponse instanceof ReplayHttpResponse
+                    ? ((ReplayHttpResponse) httpResponse).getJWTContext() : null;
+            if (jwtContext != null) {
+                audience = EntityIdentifier.fromString(jwtContext.getAudience());
+            } else {
+                try {
+                    JWTData jwtData = jwtService.getJWTData(getJWT(httpResponse));
+                    audience = EntityIdentifier.fromString(jwtData.getAudience());
+                } catch (JWTError jwtError){
+                        throw new CryptographyError("Unable to parse JWT to get key info!", jwtError);
+                }
             }
             try {
                 if (apiResponse.getJweEncryptedDeviceResponse() != null) {
@@ -248,9 +315,8 @@ public class ApacheHttpTransport implements Transport {
                                                                          EntityIdentifier subject)
             throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
             InvalidCredentialsException {
-        HttpResponse response = getHttpResponse("POST", "/directory/v3/devices/list", subject, request, true, null);
-        DirectoryV3DevicesListPostResponseDevice[] devices =
-                decryptResponse(response, DirectoryV3DevicesListPostResponseDevice[].class);
+        DirectoryV3DevicesListPostResponseDevice[] devices = readResponse("POST", "/directory/v3/devices/list",
+                subject, request, DirectoryV3DevicesListPostResponseDevice[].class);
         return new DirectoryV3DevicesListPostResponse(Arrays.asList(devices));
     }
 
@@ -266,9 +332,8 @@ public class ApacheHttpTransport implements Transport {
                                                                            EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        HttpResponse response = getHttpResponse("POST", "/directory/v3/sessions/list", subject, request, true, null);
-        DirectoryV3SessionsListPostResponseSession[] sessions =
-                decryptResponse(response, DirectoryV3SessionsListPostResponseSession[].class);
+        DirectoryV3SessionsListPostResponseSession[] sessions = readResponse("POST", "/directory/v3/sessions/list",
+                subject, request, DirectoryV3SessionsListPostResponseSession[].class);
         return new DirectoryV3SessionsListPostResponse(Arrays.asList(sessions));
     }
 
@@ -301,7 +366,8 @@ public class ApacheHttpTransport implements Transport {
         }
         String jwt = headerGroup.getFirstHeader(IOV_JWT_HEADER).getValue();
         try {
-            JWTClaims jwtClaims = validateJWT(null, jwt);
+            JWTContext jwtContext = validateJWT(null, jwt);
+            JWTClaims jwtClaims = jwtContext.getClaims();
             if (method != null && !method.equals(jwtClaims.getMethod())) {
                 throw new JWTError("JWT request method does not match the method provided", null);
             }
@@ -309,9 +375,7 @@ public class ApacheHttpTransport implements Transport {
                 throw new JWTError("JWT request path does not match the path provided", null);
             }
 
-            ByteArrayOutputStream bodyStream = new ByteArrayOutputStream();
-            bodyStream.write(body.getBytes());
-            verifyContentHash(jwtClaims, bodyStream, "request");
+            verifyContentHash(jwtClaims, body.getBytes(), "request");
 
             if (headerGroup.getFirstHeader("Content-Type").getValue().startsWith("application/jose")) {
                 // Auths response is encrypted
@@ -401,9 +465,8 @@ public class ApacheHttpTransport implements Transport {
     public OrganizationV3DirectoriesGetResponse organizationV3DirectoriesGet(EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        HttpResponse response = getHttpResponse("GET", "/organization/v3/directories", subject, null, true, null);
-        OrganizationV3DirectoriesGetResponseDirectory[] directories =
-                decryptResponse(response, OrganizationV3DirectoriesGetResponseDirectory[].class);
+        OrganizationV3DirectoriesGetResponseDirectory[] directories = readResponse("GET",
+                "/organization/v3/directories", subject, null, OrganizationV3DirectoriesGetResponseDirectory[].class);
         return new OrganizationV3DirectoriesGetResponse(Arrays.asList(directories));
     }
 
@@ -412,10 +475,9 @@ public class ApacheHttpTransport implements Transport {
             OrganizationV3DirectoriesListPostRequest request, EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/organization/v3/directories/list", subject, request, true, null);
-        return new OrganizationV3DirectoriesListPostResponse(Arrays.asList(
-                decryptResponse(httpResponse, OrganizationV3DirectoriesListPostResponseDirectory[].class)));
+        return new OrganizationV3DirectoriesListPostResponse(Arrays.asList(readResponse(
+                "POST", "/organization/v3/directories/list", subject, request,
+                OrganizationV3DirectoriesListPostResponseDirectory[].class)));
     }
 
     @Override
@@ -433,10 +495,8 @@ public class ApacheHttpTransport implements Transport {
                                                                     EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/organization/v3/directory/keys/list", subject, request, true, null);
-        return new KeysListPostResponse(
-                Arrays.asList(decryptResponse(httpResponse, KeysListPostResponsePublicKey[].class)));
+        return new KeysListPostResponse(Arrays.asList(readResponse("POST", "/organization/v3/directory/keys/list",
+                subject, request, KeysListPostResponsePublicKey[].class)));
     }
 
     @Override
@@ -478,9 +538,8 @@ public class ApacheHttpTransport implements Transport {
             OrganizationV3DirectorySdkKeysListPostRequest request, EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/organization/v3/directory/sdk-keys/list", subject, request, true, null);
-        final UUID[] sdkKeys = decryptResponse(httpResponse, UUID[].class);
+        final UUID[] sdkKeys =
+                readResponse("POST", "/organization/v3/directory/sdk-keys/list", subject, request, UUID[].class);
 
         return new OrganizationV3DirectorySdkKeysListPostResponse(Arrays.asList(sdkKeys));
     }
@@ -506,20 +565,16 @@ public class ApacheHttpTransport implements Transport {
                                                                    EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/organization/v3/services/list", subject, request, true, null);
-        return new ServicesListPostResponse(
-                Arrays.asList(decryptResponse(httpResponse, ServicesListPostResponseService[].class)));
+        return new ServicesListPostResponse(Arrays.asList(readResponse(
+                "POST", "/organization/v3/services/list", subject, request, ServicesListPostResponseService[].class)));
     }
 
     @Override
     public ServicesGetResponse organizationV3ServicesGet(EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("GET", "/organization/v3/services", subject, null, true, null);
-        return new ServicesGetResponse(
-                Arrays.asList(decryptResponse(httpResponse, ServicesGetResponseService[].class)));
+        return new ServicesGetResponse(Arrays.asList(
+                readResponse("GET", "/organization/v3/services", subject, null, ServicesGetResponseService[].class)));
     }
 
     @Override
@@ -527,10 +582,8 @@ public class ApacheHttpTransport implements Transport {
                                                                   EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/organization/v3/service/keys/list", subject, request, true, null);
-        return new KeysListPostResponse(
-                Arrays.asList(decryptResponse(httpResponse, KeysListPostResponsePublicKey[].class)));
+        return new KeysListPostResponse(Arrays.asList(readResponse("POST", "/organization/v3/service/keys/list",
+                subject, request, KeysListPostResponsePublicKey[].class)));
     }
 
     @Override
@@ -569,9 +622,7 @@ public class ApacheHttpTransport implements Transport {
                                                              EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse response =
-                getHttpResponse("POST", "/organization/v3/service/policy/item", subject, request, true, null);
-        return decryptResponse(response, ServicePolicy.class);
+        return readResponse("POST", "/organization/v3/service/policy/item", subject, request, ServicePolicy.class);
     }
 
     @Override
@@ -602,20 +653,16 @@ public class ApacheHttpTransport implements Transport {
                                                                 EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/directory/v3/services/list", subject, request, true, null);
-        return new ServicesListPostResponse(
-                Arrays.asList(decryptResponse(httpResponse, ServicesListPostResponseService[].class)));
+        return new ServicesListPostResponse(Arrays.asList(readResponse(
+                "POST", "/directory/v3/services/list", subject, request, ServicesListPostResponseService[].class)));
     }
 
     @Override
     public ServicesGetResponse directoryV3ServicesGet(EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("GET", "/directory/v3/services", subject, null, true, null);
-        return new ServicesGetResponse(
-                Arrays.asList(decryptResponse(httpResponse, ServicesGetResponseService[].class)));
+        return new ServicesGetResponse(Arrays.asList(
+                readResponse("GET", "/directory/v3/services", subject, null, ServicesGetResponseService[].class)));
     }
 
     @Override
@@ -632,10 +679,8 @@ public class ApacheHttpTransport implements Transport {
                                                                EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        final HttpResponse httpResponse =
-                getHttpResponse("POST", "/directory/v3/service/keys/list", subject, request, true, null);
-        return new KeysListPostResponse(
-                Arrays.asList(decryptResponse(httpResponse, KeysListPostResponsePublicKey[].class)));
+        return new KeysListPostResponse(Arrays.asList(readResponse(
+                "POST", "/directory/v3/service/keys/list", subject, request, KeysListPostResponsePublicKey[].class)));
     }
 
     @Override
@@ -664,9 +709,7 @@ public class ApacheHttpTransport implements Transport {
                                                           EntityIdentifier subject)
             throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
             InvalidCredentialsException {
-        HttpResponse response =
-                getHttpResponse("POST", "/directory/v3/service/policy/item", subject, request, true, null);
-        return decryptResponse(response, ServicePolicy.class);
+        return readResponse("POST", "/directory/v3/service/policy/item", subject, request, ServicePolicy.class);
     }
 
     @Override
@@ -676,21 +719,237 @@ public class ApacheHttpTransport implements Transport {
         getHttpResponse("DELETE", "/directory/v3/service/policy", subject, request, true, null);
     }
 
+    /**
+     * Obtain the API time offset and current public key. No other request is built or sent. Signing, the verification
+     * and decryption of responses, and JSON parsing are exercised with a token and JWE created with the entity's own
+     * current key, as no synthetic data can be signed or encrypted with the API key.
+     */
+    @Override
+    public void warmUp()
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException {
+        String requestId = UUID.randomUUID().toString();
+        Date currentDate = getCurrentDate();
+        getCurrentPublicKeyData();
+        try {
+            JWTData requestData = jwtService.getJWTData(jwtService.encode(
+                    requestId, issuer.toString(), issuer.toString(), currentDate, WARM_UP_METHOD, WARM_UP_PATH,
+                    null, null));
+            String keyId = requestData.getKeyId();
+            String apiIdentifier = requestData.getAudience();
+            PublicKey entityPublicKey = crypto.getRSAPublicKey(entityKeyMap.getKey(issuer, keyId));
+            String jwt = jwtService.encode(requestId, apiIdentifier, issuer.toString(), currentDate, WARM_UP_METHOD,
+                    WARM_UP_PATH, null, null);
+            decode(entityPublicKey, apiIdentifier, requestId, currentDate, jwt, jwtService.getJWTData(jwt));
+            String json = jweService.decrypt(
+                    jweService.encrypt("{}", entityPublicKey, keyId, "application/json"));
+            objectMapper.readValue(json, Map.class);
+        } catch (JWTError | JWEFailure | NoKeyFoundException | IllegalArgumentException e) {
+            throw new CryptographyError("Unable to warm up cryptography", e);
+        } catch (IOException e) {
+            throw new MarshallingError("Unable to warm up JSON parsing", e);
+        }
+        logger.debug("Transport for " + issuer + " is warm");
+    }
+
+    /**
+     * Cancel the background refresh of the API time offset and current public key. The transport may still be used
+     * afterwards and will refresh them on the request thread once they expire. The HTTP client is not closed.
+     */
+    @Override
+    public void close() {
+        serverTimeOffset.close();
+        currentPublicKeyData.close();
+    }
+
+    /**
+     * Make a call to the API. Calls which are safe to repeat are retried after an I/O error or gateway error when
+     * there is a {@link RetryPolicy}. Every attempt is built and signed again so that it has its own JWT ID. When
+     * there is a {@link CircuitBreaker}, an attempt to an endpoint whose circuit is open fails before it is built.
+     */
     protected HttpResponse getHttpResponse(
             String method, String path, EntityIdentifier subjectEntity, Object transportObject, boolean signRequest,
             List<Integer> httpStatusCodeWhiteList)
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
+        boolean retryable = retryPolicy != null && isSafeToRetry(method, path);
+        if (retryable) {
+            retryPolicy.callStarted();
+        }
+        for (int attempt = 1; ; attempt++) {
+            boolean mayRetry = retryable && attempt < retryPolicy.getMaximumAttempts();
+            String requestId = UUID.randomUUID().toString();
+            CallMetrics metrics = startCallMetrics(method, path);
+            HttpUriRequest request = null;
+            CircuitBreaker.Call call = CircuitBreaker.NO_CALL;
+            CommunicationErrorException failure;
+            try {
+                call = acquireCircuit(path);
+                request = buildRequest(method, path, subjectEntity, transportObject, signRequest, requestId, metrics);
+                metrics.request(request);
+                ConcurrencyLimiter.Permit permit = acquirePermit(method, path);
+                long begun = metrics.begin();
+                long exchangeStarted = System.nanoTime();
+                HttpResponse response = null;
+                try {
+                    response = httpClient.execute(request);
+                } catch (IOException e) {
+                    throw new CommunicationErrorException("An I/O Error Occurred", e, null);
+                } finally {
+                    metrics.phase(TransportPhase.HTTP_EXCHANGE, begun);
+                    permit.release(response);
+                    call.complete(response, System.nanoTime() - exchangeStarted);
+                }
+                metrics.response(response);
+                StatusLine statusLine = response == null ? null : response.getStatusLine();
+                if (mayRetry && statusLine != null && isTransientStatus(statusLine.getStatusCode())
+                        && retryPolicy.tryRetry()) {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    failure = getStatusError(statusLine);
+                    metrics.completed(failure);
+                } else {
+                    response = processHttpResponse(
+                            response, requestId, signRequest, httpStatusCodeWhiteList, metrics);
+                    metrics.completed(null);
+                    return response;
+                }
+            } catch (CommunicationErrorException e) {
+                metrics.completed(e);
+                // Only failures of the exchange itself are retried. Failures obtaining the API time offset or
+                // current public key while building the request were already retried by their own calls.
+                if (!mayRetry || request == null || !(e.getCause() instanceof IOException)
+                        || !retryPolicy.tryRetry()) {
+                    throw e;
+                }
+                failure = e;
+            } catch (MarshallingError | InvalidResponseException | CryptographyError | InvalidCredentialsException
+                    | RuntimeException e) {
+                metrics.completed(e);
+                throw e;
+            } finally {
+                call.cancel();
+            }
+            if (!backOff(method, path, attempt, failure)) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Make a call which only reads from the API and decrypt its response. When there is a {@link RequestCoalescer},
+     * identical calls in flight at the same time share one call and its decrypted JSON. Each caller unmarshals the
+     * JSON itself, so no response objects are shared between callers.
+     */
+    private <T> T readResponse(
+            final String method, final String path, final EntityIdentifier subject, final Object transportObject,
+            final Class<T> type)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
+        if (requestCoalescer == null) {
+            return decryptResponse(getHttpResponse(method, path, subject, transportObject, true, null), type);
+        }
+        String body;
+        try {
+            body = transportObject == null ? "" : objectMapper.writeValueAsString(transportObject);
+        } catch (JsonProcessingException e) {
+            throw new MarshallingError("An error occurred attempting to marshall the transport object!", e);
+        }
+        String json = requestCoalescer.execute(method + " " + path + " " + issuer + " " + subject + " " + body,
+                new RequestCoalescer.Read<String>() {
+                    @Override
+                    public String read()
+                            throws CryptographyError, InvalidResponseException, CommunicationErrorException,
+                            MarshallingError, InvalidCredentialsException {
+                        HttpResponse response = getHttpResponse(method, path, subject, transportObject, true, null);
+                        CallMetrics metrics = getCallMetrics(response);
+                        long begun = metrics.begin();
+                        String json = decryptResponseContent(response);
+                        metrics.phase(TransportPhase.RESPONSE_DECRYPTION, begun);
+                        return json;
+                    }
+                });
+        return parseDecryptedResponse(json, type);
+    }
 
+    private CircuitBreaker.Call acquireCircuit(String path) throws CircuitOpen {
+        if (circuitBreaker == null) {
+            return CircuitBreaker.NO_CALL;
+        }
+        return circuitBreaker.acquire(CallMetrics.getEndpointPath(path));
+    }
+
+    /**
+     * Wait for the concurrency limiter. Only the HTTP exchange is limited, as building the request or validating the
+     * response can make calls of their own which would otherwise wait on the limit their caller holds.
+     */
+    private ConcurrencyLimiter.Permit acquirePermit(String method, String path) throws RateLimited {
+        if (concurrencyLimiter == null) {
+            return ConcurrencyLimiter.NO_PERMIT;
+        }
+        return concurrencyLimiter.acquire(issuer.toString(), method + " " + CallMetrics.getEndpointPath(path));
+    }
+
+    /**
+     * Reads, and the list and policy item POSTs which only read, do not change anything in the API and can be made
+     * again when it is unknown whether the API received them
+     */
+    private static boolean isSafeToRetry(String method, String path) {
+        return "GET".equals(method)
+                || ("POST".equals(method) && (path.endsWith("/list") || path.endsWith("/policy/item")));
+    }
+
+    private static boolean isTransientStatus(int statusCode) {
+        return statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Wait before retrying a call
+     *
+     * @return False when interrupted while waiting, in which case the call must not be retried
+     */
+    private boolean backOff(String method, String path, int attempt, Exception cause) {
+        long delayMillis = retryPolicy.getDelayMillis(attempt);
+        logger.debug("Retrying " + method + " " + path + " in " + delayMillis + "ms after attempt " + attempt, cause);
+        try {
+            Thread.sleep(delayMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.debug("Interrupted before retrying " + method + " " + path, e);
+            return false;
+        }
+    }
+
+    CallMetrics startCallMetrics(String method, String path) {
+        return CallMetrics.start(metricsListener, method, path);
+    }
+
+    HttpUriRequest buildRequest(
+            String method, String path, EntityIdentifier subjectEntity, Object transportObject, boolean signRequest,
+            String requestId)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
+        return buildRequest(method, path, subjectEntity, transportObject, signRequest, requestId, CallMetrics.NONE);
+    }
+
+    HttpUriRequest buildRequest(
+            String method, String path, EntityIdentifier subjectEntity, Object transportObject, boolean signRequest,
+            String requestId, CallMetrics metrics)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
         PublicKey publicKey;
         String publicKeyFingerprint;
         Date currentDate;
         String subject;
         if (signRequest) {
+            long begun = metrics.begin();
             PublicKeyData publicKeyData = getCurrentPublicKeyData();
+            metrics.phase(TransportPhase.CURRENT_PUBLIC_KEY, begun);
             publicKey = publicKeyData.getKey();
             publicKeyFingerprint = publicKeyData.getFingerprint();
+            begun = metrics.begin();
             currentDate = getCurrentDate();
+            metrics.phase(TransportPhase.API_TIME_OFFSET, begun);
             subject = subjectEntity.toString();
         } else {
             publicKey = null;
@@ -699,27 +958,40 @@ public class ApacheHttpTransport implements Transport {
             subject = null;
         }
 
-        String requestId = UUID.randomUUID().toString();
-        HttpUriRequest request = rbf.create(publicKey, publicKeyFingerprint, currentDate)
+        return rbf.create(publicKey, publicKeyFingerprint, currentDate)
                 .setMethod(method)
                 .setPath(path)
                 .setSubject(subject)
                 .setTransportObject(transportObject)
+                .setMetrics(metrics)
                 .build(requestId);
-        try {
-            HttpResponse response = httpClient.execute(request);
-            if (response == null) {
-                throw new InvalidResponseException("No response returned from HTTP client", null, null);
-            }
-            response = new ReplayHttpResponse(response);
-            if (signRequest) {
-                validateResponseJWT(response, requestId);
-            }
-            throwForStatus(response, httpStatusCodeWhiteList == null ? new ArrayList<Integer>() : httpStatusCodeWhiteList);
-            return response;
-        } catch (IOException e) {
-            throw new CommunicationErrorException("An I/O Error Occurred", e, null);
+    }
+
+    HttpResponse processHttpResponse(
+            HttpResponse response, String requestId, boolean signRequest, List<Integer> httpStatusCodeWhiteList)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
+        return processHttpResponse(response, requestId, signRequest, httpStatusCodeWhiteList, CallMetrics.NONE);
+    }
+
+    HttpResponse processHttpResponse(
+            HttpResponse response, String requestId, boolean signRequest, List<Integer> httpStatusCodeWhiteList,
+            CallMetrics metrics)
+            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
+            InvalidCredentialsException {
+        if (response == null) {
+            throw new InvalidResponseException("No response returned from HTTP client", null, null);
+        }
+        ReplayHttpResponse replayResponse = new ReplayHttpResponse(response, responseBufferCounters);
+        replayResponse.setCallMetrics(metrics);
+        if (signRequest) {
+            long begun = metrics.begin();
+            replayResponse.setJWTContext(validateResponseJWT(replayResponse, requestId));
+            metrics.phase(TransportPhase.RESPONSE_VALIDATION, begun);
         }
+        response = replayResponse;
+        throwForStatus(response, httpStatusCodeWhiteList == null ? new ArrayList<Integer>() : httpStatusCodeWhiteList);
+        return response;
     }
 
     private void throwForStatus(HttpResponse response, List<Integer> httpStatusCodeWhiteList)
@@ -740,25 +1012,49 @@ public class ApacheHttpTransport implements Transport {
                 throw InvalidRequestException.fromError(error);
             }
         } else if (!(statusCode >= 200 && statusCode < 300)) {
-            String message = "HTTP Error: [" + String.valueOf(statusCode)
-                    + "] " + response.getStatusLine().getReasonPhrase();
-            throw CommunicationErrorException.fromStatusCode(statusCode, message);
+            throw getStatusError(response.getStatusLine());
         }
     }
 
+    private static CommunicationErrorException getStatusError(StatusLine statusLine) {
+        String message = "HTTP Error: [" + String.valueOf(statusLine.getStatusCode())
+                + "] " + statusLine.getReasonPhrase();
+        return CommunicationErrorException.fromStatusCode(statusLine.getStatusCode(), message);
+    }
+
     protected <T> T decryptResponse(HttpResponse response, Class<T> type)
             throws InvalidResponseException, CommunicationErrorException, CryptographyError {
-        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        CallMetrics metrics = getCallMetrics(response);
+        long begun = metrics.begin();
+        T value = parseDecryptedResponse(decryptResponseContent(response), type);
+        metrics.phase(TransportPhase.RESPONSE_DECRYPTION, begun);
+        return value;
+    }
+
+    private CallMetrics getCallMetrics(HttpResponse response) {
+        return response instanceof ReplayHttpResponse
+                ? ((ReplayHttpResponse) response).getCallMetrics() : CallMetrics.NONE;
+    }
+
+    private String decryptResponseContent(HttpResponse response)
+            throws CommunicationErrorException, CryptographyError {
+        try {
+            return jweService.decrypt(new String(getContentBytes(response), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new CommunicationErrorException("AN IO Error Occurred", e, null);
+        } catch (JWEFailure jweFailure) {
+            throw new CryptographyError("Unable to decrypt response!", jweFailure);
+        }
+    }
+
+    private <T> T parseDecryptedResponse(String json, Class<T> type)
+            throws InvalidResponseException, CommunicationErrorException {
         try {
-            response.getEntity().writeTo(encrypted);
-            String json = jweService.decrypt(encrypted.toString());
             return objectMapper.readValue(json, type);
         } catch (JsonParseException | JsonMappingException e) {
             throw new InvalidResponseException("Unable to parse response as JSON", e, null);
         } catch (IOException e) {
             throw new CommunicationErrorException("AN IO Error Occurred", e, null);
-        } catch (JWEFailure jweFailure) {
-            throw new CryptographyError("Unable to decrypt response!", jweFailure);
         }
     }
 
@@ -773,21 +1069,20 @@ public class ApacheHttpTransport implements Transport {
         }
     }
 
-    private void validateResponseJWT(HttpResponse response, String expectedTokenId)
+    private JWTContext validateResponseJWT(HttpResponse response, String expectedTokenId)
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
         try {
 
             final String jwt = getJWT(response);
-            final JWTClaims claims = validateJWT(expectedTokenId, jwt);
-            HttpEntity entity = response.getEntity();
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            if (entity != null) entity.writeTo(stream);
+            final JWTContext jwtContext = validateJWT(expectedTokenId, jwt);
+            final JWTClaims claims = jwtContext.getClaims();
+            final byte[] content = getContentBytes(response);
 
             if (claims.getStatusCode() != response.getStatusLine().getStatusCode())
                 throw new JWTError("Status code of response content does not match JWT response status code", null);
 
-            verifyContentHash(claims, stream, "response");
+            verifyContentHash(claims, content, "response");
 
             if ((response.containsHeader("Location") &&
                             !response.getFirstHeader("Location").getValue().equals(claims.getLocationHeader()))
@@ -799,6 +1094,7 @@ public class ApacheHttpTransport implements Transport {
                 || (!response.containsHeader("Cache-Control") && claims.getCacheControlHeader() != null)
             ) throw new JWTError("Cache-Control header of response content does not match JWT response cache", null);
 
+            return jwtContext;
 
         } catch (JWTError jwtError) {
             throw new InvalidResponseException("Invalid JWT in response!", jwtError, null);
@@ -807,37 +1103,66 @@ public class ApacheHttpTransport implements Transport {
         }
     }
 
-    private void verifyContentHash(JWTClaims claims, ByteArrayOutputStream stream, String type) throws NoSuchAlgorithmException, JWTError {
+    /**
+     * Get the response body. The body of a {@link ReplayHttpResponse} is read once and the same array is shared by
+     * the content hash verification and decryption.
+     */
+    private byte[] getContentBytes(HttpResponse response) throws IOException {
+        if (response instanceof ReplayHttpResponse) {
+            return ((ReplayHttpResponse) response).getContentBytes();
+        }
+        HttpEntity entity = response.getEntity();
+        return entity == null ? new byte[0] : EntityUtils.toByteArray(entity);
+    }
+
+    private void verifyContentHash(JWTClaims claims, byte[] content, String type) throws NoSuchAlgorithmException, JWTError {
         String contentHashAlgorithm = claims.getContentHashAlgorithm();
-        if (stream.size() > 0 && contentHashAlgorithm != null) {
+        if (content.length > 0 && contentHashAlgorithm != null) {
             String hash;
             if (claims.getContentHashAlgorithm().equals("S256")) {
-                hash = Hex.encodeHexString(crypto.sha256(stream.toByteArray()));
+                hash = HexEncoder.encode(crypto.sha256(content));
             } else if (claims.getContentHashAlgorithm().equals("S384")) {
-                hash = Hex.encodeHexString(crypto.sha384(stream.toByteArray()));
+                hash = HexEncoder.encode(crypto.sha384(content));
             } else if (claims.getContentHashAlgorithm().equals("S512")) {
-                hash = Hex.encodeHexString(crypto.sha512(stream.toByteArray()));
+                hash = HexEncoder.encode(crypto.sha512(content));
             } else {
                 throw new JWTError("Hash of " + type + " content uses unsupported algorithm of " +
                         claims.getContentHashAlgorithm(), null);
             }
             if (claims.getContentHash() == null || !hash.equals(claims.getContentHash()))
                 throw new JWTError("Hash of " + type + " content does not match JWT " + type + " hash", null);
-        } else if (stream.size() > 0 && claims.getContentHashAlgorithm() == null) {
+        } else if (content.length > 0 && claims.getContentHashAlgorithm() == null) {
             throw new JWTError("No content hash algorithm found in JWT and there was content!", null);
-        } else if (stream.size() == 0 && claims.getContentHashAlgorithm() != null) {
+        } else if (content.length == 0 && claims.getContentHashAlgorithm() != null) {
             throw new JWTError("Content hash algorithm found in JWT and there was no content!", null);
-        } else if (stream.size() == 0 && claims.getContentHash() != null) {
+        } else if (content.length == 0 && claims.getContentHash() != null) {
             throw new JWTError("Content hash found in JWT and there was no content!", null);
         }
     }
 
-    private JWTClaims validateJWT(String expectedTokenId, String jwt)
+    /**
+     * Parse the JWT once, verify it with the API public key identified by its kid header, and validate its claims
+     */
+    private JWTContext validateJWT(String expectedTokenId, String jwt)
             throws JWTError, MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
             InvalidCredentialsException {
-        String keyId = jwtService.getJWTData(jwt).getKeyId();
-        return jwtService.decode(
-                getPublicKeyData(keyId).getKey(), issuer.toString(), expectedTokenId, getCurrentDate(), jwt);
+        JWTData jwtData = jwtService.getJWTData(jwt);
+        JWTClaims claims = decode(
+                getPublicKeyData(jwtData.getKeyId()).getKey(), issuer.toString(), expectedTokenId, getCurrentDate(),
+                jwt, jwtData);
+        return new JWTContext(jwtData, claims);
+    }
+
+    /**
+     * Decode the JWT without parsing it again when the JWT service supports decoding the parsed JWT data
+     */
+    private JWTClaims decode(PublicKey publicKey, String expectedAudience, String expectedTokenId, Date currentTime,
+                             String jwt, JWTData jwtData) throws JWTError {
+        if (jwtService instanceof ParsedJWTService) {
+            return ((ParsedJWTService) jwtService).decode(
+                    publicKey, expectedAudience, expectedTokenId, currentTime, jwtData);
+        }
+        return jwtService.decode(publicKey, expectedAudience, expectedTokenId, currentTime, jwt);
     }
 
     private String getJWT(HttpResponse response) {
@@ -848,42 +1173,76 @@ public class ApacheHttpTransport implements Transport {
     private PublicKeyData getCurrentPublicKeyData()
             throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
             InvalidCredentialsException {
-        if (currentPublicKeyDataExpires == null || currentPublicKeyDataExpires.before(new Date())) {
-            setCurrentPublicKeyData();
-        }
-        return currentPublicKeyData;
+        return currentPublicKeyData.get();
+    }
 
+    /**
+     * @return Number of times the current public key has been obtained from the API
+     */
+    public long getCurrentPublicKeyRefreshCount() {
+        return currentPublicKeyData.getRefreshCount();
     }
 
-    private synchronized void setCurrentPublicKeyData()
-            throws CommunicationErrorException, MarshallingError, InvalidResponseException, CryptographyError,
-            InvalidCredentialsException {
-        currentPublicKeyData = getPublicKeyData(null);
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(new Date());
-        calendar.add(Calendar.SECOND, currentPublicKeyTTL);
-        currentPublicKeyDataExpires = calendar.getTime();
+    /**
+     * @return Number of requests signed with an expired current public key while a replacement was being obtained
+     */
+    public long getCurrentPublicKeyStaleServeCount() {
+        return currentPublicKeyData.getStaleServeCount();
+    }
+
+    /**
+     * Number of API public keys obtained already parsed from the in process cache. These lookups do not reach the
+     * public key {@link Cache}, so they are not included in the statistics of a {@link StatsCache}. Those statistics
+     * only cover lookups of keys which had not been parsed yet.
+     *
+     * @return Number of API public keys obtained from the in process cache of parsed keys
+     */
+    public long getParsedPublicKeyHitCount() {
+        return parsedPublicKeyCache.getHitCount();
+    }
+
+    /**
+     * @return Number of response bodies buffered for verification and decryption
+     */
+    public long getResponseBufferCount() {
+        return responseBufferCounters.getBuffers();
+    }
+
+    /**
+     * @return Total bytes of response bodies buffered for verification and decryption
+     */
+    public long getResponseBufferedBytes() {
+        return responseBufferCounters.getBytes();
     }
 
     private PublicKeyData getPublicKeyData(String fingerprint)
             throws MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
             InvalidCredentialsException {
         PublicKeyData publicKeyData = null;
+        CacheMissReason missReason = null;
 
         if (fingerprint != null) {
+            PublicKey parsedKey = parsedPublicKeyCache.get(fingerprint);
+            if (parsedKey != null) {
+                return new PublicKeyData(parsedKey, fingerprint);
+            }
             String cacheKey = "LaunchKeyPublicKey:" + fingerprint;
             String publicKey = null;
+            missReason = CacheMissReason.ABSENT;
             try {
                 publicKey = publicKeyCache.get(cacheKey);
             } catch (CacheException e) {
+                missReason = e instanceof CacheTimeoutException ? CacheMissReason.TIMEOUT : CacheMissReason.ERROR;
                 logger.error("Unable to retrieve public key from cache. This will degrade performance.", e);
             }
             if (publicKey != null) {
+                missReason = CacheMissReason.UNUSABLE;
                 try {
                     publicKeyData = new PublicKeyData(
                             crypto.getRSAPublicKeyFromPEM(publicKey),
                             fingerprint
                     );
+                    parsedPublicKeyCache.put(fingerprint, publicKeyData.getKey());
                 } catch (IllegalArgumentException e) {
                     // The stored key cannot be parsed. Do nothing, the next step will get a new key.
                     // If the exception was raised due to a missing algorithm, it will fail in that step as well.
@@ -894,14 +1253,19 @@ public class ApacheHttpTransport implements Transport {
         // If the key was not in cache or the cached version was not valid,
         // get it from the API and store it in the cache
         if (publicKeyData == null) {
+            long started = System.nanoTime();
             PublicV3PublicKeyGetResponse apiKey = publicV3PublicKeyGet(fingerprint);
             publicKeyData = new PublicKeyData(
                     crypto.getRSAPublicKeyFromPEM(apiKey.getPublicKey()), apiKey.getPublicKeyFingerprint());
+            parsedPublicKeyCache.put(apiKey.getPublicKeyFingerprint(), publicKeyData.getKey());
             try {
                 publicKeyCache.put("LaunchKeyPublicKey:" + apiKey.getPublicKeyFingerprint(), apiKey.getPublicKey());
             } catch (CacheException e) {
                 logger.error("Unable to cache public key. This will degrade performance.", e);
             }
+            if (missReason != null && publicKeyCache instanceof StatsCache) {
+                ((StatsCache) publicKeyCache).recordLoad(missReason, System.nanoTime() - started);
+            }
         }
         return publicKeyData;
     }
@@ -909,25 +1273,7 @@ public class ApacheHttpTransport implements Transport {
     private Date getCurrentDate()
             throws MarshallingError, InvalidResponseException, CommunicationErrorException, CryptographyError,
             InvalidCredentialsException {
-        if (serverTimeOffsetExpires == null || serverTimeOffsetExpires.before(new Date())) {
-            setServerTimeOffset();
-        }
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(new Date());
-        calendar.add(Calendar.MILLISECOND, serverTimeOffset);
-        return calendar.getTime();
-    }
-
-    private synchronized void setServerTimeOffset()
-            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
-            InvalidCredentialsException {
-        Date now = new Date();
-        PublicV3PingGetResponse response = publicV3PingGet();
-        serverTimeOffset = new Long(response.getApiTime().getTime() - now.getTime()).intValue();
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(now);
-        calendar.add(Calendar.SECOND, offsetTTL);
-        serverTimeOffsetExpires = calendar.getTime();
+        return serverTimeOffset.getCurrentDate();
     }
 
     private class PublicKeyData {
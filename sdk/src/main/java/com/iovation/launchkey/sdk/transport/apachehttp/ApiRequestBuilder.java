@@ -21,8 +21,7 @@ import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTError;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
 import com.iovation.launchkey.sdk.error.MarshallingError;
-import org.apache.commons.codec.binary.Hex;
-import org.apache.http.HttpEntity;
+import com.iovation.launchkey.sdk.metrics.TransportPhase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.entity.ByteArrayEntity;
@@ -46,6 +45,7 @@ class ApiRequestBuilder {
     private String path = "/";
     private Object transportObject = null;
     private String subject = null;
+    private CallMetrics metrics = CallMetrics.NONE;
 
     ApiRequestBuilder(PublicKey publicKey, String publicKeyFingerprint, Date currentDate, String issuer, String baseUrl, ObjectMapper objectMapper, JWTService jwtService, JWEService jweService, Crypto crypto) {
         this.publicKey = publicKey;
@@ -79,6 +79,11 @@ class ApiRequestBuilder {
         return this;
     }
 
+    ApiRequestBuilder setMetrics(CallMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     public HttpUriRequest build(String requestId) throws MarshallingError, CryptographyError {
         try {
             RequestBuilder rb = RequestBuilder.create(this.method)
@@ -102,30 +107,30 @@ class ApiRequestBuilder {
         String hash;
         String func;
         if (transportObject != null) {
-            HttpEntity entity = getEntity(transportObject);
+            long begun = metrics.begin();
+            byte[] content = getContent(transportObject);
+            metrics.phase(TransportPhase.REQUEST_ENCRYPTION, begun);
+            ByteArrayEntity entity = new ByteArrayEntity(content);
+            entity.setContentType("application/jose");
             rb.setEntity(entity);
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            entity.writeTo(stream);
-            hash = Hex.encodeHexString(crypto.sha256(stream.toByteArray()));
+            hash = HexEncoder.encode(crypto.sha256(content));
             func = "S256";
         } else {
             hash = null;
             func = null;
         }
+        long begun = metrics.begin();
         String jwt = jwtService.encode(requestId, issuer, subject, currentDate, rb.getMethod(), path, func, hash);
+        metrics.phase(TransportPhase.REQUEST_SIGNATURE, begun);
         rb.setHeader("Authorization", "IOV-JWT " + jwt);
     }
 
-    private HttpEntity getEntity(Object transportObject) throws JsonProcessingException, CryptographyError {
+    private byte[] getContent(Object transportObject) throws JsonProcessingException, CryptographyError {
         String json = objectMapper.writeValueAsString(transportObject);
-        byte[] encrypted;
         try {
-            encrypted = jweService.encrypt(json, publicKey, publicKeyFingerprint, "application/json").getBytes();
+            return jweService.encrypt(json, publicKey, publicKeyFingerprint, "application/json").getBytes();
         } catch (JWEFailure jweFailure) {
             throw new CryptographyError("An error occurred encrypting the request entity with JWE", jweFailure);
         }
-        ByteArrayEntity entity = new ByteArrayEntity(encrypted);
-        entity.setContentType("application/jose");
-        return entity;
     }
 }
@@ -0,0 +1,306 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.crypto.Crypto;
+import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.BaseException;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.metrics.TransportPhase;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.HttpAsyncClient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Transport which adds non-blocking authorization, session, and directory user device calls via an Apache
+ * {@link HttpAsyncClient} to the blocking {@link ApacheHttpTransport}. Requests are signed and encrypted and
+ * responses are verified and decrypted exactly as they are for the blocking calls. The blocking {@link HttpClient}
+ * is still used for all {@link com.iovation.launchkey.sdk.transport.Transport} calls including the public key and
+ * ping calls required to sign requests.
+ * <p>
+ * Requests are built and signed on the calling thread. When the API time offset or current public key has not been
+ * obtained yet or has expired without being refreshed by the scheduler, it is obtained with a blocking call on the
+ * calling thread. Warm up the transport to obtain them ahead of the first call.
+ * <p>
+ * Response verification and decryption, which may fetch the public key of the response from the API with a blocking
+ * call, is handed off from the I/O dispatch thread of the {@link HttpAsyncClient} to the response executor. Futures
+ * are completed and callbacks are notified on a thread of the response executor.
+ */
+public class AsyncHttpTransport extends ApacheHttpTransport implements AsyncTransport {
+    private static final List<Integer> AUTHS_GET_STATUS_WHITE_LIST = Collections.singletonList(408);
+
+    private final HttpAsyncClient httpAsyncClient;
+    private final Executor responseExecutor;
+
+    /**
+     * @param httpClient Blocking HTTP client for {@link com.iovation.launchkey.sdk.transport.Transport} calls
+     * @param httpAsyncClient Started non-blocking HTTP client for {@link AsyncTransport} calls
+     * @param responseExecutor Executor verifying and decrypting the responses of {@link AsyncTransport} calls off the
+     * I/O dispatch threads of the non-blocking HTTP client
+     * @param crypto Crypto provider
+     * @param objectMapper Jackson object mapper
+     * @param publicKeyCache Caching for public keys from LaunchKey API
+     * @param baseUrl Base URL for the Platform API
+     * @param issuer Entity issuing the requests
+     * @param jwtService JWT service
+     * @param jweService JWE service
+     * @param offsetTTL The number of seconds the API time offset will live before obtaining another using a ping call.
+     * @param currentPublicKeyTTL The number of seconds the current public key will live before obtaining it again
+     * @param entityKeyMap Mapping of entity private keys
+     * @param scheduler Scheduler used to refresh the API time offset and current public key in the
+     * background. May be null.
+     * @param options Optional metrics listener, retry policy, concurrency limiter, circuit breaker, and request
+     * coalescer. Only the metrics listener applies to non-blocking calls.
+     */
+    public AsyncHttpTransport(HttpClient httpClient, HttpAsyncClient httpAsyncClient, Executor responseExecutor,
+                              Crypto crypto, ObjectMapper objectMapper, Cache publicKeyCache, String baseUrl,
+                              EntityIdentifier issuer, JWTService jwtService, JWEService jweService,
+                              int offsetTTL, int currentPublicKeyTTL, EntityKeyMap entityKeyMap,
+                              ScheduledExecutorService scheduler, TransportOptions options) {
+        super(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer, jwtService, jweService, offsetTTL,
+                currentPublicKeyTTL, entityKeyMap, scheduler, options);
+        this.httpAsyncClient = httpAsyncClient;
+        this.responseExecutor = responseExecutor;
+    }
+
+    @Override
+    public Future<ServiceV3AuthsPostResponse> serviceV3AuthsPost(
+            ServiceV3AuthsPostRequest request, EntityIdentifier subject,
+            FutureCallback<ServiceV3AuthsPostResponse> callback) {
+        return execute("POST", "/service/v3/auths", subject, request, null, callback,
+                new ResponseProcessor<ServiceV3AuthsPostResponse>() {
+                    @Override
+                    public ServiceV3AuthsPostResponse process(HttpResponse response) throws BaseException {
+                        return decryptResponse(response, ServiceV3AuthsPostResponse.class);
+                    }
+                });
+    }
+
+    @Override
+    public Future<ServiceV3AuthsGetResponse> serviceV3AuthsGet(
+            UUID authRequestId, final EntityIdentifier subject, FutureCallback<ServiceV3AuthsGetResponse> callback) {
+        String path = "/service/v3/auths/" + authRequestId.toString();
+        return execute("GET", path, subject, null, AUTHS_GET_STATUS_WHITE_LIST, callback,
+                new ResponseProcessor<ServiceV3AuthsGetResponse>() {
+                    @Override
+                    public ServiceV3AuthsGetResponse process(HttpResponse response) throws BaseException {
+                        if (response.getStatusLine().getStatusCode() == 408) {
+                            throw new AuthorizationRequestTimedOutError();
+                        }
+                        return processServiceV3AuthsGetResponse(response, subject);
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> serviceV3AuthsDelete(UUID authRequestId, EntityIdentifier subject,
+                                             FutureCallback<Void> callback) {
+        String path = "/service/v3/auths/" + authRequestId.toString();
+        return execute("DELETE", path, subject, null, null, callback, new NoContentResponseProcessor());
+    }
+
+    @Override
+    public Future<Void> serviceV3SessionsPost(ServiceV3SessionsPostRequest request, EntityIdentifier subject,
+                                              FutureCallback<Void> callback) {
+        return execute("POST", "/service/v3/sessions", subject, request, null, callback,
+                new NoContentResponseProcessor());
+    }
+
+    @Override
+    public Future<Void> serviceV3SessionsDelete(ServiceV3SessionsDeleteRequest request, EntityIdentifier subject,
+                                                FutureCallback<Void> callback) {
+        return execute("DELETE", "/service/v3/sessions", subject, request, null, callback,
+                new NoContentResponseProcessor());
+    }
+
+    @Override
+    public Future<DirectoryV3DevicesPostResponse> directoryV3DevicesPost(
+            DirectoryV3DevicesPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesPostResponse> callback) {
+        return execute("POST", "/directory/v3/devices", subject, request, null, callback,
+                new ResponseProcessor<DirectoryV3DevicesPostResponse>() {
+                    @Override
+                    public DirectoryV3DevicesPostResponse process(HttpResponse response) throws BaseException {
+                        return decryptResponse(response, DirectoryV3DevicesPostResponse.class);
+                    }
+                });
+    }
+
+    @Override
+    public Future<DirectoryV3DevicesListPostResponse> directoryV3DevicesListPost(
+            DirectoryV3DevicesListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3DevicesListPostResponse> callback) {
+        return execute("POST", "/directory/v3/devices/list", subject, request, null, callback,
+                new ResponseProcessor<DirectoryV3DevicesListPostResponse>() {
+                    @Override
+                    public DirectoryV3DevicesListPostResponse process(HttpResponse response) throws BaseException {
+                        return new DirectoryV3DevicesListPostResponse(Arrays.asList(
+                                decryptResponse(response, DirectoryV3DevicesListPostResponseDevice[].class)));
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> directoryV3devicesDelete(DirectoryV3DevicesDeleteRequest request, EntityIdentifier subject,
+                                                 FutureCallback<Void> callback) {
+        return execute("DELETE", "/directory/v3/devices", subject, request, null, callback,
+                new NoContentResponseProcessor());
+    }
+
+    @Override
+    public Future<DirectoryV3SessionsListPostResponse> directoryV3SessionsListPost(
+            DirectoryV3SessionsListPostRequest request, EntityIdentifier subject,
+            FutureCallback<DirectoryV3SessionsListPostResponse> callback) {
+        return execute("POST", "/directory/v3/sessions/list", subject, request, null, callback,
+                new ResponseProcessor<DirectoryV3SessionsListPostResponse>() {
+                    @Override
+                    public DirectoryV3SessionsListPostResponse process(HttpResponse response) throws BaseException {
+                        return new DirectoryV3SessionsListPostResponse(Arrays.asList(
+                                decryptResponse(response, DirectoryV3SessionsListPostResponseSession[].class)));
+                    }
+                });
+    }
+
+    @Override
+    public Future<Void> directoryV3SessionsDelete(DirectoryV3SessionsDeleteRequest request, EntityIdentifier subject,
+                                                  FutureCallback<Void> callback) {
+        return execute("DELETE", "/directory/v3/sessions", subject, request, null, callback,
+                new NoContentResponseProcessor());
+    }
+
+    private <T> Future<T> execute(
+            String method, String path, EntityIdentifier subject, Object transportObject,
+            final List<Integer> httpStatusCodeWhiteList, FutureCallback<T> callback,
+            final ResponseProcessor<T> processor) {
+        final TransportFuture<T> future = new TransportFuture<>(callback);
+        final String requestId = UUID.randomUUID().toString();
+        final CallMetrics metrics = startCallMetrics(method, path);
+        final HttpUriRequest request;
+        try {
+            request = buildRequest(method, path, subject, transportObject, true, requestId, metrics);
+        } catch (BaseException e) {
+            metrics.completed(e);
+            future.failed(e);
+            return future;
+        }
+        metrics.request(request);
+        final long begun = metrics.begin();
+        future.setExchange(httpAsyncClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+                metrics.phase(TransportPhase.HTTP_EXCHANGE, begun);
+                metrics.response(response);
+                try {
+                    responseExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            process(response);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    CommunicationErrorException error =
+                            new CommunicationErrorException("Unable to process the response", e, null);
+                    metrics.completed(error);
+                    future.failed(error);
+                }
+            }
+
+            private void process(HttpResponse response) {
+                HttpResponse processed;
+                try {
+                    processed = processHttpResponse(response, requestId, true, httpStatusCodeWhiteList, metrics);
+                    metrics.response(processed);
+                    metrics.completed(null);
+                } catch (BaseException | RuntimeException e) {
+                    metrics.completed(e);
+                    future.failed(e);
+                    return;
+                }
+                try {
+                    future.completed(processor.process(processed));
+                } catch (BaseException | RuntimeException e) {
+                    future.failed(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                metrics.phase(TransportPhase.HTTP_EXCHANGE, begun);
+                Exception error = e instanceof IOException
+                        ? new CommunicationErrorException("An I/O Error Occurred", e, null) : e;
+                metrics.completed(error);
+                future.failed(error);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel();
+            }
+        }));
+        return future;
+    }
+
+    private interface ResponseProcessor<T> {
+        T process(HttpResponse response) throws BaseException;
+    }
+
+    private static class NoContentResponseProcessor implements ResponseProcessor<Void> {
+        @Override
+        public Void process(HttpResponse response) {
+            return null;
+        }
+    }
+
+    /**
+     * Future which will cancel the underlying HTTP exchange when it is cancelled
+     */
+    private static class TransportFuture<T> extends BasicFuture<T> {
+        private volatile Future<HttpResponse> exchange;
+
+        TransportFuture(FutureCallback<T> callback) {
+            super(callback);
+        }
+
+        void setExchange(Future<HttpResponse> exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            Future<HttpResponse> current = exchange;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
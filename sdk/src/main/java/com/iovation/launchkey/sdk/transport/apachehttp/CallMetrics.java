@@ -0,0 +1,119 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
+import com.iovation.launchkey.sdk.metrics.TransportPhase;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+
+import java.util.regex.Pattern;
+
+/**
+ * Timings of one call reported to a {@link TransportMetricsListener}. Does nothing when there is no listener.
+ */
+class CallMetrics {
+    static final CallMetrics NONE = new CallMetrics(null, null);
+    private static final Pattern IDENTIFIER = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}" + // UUID
+                    "|[0-9a-fA-F]{2}(:[0-9a-fA-F]{2})+"); // Public key fingerprint
+    private static final Log LOGGER = LogFactory.getLog(CallMetrics.class);
+
+    private final TransportMetricsListener listener;
+    private final String endpoint;
+    private final long started;
+    private volatile int statusCode = -1;
+    private volatile long requestBytes = -1L;
+    private volatile long responseBytes = -1L;
+
+    private CallMetrics(TransportMetricsListener listener, String endpoint) {
+        this.listener = listener;
+        this.endpoint = endpoint;
+        this.started = listener == null ? 0L : System.nanoTime();
+    }
+
+    /**
+     * Start timing a call
+     *
+     * @param listener Listener to report to. May be null.
+     * @param method HTTP method
+     * @param path Request path
+     * @return Call metrics
+     */
+    static CallMetrics start(TransportMetricsListener listener, String method, String path) {
+        return listener == null ? NONE : new CallMetrics(listener, method + " " + getEndpointPath(path));
+    }
+
+    /**
+     * Replace identifiers in a path with "{id}" so that every call to an endpoint is reported the same way
+     */
+    static String getEndpointPath(String path) {
+        String[] segments = path.split("/", -1);
+        StringBuilder endpointPath = new StringBuilder(path.length());
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                endpointPath.append('/');
+            }
+            endpointPath.append(IDENTIFIER.matcher(segments[i]).matches() ? "{id}" : segments[i]);
+        }
+        return endpointPath.toString();
+    }
+
+    /**
+     * @return Start time of a phase
+     */
+    long begin() {
+        return listener == null ? 0L : System.nanoTime();
+    }
+
+    void phase(TransportPhase phase, long begun) {
+        if (listener != null) {
+            try {
+                listener.phaseCompleted(endpoint, phase, System.nanoTime() - begun);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Transport metrics listener failed", e);
+            }
+        }
+    }
+
+    void request(HttpRequest request) {
+        if (listener != null) {
+            HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+                    ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+            requestBytes = entity == null ? 0L : entity.getContentLength();
+        }
+    }
+
+    void response(HttpResponse response) {
+        if (listener != null && response != null) {
+            statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            responseBytes = entity == null ? 0L : entity.getContentLength();
+        }
+    }
+
+    void completed(Throwable error) {
+        if (listener != null) {
+            try {
+                listener.callCompleted(
+                        endpoint, statusCode, requestBytes, responseBytes, System.nanoTime() - started, error);
+            } catch (RuntimeException e) {
+                LOGGER.debug("Transport metrics listener failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CircuitOpen;
+import org.apache.http.HttpResponse;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker failing calls to an endpoint of the LaunchKey API immediately while the endpoint is failing or slow
+ * rather than letting each call wait out the connection and socket timeouts. Each endpoint path has its own
+ * {@link EndpointCircuit}, so trouble with the organization management endpoints does not stop authorizations.
+ * <p>
+ * A call fails when there is no response or the response is a server error. A call is slow when its HTTP exchange
+ * takes longer than the slow call threshold. A call to an endpoint whose circuit is open fails with
+ * {@link CircuitOpen} without being built or sent.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final long DEFAULT_SLOW_CALL_THRESHOLD_MILLIS = 5000L;
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.5;
+    public static final long DEFAULT_OPEN_MILLIS = 30000L;
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    static final Call NO_CALL = new Call(null, 0L, 0L);
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final ConcurrentMap<String, EndpointCircuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Create a circuit breaker with the default thresholds
+     */
+    public CircuitBreaker() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_FAILURE_RATE_THRESHOLD,
+                DEFAULT_SLOW_CALL_THRESHOLD_MILLIS, DEFAULT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_OPEN_MILLIS,
+                DEFAULT_HALF_OPEN_CALLS);
+    }
+
+    /**
+     * @param windowSize Number of most recent calls to an endpoint whose outcome is tracked
+     * @param minimumCalls Number of calls which must be tracked before a circuit may open
+     * @param failureRateThreshold Share of failed calls, greater than zero and at most one, at which a circuit opens
+     * @param slowCallThresholdMillis Duration of the HTTP exchange above which a call is slow. Zero to ignore
+     * latency.
+     * @param slowCallRateThreshold Share of slow calls, greater than zero and at most one, at which a circuit opens
+     * @param openMillis Time a circuit stays open before probe calls are let through
+     * @param halfOpenCalls Number of probe calls which must succeed to close a circuit
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long slowCallThresholdMillis,
+                          double slowCallRateThreshold, long openMillis, int halfOpenCalls) {
+        if (minimumCalls < 1 || windowSize < minimumCalls || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Minimum calls and half open calls must be at least 1 and the window " +
+                    "size must not be less than the minimum calls");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1
+                || slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("Rate thresholds must be greater than 0 and at most 1");
+        }
+        if (slowCallThresholdMillis < 0 || openMillis < 0) {
+            throw new IllegalArgumentException("Slow call threshold and open duration must not be negative");
+        }
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * @return Circuits keyed by endpoint path such as "/service/v3/auths/{id}"
+     */
+    public Map<String, EndpointCircuit> getCircuits() {
+        return Collections.<String, EndpointCircuit>unmodifiableMap(circuits);
+    }
+
+    /**
+     * @return Number of calls rejected by all circuits
+     */
+    public long getRejectedCount() {
+        long rejectedCount = 0L;
+        for (EndpointCircuit circuit : circuits.values()) {
+            rejectedCount += circuit.getRejectedCount();
+        }
+        return rejectedCount;
+    }
+
+    /**
+     * Check the circuit of the endpoint
+     *
+     * @param endpoint Path of the endpoint being called
+     * @return Call to complete once the HTTP exchange has completed or to cancel if it is not made
+     * @throws CircuitOpen When the circuit is open
+     */
+    Call acquire(String endpoint) throws CircuitOpen {
+        EndpointCircuit circuit = getCircuit(endpoint);
+        long generation = circuit.acquire();
+        if (generation < 0) {
+            throw new CircuitOpen("Circuit open for " + endpoint, null, null);
+        }
+        return new Call(circuit, generation, slowCallThresholdNanos);
+    }
+
+    private EndpointCircuit getCircuit(String endpoint) {
+        EndpointCircuit circuit = circuits.get(endpoint);
+        if (circuit == null) {
+            EndpointCircuit created = new EndpointCircuit(windowSize, minimumCalls, failureRateThreshold,
+                    slowCallRateThreshold, openNanos, halfOpenCalls);
+            circuit = circuits.putIfAbsent(endpoint, created);
+            if (circuit == null) {
+                circuit = created;
+            }
+        }
+        return circuit;
+    }
+
+    /**
+     * One call let through a circuit. It is used by a single thread.
+     */
+    static class Call {
+        private final EndpointCircuit circuit;
+        private final long generation;
+        private final long slowCallThresholdNanos;
+        private boolean done;
+
+        private Call(EndpointCircuit circuit, long generation, long slowCallThresholdNanos) {
+            this.circuit = circuit;
+            this.generation = generation;
+            this.slowCallThresholdNanos = slowCallThresholdNanos;
+        }
+
+        /**
+         * @param response Response to the call or null when there was no response
+         * @param exchangeNanos Duration of the HTTP exchange
+         */
+        void complete(HttpResponse response, long exchangeNanos) {
+            if (circuit != null && !done) {
+                done = true;
+                circuit.release(generation,
+                        response == null || response.getStatusLine().getStatusCode() >= 500,
+                        slowCallThresholdNanos > 0 && exchangeNanos > slowCallThresholdNanos);
+            }
+        }
+
+        /**
+         * Give up the call if it was not made
+         */
+        void cancel() {
+            if (circuit != null && !done) {
+                done = true;
+                circuit.cancel(generation);
+            }
+        }
+    }
+}
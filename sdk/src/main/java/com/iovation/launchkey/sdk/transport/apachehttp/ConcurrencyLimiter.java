@@ -0,0 +1,191 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.RateLimited;
+import org.apache.http.HttpResponse;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side limiter of calls to the LaunchKey API which slows down when the API pushes back. Each entity has an
+ * {@link AdaptiveConcurrencyLimit} for each endpoint it calls, so an endpoint being throttled does not limit the
+ * others. The calls of each entity may also be capped to a maximum rate.
+ * <p>
+ * A call which finds its limit reached waits up to the queue timeout for a call to complete. When none does, it fails
+ * with {@link RateLimited} without being sent, just as it would when the API rate limits it.
+ */
+public class ConcurrencyLimiter {
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MINIMUM_LIMIT = 1;
+    public static final int DEFAULT_MAXIMUM_LIMIT = 200;
+    public static final long DEFAULT_LATENCY_THRESHOLD_MILLIS = 2000L;
+    public static final long DEFAULT_QUEUE_TIMEOUT_MILLIS = 0L;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.5;
+
+    static final Permit NO_PERMIT = new Permit(null, 0L);
+
+    private final int initialLimit;
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final long latencyThresholdNanos;
+    private final long queueTimeoutNanos;
+    private final double maximumCallsPerSecond;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> rateCaps = new ConcurrentHashMap<>();
+
+    /**
+     * Create a limiter with the default limits which fails calls over the limit immediately and does not cap the rate
+     * of calls
+     */
+    public ConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MINIMUM_LIMIT, DEFAULT_MAXIMUM_LIMIT, DEFAULT_LATENCY_THRESHOLD_MILLIS,
+                DEFAULT_QUEUE_TIMEOUT_MILLIS, 0.0);
+    }
+
+    /**
+     * @param initialLimit Concurrency limit of an endpoint for an entity before any call has completed
+     * @param minimumLimit Lowest a concurrency limit may go
+     * @param maximumLimit Highest a concurrency limit may go
+     * @param latencyThresholdMillis Latency above which a call lowers the concurrency limit. Zero to ignore latency.
+     * @param queueTimeoutMillis Time a call over the limit waits for a call to complete before failing. Zero to fail
+     * immediately.
+     * @param maximumCallsPerSecond Maximum rate of calls for each entity. Zero to not cap the rate.
+     */
+    public ConcurrencyLimiter(int initialLimit, int minimumLimit, int maximumLimit, long latencyThresholdMillis,
+                              long queueTimeoutMillis, double maximumCallsPerSecond) {
+        if (minimumLimit < 1 || initialLimit < minimumLimit || maximumLimit < initialLimit) {
+            throw new IllegalArgumentException(
+                    "Limits must be at least 1 and the initial limit must be between the minimum and maximum limits");
+        }
+        if (latencyThresholdMillis < 0 || queueTimeoutMillis < 0 || maximumCallsPerSecond < 0) {
+            throw new IllegalArgumentException(
+                    "Latency threshold, queue timeout, and maximum calls per second must not be negative");
+        }
+        this.initialLimit = initialLimit;
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.maximumCallsPerSecond = maximumCallsPerSecond;
+    }
+
+    /**
+     * @return Concurrency limits keyed by entity and endpoint such as
+     * "svc:49af9c38-31b3-11e7-93ae-92361f002671 GET /service/v3/auths/{id}"
+     */
+    public Map<String, AdaptiveConcurrencyLimit> getLimits() {
+        return Collections.<String, AdaptiveConcurrencyLimit>unmodifiableMap(limits);
+    }
+
+    /**
+     * @return Number of calls rejected by all limits
+     */
+    public long getRejectedCount() {
+        long rejectedCount = 0L;
+        for (AdaptiveConcurrencyLimit limit : limits.values()) {
+            rejectedCount += limit.getRejectedCount();
+        }
+        return rejectedCount;
+    }
+
+    /**
+     * Wait for the rate cap of the entity and the concurrency limit of the endpoint for the entity. The token taken
+     * from the rate cap is returned when the concurrency limit rejects the call, as the call is not made.
+     *
+     * @param entity Entity making the call
+     * @param endpoint Endpoint being called
+     * @return Permit to release once the call has completed
+     * @throws RateLimited When the call may not be made within the queue timeout
+     */
+    Permit acquire(String entity, String endpoint) throws RateLimited {
+        long deadline = System.nanoTime() + queueTimeoutNanos;
+        TokenBucket rateCap = null;
+        try {
+            if (maximumCallsPerSecond > 0) {
+                rateCap = getRateCap(entity);
+                if (!rateCap.acquire(deadline)) {
+                    throw new RateLimited("Client side rate limit reached for " + entity, null, null);
+                }
+            }
+            AdaptiveConcurrencyLimit limit = getLimit(entity + " " + endpoint);
+            if (!limit.acquire(deadline)) {
+                refund(rateCap);
+                throw new RateLimited("Client side concurrency limit reached for " + endpoint, null, null);
+            }
+            return new Permit(limit, System.nanoTime());
+        } catch (InterruptedException e) {
+            refund(rateCap);
+            Thread.currentThread().interrupt();
+            throw new RateLimited("Interrupted waiting for the client side limit for " + endpoint, e, null);
+        }
+    }
+
+    private static void refund(TokenBucket rateCap) {
+        if (rateCap != null) {
+            rateCap.refund();
+        }
+    }
+
+    private AdaptiveConcurrencyLimit getLimit(String key) {
+        AdaptiveConcurrencyLimit limit = limits.get(key);
+        if (limit == null) {
+            AdaptiveConcurrencyLimit created = new AdaptiveConcurrencyLimit(
+                    initialLimit, minimumLimit, maximumLimit, latencyThresholdNanos, DEFAULT_BACKOFF_RATIO);
+            limit = limits.putIfAbsent(key, created);
+            if (limit == null) {
+                limit = created;
+            }
+        }
+        return limit;
+    }
+
+    private TokenBucket getRateCap(String entity) {
+        TokenBucket rateCap = rateCaps.get(entity);
+        if (rateCap == null) {
+            TokenBucket created =
+                    new TokenBucket(maximumCallsPerSecond, Math.max(1, (int) Math.ceil(maximumCallsPerSecond)));
+            rateCap = rateCaps.putIfAbsent(entity, created);
+            if (rateCap == null) {
+                rateCap = created;
+            }
+        }
+        return rateCap;
+    }
+
+    /**
+     * Permission to make one call
+     */
+    static class Permit {
+        private final AdaptiveConcurrencyLimit limit;
+        private final long started;
+
+        private Permit(AdaptiveConcurrencyLimit limit, long started) {
+            this.limit = limit;
+            this.started = started;
+        }
+
+        /**
+         * @param response Response to the call or null when there was no response
+         */
+        void release(HttpResponse response) {
+            if (limit != null) {
+                limit.release(started, response == null ? -1 : response.getStatusLine().getStatusCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+/**
+ * Circuit of one endpoint tracking the outcome of its most recent calls.
+ * <p>
+ * While closed, the circuit opens once the share of failed or slow calls among the calls in its window reaches its
+ * threshold. While open, every call is rejected. After the open duration the circuit is half open and lets a few probe
+ * calls through. It closes when they all succeed in time and opens again as soon as one does not. Outcomes of calls
+ * started before the circuit last changed state are ignored.
+ */
+public class EndpointCircuit {
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recorded;
+    private int next;
+    private int failedCount;
+    private int slowCount;
+    private CircuitBreaker.State state = CircuitBreaker.State.CLOSED;
+    private long generation;
+    private long opened;
+    private int probes;
+    private int probesSucceeded;
+    private long rejectedCount;
+
+    /**
+     * @param windowSize Number of most recent calls whose outcome is tracked
+     * @param minimumCalls Number of calls which must be tracked before the circuit may open
+     * @param failureRateThreshold Share of failed calls at which the circuit opens
+     * @param slowCallRateThreshold Share of slow calls at which the circuit opens
+     * @param openNanos Time the circuit stays open before probe calls are let through
+     * @param halfOpenCalls Number of probe calls which must succeed to close the circuit
+     */
+    EndpointCircuit(int windowSize, int minimumCalls, double failureRateThreshold, double slowCallRateThreshold,
+                    long openNanos, int halfOpenCalls) {
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * @return Current state. An open circuit whose open duration has passed is reported as open until a call is
+     * attempted.
+     */
+    public synchronized CircuitBreaker.State getState() {
+        return state;
+    }
+
+    /**
+     * @return Share of failed calls among the calls tracked while closed
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0.0 : (double) failedCount / recorded;
+    }
+
+    /**
+     * @return Share of slow calls among the calls tracked while closed
+     */
+    public synchronized double getSlowCallRate() {
+        return recorded == 0 ? 0.0 : (double) slowCount / recorded;
+    }
+
+    /**
+     * @return Number of calls rejected as the circuit was open
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Check whether a call may be made and count it as a probe when the circuit is half open
+     *
+     * @return Generation of the circuit the call belongs to or -1 when the call is rejected
+     */
+    synchronized long acquire() {
+        if (state == CircuitBreaker.State.OPEN) {
+            if (System.nanoTime() - opened < openNanos) {
+                rejectedCount++;
+                return -1L;
+            }
+            transition(CircuitBreaker.State.HALF_OPEN);
+        }
+        if (state == CircuitBreaker.State.HALF_OPEN) {
+            if (probes + probesSucceeded >= halfOpenCalls) {
+                rejectedCount++;
+                return -1L;
+            }
+            probes++;
+        }
+        return generation;
+    }
+
+    /**
+     * Record the outcome of a call
+     *
+     * @param generation Generation returned when the call was acquired
+     * @param failed Whether the call failed
+     * @param slow Whether the call was slow
+     */
+    synchronized void release(long generation, boolean failed, boolean slow) {
+        if (generation != this.generation) {
+            return;
+        }
+        if (state == CircuitBreaker.State.HALF_OPEN) {
+            probes--;
+            if (failed || slow) {
+                transition(CircuitBreaker.State.OPEN);
+            } else if (++probesSucceeded >= halfOpenCalls) {
+                transition(CircuitBreaker.State.CLOSED);
+            }
+        } else if (state == CircuitBreaker.State.CLOSED) {
+            record(failed, slow);
+            if (recorded >= minimumCalls && (failedCount >= failureRateThreshold * recorded
+                    || slowCount >= slowCallRateThreshold * recorded)) {
+                transition(CircuitBreaker.State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Give up a call which was acquired but not made so that it does not hold a probe
+     *
+     * @param generation Generation returned when the call was acquired
+     */
+    synchronized void cancel(long generation) {
+        if (generation == this.generation && state == CircuitBreaker.State.HALF_OPEN) {
+            probes--;
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recorded == failedCalls.length) {
+            failedCount -= failedCalls[next] ? 1 : 0;
+            slowCount -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = failed;
+        slowCalls[next] = slow;
+        failedCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        next = (next + 1) % failedCalls.length;
+    }
+
+    private void transition(CircuitBreaker.State state) {
+        this.state = state;
+        generation++;
+        probes = 0;
+        probesSucceeded = 0;
+        if (state == CircuitBreaker.State.OPEN) {
+            opened = System.nanoTime();
+        } else if (state == CircuitBreaker.State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failedCount = 0;
+            slowCount = 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+/**
+ * Lower case hex encoding of content hashes into a per thread character buffer. The buffer is sized for a SHA-512
+ * hash and reused so the only allocation per hash is the resulting String.
+ */
+final class HexEncoder {
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    private static final int DEFAULT_BUFFER_SIZE = 128;
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[DEFAULT_BUFFER_SIZE];
+        }
+    };
+
+    private HexEncoder() {
+    }
+
+    static String encode(byte[] data) {
+        int length = data.length * 2;
+        char[] buffer = BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new char[length];
+            BUFFER.set(buffer);
+        }
+        for (int i = 0, j = 0; i < data.length; i++) {
+            buffer[j++] = DIGITS[(data[i] >>> 4) & 0x0F];
+            buffer[j++] = DIGITS[data[i] & 0x0F];
+        }
+        return new String(buffer, 0, length);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.HttpClientConnectionManager;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closes pooled connections which have expired or have been idle too long from a background daemon thread. Without
+ * it, a connection the server closed while it sat idle in the pool is only discovered when a request fails on it.
+ */
+public class IdleConnectionEvictor {
+    private final HttpClientConnectionManager connectionManager;
+    private final long maximumIdleMillis;
+    private final long intervalMillis;
+    private final AtomicLong runCount = new AtomicLong();
+    private final Log logger = LogFactory.getLog(getClass());
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create an evictor which checks the pool every half of the maximum idle time
+     *
+     * @param connectionManager Connection manager whose connections are evicted
+     * @param maximumIdleTime Time a connection may be idle before it is closed
+     * @param timeUnit Unit of the maximum idle time
+     */
+    public IdleConnectionEvictor(
+            HttpClientConnectionManager connectionManager, long maximumIdleTime, TimeUnit timeUnit) {
+        this(connectionManager, maximumIdleTime, timeUnit, Math.max(1L, timeUnit.toMillis(maximumIdleTime) / 2),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param connectionManager Connection manager whose connections are evicted
+     * @param maximumIdleTime Time a connection may be idle before it is closed
+     * @param timeUnit Unit of the maximum idle time
+     * @param interval Time between checks of the pool
+     * @param intervalUnit Unit of the interval
+     */
+    public IdleConnectionEvictor(HttpClientConnectionManager connectionManager, long maximumIdleTime,
+                                 TimeUnit timeUnit, long interval, TimeUnit intervalUnit) {
+        if (maximumIdleTime <= 0 || interval <= 0) {
+            throw new IllegalArgumentException("Maximum idle time and interval must be positive");
+        }
+        this.connectionManager = connectionManager;
+        this.maximumIdleMillis = timeUnit.toMillis(maximumIdleTime);
+        this.intervalMillis = intervalUnit.toMillis(interval);
+    }
+
+    /**
+     * Start evicting connections. Has no effect when already started.
+     */
+    public synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "launchkey-connection-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    evict();
+                }
+            }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop evicting connections
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Close expired and idle connections now
+     */
+    public void evict() {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(maximumIdleMillis, TimeUnit.MILLISECONDS);
+            runCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.warn("Unable to evict idle connections", e);
+        }
+    }
+
+    /**
+     * @return Number of times the pool has been checked
+     */
+    public long getRunCount() {
+        return runCount.get();
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolListener;
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolStats;
+import com.iovation.launchkey.sdk.metrics.LatencyHistogram;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooling connection manager which records how long each request waits to lease a connection and reports to a
+ * {@link ConnectionPoolListener} when more requests are waiting than the pending threshold allows.
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+    private final int pendingThreshold;
+    private final ConnectionPoolListener listener;
+    private final LatencyHistogram leaseWaitHistogram = new LatencyHistogram();
+    private final AtomicLong leaseTimeoutCount = new AtomicLong();
+    private final AtomicBoolean thresholdExceeded = new AtomicBoolean();
+    private final Log logger = LogFactory.getLog(getClass());
+
+    /**
+     * @param timeToLive Maximum time to live of a pooled connection
+     * @param timeUnit Unit of the time to live
+     */
+    public InstrumentedConnectionManager(long timeToLive, TimeUnit timeUnit) {
+        this(timeToLive, timeUnit, 0, null);
+    }
+
+    /**
+     * @param timeToLive Maximum time to live of a pooled connection
+     * @param timeUnit Unit of the time to live
+     * @param pendingThreshold Number of requests which may wait to lease a connection before the listener is notified
+     * @param listener Listener notified when the pending threshold is exceeded and cleared. May be null.
+     */
+    public InstrumentedConnectionManager(long timeToLive, TimeUnit timeUnit, int pendingThreshold,
+                                         ConnectionPoolListener listener) {
+        super(timeToLive, timeUnit);
+        if (pendingThreshold < 0) {
+            throw new IllegalArgumentException("Pending threshold must not be negative");
+        }
+        this.pendingThreshold = pendingThreshold;
+        this.listener = listener;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        return new TimedConnectionRequest(super.requestConnection(route, state));
+    }
+
+    /**
+     * Open connections to a host ahead of the requests which will use them so that those requests do not pay for the
+     * TCP and TLS handshakes. Idle connections already in the pool count towards the number to open. Failures are
+     * logged and end opening early.
+     *
+     * @param target Host to connect to such as https://api.launchkey.com
+     * @param count Number of idle connections the pool should hold for the host. It is limited to the maximum
+     * connections per route.
+     * @param connectTimeoutMillis Timeout to lease and connect each connection
+     * @param keepAliveMillis Time the opened connections may stay idle in the pool
+     * @return Number of connections opened
+     */
+    public int open(HttpHost target, int count, int connectTimeoutMillis, long keepAliveMillis) {
+        HttpRoute route = getRoute(target);
+        int leaseCount = Math.min(count, getMaxPerRoute(route));
+        List<HttpClientConnection> connections = new ArrayList<>(leaseCount);
+        HttpContext context = new BasicHttpContext();
+        int opened = 0;
+        try {
+            for (int i = 0; i < leaseCount; i++) {
+                HttpClientConnection connection = super.requestConnection(route, null)
+                        .get(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+                connections.add(connection);
+                if (!connection.isOpen()) {
+                    connect(connection, route, connectTimeoutMillis, context);
+                    routeComplete(connection, route, context);
+                    opened++;
+                }
+            }
+        } catch (IOException | InterruptedException | ExecutionException | RuntimeException e) {
+            logger.warn("Unable to open connections to " + target, e);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            for (HttpClientConnection connection : connections) {
+                releaseConnection(connection, null, keepAliveMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * @return Current statistics of the whole pool
+     */
+    public ConnectionPoolStats getPoolStats() {
+        PoolStats stats = getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    /**
+     * @return Histogram of the time in nanoseconds requests waited to lease a connection
+     */
+    public LatencyHistogram getLeaseWaitHistogram() {
+        return leaseWaitHistogram;
+    }
+
+    /**
+     * @return Number of requests which timed out waiting to lease a connection
+     */
+    public long getLeaseTimeoutCount() {
+        return leaseTimeoutCount.get();
+    }
+
+    /**
+     * Compare the number of requests waiting on the pool with the threshold and notify the listener when it has been
+     * crossed in either direction
+     */
+    private void checkPending() {
+        ConnectionPoolStats stats = getPoolStats();
+        boolean exceeded = stats.getPending() > pendingThreshold;
+        if (thresholdExceeded.compareAndSet(!exceeded, exceeded)) {
+            try {
+                if (exceeded) {
+                    listener.pendingThresholdExceeded(stats);
+                } else {
+                    listener.pendingThresholdCleared(stats);
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Connection pool listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Get the route HttpClient plans for a request to the target without a proxy so that opened connections are
+     * leased by its requests
+     */
+    private static HttpRoute getRoute(HttpHost target) {
+        int port = target.getPort();
+        if (port <= 0) {
+            try {
+                port = DefaultSchemePortResolver.INSTANCE.resolve(target);
+            } catch (UnsupportedSchemeException e) {
+                throw new IllegalArgumentException("Unsupported scheme for " + target, e);
+            }
+        }
+        return new HttpRoute(new HttpHost(target.getHostName(), port, target.getSchemeName()), null,
+                "https".equalsIgnoreCase(target.getSchemeName()));
+    }
+
+    private class TimedConnectionRequest implements ConnectionRequest {
+        private final ConnectionRequest request;
+
+        private TimedConnectionRequest(ConnectionRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+            if (listener != null) {
+                checkPending();
+            }
+            long started = System.nanoTime();
+            try {
+                return request.get(timeout, timeUnit);
+            } catch (ConnectionPoolTimeoutException e) {
+                leaseTimeoutCount.incrementAndGet();
+                throw e;
+            } finally {
+                leaseWaitHistogram.record(System.nanoTime() - started);
+                if (listener != null && thresholdExceeded.get()) {
+                    checkPending();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return request.cancel();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
+
+/**
+ * Header data and verified claims of a response or webhook JWT. It is produced once per JWT so that transport methods
+ * needing the audience do not parse the JWT again.
+ */
+class JWTContext {
+    private final JWTData data;
+    private final JWTClaims claims;
+
+    JWTContext(JWTData data, JWTClaims claims) {
+        this.data = data;
+        this.claims = claims;
+    }
+
+    String getAudience() {
+        return data.getAudience();
+    }
+
+    JWTClaims getClaims() {
+        return claims;
+    }
+}
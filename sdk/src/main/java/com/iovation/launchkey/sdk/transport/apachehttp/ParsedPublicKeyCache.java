@@ -0,0 +1,116 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In process cache of parsed LaunchKey API public keys by fingerprint. It sits in front of the
+ * {@link com.iovation.launchkey.sdk.cache.Cache} of PEM strings so that verifying a response does not require
+ * parsing a PEM. Entries expire after the TTL. Once the maximum size is reached, the least recently used entry is
+ * evicted for each new entry.
+ * <p>
+ * Reads do not lock and do not write to memory shared by every read. Recency is the time of the last read, which is only
+ * written when it changes, and hits are counted on a {@link StripedCounter}. The few puts, one for each API key
+ * rotation, scan the entries to find the entry to evict.
+ */
+class ParsedPublicKeyCache {
+    static final int DEFAULT_MAX_SIZE = 64;
+    static final int DEFAULT_TTL = 3600;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, CachedKey> entries = new ConcurrentHashMap<>();
+    private final StripedCounter hitCount = new StripedCounter();
+
+    ParsedPublicKeyCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * @param maxSize Maximum number of keys to retain
+     * @param ttl The number of seconds a key will be retained
+     */
+    ParsedPublicKeyCache(int maxSize, int ttl) {
+        this.maxSize = maxSize;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttl);
+    }
+
+    /**
+     * @param fingerprint Fingerprint of the public key
+     * @return The parsed public key or null if the key is not cached or has expired
+     */
+    PublicKey get(String fingerprint) {
+        CachedKey cached = entries.get(fingerprint);
+        if (cached == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (cached.expires <= now) {
+            entries.remove(fingerprint, cached);
+            return null;
+        }
+        if (cached.lastUsed != now) {
+            cached.lastUsed = now;
+        }
+        hitCount.increment();
+        return cached.key;
+    }
+
+    void put(String fingerprint, PublicKey key) {
+        long now = System.currentTimeMillis();
+        CachedKey cached = new CachedKey(key, now + ttlMillis);
+        cached.lastUsed = now;
+        while (!entries.containsKey(fingerprint) && entries.size() >= maxSize) {
+            evictLeastRecentlyUsed();
+        }
+        entries.put(fingerprint, cached);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Number of gets which returned a key
+     */
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<String, CachedKey> eldest = null;
+        for (Map.Entry<String, CachedKey> entry : entries.entrySet()) {
+            if (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed) {
+                eldest = entry;
+            }
+        }
+        if (eldest != null) {
+            entries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static class CachedKey {
+        private final PublicKey key;
+        private final long expires;
+        private volatile long lastUsed;
+
+        private CachedKey(PublicKey key, long expires) {
+            this.key = key;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.*;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Value obtained from the LaunchKey API which is reused until its TTL expires.
+ * <p>
+ * Reads are lock free against an immutable entry and only one load is ever in flight. Callers only wait on a load
+ * when there is no value yet. Once a value exists, callers finding it expired while another thread is loading a
+ * replacement are served the expired value. When a scheduler is provided, the value is reloaded in the background
+ * once 80% of its TTL has passed and an expired value is served until the reload completes, keeping the API call off
+ * of the request path. A TTL of zero disables background reloading.
+ * <p>
+ * Background reloads only continue while the value is being read: a value which was not read since it was last
+ * loaded is not reloaded until it is read again after it expires. The scheduled reload only holds the value weakly,
+ * so it never keeps the value or its owner from being garbage collected. {@link #close()} cancels background
+ * reloading.
+ *
+ * @param <T> Type of value
+ */
+abstract class RefreshAheadValue<T> {
+    static final long RETRY_DELAY_MILLIS = 5000L;
+
+    private final long ttlMillis;
+    private final ScheduledExecutorService scheduler;
+    private final String description;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong staleServeCount = new AtomicLong();
+    private final Log logger = LogFactory.getLog(getClass());
+    private volatile Entry<T> entry = null;
+    private volatile boolean readSinceRefresh = false;
+    private volatile boolean closed = false;
+    private volatile ScheduledFuture<?> scheduledRefresh = null;
+
+    /**
+     * @param ttl The number of seconds a value will live before it is loaded again
+     * @param scheduler Scheduler for background reloading. May be null to reload on the calling thread.
+     * @param description Description of the value for log messages
+     */
+    RefreshAheadValue(int ttl, ScheduledExecutorService scheduler, String description) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttl);
+        this.scheduler = ttl > 0 ? scheduler : null;
+        this.description = description;
+    }
+
+    /**
+     * Load a new value from the API
+     */
+    abstract T load()
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException;
+
+    T get()
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException {
+        if (!readSinceRefresh) {
+            readSinceRefresh = true;
+        }
+        Entry<T> current = entry;
+        if (current == null) {
+            refreshLock.lock();
+            try {
+                current = refresh(null);
+            } finally {
+                refreshLock.unlock();
+            }
+        } else if (current.isExpired()) {
+            if (scheduler != null && !closed) {
+                scheduleRefresh(0L);
+                staleServeCount.incrementAndGet();
+            } else if (refreshLock.tryLock()) {
+                try {
+                    current = refresh(current);
+                } finally {
+                    refreshLock.unlock();
+                }
+            } else {
+                staleServeCount.incrementAndGet();
+            }
+        }
+        return current.value;
+    }
+
+    /**
+     * Cancel background reloading. Later reads reload an expired value on the calling thread.
+     */
+    void close() {
+        closed = true;
+        ScheduledFuture<?> future = scheduledRefresh;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * @return Number of times a value has been loaded from the API
+     */
+    long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * @return Number of times an expired value was served while a replacement was being loaded
+     */
+    long getStaleServeCount() {
+        return staleServeCount.get();
+    }
+
+    private Entry<T> refresh(Entry<T> stale)
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException {
+        Entry<T> current = entry;
+        if (current != stale) {
+            return current;
+        }
+        T value = load();
+        readSinceRefresh = false;
+        refreshCount.incrementAndGet();
+        current = new Entry<>(value, System.currentTimeMillis() + ttlMillis);
+        entry = current;
+        scheduleRefresh(ttlMillis - ttlMillis / 5);
+        return current;
+    }
+
+    private void scheduleRefresh(long delayMillis) {
+        if (scheduler == null || closed || !refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduledRefresh = scheduler.schedule(
+                    new ScheduledRefresh(this), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            refreshScheduled.set(false);
+            logger.debug("Background refresh of the " + description + " was rejected by the scheduler", e);
+        }
+    }
+
+    private void backgroundRefresh() {
+        refreshScheduled.set(false);
+        if (closed) {
+            return;
+        }
+        if (!readSinceRefresh) {
+            logger.debug("The " + description + " was not read since it was last loaded. It will be loaded again "
+                    + "when it is next read after it expires.");
+            return;
+        }
+        refreshLock.lock();
+        try {
+            refresh(entry);
+        } catch (BaseException | RuntimeException e) {
+            logger.warn("Unable to refresh the " + description + ". The previous value will be used.", e);
+            scheduleRefresh(RETRY_DELAY_MILLIS);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Scheduled reload holding the value weakly so that pending reloads do not keep it from being collected
+     */
+    private static class ScheduledRefresh implements Runnable {
+        private final WeakReference<RefreshAheadValue<?>> value;
+
+        private ScheduledRefresh(RefreshAheadValue<?> value) {
+            this.value = new WeakReference<RefreshAheadValue<?>>(value);
+        }
+
+        @Override
+        public void run() {
+            RefreshAheadValue<?> current = value.get();
+            if (current != null) {
+                current.backgroundRefresh();
+            }
+        }
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long expires;
+
+        private Entry(T value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+
+        private boolean isExpired() {
+            return expires <= System.currentTimeMillis();
+        }
+    }
+}
@@ -17,15 +17,63 @@ import org.apache.http.params.HttpParams;
 
 import java.io.*;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SuppressWarnings("deprecation")
 public class ReplayHttpResponse implements HttpResponse {
+    private static final byte[] EMPTY = new byte[0];
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
     private final HttpResponse httpResponse;
-    private HttpEntity entityCache = null;
-    private int entityCacheHashCode = 0;
+    private final BufferCounters counters;
+    private RepeatingHttpEntity entityCache = null;
+    private volatile JWTContext jwtContext = null;
+    private volatile CallMetrics callMetrics = CallMetrics.NONE;
 
     ReplayHttpResponse(HttpResponse httpResponse) {
+        this(httpResponse, null);
+    }
+
+    /**
+     * @param httpResponse Response to replay
+     * @param counters Counters to record the buffering of the response body. May be null.
+     */
+    ReplayHttpResponse(HttpResponse httpResponse, BufferCounters counters) {
         this.httpResponse = httpResponse;
+        this.counters = counters;
+    }
+
+    /**
+     * Get the response body. The body is read from the underlying response once and the same array is returned for
+     * every call. It must not be modified.
+     *
+     * @return The response body or an empty array when there is no entity
+     * @throws IOException When an error occurs reading the body from the underlying response
+     */
+    synchronized byte[] getContentBytes() throws IOException {
+        RepeatingHttpEntity entity = (RepeatingHttpEntity) getEntity();
+        return entity == null ? EMPTY : entity.generateContent();
+    }
+
+    /**
+     * @return Context of the verified response JWT or null if the response JWT has not been verified
+     */
+    JWTContext getJWTContext() {
+        return jwtContext;
+    }
+
+    void setJWTContext(JWTContext jwtContext) {
+        this.jwtContext = jwtContext;
+    }
+
+    /**
+     * @return Metrics of the call which received this response so that its decryption can be timed
+     */
+    CallMetrics getCallMetrics() {
+        return callMetrics;
+    }
+
+    void setCallMetrics(CallMetrics callMetrics) {
+        this.callMetrics = callMetrics;
     }
 
     @Override
@@ -170,7 +218,7 @@ public class ReplayHttpResponse implements HttpResponse {
     @SuppressWarnings("deprecation")
     private class RepeatingHttpEntity implements HttpEntity {
         private final HttpEntity httpEntity;
-        private byte[] content = new byte[0];
+        private byte[] content = null;
 
         public RepeatingHttpEntity(HttpEntity httpEntity) {
             this.httpEntity = httpEntity;
@@ -223,12 +271,51 @@ public class ReplayHttpResponse implements HttpResponse {
             httpEntity.consumeContent();
         }
 
-        private void generateContent() throws IOException {
-            if (content.length == 0) {
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private synchronized byte[] generateContent() throws IOException {
+            if (content == null) {
+                long contentLength = httpEntity.getContentLength();
+                ContentBuffer out = new ContentBuffer(
+                        contentLength < 0 || contentLength > Integer.MAX_VALUE ? DEFAULT_BUFFER_SIZE : (int) contentLength);
                 httpEntity.writeTo(out);
-                content = out.toByteArray();
+                content = out.getContent();
+                if (counters != null) counters.record(content.length);
             }
+            return content;
+        }
+    }
+
+    /**
+     * Output stream sized from the content length when it is known whose buffer is used as is when it was filled
+     * exactly rather than being copied
+     */
+    private static class ContentBuffer extends ByteArrayOutputStream {
+        ContentBuffer(int size) {
+            super(size);
+        }
+
+        byte[] getContent() {
+            return count == buf.length ? buf : toByteArray();
+        }
+    }
+
+    /**
+     * Counters for the response bodies buffered for verification and decryption
+     */
+    static class BufferCounters {
+        private final AtomicLong buffers = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        void record(int length) {
+            buffers.incrementAndGet();
+            bytes.addAndGet(length);
+        }
+
+        long getBuffers() {
+            return buffers.get();
+        }
+
+        long getBytes() {
+            return bytes.get();
         }
     }
 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.CryptographyError;
+import com.iovation.launchkey.sdk.error.InvalidCredentialsException;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.error.MarshallingError;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces identical calls which only read from the LaunchKey API so that calls made while an identical call is in
+ * flight wait for it and share its decrypted response or its exception rather than making calls of their own. Calls
+ * are identical when they are made by the same entity for the same subject to the same path with the same body.
+ * <p>
+ * Responses are not cached. A call made once the shared call has completed makes a new call.
+ * <p>
+ * Only the decrypted JSON of a response is shared. Each caller unmarshals it into its own response objects, so
+ * callers sharing a call never share mutable objects.
+ */
+public class RequestCoalescer {
+    private final ConcurrentMap<String, SharedCall<?>> calls = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * @return Number of calls which shared an identical call in flight rather than making their own
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return Number of shared calls in flight
+     */
+    public int getInFlightCount() {
+        return calls.size();
+    }
+
+    /**
+     * Make the call unless an identical call is in flight, in which case wait for it
+     *
+     * @param key Key identifying identical calls
+     * @param read Call to make
+     * @param <T> Type of the response
+     * @return Response of the call or of the identical call
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, Read<T> read)
+            throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
+            InvalidCredentialsException {
+        SharedCall<T> sharedCall = new SharedCall<>();
+        SharedCall<?> existing = calls.putIfAbsent(key, sharedCall);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return (T) existing.await();
+        }
+        try {
+            T response = read.read();
+            sharedCall.response = response;
+            return response;
+        } catch (CryptographyError | InvalidResponseException | CommunicationErrorException | MarshallingError
+                | InvalidCredentialsException | RuntimeException e) {
+            sharedCall.failure = e;
+            throw e;
+        } finally {
+            calls.remove(key, sharedCall);
+            sharedCall.done.countDown();
+        }
+    }
+
+    /**
+     * Call which only reads from the API
+     *
+     * @param <T> Type of the response
+     */
+    interface Read<T> {
+        T read() throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
+                InvalidCredentialsException;
+    }
+
+    private static class SharedCall<T> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile T response;
+        private volatile Exception failure;
+
+        private T await()
+                throws CryptographyError, InvalidResponseException, CommunicationErrorException, MarshallingError,
+                InvalidCredentialsException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CommunicationErrorException("Interrupted waiting for an identical call", e, null);
+            }
+            Exception failure = this.failure;
+            if (failure instanceof CryptographyError) {
+                throw (CryptographyError) failure;
+            } else if (failure instanceof InvalidResponseException) {
+                throw (InvalidResponseException) failure;
+            } else if (failure instanceof CommunicationErrorException) {
+                throw (CommunicationErrorException) failure;
+            } else if (failure instanceof MarshallingError) {
+                throw (MarshallingError) failure;
+            } else if (failure instanceof InvalidCredentialsException) {
+                throw (InvalidCredentialsException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Policy for retrying calls which are safe to repeat after a transient failure such as a reset connection or a
+ * gateway error. The delay before each retry is chosen at random between zero and an exponentially growing ceiling so
+ * that clients which failed together do not retry together.
+ * <p>
+ * Retries are limited by a budget shared by every transport using the policy. Each call which may be retried adds
+ * the retry ratio to the budget, up to the retry burst, and each retry spends one from it. When the API is down, the
+ * retries are therefore limited to the burst and then to the retry ratio of the calls rather than multiplying them.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 50L;
+    public static final long DEFAULT_MAXIMUM_DELAY_MILLIS = 1000L;
+    public static final double DEFAULT_RETRY_RATIO = 0.1;
+    public static final int DEFAULT_RETRY_BURST = 10;
+
+    /**
+     * Budget is kept in thousandths of a retry to allow fractional deposits
+     */
+    private static final long RETRY_COST = 1000L;
+
+    private final int maximumAttempts;
+    private final long baseDelayMillis;
+    private final long maximumDelayMillis;
+    private final long deposit;
+    private final long maximumBalance;
+    private final AtomicLong balance;
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong budgetExhaustedCount = new AtomicLong();
+
+    /**
+     * Create a policy with the default attempts, delays, and budget
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAXIMUM_ATTEMPTS, DEFAULT_BASE_DELAY_MILLIS, DEFAULT_MAXIMUM_DELAY_MILLIS, DEFAULT_RETRY_RATIO,
+                DEFAULT_RETRY_BURST);
+    }
+
+    /**
+     * @param maximumAttempts Maximum number of attempts of a call including the first
+     * @param baseDelayMillis Ceiling of the delay before the first retry. It doubles for each further retry.
+     * @param maximumDelayMillis Maximum ceiling of the delay before a retry
+     * @param retryRatio Retries added to the budget by each call which may be retried
+     * @param retryBurst Maximum number of retries the budget can hold. The budget starts full.
+     */
+    public RetryPolicy(int maximumAttempts, long baseDelayMillis, long maximumDelayMillis, double retryRatio,
+                       int retryBurst) {
+        if (maximumAttempts < 1) {
+            throw new IllegalArgumentException("Maximum attempts must be at least 1");
+        }
+        if (baseDelayMillis < 0 || maximumDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException(
+                    "Base delay must not be negative and maximum delay must not be less than the base delay");
+        }
+        if (retryRatio < 0 || retryBurst < 0) {
+            throw new IllegalArgumentException("Retry ratio and retry burst must not be negative");
+        }
+        this.maximumAttempts = maximumAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maximumDelayMillis = maximumDelayMillis;
+        this.deposit = Math.round(retryRatio * RETRY_COST);
+        this.maximumBalance = retryBurst * RETRY_COST;
+        this.balance = new AtomicLong(maximumBalance);
+    }
+
+    /**
+     * @return Maximum number of attempts of a call including the first
+     */
+    public int getMaximumAttempts() {
+        return maximumAttempts;
+    }
+
+    /**
+     * @return Number of retries made
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * @return Number of retries not made because the budget was exhausted
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhaustedCount.get();
+    }
+
+    /**
+     * @return Number of whole retries left in the budget
+     */
+    public long getRetryBudget() {
+        return balance.get() / RETRY_COST;
+    }
+
+    /**
+     * Add the retry ratio to the budget for a call which may be retried
+     */
+    void callStarted() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maximumBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(maximumBalance, current + deposit)));
+    }
+
+    /**
+     * Spend a retry from the budget
+     *
+     * @return True if the retry may be made
+     */
+    boolean tryRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < RETRY_COST) {
+                budgetExhaustedCount.incrementAndGet();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - RETRY_COST));
+        retryCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @param attempt Number of the attempt which failed starting at 1
+     * @return Random delay in milliseconds before the next attempt
+     */
+    long getDelayMillis(int attempt) {
+        long ceiling = baseDelayMillis;
+        for (int i = 1; i < attempt && ceiling < maximumDelayMillis; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maximumDelayMillis);
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
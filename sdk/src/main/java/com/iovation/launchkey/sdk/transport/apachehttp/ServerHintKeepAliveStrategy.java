@@ -0,0 +1,60 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Keep alive strategy which keeps a connection alive for as long as the server says it will in the timeout parameter
+ * of its Keep-Alive header, up to a maximum. Connections are kept alive for a default duration when the server gives
+ * no hint rather than indefinitely, so that they are closed before an idle timeout the server did not announce.
+ */
+public class ServerHintKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+    private final long defaultKeepAliveMillis;
+    private final long maximumKeepAliveMillis;
+
+    /**
+     * @param defaultKeepAliveMillis Duration to keep a connection alive when the server gives no hint
+     * @param maximumKeepAliveMillis Maximum duration to keep a connection alive regardless of the server hint
+     */
+    public ServerHintKeepAliveStrategy(long defaultKeepAliveMillis, long maximumKeepAliveMillis) {
+        if (defaultKeepAliveMillis <= 0 || maximumKeepAliveMillis < defaultKeepAliveMillis) {
+            throw new IllegalArgumentException(
+                    "Default keep alive must be positive and maximum keep alive must not be less than the default");
+        }
+        this.defaultKeepAliveMillis = defaultKeepAliveMillis;
+        this.maximumKeepAliveMillis = maximumKeepAliveMillis;
+    }
+
+    @Override
+    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        HeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+        while (iterator.hasNext()) {
+            HeaderElement element = iterator.nextElement();
+            if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                    return Math.min(Long.parseLong(element.getValue().trim()) * 1000L, maximumKeepAliveMillis);
+                } catch (NumberFormatException e) {
+                    // Ignore an unusable hint and use the default
+                }
+            }
+        }
+        return defaultKeepAliveMillis;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.*;
+import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.domain.PublicV3PingGetResponse;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Offset in milliseconds between the local clock and the LaunchKey API clock as determined by a ping call.
+ */
+class ServerTimeOffset extends RefreshAheadValue<Long> {
+    private final Transport transport;
+
+    /**
+     * @param transport Transport used to make the ping call
+     * @param ttl The number of seconds the offset will live before obtaining another using a ping call
+     * @param scheduler Scheduler for background refresh. May be null to refresh on the calling thread.
+     */
+    ServerTimeOffset(Transport transport, int ttl, ScheduledExecutorService scheduler) {
+        super(ttl, scheduler, "API time offset");
+        this.transport = transport;
+    }
+
+    @Override
+    Long load()
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException {
+        long requested = System.currentTimeMillis();
+        PublicV3PingGetResponse response = transport.publicV3PingGet();
+        long received = System.currentTimeMillis();
+        return response.getApiTime().getTime() - (requested + (received - requested) / 2);
+    }
+
+    /**
+     * @return The current date and time according to the LaunchKey API
+     */
+    Date getCurrentDate()
+            throws CommunicationErrorException, InvalidResponseException, MarshallingError, CryptographyError,
+            InvalidCredentialsException {
+        return new Date(System.currentTimeMillis() + get());
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter for hot paths which spreads increments across cells chosen by thread. Each cell has a cache line of its own
+ * so that threads counting at the same time rarely write to the same cache line. Reading the count sums the cells.
+ */
+class StripedCounter {
+    private static final int MAX_STRIPES = 64;
+    private static final int CELL_LONGS = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    StripedCounter() {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() * 2 && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        this.cells = new AtomicLongArray(stripes * CELL_LONGS);
+        this.mask = stripes - 1;
+    }
+
+    void increment() {
+        cells.incrementAndGet(getCell());
+    }
+
+    long sum() {
+        long sum = 0L;
+        for (int i = 0; i < cells.length(); i += CELL_LONGS) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    private int getCell() {
+        int hash = (int) Thread.currentThread().getId();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return (hash & mask) * CELL_LONGS;
+    }
+}
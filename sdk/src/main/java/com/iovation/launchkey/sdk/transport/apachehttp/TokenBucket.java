@@ -0,0 +1,69 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket capping the rate of calls. A caller which finds the bucket empty reserves the next token and waits for
+ * it so that waiting callers are served in order at the rate of the bucket.
+ */
+class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilled;
+
+    /**
+     * @param tokensPerSecond Rate at which tokens are added
+     * @param capacity Maximum number of tokens the bucket holds. The bucket starts full.
+     */
+    TokenBucket(double tokensPerSecond, int capacity) {
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilled = System.nanoTime();
+    }
+
+    /**
+     * Take a token, waiting for it when the bucket is empty
+     *
+     * @param deadlineNanos {@link System#nanoTime()} after which the token may not be taken
+     * @return True if a token was taken
+     * @throws InterruptedException When interrupted while waiting for the token. The token remains taken.
+     */
+    boolean acquire(long deadlineNanos) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilled) * tokensPerNano);
+            refilled = now;
+            waitNanos = tokens >= 1 ? 0L : (long) Math.ceil((1 - tokens) / tokensPerNano);
+            if (waitNanos > 0 && now + waitNanos - deadlineNanos > 0) {
+                return false;
+            }
+            tokens--;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Return a token taken for a call which was not made
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
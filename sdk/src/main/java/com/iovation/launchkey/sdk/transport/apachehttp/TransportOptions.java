@@ -0,0 +1,120 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
+
+/**
+ * Optional collaborators of an {@link ApacheHttpTransport}. Every option defaults to null which disables the feature
+ * it provides. A single instance may be shared by many transports in which case the retry budget, concurrency limits,
+ * circuits, and in-flight calls of its collaborators are shared as well.
+ */
+public class TransportOptions {
+    private TransportMetricsListener metricsListener;
+    private RetryPolicy retryPolicy;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreaker circuitBreaker;
+    private RequestCoalescer requestCoalescer;
+
+    /**
+     * @return Listener notified of the timings of each call or null
+     */
+    public TransportMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Set the listener notified of the timings of each call.
+     *
+     * @param metricsListener Listener notified of the timings of each call. May be null.
+     * @return This options object
+     */
+    public TransportOptions setMetricsListener(TransportMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
+    /**
+     * @return Policy for retrying calls or null
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Set the policy for retrying calls which are safe to repeat after a transient failure. Non-blocking calls are
+     * not retried.
+     *
+     * @param retryPolicy Retry policy. When null, calls are not retried.
+     * @return This options object
+     */
+    public TransportOptions setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * @return Limiter of the concurrency and rate of calls or null
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Set the limiter of the concurrency and rate of calls. Non-blocking calls are not limited.
+     *
+     * @param concurrencyLimiter Concurrency limiter. When null, calls are not limited.
+     * @return This options object
+     */
+    public TransportOptions setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
+
+    /**
+     * @return Circuit breaker failing calls to failing or slow endpoints immediately or null
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Set the circuit breaker failing calls to failing or slow endpoints immediately. Non-blocking calls are always
+     * made.
+     *
+     * @param circuitBreaker Circuit breaker. When null, calls are always made.
+     * @return This options object
+     */
+    public TransportOptions setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * @return Coalescer of identical calls which only read from the API or null
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Set the coalescer of identical calls which only read from the API. Non-blocking calls are not coalesced.
+     *
+     * @param requestCoalescer Request coalescer. When null, every call is made.
+     * @return This options object
+     */
+    public TransportOptions setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+        return this;
+    }
+}
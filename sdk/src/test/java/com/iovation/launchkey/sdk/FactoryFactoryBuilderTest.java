@@ -1,14 +1,23 @@
 package com.iovation.launchkey.sdk;
 
 import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolListener;
+import com.iovation.launchkey.sdk.transport.apachehttp.CircuitBreaker;
+import com.iovation.launchkey.sdk.transport.apachehttp.ConcurrencyLimiter;
+import com.iovation.launchkey.sdk.transport.apachehttp.RequestCoalescer;
+import com.iovation.launchkey.sdk.transport.apachehttp.RetryPolicy;
 import org.apache.http.client.HttpClient;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.security.Provider;
 
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -80,4 +89,76 @@ public class FactoryFactoryBuilderTest {
     public void setKeyCacheReturnsBuilder() throws Exception {
         assertSame(builder, builder.setKeyCache(mock(Cache.class)));
     }
+
+    @Test
+    public void setConnectionPoolListenerReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setConnectionPoolListener(mock(ConnectionPoolListener.class), 10));
+    }
+
+    @Test
+    public void buildExposesConnectionPoolStatsOfDefaultHttpClient() throws Exception {
+        FactoryFactory factoryFactory = builder.setHttpMaxClients(5).build();
+        assertEquals(5, factoryFactory.getConnectionPoolStats().getMax());
+        assertEquals(0L, factoryFactory.getConnectionLeaseWaitHistogram().getCount());
+    }
+
+    @Test
+    public void buildWithHttpClientHasNoConnectionPoolStats() throws Exception {
+        FactoryFactory factoryFactory = builder.setHttpClient(mock(HttpClient.class)).build();
+        assertNull(factoryFactory.getConnectionPoolStats());
+        assertNull(factoryFactory.getConnectionLeaseWaitHistogram());
+    }
+
+    @Test
+    public void setRetryPolicyReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setRetryPolicy(new RetryPolicy()));
+    }
+
+    @Test
+    public void setRequestCoalescerReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setRequestCoalescer(new RequestCoalescer()));
+    }
+
+    @Test
+    public void setCircuitBreakerReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setCircuitBreaker(new CircuitBreaker()));
+    }
+
+    @Test
+    public void setConcurrencyLimiterReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setConcurrencyLimiter(new ConcurrencyLimiter()));
+    }
+
+    @Test
+    public void setHttpClientIdleConnectionTimeoutSecsReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setHttpClientIdleConnectionTimeoutSecs(10));
+    }
+
+    @Test
+    public void setHttpClientValidateAfterInactivityMillisReturnsBuilder() throws Exception {
+        assertSame(builder, builder.setHttpClientValidateAfterInactivityMillis(1000));
+    }
+
+    @Test
+    public void buildDoesNotOpenConnectionsToAPI() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            FactoryFactory factoryFactory = builder
+                    .setAPIBaseURL("http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort())
+                    .build();
+            assertEquals(0, factoryFactory.getConnectionPoolStats().getAvailable());
+            factoryFactory.shutdown();
+        }
+    }
+
+    @Test
+    public void warmUpOpensConnectionsToAPI() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            FactoryFactory factoryFactory = builder
+                    .setAPIBaseURL("http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort())
+                    .build();
+            factoryFactory.warmUp(1, 5000);
+            assertEquals(1, factoryFactory.getConnectionPoolStats().getAvailable());
+            factoryFactory.shutdown();
+        }
+    }
 }
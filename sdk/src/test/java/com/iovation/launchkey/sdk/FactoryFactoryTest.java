@@ -4,21 +4,40 @@ import com.iovation.launchkey.sdk.cache.Cache;
 import com.iovation.launchkey.sdk.client.DirectoryFactory;
 import com.iovation.launchkey.sdk.client.OrganizationFactory;
 import com.iovation.launchkey.sdk.client.ServiceFactory;
+import com.iovation.launchkey.sdk.crypto.JCECrypto;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import com.iovation.launchkey.sdk.transport.apachehttp.IdleConnectionEvictor;
+import com.iovation.launchkey.sdk.transport.apachehttp.TransportOptions;
 import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.lang.ref.WeakReference;
+import java.security.KeyFactory;
 import java.security.KeyPairGenerator;
 import java.security.Provider;
+import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
 import java.util.HashMap;
+import java.util.Map;
 
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 public class FactoryFactoryTest {
     private static final String UUID1 = "49af9c38-31b3-11e7-93ae-92361f002671";
@@ -55,15 +74,17 @@ public class FactoryFactoryTest {
 
 
     private FactoryFactory factoryFactory;
+    private HttpClient httpClient;
 
     @Before
     public void setUp() throws Exception {
         Provider provider = new BouncyCastleProvider();
         KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA", provider);
 
+        httpClient = mock(HttpClient.class);
         factoryFactory = new FactoryFactory(
                 provider,
-                mock(HttpClient.class),
+                httpClient,
                 mock(Cache.class),
                 "https://base/url",
                 "id",
@@ -137,4 +158,108 @@ public class FactoryFactoryTest {
         );
     }
 
+    @Test
+    public void getConnectionPoolStatsIsNullWithoutConnectionManager() throws Exception {
+        assertNull(factoryFactory.getConnectionPoolStats());
+    }
+
+    @Test
+    public void getConnectionLeaseWaitHistogramIsNullWithoutConnectionManager() throws Exception {
+        assertNull(factoryFactory.getConnectionLeaseWaitHistogram());
+    }
+
+    @Test
+    public void warmUpWithoutFactoriesMakesNoCalls() throws Exception {
+        factoryFactory.warmUp();
+        verifyZeroInteractions(httpClient);
+    }
+
+    @Test(expected = InvalidResponseException.class)
+    public void warmUpWarmsTransportOfFactoriesMade() throws Exception {
+        factoryFactory.makeServiceFactory(UUID1, privateKeyPEM);
+        factoryFactory.warmUp();
+    }
+
+    @Test
+    public void warmUpDoesNotHoldTransportsOfDiscardedFactories() throws Exception {
+        WeakReference<ServiceFactory> serviceFactory =
+                new WeakReference<>(factoryFactory.makeServiceFactory(UUID1, privateKeyPEM));
+        for (int i = 0; i < 50 && serviceFactory.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(serviceFactory.get());
+        factoryFactory.warmUp();
+        verify(httpClient, never()).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void warmUpDoesNotHoldRefreshingTransportsOfDiscardedFactories() throws Exception {
+        Provider provider = new BouncyCastleProvider();
+        RSAPrivateCrtKey privateKey = (RSAPrivateCrtKey) JCECrypto.getRSAPrivateKeyFromPEM(provider, privateKeyPEM);
+        final String publicKeyPEM = JCECrypto.getPEMFromRSAPublicKey((RSAPublicKey) KeyFactory.getInstance("RSA")
+                .generatePublic(new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent())));
+        when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(new Answer<HttpResponse>() {
+            @Override
+            public HttpResponse answer(InvocationOnMock invocation) throws Throwable {
+                HttpUriRequest request = invocation.getArgument(0);
+                HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+                if (request.getURI().getPath().endsWith("/ping")) {
+                    response.setEntity(new StringEntity("{\"api_time\": \"2017-01-01T00:00:00Z\"}"));
+                } else {
+                    response.setHeader("X-IOV-KEY-ID", "API Key ID");
+                    response.setEntity(new StringEntity(publicKeyPEM));
+                }
+                return response;
+            }
+        });
+        factoryFactory = new FactoryFactory(provider, httpClient, mock(Cache.class), "https://base/url", "id", 0,
+                60, 60, new EntityKeyMap());
+        try {
+            // The key map is only held by the transport and shows whether the transport has been collected
+            Map<String, RSAPrivateKey> keys = new HashMap<>();
+            String keyId = JCECrypto.getRsaPublicKeyFingerprint(provider, privateKey);
+            keys.put(keyId, privateKey);
+            factoryFactory.makeServiceFactory(UUID1, keys, keyId).warmUp();
+            WeakReference<Map<String, RSAPrivateKey>> reference = new WeakReference<>(keys);
+            keys = null;
+            for (int i = 0; i < 50 && reference.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertNull(reference.get());
+            factoryFactory.warmUp();
+            verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+        } finally {
+            factoryFactory.shutdown();
+        }
+    }
+
+    @Test
+    public void warmUpWithConnectionsWithoutConnectionManagerOnlyWarmsTransports() throws Exception {
+        factoryFactory.warmUp(2, 1000);
+        verify(httpClient, never()).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void constructorStartsConnectionEvictor() throws Exception {
+        IdleConnectionEvictor evictor = mock(IdleConnectionEvictor.class);
+        new FactoryFactory(new BouncyCastleProvider(), httpClient, null, mock(Cache.class), "https://base/url", "id",
+                0, 0, 0, new EntityKeyMap(), null, evictor, new TransportOptions());
+        verify(evictor).start();
+    }
+
+    @Test
+    public void shutdownStopsConnectionEvictor() throws Exception {
+        IdleConnectionEvictor evictor = mock(IdleConnectionEvictor.class);
+        factoryFactory = new FactoryFactory(new BouncyCastleProvider(), httpClient, null, mock(Cache.class),
+                "https://base/url", "id", 0, 0, 0, new EntityKeyMap(), null, evictor, new TransportOptions());
+        factoryFactory.shutdown();
+        verify(evictor).shutdown();
+    }
+
+    @Test
+    public void shutdownWithoutConnectionEvictorOrFactoriesSucceeds() throws Exception {
+        factoryFactory.shutdown();
+    }
 }
@@ -0,0 +1,163 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BoundedCacheTest {
+
+    private long now;
+    private BoundedCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        now = 0L;
+        cache = newCache(10, 100L);
+    }
+
+    @Test(expected = CacheException.class)
+    public void putRaisesCacheExceptionForNull() throws Exception {
+        cache.put(null, null);
+    }
+
+    @Test(expected = CacheException.class)
+    public void getRaisesCacheExceptionForNull() throws Exception {
+        cache.get(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNonPositiveMaximumSize() throws Exception {
+        new BoundedCache(0, 1L, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNonPositiveTtl() throws Exception {
+        new BoundedCache(1, 0L, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void getReturnsValueWhenSet() throws Exception {
+        String expected = "Hello, World!";
+        cache.put("key", expected);
+        assertEquals(expected, cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsNullWhenNotSet() throws Exception {
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void putReplacesValue() throws Exception {
+        cache.put("key", "old");
+        cache.put("key", "new");
+        assertEquals("new", cache.get("key"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void getReturnsNullOnceTtlHasPassed() throws Exception {
+        cache.put("key", "value");
+        now = 100L;
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void getRemovesExpiredEntry() throws Exception {
+        cache.put("key", "value");
+        now = 100L;
+        cache.get("key");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void getReturnsValueBeforeTtlHasPassed() throws Exception {
+        cache.put("key", "value");
+        now = 99L;
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void putRenewsTtl() throws Exception {
+        cache.put("key", "value");
+        now = 50L;
+        cache.put("key", "value");
+        now = 120L;
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void sizeDoesNotExceedMaximumSize() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value");
+        }
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyPutEntryIsEvictedFirst() throws Exception {
+        for (int i = 0; i < 11; i++) {
+            cache.put("key" + i, "value");
+        }
+        assertNull(cache.get("key0"));
+        assertEquals("value", cache.get("key10"));
+    }
+
+    @Test
+    public void entryReadAgainSurvivesEntriesReadOnlyOnce() throws Exception {
+        cache.put("active", "value");
+        cache.get("active");
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value");
+        }
+        assertEquals("value", cache.get("active"));
+    }
+
+    @Test
+    public void entriesReadAgainAreEvictedOnceProtectedSegmentIsFull() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            cache.put("key" + i, "value");
+            cache.get("key" + i);
+        }
+        assertEquals(10, cache.size());
+        assertNull(cache.get("key0"));
+        assertEquals("value", cache.get("key19"));
+    }
+
+    @Test
+    public void getStatsCountsEvictions() throws Exception {
+        for (int i = 0; i < 11; i++) {
+            cache.put("key" + i, "value");
+        }
+        assertEquals(1L, cache.getStats().getEvictionCount());
+        assertEquals(10L, cache.getStats().getSize());
+    }
+
+    @Test
+    public void getStatsCountsExpiredEntryAsEvictionAndMiss() throws Exception {
+        cache.put("key", "value");
+        now = 100L;
+        cache.get("key");
+        assertEquals(1L, cache.getStats().getEvictionCount());
+        assertEquals(1L, cache.getStats().getMissCount());
+    }
+
+    @Test
+    public void getStatsCountsHits() throws Exception {
+        cache.put("key", "value");
+        cache.get("key");
+        assertEquals(1L, cache.getStats().getHitCount());
+    }
+
+    private BoundedCache newCache(int maximumSize, long ttlNanos) {
+        return new BoundedCache(maximumSize, ttlNanos, TimeUnit.NANOSECONDS) {
+            @Override
+            long currentTimeNanos() {
+                return now;
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CacheStatsCounterTest {
+
+    private CacheStatsCounter counter;
+
+    @Before
+    public void setUp() throws Exception {
+        counter = new CacheStatsCounter();
+    }
+
+    @Test
+    public void snapshotIsEmptyWhenNothingRecorded() throws Exception {
+        CacheStats stats = counter.snapshot(0L);
+        assertEquals(0L, stats.getHitCount());
+        assertEquals(0L, stats.getMissCount());
+        assertEquals(0L, stats.getLoadCount());
+        assertEquals(0L, stats.getEvictionCount());
+        assertEquals(1.0, stats.getHitRate(), 0.0);
+        assertEquals(0.0, stats.getAverageLoadTimeNanos(), 0.0);
+    }
+
+    @Test
+    public void recordGetCountsHitsAndMisses() throws Exception {
+        counter.recordGet("value");
+        counter.recordGet("value");
+        counter.recordGet("value");
+        counter.recordGet(null);
+        CacheStats stats = counter.snapshot(0L);
+        assertEquals(3L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+        assertEquals(0.75, stats.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void recordLoadCountsLoadsByReason() throws Exception {
+        counter.recordLoad(CacheMissReason.ABSENT, 10L);
+        counter.recordLoad(CacheMissReason.ABSENT, 20L);
+        counter.recordLoad(CacheMissReason.ERROR, 30L);
+        CacheStats stats = counter.snapshot(0L);
+        assertEquals(3L, stats.getLoadCount());
+        assertEquals(2L, stats.getLoadCount(CacheMissReason.ABSENT));
+        assertEquals(0L, stats.getLoadCount(CacheMissReason.UNUSABLE));
+        assertEquals(1L, stats.getLoadCount(CacheMissReason.ERROR));
+        assertEquals(60L, stats.getTotalLoadTimeNanos());
+        assertEquals(20.0, stats.getAverageLoadTimeNanos(), 0.0);
+    }
+
+    @Test
+    public void recordEvictionCountsEvictions() throws Exception {
+        counter.recordEviction();
+        assertEquals(1L, counter.snapshot(0L).getEvictionCount());
+    }
+
+    @Test
+    public void snapshotHasSize() throws Exception {
+        assertEquals(5L, counter.snapshot(5L).getSize());
+    }
+
+    @Test
+    public void snapshotIsNotChangedByLaterRecords() throws Exception {
+        CacheStats stats = counter.snapshot(0L);
+        counter.recordGet("value");
+        counter.recordLoad(CacheMissReason.ABSENT, 1L);
+        assertEquals(0L, stats.getHitCount());
+        assertEquals(0L, stats.getLoadCount());
+    }
+}
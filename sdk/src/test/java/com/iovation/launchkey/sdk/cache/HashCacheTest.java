@@ -39,4 +39,22 @@ public class HashCacheTest {
     public void getReturnsNullWhenNotSet() throws Exception {
         assertNull(cache.get("key"));
     }
+
+    @Test
+    public void getStatsCountsHitsMissesAndSize() throws Exception {
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("other");
+        CacheStats stats = cache.getStats();
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+        assertEquals(1L, stats.getSize());
+    }
+
+    @Test
+    public void getStatsCountsRecordedLoads() throws Exception {
+        cache.recordLoad(CacheMissReason.ABSENT, 100L);
+        assertEquals(1L, cache.getStats().getLoadCount(CacheMissReason.ABSENT));
+        assertEquals(100L, cache.getStats().getTotalLoadTimeNanos());
+    }
 }
\ No newline at end of file
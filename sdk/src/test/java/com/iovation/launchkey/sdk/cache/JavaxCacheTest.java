@@ -59,6 +59,17 @@ public class JavaxCacheTest {
         cache.get("");
     }
 
+    @Test
+    public void getStatsCountsHitsAndMissesWithUnknownSize() throws Exception {
+        when(javaxCache.get("hit")).thenReturn("Value");
+        cache.get("hit");
+        cache.get("miss");
+        CacheStats stats = cache.getStats();
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+        assertEquals(-1L, stats.getSize());
+    }
+
     @Test
     public void putCallsJavaxCachePut() throws Exception {
         cache.put("key", "value");
@@ -0,0 +1,226 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class MappedFileCacheTest {
+    private static final int CAPACITY = 256;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private MappedFileCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "keys.cache");
+        cache = new MappedFileCache(file, CAPACITY);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cache.close();
+    }
+
+    @Test(expected = CacheException.class)
+    public void putRaisesCacheExceptionForNull() throws Exception {
+        cache.put(null, null);
+    }
+
+    @Test(expected = CacheException.class)
+    public void putRaisesCacheExceptionForEmptyKey() throws Exception {
+        cache.put("", "value");
+    }
+
+    @Test(expected = CacheException.class)
+    public void getRaisesCacheExceptionForNull() throws Exception {
+        cache.get(null);
+    }
+
+    @Test(expected = CacheException.class)
+    public void constructorRaisesCacheExceptionForFileWhichIsNotACacheFile() throws Exception {
+        File other = folder.newFile("other.txt");
+        try (FileWriter writer = new FileWriter(other)) {
+            writer.write("Hello, World!");
+        }
+        new MappedFileCache(other, CAPACITY);
+    }
+
+    @Test
+    public void constructorCreatesFile() throws Exception {
+        assertTrue(file.exists());
+    }
+
+    @Test
+    public void getReturnsValueWhenSet() throws Exception {
+        String expected = "Hello, World!";
+        cache.put("key", expected);
+        assertEquals(expected, cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsNullWhenNotSet() throws Exception {
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void putReplacesValue() throws Exception {
+        cache.put("key", "old");
+        cache.put("key", "new");
+        assertEquals("new", cache.get("key"));
+    }
+
+    @Test
+    public void valuesSurviveReopening() throws Exception {
+        cache.put("key", "value");
+        cache.close();
+        cache = new MappedFileCache(file, CAPACITY);
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void getReturnsValuePutByAnotherInstanceAfterOpening() throws Exception {
+        MappedFileCache other = new MappedFileCache(file, CAPACITY);
+        try {
+            other.put("key", "value");
+            assertEquals("value", cache.get("key"));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void compactionKeepsLatestValueOfEachKey() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            cache.put("key" + (i % 5), "value" + i);
+        }
+        cache.close();
+        cache = new MappedFileCache(file, CAPACITY);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("value" + (45 + i), cache.get("key" + i));
+        }
+    }
+
+    @Test
+    public void compactionGrowsFileWhenLiveEntriesDoNotFit() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        assertTrue(file.length() > CAPACITY);
+        assertEquals("value0", cache.get("key0"));
+        assertEquals("value49", cache.get("key49"));
+    }
+
+    @Test
+    public void compactionLeavesNoTemporaryFile() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        assertFalse(new File(file.getPath() + ".compact").exists());
+    }
+
+    @Test
+    public void putsAfterCompactionSurviveReopening() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        cache.put("after", "compaction");
+        cache.close();
+        cache = new MappedFileCache(file, CAPACITY);
+        assertEquals("compaction", cache.get("after"));
+        assertEquals("value49", cache.get("key49"));
+    }
+
+    @Test
+    public void anotherInstanceSwitchesToCompactedFile() throws Exception {
+        MappedFileCache other = new MappedFileCache(file, CAPACITY);
+        try {
+            for (int i = 0; i < 50; i++) {
+                cache.put("key" + i, "value" + i);
+            }
+            assertEquals("value49", other.get("key49"));
+            other.put("other", "value");
+            assertEquals("value", cache.get("other"));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void compactionInPlaceKeepsLatestValueOfEachKey() throws Exception {
+        useCacheWhichCannotReplaceFile();
+        for (int i = 0; i < 50; i++) {
+            cache.put("key" + (i % 5), "value" + i);
+        }
+        cache.close();
+        cache = new MappedFileCache(file, CAPACITY);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("value" + (45 + i), cache.get("key" + i));
+        }
+    }
+
+    @Test
+    public void compactionInPlaceGrowsFileWhenLiveEntriesDoNotFit() throws Exception {
+        useCacheWhichCannotReplaceFile();
+        for (int i = 0; i < 50; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        assertTrue(file.length() > CAPACITY);
+        assertFalse(new File(file.getPath() + ".compact").exists());
+        assertEquals("value0", cache.get("key0"));
+        assertEquals("value49", cache.get("key49"));
+    }
+
+    @Test
+    public void anotherInstanceReadsFileCompactedInPlace() throws Exception {
+        useCacheWhichCannotReplaceFile();
+        MappedFileCache other = new MappedFileCache(file, CAPACITY);
+        try {
+            other.put("stale", "value");
+            for (int i = 0; i < 50; i++) {
+                cache.put("key" + (i % 5), "value" + i);
+            }
+            assertEquals("value49", other.get("key4"));
+            other.put("other", "value");
+            assertEquals("value", cache.get("other"));
+            assertEquals("value", cache.get("stale"));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    public void recordWhichFailsChecksumIsNotRead() throws Exception {
+        cache.put("key", "value");
+        cache.close();
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(MappedFileCache.HEADER_SIZE + MappedFileCache.RECORD_HEADER_SIZE);
+            raw.write('X');
+        }
+        cache = new MappedFileCache(file, CAPACITY);
+        assertNull(cache.get("key"));
+    }
+
+    private void useCacheWhichCannotReplaceFile() throws Exception {
+        cache.close();
+        cache = new MappedFileCache(file, CAPACITY) {
+            @Override
+            void replace(Path compacted, Path target) throws IOException {
+                throw new AccessDeniedException(target.toString());
+            }
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package com.iovation.launchkey.sdk.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TieredCacheTest {
+    private static final long TIMEOUT_MILLIS = 50L;
+
+    @Mock private Cache backingCache;
+
+    private ExecutorService executor;
+    private BoundedCache nearCache;
+    private TieredCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+        nearCache = new BoundedCache(10, 1L, TimeUnit.HOURS);
+        cache = new TieredCache(nearCache, backingCache, executor, TIMEOUT_MILLIS, 60000L);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getReturnsNearCacheValueWithoutReadingBackingCache() throws Exception {
+        nearCache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+        verify(backingCache, never()).get(anyString());
+    }
+
+    @Test
+    public void getReadsThroughToBackingCache() throws Exception {
+        when(backingCache.get("key")).thenReturn("value");
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void getKeepsBackingCacheValueInNearCache() throws Exception {
+        when(backingCache.get("key")).thenReturn("value");
+        cache.get("key");
+        assertEquals("value", nearCache.get("key"));
+    }
+
+    @Test
+    public void getReturnsNullWhenAbsentFromBothCaches() throws Exception {
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void getDoesNotReadBackingCacheAgainForRecentlyAbsentKey() throws Exception {
+        cache.get("key");
+        assertNull(cache.get("key"));
+        verify(backingCache, times(1)).get("key");
+    }
+
+    @Test
+    public void getReadsBackingCacheAgainOnceNegativeTtlHasPassed() throws Exception {
+        cache = new TieredCache(nearCache, backingCache, executor, TIMEOUT_MILLIS, 1L);
+        cache.get("key");
+        Thread.sleep(5L);
+        cache.get("key");
+        verify(backingCache, times(2)).get("key");
+    }
+
+    @Test(expected = CacheException.class)
+    public void getRaisesCacheExceptionWhenBackingCacheFails() throws Exception {
+        when(backingCache.get("key")).thenThrow(new CacheException("Cache error on get!"));
+        cache.get("key");
+    }
+
+    @Test
+    public void getDoesNotReadBackingCacheAgainForRecentlyFailedKey() throws Exception {
+        when(backingCache.get("key")).thenThrow(new CacheException("Cache error on get!"));
+        try {
+            cache.get("key");
+        } catch (CacheException e) {
+            // Expected
+        }
+        assertNull(cache.get("key"));
+        verify(backingCache, times(1)).get("key");
+    }
+
+    @Test
+    public void getRaisesCacheExceptionWhenBackingCacheTimesOut() throws Exception {
+        when(backingCache.get("key")).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(1000L);
+                return "value";
+            }
+        });
+        long started = System.currentTimeMillis();
+        try {
+            cache.get("key");
+            fail("Expected CacheException");
+        } catch (CacheException e) {
+            assertTrue(System.currentTimeMillis() - started < 1000L);
+        }
+    }
+
+    @Test(expected = CacheTimeoutException.class)
+    public void getRaisesCacheTimeoutExceptionWhenBackingCacheTimesOut() throws Exception {
+        when(backingCache.get("key")).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(1000L);
+                return "value";
+            }
+        });
+        cache.get("key");
+    }
+
+    @Test
+    public void getCountsBackingCacheTimeoutAsMiss() throws Exception {
+        when(backingCache.get("key")).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(1000L);
+                return "value";
+            }
+        });
+        try {
+            cache.get("key");
+        } catch (CacheTimeoutException e) {
+            // Expected
+        }
+        assertEquals(1L, cache.getStats().getMissCount());
+    }
+
+    @Test
+    public void getCountsBackingCacheFailureAsMiss() throws Exception {
+        when(backingCache.get("key")).thenThrow(new CacheException("Cache error on get!"));
+        try {
+            cache.get("key");
+        } catch (CacheException e) {
+            // Expected
+        }
+        assertEquals(1L, cache.getStats().getMissCount());
+    }
+
+    @Test(expected = CacheException.class)
+    public void getRaisesCacheExceptionWhenExecutorIsSaturated() throws Exception {
+        ExecutorService rejecting = mock(ExecutorService.class);
+        when(rejecting.submit(any(Callable.class))).thenThrow(new RejectedExecutionException());
+        new TieredCache(nearCache, backingCache, rejecting, TIMEOUT_MILLIS, 60000L).get("key");
+    }
+
+    @Test
+    public void putWritesNearCacheImmediately() throws Exception {
+        cache.put("key", "value");
+        assertEquals("value", nearCache.get("key"));
+    }
+
+    @Test
+    public void putWritesBehindToBackingCache() throws Exception {
+        cache.put("key", "value");
+        verify(backingCache, timeout(1000L)).put("key", "value");
+    }
+
+    @Test
+    public void putIgnoresBackingCacheFailure() throws Exception {
+        doThrow(new CacheException("Cache error on put!")).when(backingCache).put(anyString(), anyString());
+        cache.put("key", "value");
+        verify(backingCache, timeout(1000L)).put("key", "value");
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void closeShutsDownExecutorCreatedByCache() throws Exception {
+        cache = new TieredCache(backingCache);
+        cache.close();
+        try {
+            cache.get("key");
+            fail("Expected CacheException");
+        } catch (CacheException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void closeDoesNotShutDownExecutorOfCaller() throws Exception {
+        cache.close();
+        assertFalse(executor.isShutdown());
+    }
+
+    @Test
+    public void getReturnsValuePutAfterNegativeEntry() throws Exception {
+        cache.get("key");
+        cache.put("key", "value");
+        assertEquals("value", cache.get("key"));
+    }
+}
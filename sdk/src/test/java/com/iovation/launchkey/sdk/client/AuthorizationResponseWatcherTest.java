@@ -0,0 +1,330 @@
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestCanceled;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CircuitOpen;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.EntityNotFound;
+import com.iovation.launchkey.sdk.error.RateLimited;
+import com.iovation.launchkey.sdk.error.RequestTimedOut;
+import com.iovation.launchkey.sdk.error.Unauthorized;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class AuthorizationResponseWatcherTest {
+    private static final String AUTH_REQUEST_ID = "d1e5b2a4-6a0b-11e8-9d1d-0242ac110002";
+    private static final long MINIMUM_DELAY = 1000L;
+    private static final long MAXIMUM_DELAY = 2000L;
+
+    @Mock private AsyncServiceClient serviceClient;
+    @Mock private Future<AuthorizationResponse> poll;
+    @Mock private ScheduledExecutorService scheduler;
+    @Mock private ScheduledFuture scheduledFuture;
+    @Mock private FutureCallback<AuthorizationResponse> callback;
+    @Mock private AuthorizationResponse authorizationResponse;
+
+    private AuthorizationResponseWatcher watcher;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenReturn(scheduledFuture);
+        pollsCompleteWith((Object) null);
+        watcher = new AuthorizationResponseWatcher(serviceClient, scheduler, MINIMUM_DELAY, MAXIMUM_DELAY);
+    }
+
+    @Test
+    public void watchSchedulesFirstPollAfterMinimumDelay() throws Exception {
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        verify(scheduler).schedule(any(Runnable.class), eq(MINIMUM_DELAY), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void watchAddsPendingRequest() throws Exception {
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        assertEquals(1, watcher.getPendingCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void watchThrowsIllegalStateExceptionWhenAlreadyWatched() throws Exception {
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+    }
+
+    @Test
+    public void responseCompletesFutureAndCallback() throws Exception {
+        pollsCompleteWith(authorizationResponse);
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertSame(authorizationResponse, future.get());
+        verify(callback).completed(authorizationResponse);
+        assertEquals(0, watcher.getPendingCount());
+    }
+
+    @Test
+    public void noResponseSchedulesNextPollWithGrowingDelayUpToMaximum() throws Exception {
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        runScheduled(2);
+        runScheduled(3);
+        ArgumentCaptor<Long> delays = ArgumentCaptor.forClass(Long.class);
+        verify(scheduler, times(4)).schedule(any(Runnable.class), delays.capture(), eq(TimeUnit.MILLISECONDS));
+        assertEquals(Long.valueOf(1000L), delays.getAllValues().get(0));
+        assertEquals(Long.valueOf(1500L), delays.getAllValues().get(1));
+        assertEquals(Long.valueOf(2000L), delays.getAllValues().get(2));
+        assertEquals(Long.valueOf(2000L), delays.getAllValues().get(3));
+    }
+
+    @Test
+    public void pollInFlightDoesNotScheduleNextPoll() throws Exception {
+        pollsStayInFlight();
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void completedPollSchedulesNextPoll() throws Exception {
+        pollsStayInFlight();
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        getPollCallback().completed(null);
+        verify(scheduler).schedule(any(Runnable.class), eq(1500L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void pollIsNotScheduledBeyondTtl() throws Exception {
+        watcher.watch(AUTH_REQUEST_ID, 0, callback);
+        ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+        verify(scheduler).schedule(any(Runnable.class), delay.capture(), eq(TimeUnit.MILLISECONDS));
+        assertEquals(Long.valueOf(0L), delay.getValue());
+    }
+
+    @Test
+    public void noResponseAfterTtlFailsWithAuthorizationRequestTimedOutError() throws Exception {
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 0, callback);
+        runScheduled(1);
+        assertFailedWith(future, AuthorizationRequestTimedOutError.class);
+        verify(callback).failed(any(AuthorizationRequestTimedOutError.class));
+        assertEquals(0, watcher.getPendingCount());
+    }
+
+    @Test
+    public void authorizationRequestTimedOutErrorFailsFuture() throws Exception {
+        pollsCompleteWith(new AuthorizationRequestTimedOutError());
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertFailedWith(future, AuthorizationRequestTimedOutError.class);
+    }
+
+    @Test
+    public void canceledRequestFailsFutureWithoutPollingAgain() throws Exception {
+        pollsCompleteWith(new AuthorizationRequestCanceled(null, null, null));
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertFailedWith(future, AuthorizationRequestCanceled.class);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void communicationErrorIsRetried() throws Exception {
+        pollsCompleteWith(new CommunicationErrorException(null, null, null), authorizationResponse);
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        runScheduled(2);
+        assertSame(authorizationResponse, future.get());
+    }
+
+    @Test
+    public void requestTimedOutIsRetried() throws Exception {
+        pollsCompleteWith(new RequestTimedOut(null, null, null), authorizationResponse);
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        runScheduled(2);
+        assertSame(authorizationResponse, future.get());
+    }
+
+    @Test
+    public void entityNotFoundFailsFutureWithoutPollingAgain() throws Exception {
+        pollsCompleteWith(new EntityNotFound(null, null, null));
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertFailedWith(future, EntityNotFound.class);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void unauthorizedFailsFutureWithoutPollingAgain() throws Exception {
+        pollsCompleteWith(new Unauthorized(null, null, null));
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertFailedWith(future, Unauthorized.class);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void rateLimitedIsRetriedAfterMaximumDelay() throws Exception {
+        pollsCompleteWith(new RateLimited(null, null, null));
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        verify(scheduler).schedule(any(Runnable.class), eq(MAXIMUM_DELAY), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void circuitOpenIsRetriedAfterMaximumDelay() throws Exception {
+        pollsCompleteWith(new CircuitOpen(null, null, null));
+        watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        verify(scheduler).schedule(any(Runnable.class), eq(MAXIMUM_DELAY), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void exceptionStartingPollFailsFuture() throws Exception {
+        doThrow(new IllegalArgumentException())
+                .when(serviceClient).getAuthorizationResponse(anyString(), anyPollCallback());
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertFailedWith(future, IllegalArgumentException.class);
+        assertEquals(0, watcher.getPendingCount());
+    }
+
+    @Test
+    public void cancellingFutureCancelsScheduledPollAndRemovesPendingRequest() throws Exception {
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        assertTrue(future.cancel(true));
+        verify(scheduledFuture).cancel(false);
+        assertEquals(0, watcher.getPendingCount());
+    }
+
+    @Test
+    public void cancellingFutureCancelsPollInFlight() throws Exception {
+        pollsStayInFlight();
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        assertTrue(future.cancel(true));
+        verify(poll).cancel(true);
+    }
+
+    @Test
+    public void cancelledPollCancelsFuture() throws Exception {
+        pollsStayInFlight();
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        runScheduled(1);
+        getPollCallback().cancelled();
+        assertTrue(future.isCancelled());
+        verify(callback).cancelled();
+        assertEquals(0, watcher.getPendingCount());
+    }
+
+    @Test
+    public void cancelledRequestIsNotPolled() throws Exception {
+        watcher.watch(AUTH_REQUEST_ID, 300, callback).cancel(true);
+        runScheduled(1);
+        verify(serviceClient, never()).getAuthorizationResponse(anyString(), anyPollCallback());
+    }
+
+    @Test
+    public void shutdownCancelsPendingFutures() throws Exception {
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        watcher.shutdown();
+        assertTrue(future.isCancelled());
+        verify(callback).cancelled();
+    }
+
+    @Test
+    public void shutdownDoesNotShutDownProvidedScheduler() throws Exception {
+        watcher.shutdown();
+        verify(scheduler, never()).shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorThrowsIllegalArgumentExceptionWithoutThreads() throws Exception {
+        new AuthorizationResponseWatcher(serviceClient, 0);
+    }
+
+    @Test
+    public void rejectedScheduleFailsFuture() throws Exception {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new RejectedExecutionException());
+        Future<AuthorizationResponse> future = watcher.watch(AUTH_REQUEST_ID, 300, callback);
+        assertFailedWith(future, RejectedExecutionException.class);
+    }
+
+    /**
+     * Complete each poll with the next outcome: a response, null for no response yet, or an exception. The last
+     * outcome repeats.
+     */
+    private void pollsCompleteWith(final Object... outcomes) {
+        final AtomicInteger polls = new AtomicInteger();
+        doAnswer(new Answer<Future<AuthorizationResponse>>() {
+            @Override
+            public Future<AuthorizationResponse> answer(InvocationOnMock invocation) {
+                FutureCallback<AuthorizationResponse> pollCallback = invocation.getArgument(1);
+                Object outcome = outcomes[Math.min(polls.getAndIncrement(), outcomes.length - 1)];
+                if (outcome instanceof Exception) {
+                    pollCallback.failed((Exception) outcome);
+                } else {
+                    pollCallback.completed((AuthorizationResponse) outcome);
+                }
+                return poll;
+            }
+        }).when(serviceClient).getAuthorizationResponse(anyString(), anyPollCallback());
+    }
+
+    private void pollsStayInFlight() {
+        doReturn(poll).when(serviceClient).getAuthorizationResponse(anyString(), anyPollCallback());
+    }
+
+    private FutureCallback<AuthorizationResponse> getPollCallback() {
+        ArgumentCaptor<FutureCallback<AuthorizationResponse>> captor = pollCallbackCaptor();
+        verify(serviceClient).getAuthorizationResponse(eq(AUTH_REQUEST_ID), captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<FutureCallback<AuthorizationResponse>> pollCallbackCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(FutureCallback.class);
+    }
+
+    private static FutureCallback<AuthorizationResponse> anyPollCallback() {
+        return ArgumentMatchers.any();
+    }
+
+    private void runScheduled(int scheduleCount) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(scheduleCount)).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        List<Runnable> tasks = captor.getAllValues();
+        tasks.get(tasks.size() - 1).run();
+    }
+
+    private static void assertFailedWith(Future<?> future, Class<? extends Exception> type) throws Exception {
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(type));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.directory.Device;
+import com.iovation.launchkey.sdk.domain.directory.DeviceStatus;
+import com.iovation.launchkey.sdk.domain.directory.DirectoryUserDeviceLinkData;
+import com.iovation.launchkey.sdk.domain.directory.Session;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BasicAsyncDirectoryClientTest {
+    private static final UUID DIRECTORY_ID = UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671");
+    private static final UUID DEVICE_ID = UUID.fromString("a5a07697-92ab-4c45-81d6-1ea41c019c09");
+    private static final EntityIdentifier DIRECTORY_ENTITY =
+            new EntityIdentifier(EntityIdentifier.EntityType.DIRECTORY, DIRECTORY_ID);
+
+    @Mock
+    private AsyncTransport transport;
+
+    @Mock
+    private DirectoryV3DevicesPostResponse devicesPostResponse;
+
+    @Mock
+    private DirectoryV3DevicesListPostResponseDevice responseDevice;
+
+    @Mock
+    private DirectoryV3SessionsListPostResponseSession responseSession;
+
+    private BasicFuture<DirectoryV3DevicesPostResponse> devicesPostFuture;
+    private BasicFuture<DirectoryV3DevicesListPostResponse> devicesListPostFuture;
+    private BasicAsyncDirectoryClient client;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        devicesPostFuture = new BasicFuture<>(null);
+        devicesListPostFuture = new BasicFuture<>(null);
+        when(transport.directoryV3DevicesPost(any(DirectoryV3DevicesPostRequest.class), any(EntityIdentifier.class),
+                any(FutureCallback.class))).thenReturn(devicesPostFuture);
+        when(transport.directoryV3DevicesListPost(any(DirectoryV3DevicesListPostRequest.class),
+                any(EntityIdentifier.class), any(FutureCallback.class))).thenReturn(devicesListPostFuture);
+        when(devicesPostResponse.getCode()).thenReturn("code");
+        when(devicesPostResponse.getQRCode()).thenReturn("QR code");
+        when(responseDevice.getId()).thenReturn(DEVICE_ID);
+        when(responseDevice.getName()).thenReturn("name");
+        when(responseDevice.getStatus()).thenReturn(1);
+        when(responseDevice.getType()).thenReturn("type");
+        when(responseSession.getServiceId()).thenReturn(DIRECTORY_ID);
+        when(responseSession.getServiceName()).thenReturn("service");
+        when(responseSession.getCreated()).thenReturn(new Date());
+        client = new BasicAsyncDirectoryClient(DIRECTORY_ID, transport);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void linkDevicePassesDirectoryEntityUserAndTtl() throws Exception {
+        client.linkDevice("user", 300, null);
+        ArgumentCaptor<DirectoryV3DevicesPostRequest> captor =
+                ArgumentCaptor.forClass(DirectoryV3DevicesPostRequest.class);
+        verify(transport).directoryV3DevicesPost(captor.capture(), eq(DIRECTORY_ENTITY), any(FutureCallback.class));
+        assertEquals("user", captor.getValue().getIdentifier());
+        assertEquals(Integer.valueOf(300), captor.getValue().getTTL());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void linkDeviceCompletesWithLinkDataFromTransportResponse() throws Exception {
+        Future<DirectoryUserDeviceLinkData> actual = client.linkDevice("user", null);
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(transport).directoryV3DevicesPost(any(DirectoryV3DevicesPostRequest.class),
+                any(EntityIdentifier.class), captor.capture());
+        captor.getValue().completed(devicesPostResponse);
+        assertEquals("code", actual.get().getCode());
+        assertEquals("QR code", actual.get().getQrCodeUrl());
+    }
+
+    @Test
+    public void cancellingLinkDeviceCancelsTransportFuture() throws Exception {
+        client.linkDevice("user", null).cancel(true);
+        assertTrue(devicesPostFuture.isCancelled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getLinkedDevicesCompletesWithDevicesFromTransportResponse() throws Exception {
+        Future<List<Device>> actual = client.getLinkedDevices("user", null);
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(transport).directoryV3DevicesListPost(any(DirectoryV3DevicesListPostRequest.class),
+                eq(DIRECTORY_ENTITY), captor.capture());
+        captor.getValue().completed(
+                new DirectoryV3DevicesListPostResponse(Collections.singletonList(responseDevice)));
+        Device device = actual.get().get(0);
+        assertEquals(DEVICE_ID.toString(), device.getId());
+        assertEquals("name", device.getName());
+        assertEquals(DeviceStatus.fromCode(1), device.getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void unlinkDevicePassesDirectoryEntityUserAndDeviceId() throws Exception {
+        client.unlinkDevice("user", DEVICE_ID.toString(), null);
+        ArgumentCaptor<DirectoryV3DevicesDeleteRequest> captor =
+                ArgumentCaptor.forClass(DirectoryV3DevicesDeleteRequest.class);
+        verify(transport).directoryV3devicesDelete(captor.capture(), eq(DIRECTORY_ENTITY),
+                (FutureCallback<Void>) isNull());
+        assertEquals("user", captor.getValue().getIdentifier());
+        assertEquals(DEVICE_ID, captor.getValue().getDeviceId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unlinkDeviceWithInvalidDeviceIdThrowsIllegalArgumentException() throws Exception {
+        client.unlinkDevice("user", "Not a UUID", null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getAllServiceSessionsCompletesWithSessionsFromTransportResponse() throws Exception {
+        Future<List<Session>> actual = client.getAllServiceSessions("user", null);
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(transport).directoryV3SessionsListPost(any(DirectoryV3SessionsListPostRequest.class),
+                eq(DIRECTORY_ENTITY), captor.capture());
+        captor.getValue().completed(
+                new DirectoryV3SessionsListPostResponse(Collections.singletonList(responseSession)));
+        Session session = actual.get().get(0);
+        assertEquals(DIRECTORY_ID, session.getServiceId());
+        assertEquals("service", session.getServiceName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void endAllServiceSessionsPassesDirectoryEntityAndUser() throws Exception {
+        client.endAllServiceSessions("user", null);
+        ArgumentCaptor<DirectoryV3SessionsDeleteRequest> captor =
+                ArgumentCaptor.forClass(DirectoryV3SessionsDeleteRequest.class);
+        verify(transport).directoryV3SessionsDelete(captor.capture(), eq(DIRECTORY_ENTITY),
+                (FutureCallback<Void>) isNull());
+        assertEquals("user", captor.getValue().getIdentifier());
+    }
+}
@@ -0,0 +1,107 @@
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthorizationRequest;
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class BasicAsyncServiceClientTest {
+    private static final UUID SERVICE_ID = UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671");
+    private static final UUID AUTH_REQUEST_ID = UUID.fromString("a5a07697-92ab-4c45-81d6-1ea41c019c09");
+    private static final EntityIdentifier SERVICE_ENTITY =
+            new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, SERVICE_ID);
+
+    @Mock
+    private AsyncTransport transport;
+
+    @Mock
+    private ServiceV3AuthsPostResponse authsPostResponse;
+
+    private BasicFuture<ServiceV3AuthsPostResponse> authsPostFuture;
+    private BasicFuture<ServiceV3AuthsGetResponse> authsGetFuture;
+    private BasicAsyncServiceClient client;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        authsPostFuture = new BasicFuture<>(null);
+        authsGetFuture = new BasicFuture<>(null);
+        when(transport.serviceV3AuthsPost(any(ServiceV3AuthsPostRequest.class), any(EntityIdentifier.class),
+                any(FutureCallback.class))).thenReturn(authsPostFuture);
+        when(transport.serviceV3AuthsGet(any(UUID.class), any(EntityIdentifier.class), any(FutureCallback.class)))
+                .thenReturn(authsGetFuture);
+        when(authsPostResponse.getAuthRequest()).thenReturn(AUTH_REQUEST_ID);
+        client = new BasicAsyncServiceClient(SERVICE_ID, transport);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createAuthorizationRequestPassesServiceEntityAndUsername() throws Exception {
+        client.createAuthorizationRequest("username", null);
+        ArgumentCaptor<ServiceV3AuthsPostRequest> captor = ArgumentCaptor.forClass(ServiceV3AuthsPostRequest.class);
+        verify(transport).serviceV3AuthsPost(captor.capture(), eq(SERVICE_ENTITY), any(FutureCallback.class));
+        assertEquals("username", captor.getValue().getUsername());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createAuthorizationRequestCompletesWithAuthRequestIdFromTransportResponse() throws Exception {
+        Future<AuthorizationRequest> actual = client.createAuthorizationRequest("username", null);
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(transport).serviceV3AuthsPost(any(ServiceV3AuthsPostRequest.class), any(EntityIdentifier.class),
+                captor.capture());
+        captor.getValue().completed(authsPostResponse);
+        assertEquals(AUTH_REQUEST_ID.toString(), actual.get().getId());
+    }
+
+    @Test
+    public void cancellingCreateAuthorizationRequestCancelsTransportFuture() throws Exception {
+        client.createAuthorizationRequest("username", null).cancel(true);
+        assertTrue(authsPostFuture.isCancelled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getAuthorizationResponseWithInvalidIdThrowsIllegalArgumentException() throws Exception {
+        client.getAuthorizationResponse("Not a UUID", null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getAuthorizationResponseCompletesWithNullWhenTransportResponseIsNull() throws Exception {
+        Future<AuthorizationResponse> actual = client.getAuthorizationResponse(AUTH_REQUEST_ID.toString(), null);
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(transport).serviceV3AuthsGet(eq(AUTH_REQUEST_ID), eq(SERVICE_ENTITY), captor.capture());
+        captor.getValue().completed(null);
+        assertNull(actual.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void sessionEndPassesUserAndServiceEntity() throws Exception {
+        client.sessionEnd("user", null);
+        ArgumentCaptor<ServiceV3SessionsDeleteRequest> captor =
+                ArgumentCaptor.forClass(ServiceV3SessionsDeleteRequest.class);
+        verify(transport).serviceV3SessionsDelete(captor.capture(), eq(SERVICE_ENTITY), 
+                (FutureCallback<Void>) isNull());
+        assertEquals("user", captor.getValue().getEndUserIdentifier());
+    }
+}
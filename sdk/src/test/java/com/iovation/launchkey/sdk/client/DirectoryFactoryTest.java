@@ -1,6 +1,8 @@
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.WarmUpTransport;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,7 +11,7 @@ import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class DirectoryFactoryTest {
 
@@ -51,4 +53,32 @@ public class DirectoryFactoryTest {
                 directoryFactory.makeServiceClient("49af9c38-31b3-11e7-93ae-92361f002671"),
                 instanceOf(ServiceClient.class));
     }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeAsyncDirectoryClientThrowsIllegalStateExceptionWhenTransportIsNotAsync() throws Exception {
+        directoryFactory.makeAsyncDirectoryClient();
+    }
+
+    @Test
+    public void testMakeAsyncDirectoryClientReturnsClient() throws Exception {
+        Transport transport = mock(Transport.class, withSettings().extraInterfaces(AsyncTransport.class));
+        directoryFactory = new DirectoryFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        assertThat(directoryFactory.makeAsyncDirectoryClient(), instanceOf(AsyncDirectoryClient.class));
+    }
+
+    @Test
+    public void testWarmUpWarmsUpTransport() throws Exception {
+        Transport transport = mock(Transport.class, withSettings().extraInterfaces(WarmUpTransport.class));
+        directoryFactory = new DirectoryFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        directoryFactory.warmUp();
+        verify((WarmUpTransport) transport).warmUp();
+    }
+
+    @Test
+    public void testWarmUpDoesNothingWhenTransportCannotBeWarmedUp() throws Exception {
+        Transport transport = mock(Transport.class);
+        directoryFactory = new DirectoryFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        directoryFactory.warmUp();
+        verifyZeroInteractions(transport);
+    }
 }
@@ -1,6 +1,8 @@
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.WarmUpTransport;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,7 +11,7 @@ import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class OrganizationFactoryTest {
 
@@ -50,6 +52,25 @@ public class OrganizationFactoryTest {
         );
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testMakeAsyncDirectoryClientWithNullThrowsIllegalArgument() throws Exception {
+        organizationFactory.makeAsyncDirectoryClient(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeAsyncDirectoryClientThrowsIllegalStateExceptionWhenTransportIsNotAsync() throws Exception {
+        organizationFactory.makeAsyncDirectoryClient("49af9c38-31b3-11e7-93ae-92361f002671");
+    }
+
+    @Test
+    public void testMakeAsyncDirectoryClientWithValidUUIDReturnsClient() throws Exception {
+        Transport transport = mock(Transport.class, withSettings().extraInterfaces(AsyncTransport.class));
+        organizationFactory =
+                new OrganizationFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        assertThat(organizationFactory.makeAsyncDirectoryClient("49af9c38-31b3-11e7-93ae-92361f002671"),
+                instanceOf(AsyncDirectoryClient.class));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testMakeServiceClientWithNullThrowsIllegalArgument() throws Exception {
         organizationFactory.makeServiceClient(null);
@@ -65,4 +86,20 @@ public class OrganizationFactoryTest {
         assertThat(organizationFactory.makeServiceClient("49af9c38-31b3-11e7-93ae-92361f002671"),
                 instanceOf(ServiceClient.class));
     }
+
+    @Test
+    public void testWarmUpWarmsUpTransport() throws Exception {
+        Transport transport = mock(Transport.class, withSettings().extraInterfaces(WarmUpTransport.class));
+        organizationFactory = new OrganizationFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        organizationFactory.warmUp();
+        verify((WarmUpTransport) transport).warmUp();
+    }
+
+    @Test
+    public void testWarmUpDoesNothingWhenTransportCannotBeWarmedUp() throws Exception {
+        Transport transport = mock(Transport.class);
+        organizationFactory = new OrganizationFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        organizationFactory.warmUp();
+        verifyZeroInteractions(transport);
+    }
 }
@@ -0,0 +1,187 @@
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.service.AuthorizationResponse;
+import com.iovation.launchkey.sdk.domain.webhook.AuthorizationResponseWebhookPackage;
+import com.iovation.launchkey.sdk.domain.webhook.ServiceUserSessionEndWebhookPackage;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PendingAuthorizationRegistryTest {
+    private static final String AUTH_REQUEST_ID = "d1e5b2a4-6a0b-11e8-9d1d-0242ac110002";
+    private static final long FALLBACK_DELAY = 30000L;
+
+    @Mock private AuthorizationResponseWatcher watcher;
+    @Mock private ScheduledExecutorService scheduler;
+    @Mock private ScheduledFuture expirationFuture;
+    @Mock private ScheduledFuture fallbackFuture;
+    @Mock private Future<AuthorizationResponse> pollingFuture;
+    @Mock private FutureCallback<AuthorizationResponse> callback;
+    @Mock private AuthorizationResponse authorizationResponse;
+
+    private PendingAuthorizationRegistry registry;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+                .thenReturn(expirationFuture, fallbackFuture);
+        when(watcher.watch(anyString(), anyInt(), any(FutureCallback.class))).thenReturn(pollingFuture);
+        when(authorizationResponse.getAuthorizationRequestId()).thenReturn(AUTH_REQUEST_ID);
+        registry = new PendingAuthorizationRegistry(watcher, scheduler, FALLBACK_DELAY);
+    }
+
+    @Test
+    public void registerSchedulesExpirationAtTtl() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        verify(scheduler).schedule(any(Runnable.class), eq(300000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void registerSchedulesPollingFallback() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        verify(scheduler).schedule(any(Runnable.class), eq(FALLBACK_DELAY), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void registerDoesNotSchedulePollingFallbackWhenTtlIsShorter() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 10, callback);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void registerWithoutWatcherDoesNotSchedulePollingFallback() throws Exception {
+        new PendingAuthorizationRegistry(scheduler).register(AUTH_REQUEST_ID, 300, callback);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void registerThrowsIllegalStateExceptionWhenAlreadyRegistered() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+    }
+
+    @Test
+    public void handleAuthorizationResponseWebhookCompletesFutureAndCallback() throws Exception {
+        Future<AuthorizationResponse> future = registry.register(AUTH_REQUEST_ID, 300, callback);
+        assertTrue(registry.handle(new AuthorizationResponseWebhookPackage(authorizationResponse)));
+        assertSame(authorizationResponse, future.get());
+        verify(callback).completed(authorizationResponse);
+    }
+
+    @Test
+    public void handleRemovesPendingRequestAndCancelsScheduledTasks() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        registry.handle(new AuthorizationResponseWebhookPackage(authorizationResponse));
+        assertEquals(0, registry.getPendingCount());
+        verify(expirationFuture).cancel(false);
+        verify(fallbackFuture).cancel(false);
+    }
+
+    @Test
+    public void handleReturnsFalseForUnknownAuthorizationRequest() throws Exception {
+        assertFalse(registry.handle(new AuthorizationResponseWebhookPackage(authorizationResponse)));
+    }
+
+    @Test
+    public void handleReturnsFalseForSessionEndWebhook() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        assertFalse(registry.handle(mock(ServiceUserSessionEndWebhookPackage.class)));
+        assertEquals(1, registry.getPendingCount());
+    }
+
+    @Test
+    public void expirationFailsFutureWithAuthorizationRequestTimedOutError() throws Exception {
+        Future<AuthorizationResponse> future = registry.register(AUTH_REQUEST_ID, 300, callback);
+        getScheduled(0).run();
+        assertFailedWith(future, AuthorizationRequestTimedOutError.class);
+        assertEquals(0, registry.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void pollingFallbackWatchesForRemainingTtl() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        getScheduled(1).run();
+        verify(watcher).watch(eq(AUTH_REQUEST_ID), eq(270), any(FutureCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void pollingFallbackResponseCompletesFuture() throws Exception {
+        Future<AuthorizationResponse> future = registry.register(AUTH_REQUEST_ID, 300, callback);
+        getScheduled(1).run();
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(watcher).watch(anyString(), anyInt(), captor.capture());
+        captor.getValue().completed(authorizationResponse);
+        assertSame(authorizationResponse, future.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void pollingFallbackFailureFailsFuture() throws Exception {
+        Future<AuthorizationResponse> future = registry.register(AUTH_REQUEST_ID, 300, callback);
+        getScheduled(1).run();
+        ArgumentCaptor<FutureCallback> captor = ArgumentCaptor.forClass(FutureCallback.class);
+        verify(watcher).watch(anyString(), anyInt(), captor.capture());
+        captor.getValue().failed(new CommunicationErrorException(null, null, null));
+        assertFailedWith(future, CommunicationErrorException.class);
+    }
+
+    @Test
+    public void webhookAfterPollingFallbackCancelsPolling() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        getScheduled(1).run();
+        registry.handle(new AuthorizationResponseWebhookPackage(authorizationResponse));
+        verify(pollingFuture).cancel(false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void pollingFallbackIsSkippedWhenAlreadyCompleted() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback);
+        registry.handle(new AuthorizationResponseWebhookPackage(authorizationResponse));
+        getScheduled(1).run();
+        verify(watcher, never()).watch(anyString(), anyInt(), any(FutureCallback.class));
+    }
+
+    @Test
+    public void cancellingFutureRemovesPendingRequest() throws Exception {
+        registry.register(AUTH_REQUEST_ID, 300, callback).cancel(true);
+        assertEquals(0, registry.getPendingCount());
+        verify(expirationFuture).cancel(false);
+    }
+
+    private Runnable getScheduled(int index) {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, atLeastOnce()).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        return captor.getAllValues().get(index);
+    }
+
+    private static void assertFailedWith(Future<?> future, Class<? extends Exception> type) throws Exception {
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(type));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.iovation.launchkey.sdk.client;
 
+import com.iovation.launchkey.sdk.transport.AsyncTransport;
 import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.WarmUpTransport;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,7 +11,7 @@ import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class ServiceFactoryTest {
 
@@ -32,4 +34,63 @@ public class ServiceFactoryTest {
     public void testMakeServiceClientReturnsServiceClient() throws Exception {
         assertThat(serviceFactory.makeServiceClient(), instanceOf(ServiceClient.class));
     }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeAsyncServiceClientThrowsIllegalStateExceptionWhenTransportIsNotAsync() throws Exception {
+        serviceFactory.makeAsyncServiceClient();
+    }
+
+    @Test
+    public void testMakeAsyncServiceClientReturnsAsyncServiceClient() throws Exception {
+        transport = mock(Transport.class, withSettings().extraInterfaces(AsyncTransport.class));
+        serviceFactory = new ServiceFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        assertThat(serviceFactory.makeAsyncServiceClient(), instanceOf(AsyncServiceClient.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMakeAuthorizationResponseWatcherThrowsIllegalStateExceptionWhenTransportIsNotAsync()
+            throws Exception {
+        serviceFactory.makeAuthorizationResponseWatcher();
+    }
+
+    @Test
+    public void testMakeAuthorizationResponseWatcherReturnsAuthorizationResponseWatcher() throws Exception {
+        transport = mock(Transport.class, withSettings().extraInterfaces(AsyncTransport.class));
+        serviceFactory = new ServiceFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        AuthorizationResponseWatcher watcher = serviceFactory.makeAuthorizationResponseWatcher();
+        assertThat(watcher, instanceOf(AuthorizationResponseWatcher.class));
+        watcher.shutdown();
+    }
+
+    @Test
+    public void testMakeAuthorizationResponseWatcherWithThreadsReturnsAuthorizationResponseWatcher() throws Exception {
+        transport = mock(Transport.class, withSettings().extraInterfaces(AsyncTransport.class));
+        serviceFactory = new ServiceFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        AuthorizationResponseWatcher watcher = serviceFactory.makeAuthorizationResponseWatcher(4);
+        assertThat(watcher, instanceOf(AuthorizationResponseWatcher.class));
+        watcher.shutdown();
+    }
+
+    @Test
+    public void testMakeWebhookProcessorReturnsWebhookProcessor() throws Exception {
+        WebhookProcessor processor = serviceFactory.makeWebhookProcessor(1, 1);
+        assertThat(processor, instanceOf(WebhookProcessor.class));
+        processor.shutdown();
+    }
+
+    @Test
+    public void testWarmUpWarmsUpTransport() throws Exception {
+        Transport transport = mock(Transport.class, withSettings().extraInterfaces(WarmUpTransport.class));
+        serviceFactory = new ServiceFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        serviceFactory.warmUp();
+        verify((WarmUpTransport) transport).warmUp();
+    }
+
+    @Test
+    public void testWarmUpDoesNothingWhenTransportCannotBeWarmedUp() throws Exception {
+        Transport transport = mock(Transport.class);
+        serviceFactory = new ServiceFactory(transport, UUID.fromString("49af9c38-31b3-11e7-93ae-92361f002671"));
+        serviceFactory.warmUp();
+        verifyZeroInteractions(transport);
+    }
 }
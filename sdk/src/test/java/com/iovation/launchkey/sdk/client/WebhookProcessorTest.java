@@ -0,0 +1,200 @@
+package com.iovation.launchkey.sdk.client;
+
+import com.iovation.launchkey.sdk.domain.webhook.WebhookPackage;
+import com.iovation.launchkey.sdk.error.InvalidResponseException;
+import org.apache.http.concurrent.FutureCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class WebhookProcessorTest {
+    private static final Map<String, List<String>> HEADERS =
+            Collections.singletonMap("X-IOV-JWT", Collections.singletonList("jwt"));
+    private static final String BODY = "body";
+    private static final String METHOD = "POST";
+    private static final String PATH = "/webhook";
+
+    @Mock private ServiceClient serviceClient;
+    @Mock private WebhookPackage webhookPackage;
+    @Mock private FutureCallback<WebhookPackage> callback;
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            executed.add(command);
+        }
+    };
+    private WebhookProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        when(serviceClient.handleWebhook(HEADERS, BODY, METHOD, PATH)).thenReturn(webhookPackage);
+        processor = new WebhookProcessor(serviceClient, executor, 2, WebhookProcessor.SaturationPolicy.REJECT, 0L);
+    }
+
+    @Test
+    public void submitDoesNotHandleWebhookOnCallingThread() throws Exception {
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        verify(serviceClient, never()).handleWebhook(anyMap(), anyString(), anyString(), anyString());
+        assertEquals(1, executed.size());
+    }
+
+    @Test
+    public void workerCompletesFutureAndCallbackWithWebhookPackage() throws Exception {
+        Future<WebhookPackage> future = processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        executed.get(0).run();
+        assertSame(webhookPackage, future.get());
+        verify(callback).completed(webhookPackage);
+    }
+
+    @Test
+    public void workerFailsFutureWithServiceClientException() throws Exception {
+        InvalidResponseException expected = new InvalidResponseException(null, null, null);
+        when(serviceClient.handleWebhook(HEADERS, BODY, METHOD, PATH)).thenThrow(expected);
+        Future<WebhookPackage> future = processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        executed.get(0).run();
+        try {
+            future.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(expected, e.getCause());
+        }
+        assertEquals(1L, processor.getFailedCount());
+    }
+
+    @Test
+    public void queueDepthCountsDeliveriesWaitingForAWorker() throws Exception {
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        assertEquals(2, processor.getQueueDepth());
+        executed.get(0).run();
+        assertEquals(1, processor.getQueueDepth());
+        assertEquals(1L, processor.getProcessedCount());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void submitRejectsWhenSaturated() throws Exception {
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+    }
+
+    @Test
+    public void rejectedDeliveriesAreCounted() throws Exception {
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        try {
+            processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+        assertEquals(1L, processor.getRejectedCount());
+    }
+
+    @Test
+    public void submitAcceptsAgainOnceADeliveryIsHandled() throws Exception {
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        executed.get(0).run();
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        assertEquals(3, executed.size());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void blockingSubmitRejectsAfterMaximumWait() throws Exception {
+        processor = new WebhookProcessor(serviceClient, executor, 1, WebhookProcessor.SaturationPolicy.BLOCK, 1L);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+    }
+
+    @Test
+    public void blockingSubmitWaitsForADeliveryToBeHandled() throws Exception {
+        processor = new WebhookProcessor(serviceClient, executor, 1, WebhookProcessor.SaturationPolicy.BLOCK, 5000L);
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        final Runnable first = executed.get(0);
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                first.run();
+            }
+        });
+        worker.start();
+        Future<WebhookPackage> future = processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        worker.join();
+        assertNotNull(future);
+    }
+
+    @Test
+    public void submitRejectsWhenExecutorRejectsAndReleasesCapacity() throws Exception {
+        Executor rejecting = mock(Executor.class);
+        doThrow(new RejectedExecutionException()).when(rejecting).execute(any(Runnable.class));
+        processor = new WebhookProcessor(serviceClient, rejecting, 1, WebhookProcessor.SaturationPolicy.REJECT, 0L);
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+                fail("Expected RejectedExecutionException");
+            } catch (RejectedExecutionException e) {
+                assertEquals(0, processor.getQueueDepth());
+            }
+        }
+        verify(rejecting, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void submitRejectsAfterShutdown() throws Exception {
+        processor.shutdown();
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+    }
+
+    @Test
+    public void cancelledDeliveryIsNotHandled() throws Exception {
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback).cancel(true);
+        executed.get(0).run();
+        verify(serviceClient, never()).handleWebhook(anyMap(), anyString(), anyString(), anyString());
+        assertEquals(0, processor.getQueueDepth());
+    }
+
+    @Test
+    public void processingTimesAreRecorded() throws Exception {
+        when(serviceClient.handleWebhook(HEADERS, BODY, METHOD, PATH)).thenAnswer(new Answer<WebhookPackage>() {
+            @Override
+            public WebhookPackage answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(5L);
+                return webhookPackage;
+            }
+        });
+        processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        executed.get(0).run();
+        assertTrue(processor.getAverageProcessingTimeMillis() > 0.0);
+        assertTrue(processor.getMaximumProcessingTimeMillis() >= processor.getAverageProcessingTimeMillis());
+    }
+
+    @Test
+    public void ownedWorkerPoolHandlesWebhooks() throws Exception {
+        processor = new WebhookProcessor(serviceClient, 2, 4, WebhookProcessor.SaturationPolicy.REJECT, 0L);
+        Future<WebhookPackage> future = processor.submit(HEADERS, BODY, METHOD, PATH, callback);
+        assertThat(future.get(5L, TimeUnit.SECONDS), instanceOf(WebhookPackage.class));
+        processor.shutdown();
+    }
+}
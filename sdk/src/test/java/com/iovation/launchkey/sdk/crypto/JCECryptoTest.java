@@ -11,10 +11,13 @@ import org.junit.Test;
 
 import java.io.StringReader;
 import java.security.KeyFactory;
+import java.security.Provider;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPrivateKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -181,6 +184,16 @@ public class JCECryptoTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testSha256IsCorrectWhenDigestIsReusedOnSameThread() throws Exception {
+        crypto.sha256("Something Else".getBytes());
+        crypto.sha512("Testing".getBytes());
+        //noinspection SpellCheckingInspection
+        String expected = "e806a291cfc3e61f83b98d344ee57e3e8933cccece4fb45e1481f1f560e70eb1";
+        String actual = Hex.toHexString(crypto.sha256("Testing".getBytes()));
+        assertEquals(expected, actual);
+    }
+
     @Test
     public void testSha384() throws Exception {
         //noinspection SpellCheckingInspection
@@ -199,6 +212,20 @@ public class JCECryptoTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void testGetRSAPublicKeyReturnsPublicKeyOfPrivateKey() throws Exception {
+        RSAPublicKey actual = crypto.getRSAPublicKey(rsaPrivateKey);
+        assertEquals(rsaPublicKey.getModulus(), actual.getModulus());
+        assertEquals(rsaPublicKey.getPublicExponent(), actual.getPublicExponent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRSAPublicKeyThrowsIllegalArgumentWhenPublicExponentIsNotAvailable() throws Exception {
+        RSAPrivateKey privateKey = (RSAPrivateKey) KeyFactory.getInstance("RSA", provider).generatePrivate(
+                new RSAPrivateKeySpec(rsaPrivateKey.getModulus(), rsaPrivateKey.getPrivateExponent()));
+        crypto.getRSAPublicKey(privateKey);
+    }
+
     @Test
     public void testGetRsaPublicKeyFingerprintWithPrivateKeyReturnsProperFingerprint() throws Exception {
         assertEquals(PUBLIC_KEY_FINGERPRINT, crypto.getRsaPublicKeyFingerprint(rsaPrivateKey));
@@ -209,6 +236,51 @@ public class JCECryptoTest {
         assertEquals(PUBLIC_KEY_FINGERPRINT, crypto.getRsaPublicKeyFingerprint(rsaPublicKey));
     }
 
+    @Test
+    public void testStaticGetRsaPublicKeyFingerprintWithPrivateKeyReturnsProperFingerprint() throws Exception {
+        assertEquals(PUBLIC_KEY_FINGERPRINT, JCECrypto.getRsaPublicKeyFingerprint(provider, rsaPrivateKey));
+    }
+
+    @Test
+    public void testStaticGetRsaPublicKeyFingerprintWithPublicKeyReturnsProperFingerprint() throws Exception {
+        assertEquals(PUBLIC_KEY_FINGERPRINT, JCECrypto.getRsaPublicKeyFingerprint(provider, rsaPublicKey));
+    }
+
+    @Test
+    public void testStaticGetRsaPublicKeyFingerprintWithProviderWithoutMd5UsesDefaultProviders() throws Exception {
+        Provider providerWithoutMd5 = new Provider("Empty", 1.0, "No services") {
+        };
+        assertEquals(PUBLIC_KEY_FINGERPRINT, JCECrypto.getRsaPublicKeyFingerprint(providerWithoutMd5, rsaPublicKey));
+    }
+
+    @Test
+    public void testStaticGetRsaPublicKeyFingerprintWithAlternatingProvidersReturnsProperFingerprint()
+            throws Exception {
+        Provider otherProvider = new BouncyCastleProvider();
+        assertEquals(PUBLIC_KEY_FINGERPRINT, JCECrypto.getRsaPublicKeyFingerprint(provider, rsaPrivateKey));
+        assertEquals(PUBLIC_KEY_FINGERPRINT, JCECrypto.getRsaPublicKeyFingerprint(otherProvider, rsaPrivateKey));
+        assertEquals(PUBLIC_KEY_FINGERPRINT, JCECrypto.getRsaPublicKeyFingerprint(provider, rsaPrivateKey));
+    }
+
+    @Test
+    public void testStaticGetKeyFromPEMWithAlternatingProvidersLooksUpKeyFactoryOncePerProvider() throws Exception {
+        final Provider bouncyCastle = new BouncyCastleProvider();
+        final AtomicInteger lookups = new AtomicInteger();
+        Provider countingProvider = new Provider("Counting", 1.0, "Counts service lookups") {
+            @Override
+            public synchronized Service getService(String type, String algorithm) {
+                lookups.incrementAndGet();
+                return bouncyCastle.getService(type, algorithm);
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            JCECrypto.getRSAPublicKeyFromPEM(countingProvider, PUBLIC_KEY);
+            JCECrypto.getRSAPrivateKeyFromPEM(countingProvider, PRIVATE_KEY);
+            JCECrypto.getRSAPublicKeyFromPEM(provider, PUBLIC_KEY);
+        }
+        assertEquals(1, lookups.get());
+    }
+
     @Test
     public void testGetPEMFromPublicKey() throws Exception {
         assertEquals(PUBLIC_KEY,
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.crypto;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class JCEEngineTest {
+    private JCEEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        engine = new JCEEngine(new BouncyCastleProvider());
+    }
+
+    @Test
+    public void getCipherReturnsSameInstanceOnSameThread() throws Exception {
+        assertSame(engine.getCipher("RSA/ECB/OAEPWithSHA1AndMGF1Padding"),
+                engine.getCipher("RSA/ECB/OAEPWithSHA1AndMGF1Padding"));
+    }
+
+    @Test
+    public void getKeyFactoryReturnsSameInstanceOnSameThread() throws Exception {
+        assertSame(engine.getKeyFactory("RSA"), engine.getKeyFactory("RSA"));
+    }
+
+    @Test
+    public void getMessageDigestReturnsDifferentInstanceOnAnotherThread() throws Exception {
+        final AtomicReference<MessageDigest> other = new AtomicReference<>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    other.set(engine.getMessageDigest("SHA-256"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNotNull(other.get());
+        assertNotSame(other.get(), engine.getMessageDigest("SHA-256"));
+    }
+
+    @Test
+    public void getMessageDigestReturnsResetDigest() throws Exception {
+        engine.getMessageDigest("SHA-256").update("Partial".getBytes());
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest("Testing".getBytes());
+        assertArrayEquals(expected, engine.getMessageDigest("SHA-256").digest("Testing".getBytes()));
+    }
+
+    @Test
+    public void getMessageDigestUsesProvider() throws Exception {
+        assertEquals("BC", engine.getMessageDigest("SHA-256").getProvider().getName());
+    }
+}
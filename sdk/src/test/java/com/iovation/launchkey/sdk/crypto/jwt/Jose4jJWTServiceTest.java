@@ -26,6 +26,8 @@ import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 /**
  * Copyright 2017 iovation, Inc. All rights reserved.
@@ -404,6 +406,90 @@ public class Jose4jJWTServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void getJWTDataReturnsKeyIdAndClaims() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        jwtClaims.setSubject("Subject");
+        JWTData actual = jwtService.getJWTData(getJwsCompactSerializationFromJtwClaims(jwtClaims));
+        assertEquals(new JWTData(PLATFORM_IDENTIFIER, "Subject", ENTITY_IDENTIFIER, currentPrivateKeyId), actual);
+    }
+
+    @Test
+    public void decodeJWTDataDecodesParsedJwt() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        JWTData jwtData = jwtService.getJWTData(getJwsCompactSerializationFromJtwClaims(jwtClaims));
+        final String actual =
+                jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), new Date(), jwtData)
+                        .getTokenId();
+        assertEquals(jwtClaims.getJwtId(), actual);
+    }
+
+    @Test
+    public void decodeJWTDataCanBeRepeated() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        JWTClaims expected = jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), new Date(), jwt);
+        JWTClaims actual = jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), new Date(), jwt);
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeJWTDataNotFromServiceThrowsJwtError() throws Exception {
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, null, new Date(),
+                new JWTData(PLATFORM_IDENTIFIER, null, ENTITY_IDENTIFIER, currentPrivateKeyId));
+    }
+
+    @Test
+    public void getVerifyingConsumerReusesConsumerForKeyAndAudience() throws Exception {
+        JwtConsumer expected = jwtService.getVerifyingConsumer(keyPair.getPublic(), ENTITY_IDENTIFIER);
+        assertSame(expected, jwtService.getVerifyingConsumer(keyPair.getPublic(), ENTITY_IDENTIFIER));
+    }
+
+    @Test
+    public void getVerifyingConsumerEvictsOnlyLeastRecentlyUsedConsumerWhenFull() throws Exception {
+        JwtConsumer firstCached = jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 0");
+        JwtConsumer leastRecentlyUsed = jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 1");
+        for (int i = 2; i < Jose4jJWTService.MAX_VERIFYING_CONSUMERS; i++) {
+            jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience " + i);
+        }
+        jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 0");
+        jwtService.getVerifyingConsumer(keyPair.getPublic(), "New Audience");
+        assertSame(firstCached, jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 0"));
+        assertSame(jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 2"),
+                jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 2"));
+        assertNotSame(leastRecentlyUsed, jwtService.getVerifyingConsumer(keyPair.getPublic(), "Audience 1"));
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeWrongAudienceThrowsJwtError() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        jwtService.decode(keyPair.getPublic(), "Other Entity", jwtClaims.getJwtId(), new Date(), jwt);
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeWrongTokenIdThrowsJwtError() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, "Other Token ID", new Date(), jwt);
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeExpiredJwtThrowsJwtError() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        Date afterExpiration = new Date(jwtClaims.getExpirationTime().getValueInMillis() + 6000L);
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), afterExpiration, jwt);
+    }
+
+    @Test(expected = JWTError.class)
+    public void decodeJwtNotYetValidThrowsJwtError() throws Exception {
+        JwtClaims jwtClaims = getBaseClaims();
+        String jwt = getJwsCompactSerializationFromJtwClaims(jwtClaims);
+        Date beforeNotBefore = new Date(jwtClaims.getNotBefore().getValueInMillis() - 6000L);
+        jwtService.decode(keyPair.getPublic(), ENTITY_IDENTIFIER, jwtClaims.getJwtId(), beforeNotBefore, jwt);
+    }
+
     private JwtClaims getBaseClaims() {
         JwtClaims jwtClaims = new JwtClaims();
         jwtClaims.setGeneratedJwtId();
@@ -0,0 +1,68 @@
+package com.iovation.launchkey.sdk.metrics;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.RateLimited;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class HistogramTransportMetricsListenerTest {
+    private static final String ENDPOINT = "GET /service/v3/auths/{id}";
+    private HistogramTransportMetricsListener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        listener = new HistogramTransportMetricsListener();
+    }
+
+    @Test
+    public void phaseCompletedRecordsPhaseDuration() throws Exception {
+        listener.phaseCompleted(ENDPOINT, TransportPhase.HTTP_EXCHANGE, 50L);
+        assertEquals(50L, listener.getPhaseHistogram(ENDPOINT, TransportPhase.HTTP_EXCHANGE).getMax());
+        assertEquals(0L, listener.getPhaseHistogram(ENDPOINT, TransportPhase.REQUEST_SIGNATURE).getCount());
+    }
+
+    @Test
+    public void callCompletedRecordsDurationAndSizes() throws Exception {
+        listener.callCompleted(ENDPOINT, 200, 10L, 20L, 30L, null);
+        assertEquals(30L, listener.getCallHistogram(ENDPOINT).getMax());
+        assertEquals(10L, listener.getRequestBytesHistogram(ENDPOINT).getMax());
+        assertEquals(20L, listener.getResponseBytesHistogram(ENDPOINT).getMax());
+    }
+
+    @Test
+    public void callCompletedIgnoresUnknownSizes() throws Exception {
+        listener.callCompleted(ENDPOINT, -1, -1L, -1L, 30L, new CommunicationErrorException(null, null, null));
+        assertEquals(0L, listener.getRequestBytesHistogram(ENDPOINT).getCount());
+        assertEquals(0L, listener.getResponseBytesHistogram(ENDPOINT).getCount());
+    }
+
+    @Test
+    public void callCompletedCountsStatusCodes() throws Exception {
+        listener.callCompleted(ENDPOINT, 200, 0L, 0L, 1L, null);
+        listener.callCompleted(ENDPOINT, 200, 0L, 0L, 1L, null);
+        listener.callCompleted(ENDPOINT, 429, 0L, 0L, 1L, new RateLimited(null, null, null));
+        assertEquals(2L, listener.getStatusCodeCount(ENDPOINT, 200));
+        assertEquals(1L, listener.getStatusCodeCount(ENDPOINT, 429));
+        assertEquals(0L, listener.getStatusCodeCount(ENDPOINT, 500));
+    }
+
+    @Test
+    public void callCompletedCountsErrorsByClass() throws Exception {
+        listener.callCompleted(ENDPOINT, 429, 0L, 0L, 1L, new RateLimited(null, null, null));
+        listener.callCompleted(ENDPOINT, -1, 0L, 0L, 1L, new CommunicationErrorException(null, null, null));
+        assertEquals(1L, listener.getErrorCount(ENDPOINT, RateLimited.class));
+        assertEquals(1L, listener.getErrorCount(ENDPOINT, CommunicationErrorException.class));
+    }
+
+    @Test
+    public void endpointsAreKeptSeparately() throws Exception {
+        listener.callCompleted(ENDPOINT, 200, 0L, 0L, 1L, null);
+        listener.callCompleted("POST /service/v3/auths", 201, 0L, 0L, 1L, null);
+        assertThat(listener.getEndpoints(), containsInAnyOrder(ENDPOINT, "POST /service/v3/auths"));
+        assertEquals(1L, listener.getCallHistogram(ENDPOINT).getCount());
+    }
+}
@@ -0,0 +1,89 @@
+package com.iovation.launchkey.sdk.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() throws Exception {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void emptyHistogramReturnsZeroes() throws Exception {
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0L, histogram.getValueAtPercentile(50.0));
+    }
+
+    @Test
+    public void smallValuesAreExact() throws Exception {
+        for (long i = 0; i < LatencyHistogram.SUB_BUCKET_COUNT; i++) {
+            assertEquals(i, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(i)));
+        }
+    }
+
+    @Test
+    public void bucketUpperBoundIsWithinPrecisionOfValue() throws Exception {
+        for (long value = 1L; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+            assertTrue("Upper bound " + upperBound + " below " + value, upperBound >= value);
+            assertTrue("Upper bound " + upperBound + " too far above " + value,
+                    upperBound - value <= value / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinPrecision() throws Exception {
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(5000000.0, histogram.getValueAtPercentile(50.0), 5000000.0 / 64);
+        assertEquals(9900000.0, histogram.getValueAtPercentile(99.0), 9900000.0 / 64);
+        assertEquals(10000000L, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void countMeanAndMaxAreExact() throws Exception {
+        histogram.record(100L);
+        histogram.record(200L);
+        histogram.record(600L);
+        assertEquals(3L, histogram.getCount());
+        assertEquals(300.0, histogram.getMean(), 0.0);
+        assertEquals(600L, histogram.getMax());
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() throws Exception {
+        histogram.record(-5L);
+        assertEquals(1L, histogram.getCount());
+        assertEquals(0L, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void concurrentRecordsAreCounted() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000L, histogram.getCount());
+        assertEquals(9999L, histogram.getMax());
+    }
+}
@@ -0,0 +1,128 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static long now() {
+        return System.nanoTime();
+    }
+
+    @Test
+    public void acquireSucceedsBelowLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0L, 0.5);
+        assertTrue(limit.acquire(now()));
+        assertTrue(limit.acquire(now()));
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    public void acquireFailsAtLimitAndCountsRejection() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 10, 0L, 0.5);
+        assertTrue(limit.acquire(now()));
+        assertFalse(limit.acquire(now()));
+        assertEquals(1L, limit.getRejectedCount());
+    }
+
+    @Test
+    public void acquireWaitsForRelease() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 10, 0L, 0.5);
+        assertTrue(limit.acquire(now()));
+        final long started = now();
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                limit.release(started, 200);
+            }
+        });
+        releaser.start();
+        assertTrue(limit.acquire(now() + TimeUnit.SECONDS.toNanos(5)));
+        releaser.join();
+    }
+
+    @Test
+    public void successfulCallsRaiseLimitAdditively() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0L, 0.5);
+        for (int i = 0; i < 4; i++) {
+            limit.acquire(now());
+            limit.release(now(), 200);
+        }
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    public void limitDoesNotExceedMaximum() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2, 0L, 0.5);
+        for (int i = 0; i < 10; i++) {
+            limit.acquire(now());
+            limit.release(now(), 200);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void rateLimitedCallLowersLimitMultiplicatively() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0L, 0.5);
+        long started = now();
+        limit.acquire(now());
+        limit.release(started, 429);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void unavailableCallLowersLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0L, 0.5);
+        long started = now();
+        limit.acquire(now());
+        limit.release(started, 503);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void slowCallLowersLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 1L, 0.5);
+        long started = now();
+        limit.acquire(now());
+        Thread.sleep(1L);
+        limit.release(started, 200);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void callsStartedBeforeLastDecreaseDoNotLowerLimitAgain() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 0L, 0.5);
+        long started = now();
+        limit.acquire(now());
+        limit.acquire(now());
+        limit.release(started, 429);
+        limit.release(started, 429);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void limitDoesNotGoBelowMinimum() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 10, 0L, 0.5);
+        long started = now();
+        limit.acquire(now());
+        limit.release(started, 429);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void callWithoutResponseDoesNotChangeLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 0L, 0.5);
+        limit.acquire(now());
+        limit.release(now(), -1);
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+}
@@ -0,0 +1,78 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CircuitOpen;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportCircuitBreakerTest extends ApacheHttpTransportTestBase {
+    private static final String PING = "/public/v3/ping";
+
+    private CircuitBreaker circuitBreaker;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        circuitBreaker = new CircuitBreaker(2, 2, 0.5, 0L, 0.5, 60000L, 1);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setCircuitBreaker(circuitBreaker));
+    }
+
+    private void pingIgnoringErrors() throws Exception {
+        try {
+            transport.publicV3PingGet();
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void recordsSuccessfulCall() throws Exception {
+        transport.publicV3PingGet();
+        assertEquals(0.0, circuitBreaker.getCircuits().get(PING).getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void recordsServerErrorAsFailure() throws Exception {
+        when(httpResponse.getStatusLine())
+                .thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 500, "Internal Server Error"));
+        pingIgnoringErrors();
+        assertEquals(1.0, circuitBreaker.getCircuits().get(PING).getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void recordsIOErrorAsFailure() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        pingIgnoringErrors();
+        assertEquals(1.0, circuitBreaker.getCircuits().get(PING).getFailureRate(), 0.0);
+    }
+
+    @Test(expected = CircuitOpen.class)
+    public void throwsCircuitOpenWhenCircuitIsOpen() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        pingIgnoringErrors();
+        pingIgnoringErrors();
+        transport.publicV3PingGet();
+    }
+
+    @Test
+    public void doesNotSendWhenCircuitIsOpen() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        pingIgnoringErrors();
+        pingIgnoringErrors();
+        pingIgnoringErrors();
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+}
@@ -0,0 +1,63 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.RateLimited;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportConcurrencyLimitTest extends ApacheHttpTransportTestBase {
+    private static final String PING = "svc:issuer GET /public/v3/ping";
+
+    private ConcurrencyLimiter limiter;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        when(issuer.toString()).thenReturn("svc:issuer");
+        limiter = new ConcurrencyLimiter(4, 1, 10, 0L, 0L, 0.0);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setConcurrencyLimiter(limiter));
+    }
+
+    @Test
+    public void releasesPermitAfterCall() throws Exception {
+        transport.publicV3PingGet();
+        assertEquals(0, limiter.getLimits().get(PING).getInFlight());
+    }
+
+    @Test
+    public void lowersLimitWhenRateLimited() throws Exception {
+        when(httpResponse.getStatusLine())
+                .thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 429, "Too Many Requests"));
+        try {
+            transport.publicV3PingGet();
+        } catch (RateLimited e) {
+            // Expected
+        }
+        assertEquals(2, limiter.getLimits().get(PING).getLimit());
+    }
+
+    @Test
+    public void failsWithoutSendingWhenLimitIsReached() throws Exception {
+        limiter = new ConcurrencyLimiter(1, 1, 1, 0L, 0L, 0.0);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setConcurrencyLimiter(limiter));
+        limiter.acquire("svc:issuer", "GET /public/v3/ping");
+        try {
+            transport.publicV3PingGet();
+        } catch (RateLimited e) {
+            // Expected
+        }
+        verify(httpClient, never()).execute(any(HttpUriRequest.class));
+    }
+}
@@ -48,6 +48,8 @@ public class ApacheHttpTransportHandleServerSentEventAuthResponseTest extends Ap
         when(jwtData.getKeyId()).thenReturn("Key ID");
         when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), anyString()))
                 .thenReturn(jwtClaims);
+        when(jwtService.decode(any(PublicKey.class), anyString(), (String) isNull(), any(Date.class), any(JWTData.class)))
+                .thenReturn(jwtClaims);
         when(jweService.decrypt(anyString(), any(PrivateKey.class))).thenReturn("Decrypted");
         when(objectMapper.readValue(anyString(), eq(ServerSentEventAuthorizationResponseCore.class)))
                 .thenReturn(coreResponse);
@@ -0,0 +1,101 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
+import com.iovation.launchkey.sdk.metrics.TransportPhase;
+import com.iovation.launchkey.sdk.transport.domain.ServiceV3AuthsPostRequest;
+import com.iovation.launchkey.sdk.transport.domain.ServiceV3AuthsPostResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportMetricsTest extends ApacheHttpTransportTestBase {
+    private static final String AUTHS_POST = "POST /service/v3/auths";
+
+    @Mock private TransportMetricsListener listener;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setMetricsListener(listener));
+        when(objectMapper.readValue(anyString(), eq(ServiceV3AuthsPostResponse.class)))
+                .thenReturn(mock(ServiceV3AuthsPostResponse.class));
+    }
+
+    @Test
+    public void reportsEachPhaseOfASignedCall() throws Exception {
+        transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+        for (TransportPhase phase : TransportPhase.values()) {
+            verify(listener).phaseCompleted(eq(AUTHS_POST), eq(phase), anyLong());
+        }
+    }
+
+    @Test
+    public void reportsCompletedCallWithStatusCode() throws Exception {
+        transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+        verify(listener).callCompleted(eq(AUTHS_POST), eq(200), anyLong(), anyLong(), anyLong(),
+                (Throwable) isNull());
+    }
+
+    @Test
+    public void reportsFailedCallWithError() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        try {
+            transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        verify(listener).callCompleted(eq(AUTHS_POST), eq(-1), anyLong(), anyLong(), anyLong(),
+                any(CommunicationErrorException.class));
+    }
+
+    @Test
+    public void reportsErrorStatusCode() throws Exception {
+        // Load the current public key and API time offset before the API starts responding with errors
+        transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+        when(httpResponse.getStatusLine())
+                .thenReturn(new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 429, "Too Many Requests"));
+        when(jwtClaims.getStatusCode()).thenReturn(429);
+        try {
+            transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        verify(listener).callCompleted(eq(AUTHS_POST), eq(429), anyLong(), anyLong(), anyLong(),
+                any(Throwable.class));
+    }
+
+    @Test
+    public void reportsIdentifiersInPathAsId() throws Exception {
+        transport.serviceV3AuthsDelete(UUID.randomUUID(), issuer);
+        verify(listener).callCompleted(eq("DELETE /service/v3/auths/{id}"), anyInt(), anyLong(), anyLong(),
+                anyLong(), (Throwable) isNull());
+    }
+
+    @Test
+    public void listenerExceptionsDoNotFailCall() throws Exception {
+        doThrow(new RuntimeException()).when(listener)
+                .phaseCompleted(anyString(), any(TransportPhase.class), anyLong());
+        doThrow(new RuntimeException()).when(listener)
+                .callCompleted(anyString(), anyInt(), anyLong(), anyLong(), anyLong(), any(Throwable.class));
+        transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+    }
+}
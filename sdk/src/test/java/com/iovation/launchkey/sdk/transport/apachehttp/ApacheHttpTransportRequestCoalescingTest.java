@@ -0,0 +1,149 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
+import com.iovation.launchkey.sdk.transport.domain.ServicesGetResponse;
+import com.iovation.launchkey.sdk.transport.domain.ServicesGetResponseService;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportRequestCoalescingTest extends ApacheHttpTransportTestBase {
+    private final EntityIdentifier subject =
+            new EntityIdentifier(EntityIdentifier.EntityType.ORGANIZATION, UUID.randomUUID());
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+    private RequestCoalescer coalescer;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        when(issuer.toString()).thenReturn("org:issuer");
+        when(objectMapper.readValue(anyString(), eq(ServicesGetResponseService[].class))).thenAnswer(
+                new Answer<ServicesGetResponseService[]>() {
+                    @Override
+                    public ServicesGetResponseService[] answer(InvocationOnMock invocation) {
+                        return new ServicesGetResponseService[]{mock(ServicesGetResponseService.class)};
+                    }
+                });
+        coalescer = new RequestCoalescer();
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setRequestCoalescer(coalescer));
+        // Obtain the API time offset and current public key so that only the calls being tested remain
+        transport.organizationV3ServicesGet(subject);
+        doAnswer(new Answer<HttpResponse>() {
+            @Override
+            public HttpResponse answer(InvocationOnMock invocation) throws Throwable {
+                HttpUriRequest request = invocation.getArgument(0);
+                if (request.getURI().getPath().endsWith("/organization/v3/services")) {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                return httpResponse;
+            }
+        }).when(httpClient).execute(any(HttpUriRequest.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private Future<ServicesGetResponse> getServices(final EntityIdentifier subject) {
+        return executor.submit(new Callable<ServicesGetResponse>() {
+            @Override
+            public ServicesGetResponse call() throws Exception {
+                return transport.organizationV3ServicesGet(subject);
+            }
+        });
+    }
+
+    private void awaitCoalesced() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (coalescer.getCoalescedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    @Test
+    public void identicalCallsInFlightShareOneCallAndDecryption() throws Exception {
+        Future<ServicesGetResponse> first = getServices(subject);
+        started.await(5, TimeUnit.SECONDS);
+        Future<ServicesGetResponse> second = getServices(subject);
+        awaitCoalesced();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, calls.get());
+        // Once for the setup call and once for the shared call
+        verify(jweService, times(2)).decrypt(anyString());
+    }
+
+    @Test
+    public void identicalCallsInFlightEachUnmarshalTheSharedResponse() throws Exception {
+        Future<ServicesGetResponse> first = getServices(subject);
+        started.await(5, TimeUnit.SECONDS);
+        Future<ServicesGetResponse> second = getServices(subject);
+        awaitCoalesced();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        // Once for the setup call and once for each caller sharing the call
+        verify(objectMapper, times(3)).readValue(anyString(), eq(ServicesGetResponseService[].class));
+    }
+
+    @Test
+    public void identicalCallsInFlightDoNotShareResponseObjects() throws Exception {
+        Future<ServicesGetResponse> first = getServices(subject);
+        started.await(5, TimeUnit.SECONDS);
+        Future<ServicesGetResponse> second = getServices(subject);
+        awaitCoalesced();
+        release.countDown();
+        assertNotSame(first.get(5, TimeUnit.SECONDS).getServices().get(0),
+                second.get(5, TimeUnit.SECONDS).getServices().get(0));
+    }
+
+    @Test
+    public void identicalCallsInFlightGetTheirOwnArrayResponse() throws Exception {
+        Future<ServicesGetResponse> first = getServices(subject);
+        started.await(5, TimeUnit.SECONDS);
+        Future<ServicesGetResponse> second = getServices(subject);
+        awaitCoalesced();
+        release.countDown();
+        ServicesGetResponseService expected = second.get(5, TimeUnit.SECONDS).getServices().get(0);
+        first.get(5, TimeUnit.SECONDS).getServices().set(0, mock(ServicesGetResponseService.class));
+        assertSame(expected, second.get(5, TimeUnit.SECONDS).getServices().get(0));
+    }
+
+    @Test
+    public void callsForDifferentSubjectsAreNotShared() throws Exception {
+        release.countDown();
+        transport.organizationV3ServicesGet(subject);
+        transport.organizationV3ServicesGet(
+                new EntityIdentifier(EntityIdentifier.EntityType.ORGANIZATION, UUID.randomUUID()));
+        assertEquals(2, calls.get());
+        assertEquals(0L, coalescer.getCoalescedCount());
+    }
+}
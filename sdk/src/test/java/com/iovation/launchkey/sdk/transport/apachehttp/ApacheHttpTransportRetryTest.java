@@ -0,0 +1,202 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
+import com.iovation.launchkey.sdk.transport.domain.DirectoryV3DevicesListPostRequest;
+import com.iovation.launchkey.sdk.transport.domain.DirectoryV3DevicesListPostResponseDevice;
+import com.iovation.launchkey.sdk.transport.domain.ServiceV3AuthsPostRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportRetryTest extends ApacheHttpTransportTestBase {
+    private RetryPolicy retryPolicy;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        retryPolicy = new RetryPolicy(3, 0L, 0L, 0.1, 10);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setRetryPolicy(retryPolicy));
+        when(objectMapper.readValue(anyString(), eq(DirectoryV3DevicesListPostResponseDevice[].class)))
+                .thenReturn(new DirectoryV3DevicesListPostResponseDevice[0]);
+    }
+
+    @Test
+    public void retriesGetAfterIOException() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException()).thenReturn(httpResponse);
+        transport.publicV3PingGet();
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void retriesGetAfterGatewayError() throws Exception {
+        when(httpResponse.getStatusLine()).thenReturn(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 503, "Service Unavailable"),
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 200, "OK"));
+        transport.publicV3PingGet();
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void retriedGatewayErrorIsReportedAsFailedCallWithItsStatus() throws Exception {
+        TransportMetricsListener listener = mock(TransportMetricsListener.class);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setRetryPolicy(retryPolicy).setMetricsListener(listener));
+        HttpResponse gatewayError = mock(HttpResponse.class);
+        when(gatewayError.getStatusLine()).thenReturn(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 503, "Service Unavailable"));
+        when(httpClient.execute(any(HttpUriRequest.class))).thenReturn(gatewayError).thenReturn(httpResponse);
+        transport.publicV3PingGet();
+        verify(listener).callCompleted(eq("GET /public/v3/ping"), eq(503), anyLong(), anyLong(), anyLong(),
+                any(CommunicationErrorException.class));
+        verify(listener).callCompleted(eq("GET /public/v3/ping"), eq(200), anyLong(), anyLong(), anyLong(),
+                (Throwable) isNull());
+    }
+
+    @Test
+    public void retriesListPostAfterIOException() throws Exception {
+        when(httpClient.execute(argThat(new MethodMatcher("POST")))).thenThrow(new IOException())
+                .thenReturn(httpResponse);
+        transport.directoryV3DevicesListPost(mock(DirectoryV3DevicesListPostRequest.class), issuer);
+        verify(httpClient, times(2)).execute(argThat(new MethodMatcher("POST")));
+    }
+
+    @Test
+    public void signsEachAttemptWithNewJwtId() throws Exception {
+        when(httpClient.execute(argThat(new MethodMatcher("POST")))).thenThrow(new IOException())
+                .thenReturn(httpResponse);
+        transport.directoryV3DevicesListPost(mock(DirectoryV3DevicesListPostRequest.class), issuer);
+        ArgumentCaptor<String> jti = ArgumentCaptor.forClass(String.class);
+        verify(jwtService, times(2)).encode(jti.capture(), (String) any(), (String) any(), any(Date.class),
+                eq("POST"), eq("/directory/v3/devices/list"), (String) any(), (String) any());
+        assertNotEquals(jti.getAllValues().get(0), jti.getAllValues().get(1));
+    }
+
+    @Test
+    public void doesNotRetryPostWhichChangesState() throws Exception {
+        when(httpClient.execute(argThat(new MethodMatcher("POST")))).thenThrow(new IOException());
+        try {
+            transport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), issuer);
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        verify(httpClient, times(1)).execute(argThat(new MethodMatcher("POST")));
+    }
+
+    @Test(expected = CommunicationErrorException.class)
+    public void throwsAfterMaximumAttempts() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        try {
+            transport.publicV3PingGet();
+        } finally {
+            verify(httpClient, times(3)).execute(any(HttpUriRequest.class));
+        }
+    }
+
+    @Test
+    public void doesNotRetryWhenBudgetIsExhausted() throws Exception {
+        retryPolicy = new RetryPolicy(3, 0L, 0L, 0.0, 0);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null,
+                new TransportOptions().setRetryPolicy(retryPolicy));
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        try {
+            transport.publicV3PingGet();
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        verify(httpClient, times(1)).execute(any(HttpUriRequest.class));
+        assertEquals(1L, retryPolicy.getBudgetExhaustedCount());
+    }
+
+    @Test
+    public void doesNotRetryWithoutPolicy() throws Exception {
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null, new TransportOptions());
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        try {
+            transport.publicV3PingGet();
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        verify(httpClient, times(1)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void interruptedBackOffThrowsLastFailureWithoutRetrying() throws Exception {
+        IOException failure = new IOException();
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(failure).thenReturn(httpResponse);
+        Thread.currentThread().interrupt();
+        try {
+            transport.publicV3PingGet();
+            fail("Expected CommunicationErrorException");
+        } catch (CommunicationErrorException e) {
+            assertSame(failure, e.getCause());
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        verify(httpClient, times(1)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void interruptedBackOffAfterGatewayErrorThrowsForStatusWithoutRetrying() throws Exception {
+        when(httpResponse.getStatusLine()).thenReturn(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 503, "Service Unavailable"),
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 200, "OK"));
+        Thread.currentThread().interrupt();
+        try {
+            transport.publicV3PingGet();
+            fail("Expected CommunicationErrorException");
+        } catch (CommunicationErrorException e) {
+            assertEquals("503", e.getErrorCode());
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        verify(httpClient, times(1)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void countsRetries() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException()).thenReturn(httpResponse);
+        transport.publicV3PingGet();
+        assertEquals(1L, retryPolicy.getRetryCount());
+    }
+
+    private static class MethodMatcher implements ArgumentMatcher<HttpUriRequest> {
+        private final String method;
+
+        private MethodMatcher(String method) {
+            this.method = method;
+        }
+
+        @Override
+        public boolean matches(HttpUriRequest request) {
+            return request != null && method.equals(request.getMethod());
+        }
+    }
+}
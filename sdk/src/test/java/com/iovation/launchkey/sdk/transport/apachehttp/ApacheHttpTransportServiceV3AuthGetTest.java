@@ -29,6 +29,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
@@ -151,6 +153,16 @@ public class ApacheHttpTransportServiceV3AuthGetTest extends ApacheHttpTransport
         assertEquals(expected, response.getRequestingEntity());
     }
 
+    @Test
+    public void parsesResponseJwtOnce() throws Exception {
+        transport.serviceV3AuthsGet(
+                UUID.randomUUID(),
+                new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID())
+        );
+
+        verify(jwtService, times(1)).getJWTData(anyString());
+    }
+
     @Test
     public void returnsSubjectPassedToMethod() throws Exception {
         UUID expected = UUID.randomUUID();
@@ -14,11 +14,12 @@ package com.iovation.launchkey.sdk.transport.apachehttp;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.cache.StatsCache;
 import com.iovation.launchkey.sdk.crypto.Crypto;
 import com.iovation.launchkey.sdk.crypto.jwe.JWEService;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTClaims;
 import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
-import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
+import com.iovation.launchkey.sdk.crypto.jwt.ParsedJWTService;
 import com.iovation.launchkey.sdk.transport.domain.EntityIdentifier;
 import com.iovation.launchkey.sdk.transport.domain.EntityKeyMap;
 import com.iovation.launchkey.sdk.transport.domain.PublicV3PingGetResponse;
@@ -60,12 +61,12 @@ public class ApacheHttpTransportTestBase {
     @Mock protected HttpResponse httpResponse;
     @Mock protected ObjectMapper objectMapper;
     @Mock protected EntityIdentifier issuer;
-    @Mock protected JWTService jwtService;
+    @Mock protected ParsedJWTService jwtService;
     @Mock protected JWTData jwtData;
     @Mock protected JWTClaims jwtClaims;
     @Mock protected JWEService jweService;
     @Mock protected Crypto crypto;
-    @Mock private Cache publicKeyCache;
+    @Mock(extraInterfaces = StatsCache.class) protected Cache publicKeyCache;
     @Mock protected EntityKeyMap entityKeyMap;
     @Mock private PublicV3PingGetResponse pingResponse;
     @Mock private RSAPublicKey publicKey;
@@ -86,6 +87,7 @@ public class ApacheHttpTransportTestBase {
         when(jweService.decrypt(anyString())).thenReturn("Decrypted");
         when(jwtService.getJWTData(anyString())).thenReturn(jwtData);
         when(jwtService.decode(any(PublicKey.class), anyString(), anyString(), any(Date.class), anyString())).thenReturn(jwtClaims);
+        when(jwtService.decode(any(PublicKey.class), anyString(), anyString(), any(Date.class), any(JWTData.class))).thenReturn(jwtClaims);
         byte[] contentHash = MessageDigest.getInstance("SHA-256", new BouncyCastleProvider()).digest("Hello World!".getBytes());
         when(crypto.sha256(any(byte[].class))).thenReturn(contentHash);
         when(crypto.sha384(any(byte[].class))).thenReturn(contentHash);
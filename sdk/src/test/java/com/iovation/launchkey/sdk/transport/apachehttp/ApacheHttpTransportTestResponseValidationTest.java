@@ -1,6 +1,11 @@
 package com.iovation.launchkey.sdk.transport.apachehttp;
 
+import com.iovation.launchkey.sdk.cache.CacheException;
+import com.iovation.launchkey.sdk.cache.CacheMissReason;
+import com.iovation.launchkey.sdk.cache.CacheTimeoutException;
+import com.iovation.launchkey.sdk.cache.StatsCache;
 import com.iovation.launchkey.sdk.crypto.Crypto;
+import com.iovation.launchkey.sdk.crypto.jwt.JWTService;
 import com.iovation.launchkey.sdk.error.CryptographyError;
 import com.iovation.launchkey.sdk.error.InvalidResponseException;
 import org.apache.commons.codec.binary.Hex;
@@ -12,8 +17,17 @@ import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Date;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -21,6 +35,83 @@ import static org.mockito.Mockito.when;
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class ApacheHttpTransportTestResponseValidationTest extends ApacheHttpTransportTestBase {
 
+    @Test
+    public void cachedPublicKeyPemIsOnlyParsedOnceForMultipleResponses() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Cached Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(crypto, times(1)).getRSAPublicKeyFromPEM("Public Key");
+    }
+
+    @Test
+    public void parsedPublicKeyHitsAreCountedByTransport() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Cached Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        assertEquals(2, transport.getParsedPublicKeyHitCount());
+    }
+
+    @Test
+    public void cachedPublicKeyDoesNotRecordLoad() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("Cached Key ID");
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify((StatsCache) publicKeyCache, never()).recordLoad(any(CacheMissReason.class), anyLong());
+    }
+
+    @Test
+    public void absentPublicKeyRecordsLoadForAbsent() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("absent-key-id");
+        when(publicKeyCache.get(anyString())).thenReturn(null);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify((StatsCache) publicKeyCache).recordLoad(eq(CacheMissReason.ABSENT), anyLong());
+    }
+
+    @Test
+    public void unparsablePublicKeyRecordsLoadForUnusable() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("unparsable-key-id");
+        when(crypto.getRSAPublicKeyFromPEM("Public Key")).thenThrow(new IllegalArgumentException());
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify((StatsCache) publicKeyCache).recordLoad(eq(CacheMissReason.UNUSABLE), anyLong());
+    }
+
+    @Test
+    public void publicKeyCacheErrorRecordsLoadForError() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("error-key-id");
+        when(publicKeyCache.get(anyString())).thenThrow(new CacheException("Cache error on get!"));
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify((StatsCache) publicKeyCache).recordLoad(eq(CacheMissReason.ERROR), anyLong());
+    }
+
+    @Test
+    public void publicKeyCacheTimeoutRecordsLoadForTimeout() throws Exception {
+        when(jwtData.getKeyId()).thenReturn("timeout-key-id");
+        when(publicKeyCache.get(anyString())).thenThrow(new CacheTimeoutException("Backing cache get timed out", null));
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify((StatsCache) publicKeyCache).recordLoad(eq(CacheMissReason.TIMEOUT), anyLong());
+    }
+
+    @Test
+    public void parsedJwtServiceDecodesParsedJwtData() throws Exception {
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(jwtService).decode(any(PublicKey.class), anyString(), (String) any(), any(Date.class), eq(jwtData));
+        verify(jwtService, never())
+                .decode(any(PublicKey.class), anyString(), (String) any(), any(Date.class), anyString());
+    }
+
+    @Test
+    public void jwtServiceWithoutParsedDecodeDecodesJwtString() throws Exception {
+        JWTService plainJwtService = mock(JWTService.class);
+        when(plainJwtService.getJWTData(anyString())).thenReturn(jwtData);
+        when(plainJwtService.decode(any(PublicKey.class), anyString(), (String) any(), any(Date.class), anyString()))
+                .thenReturn(jwtClaims);
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                plainJwtService, jweService, 0, 0, entityKeyMap);
+        transport.getHttpResponse("GET", "/", issuer, null, true, null);
+        verify(plainJwtService)
+                .decode(any(PublicKey.class), anyString(), (String) any(), any(Date.class), eq("JWT Header"));
+    }
+
     @Test
     public void verifySha256hashIsUsedForS256ResponseFuncValueInJwt() throws Exception {
         when(jwtClaims.getContentHashAlgorithm()).thenReturn("S256");
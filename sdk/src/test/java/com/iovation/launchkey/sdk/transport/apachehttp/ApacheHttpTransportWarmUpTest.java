@@ -0,0 +1,157 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.crypto.jwt.JWTData;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.error.CryptographyError;
+import com.iovation.launchkey.sdk.error.NoKeyFoundException;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ApacheHttpTransportWarmUpTest extends ApacheHttpTransportTestBase {
+    @Mock private ScheduledExecutorService scheduler;
+    private KeyPair keyPair;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, null, new TransportOptions());
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(1024);
+        keyPair = keyPairGenerator.generateKeyPair();
+        when(issuer.toString()).thenReturn("svc:" + UUID.randomUUID());
+        when(jwtService.encode(anyString(), anyString(), anyString(), any(Date.class), anyString(), anyString(),
+                (String) any(), (String) any())).thenReturn("Request JWT");
+        when(jwtData.getKeyId()).thenReturn("Key ID");
+        when(jwtData.getAudience()).thenReturn("API");
+        when(entityKeyMap.getKey(issuer, "Key ID")).thenReturn((RSAPrivateKey) keyPair.getPrivate());
+        when(crypto.getRSAPublicKey((RSAPrivateKey) keyPair.getPrivate()))
+                .thenReturn((RSAPublicKey) keyPair.getPublic());
+    }
+
+    @Test
+    public void warmUpObtainsApiTimeOffset() throws Exception {
+        transport.warmUp();
+        verifyCall("GET", URI.create(baseUrl + "/public/v3/ping"));
+    }
+
+    @Test
+    public void warmUpObtainsCurrentPublicKey() throws Exception {
+        transport.warmUp();
+        verifyCall("GET", URI.create(baseUrl + "/public/v3/public-key"));
+    }
+
+    @Test
+    public void warmUpSendsNoOtherRequests() throws Exception {
+        transport.warmUp();
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void warmUpBuildsNoRequest() throws Exception {
+        transport.warmUp();
+        verify(objectMapper, never()).writeValueAsString(any());
+        PublicKey apiPublicKey = crypto.getRSAPublicKeyFromPEM("Public Key");
+        verify(jweService, never()).encrypt(anyString(), eq(apiPublicKey), anyString(), anyString());
+    }
+
+    @Test
+    public void warmUpSignsTokenWithEntityKey() throws Exception {
+        transport.warmUp();
+        verify(jwtService, times(2)).encode(anyString(), anyString(), anyString(), any(Date.class), anyString(),
+                anyString(), (String) any(), (String) any());
+    }
+
+    @Test
+    public void warmUpVerifiesTokenWithEntityPublicKey() throws Exception {
+        transport.warmUp();
+        verify(jwtService).decode(eq(keyPair.getPublic()), eq("API"), anyString(), any(Date.class),
+                any(JWTData.class));
+    }
+
+    @Test
+    public void warmUpDecryptsDataEncryptedWithEntityPublicKey() throws Exception {
+        transport.warmUp();
+        verify(jweService).encrypt("{}", keyPair.getPublic(), "Key ID", "application/json");
+        verify(jweService).decrypt("Encrypted");
+    }
+
+    @Test
+    public void warmedUpTransportCanBeCollectedAndStopsRefreshing() throws Exception {
+        ApacheHttpTransport warmTransport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache,
+                baseUrl, issuer, jwtService, jweService, 300, 300, entityKeyMap, scheduler, new TransportOptions());
+        warmTransport.warmUp();
+        WeakReference<ApacheHttpTransport> reference = new WeakReference<>(warmTransport);
+        warmTransport = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        ArgumentCaptor<Runnable> refreshes = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(refreshes.capture(), anyLong(), any(TimeUnit.class));
+        for (Runnable refresh : refreshes.getAllValues()) {
+            refresh.run();
+        }
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test
+    public void closedTransportStopsRefreshing() throws Exception {
+        transport = new ApacheHttpTransport(httpClient, crypto, objectMapper, publicKeyCache, baseUrl, issuer,
+                jwtService, jweService, 300, 300, entityKeyMap, scheduler, new TransportOptions());
+        transport.warmUp();
+        transport.warmUp();
+        transport.close();
+        ArgumentCaptor<Runnable> refreshes = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(2)).schedule(refreshes.capture(), anyLong(), any(TimeUnit.class));
+        for (Runnable refresh : refreshes.getAllValues()) {
+            refresh.run();
+        }
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+    }
+
+    @Test(expected = CryptographyError.class)
+    public void warmUpThrowsCryptographyErrorWhenEntityKeyIsNotFound() throws Exception {
+        when(entityKeyMap.getKey(issuer, "Key ID")).thenThrow(new NoKeyFoundException("No key"));
+        transport.warmUp();
+    }
+
+    @Test(expected = CryptographyError.class)
+    public void warmUpThrowsCryptographyErrorWhenEntityPublicKeyCannotBeDerived() throws Exception {
+        when(crypto.getRSAPublicKey((RSAPrivateKey) keyPair.getPrivate()))
+                .thenThrow(new IllegalArgumentException("No public exponent"));
+        transport.warmUp();
+    }
+
+    @Test(expected = CommunicationErrorException.class)
+    public void warmUpThrowsCommunicationErrorExceptionWhenApiCannotBeReached() throws Exception {
+        when(httpClient.execute(any(HttpUriRequest.class))).thenThrow(new IOException());
+        transport.warmUp();
+    }
+}
@@ -0,0 +1,280 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.cache.Cache;
+import com.iovation.launchkey.sdk.error.AuthorizationRequestTimedOutError;
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.transport.domain.*;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class AsyncHttpTransportTest extends ApacheHttpTransportTestBase {
+    private static final UUID AUTH_REQUEST_ID = UUID.fromString("a5a07697-92ab-4c45-81d6-1ea41c019c09");
+
+    @Mock private HttpAsyncClient httpAsyncClient;
+    @Mock private Cache cache;
+    @Mock private Future<HttpResponse> exchange;
+    @Mock private FutureCallback<ServiceV3AuthsPostResponse> callback;
+
+    private AsyncHttpTransport asyncTransport;
+    private EntityIdentifier subject;
+    private Exception exchangeFailure;
+    private List<Runnable> responseTasks;
+    private Executor responseExecutor;
+
+    @Before
+    public void setUpAsync() throws Exception {
+        when(cache.get(anyString())).thenReturn("Public Key");
+        exchangeFailure = null;
+        responseTasks = new ArrayList<>();
+        responseExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        when(httpAsyncClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenAnswer(
+                new Answer<Future<HttpResponse>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Future<HttpResponse> answer(InvocationOnMock invocation) {
+                        FutureCallback<HttpResponse> httpCallback = invocation.getArgument(1);
+                        if (exchangeFailure == null) {
+                            httpCallback.completed(httpResponse);
+                        } else {
+                            httpCallback.failed(exchangeFailure);
+                        }
+                        return exchange;
+                    }
+                });
+        asyncTransport = new AsyncHttpTransport(httpClient, httpAsyncClient, responseExecutor, crypto, objectMapper,
+                cache, baseUrl, issuer, jwtService, jweService, 0, 0, entityKeyMap, null, new TransportOptions());
+        subject = new EntityIdentifier(EntityIdentifier.EntityType.SERVICE, UUID.randomUUID());
+    }
+
+    @Test
+    public void serviceV3AuthsPostSendsRequestWithProperMethodAndPath() throws Exception {
+        asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null);
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("POST", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/service/v3/auths"), captor.getValue().getURI());
+    }
+
+    @Test
+    public void serviceV3AuthsPostCompletesFutureWithDecryptedResponse() throws Exception {
+        ServiceV3AuthsPostResponse expected = mock(ServiceV3AuthsPostResponse.class);
+        when(objectMapper.readValue("Decrypted", ServiceV3AuthsPostResponse.class)).thenReturn(expected);
+        Future<ServiceV3AuthsPostResponse> actual =
+                asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null);
+        assertSame(expected, actual.get());
+    }
+
+    @Test
+    public void serviceV3AuthsPostNotifiesCallbackWithDecryptedResponse() throws Exception {
+        ServiceV3AuthsPostResponse expected = mock(ServiceV3AuthsPostResponse.class);
+        when(objectMapper.readValue("Decrypted", ServiceV3AuthsPostResponse.class)).thenReturn(expected);
+        asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, callback);
+        verify(callback).completed(expected);
+    }
+
+    @Test
+    public void ioFailureFailsFutureWithCommunicationErrorException() throws Exception {
+        exchangeFailure = new IOException();
+        Future<ServiceV3AuthsPostResponse> actual =
+                asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null);
+        try {
+            actual.get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CommunicationErrorException.class));
+        }
+    }
+
+    @Test
+    public void serviceV3AuthsGetCompletesWithNullWhenStatusIs204() throws Exception {
+        when(jwtClaims.getStatusCode()).thenReturn(204);
+        when(httpResponse.getStatusLine()).thenReturn(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 204, "No Content"));
+        assertNull(asyncTransport.serviceV3AuthsGet(AUTH_REQUEST_ID, subject, null).get());
+    }
+
+    @Test
+    public void serviceV3AuthsGetFailsWithAuthorizationRequestTimedOutErrorWhenStatusIs408() throws Exception {
+        // Verify the response with a cached key and the current key loaded before the API starts responding with 408
+        when(jwtData.getKeyId()).thenReturn("Key ID");
+        asyncTransport = new AsyncHttpTransport(httpClient, httpAsyncClient, responseExecutor, crypto, objectMapper,
+                cache, baseUrl, issuer, jwtService, jweService, 300, 300, entityKeyMap, null, new TransportOptions());
+        asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null).get();
+        when(jwtClaims.getStatusCode()).thenReturn(408);
+        when(httpResponse.getStatusLine()).thenReturn(
+                new BasicStatusLine(new ProtocolVersion("HTTP", 1, 1), 408, "Request Timeout"));
+        try {
+            asyncTransport.serviceV3AuthsGet(AUTH_REQUEST_ID, subject, null).get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(AuthorizationRequestTimedOutError.class));
+        }
+    }
+
+    @Test
+    public void serviceV3AuthsDeleteSendsRequestWithProperMethodAndPath() throws Exception {
+        asyncTransport.serviceV3AuthsDelete(AUTH_REQUEST_ID, subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("DELETE", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/service/v3/auths/a5a07697-92ab-4c45-81d6-1ea41c019c09"),
+                captor.getValue().getURI());
+    }
+
+    @Test
+    public void serviceV3SessionsDeleteSendsRequestWithProperMethodAndPath() throws Exception {
+        asyncTransport.serviceV3SessionsDelete(mock(ServiceV3SessionsDeleteRequest.class), subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("DELETE", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/service/v3/sessions"), captor.getValue().getURI());
+    }
+
+    @Test
+    public void directoryV3DevicesPostSendsRequestWithProperMethodAndPath() throws Exception {
+        asyncTransport.directoryV3DevicesPost(mock(DirectoryV3DevicesPostRequest.class), subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("POST", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/directory/v3/devices"), captor.getValue().getURI());
+    }
+
+    @Test
+    public void directoryV3DevicesPostCompletesFutureWithDecryptedResponse() throws Exception {
+        DirectoryV3DevicesPostResponse expected = mock(DirectoryV3DevicesPostResponse.class);
+        when(objectMapper.readValue("Decrypted", DirectoryV3DevicesPostResponse.class)).thenReturn(expected);
+        assertSame(expected,
+                asyncTransport.directoryV3DevicesPost(mock(DirectoryV3DevicesPostRequest.class), subject, null).get());
+    }
+
+    @Test
+    public void directoryV3DevicesListPostSendsRequestWithProperMethodAndPath() throws Exception {
+        when(objectMapper.readValue("Decrypted", DirectoryV3DevicesListPostResponseDevice[].class))
+                .thenReturn(new DirectoryV3DevicesListPostResponseDevice[0]);
+        asyncTransport.directoryV3DevicesListPost(mock(DirectoryV3DevicesListPostRequest.class), subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("POST", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/directory/v3/devices/list"), captor.getValue().getURI());
+    }
+
+    @Test
+    public void directoryV3DevicesListPostCompletesFutureWithDecryptedDevices() throws Exception {
+        DirectoryV3DevicesListPostResponseDevice device = mock(DirectoryV3DevicesListPostResponseDevice.class);
+        when(objectMapper.readValue("Decrypted", DirectoryV3DevicesListPostResponseDevice[].class))
+                .thenReturn(new DirectoryV3DevicesListPostResponseDevice[]{device});
+        DirectoryV3DevicesListPostResponse actual = asyncTransport.directoryV3DevicesListPost(
+                mock(DirectoryV3DevicesListPostRequest.class), subject, null).get();
+        assertEquals(Collections.singletonList(device), actual.getDevices());
+    }
+
+    @Test
+    public void directoryV3devicesDeleteSendsRequestWithProperMethodAndPath() throws Exception {
+        asyncTransport.directoryV3devicesDelete(mock(DirectoryV3DevicesDeleteRequest.class), subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("DELETE", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/directory/v3/devices"), captor.getValue().getURI());
+    }
+
+    @Test
+    public void directoryV3SessionsListPostCompletesFutureWithDecryptedSessions() throws Exception {
+        DirectoryV3SessionsListPostResponseSession session = mock(DirectoryV3SessionsListPostResponseSession.class);
+        when(objectMapper.readValue("Decrypted", DirectoryV3SessionsListPostResponseSession[].class))
+                .thenReturn(new DirectoryV3SessionsListPostResponseSession[]{session});
+        DirectoryV3SessionsListPostResponse actual = asyncTransport.directoryV3SessionsListPost(
+                mock(DirectoryV3SessionsListPostRequest.class), subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals(URI.create(baseUrl + "/directory/v3/sessions/list"), captor.getValue().getURI());
+        assertEquals(Collections.singletonList(session), actual.getSessions());
+    }
+
+    @Test
+    public void directoryV3SessionsDeleteSendsRequestWithProperMethodAndPath() throws Exception {
+        asyncTransport.directoryV3SessionsDelete(mock(DirectoryV3SessionsDeleteRequest.class), subject, null).get();
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        verify(httpAsyncClient).execute(captor.capture(), any(FutureCallback.class));
+        assertEquals("DELETE", captor.getValue().getMethod());
+        assertEquals(URI.create(baseUrl + "/directory/v3/sessions"), captor.getValue().getURI());
+    }
+
+    @Test
+    public void cancellingFutureCancelsExchange() throws Exception {
+        when(httpAsyncClient.execute(any(HttpUriRequest.class), any(FutureCallback.class))).thenReturn(exchange);
+        asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null).cancel(true);
+        verify(exchange).cancel(true);
+    }
+
+    @Test
+    public void responseIsVerifiedAndDecryptedOnTheResponseExecutor() throws Exception {
+        ServiceV3AuthsPostResponse expected = mock(ServiceV3AuthsPostResponse.class);
+        when(objectMapper.readValue("Decrypted", ServiceV3AuthsPostResponse.class)).thenReturn(expected);
+        asyncTransport = new AsyncHttpTransport(httpClient, httpAsyncClient, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                responseTasks.add(command);
+            }
+        }, crypto, objectMapper, cache, baseUrl, issuer, jwtService, jweService, 0, 0, entityKeyMap, null,
+                new TransportOptions());
+        Future<ServiceV3AuthsPostResponse> actual =
+                asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null);
+        assertFalse(actual.isDone());
+        verify(objectMapper, never()).readValue("Decrypted", ServiceV3AuthsPostResponse.class);
+        assertEquals(1, responseTasks.size());
+        responseTasks.get(0).run();
+        assertSame(expected, actual.get());
+    }
+
+    @Test
+    public void rejectedResponseProcessingFailsFutureWithCommunicationErrorException() throws Exception {
+        asyncTransport = new AsyncHttpTransport(httpClient, httpAsyncClient, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, crypto, objectMapper, cache, baseUrl, issuer, jwtService, jweService, 0, 0, entityKeyMap, null,
+                new TransportOptions());
+        try {
+            asyncTransport.serviceV3AuthsPost(mock(ServiceV3AuthsPostRequest.class), subject, null).get();
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CommunicationErrorException.class));
+        }
+    }
+}
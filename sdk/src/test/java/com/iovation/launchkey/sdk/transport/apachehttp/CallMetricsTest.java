@@ -0,0 +1,71 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.metrics.TransportMetricsListener;
+import com.iovation.launchkey.sdk.metrics.TransportPhase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CallMetricsTest {
+    @Mock private TransportMetricsListener listener;
+
+    @Test
+    public void getEndpointPathReplacesUUIDs() throws Exception {
+        assertEquals("/service/v3/auths/{id}",
+                CallMetrics.getEndpointPath("/service/v3/auths/4d1b6ba8-e7aa-11e8-a951-fa001d282e01"));
+    }
+
+    @Test
+    public void getEndpointPathReplacesKeyFingerprints() throws Exception {
+        assertEquals("/public/v3/public/{id}",
+                CallMetrics.getEndpointPath("/public/v3/public/e0:2f:a9:ac:4a:e4:87:77:13:84:02:97:f1:9b:1f:33"));
+    }
+
+    @Test
+    public void getEndpointPathLeavesOtherSegments() throws Exception {
+        assertEquals("/public/v3/ping", CallMetrics.getEndpointPath("/public/v3/ping"));
+    }
+
+    @Test
+    public void startWithoutListenerReturnsNone() throws Exception {
+        assertSame(CallMetrics.NONE, CallMetrics.start(null, "GET", "/public/v3/ping"));
+    }
+
+    @Test
+    public void phaseReportsEndpointAndPhase() throws Exception {
+        CallMetrics metrics = CallMetrics.start(listener, "GET", "/public/v3/ping");
+        metrics.phase(TransportPhase.HTTP_EXCHANGE, metrics.begin());
+        verify(listener).phaseCompleted(eq("GET /public/v3/ping"), eq(TransportPhase.HTTP_EXCHANGE), anyLong());
+    }
+
+    @Test
+    public void completedWithoutResponseReportsUnknownStatusAndSizes() throws Exception {
+        CallMetrics.start(listener, "GET", "/public/v3/ping").completed(null);
+        verify(listener).callCompleted(eq("GET /public/v3/ping"), eq(-1), eq(-1L), eq(-1L), anyLong(),
+                (Throwable) isNull());
+    }
+
+    @Test
+    public void listenerExceptionsAreIgnored() throws Exception {
+        doThrow(new RuntimeException()).when(listener)
+                .phaseCompleted(anyString(), any(TransportPhase.class), anyLong());
+        doThrow(new RuntimeException()).when(listener)
+                .callCompleted(anyString(), anyInt(), anyLong(), anyLong(), anyLong(), any(Throwable.class));
+        CallMetrics metrics = CallMetrics.start(listener, "GET", "/public/v3/ping");
+        metrics.phase(TransportPhase.HTTP_EXCHANGE, metrics.begin());
+        metrics.completed(new RuntimeException());
+    }
+}
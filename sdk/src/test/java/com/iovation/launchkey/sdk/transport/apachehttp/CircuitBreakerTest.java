@@ -0,0 +1,117 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CircuitOpen;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+    private static final String AUTHS = "/service/v3/auths";
+    private static final String SERVICES = "/organization/v3/services";
+
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() throws Exception {
+        circuitBreaker = new CircuitBreaker(2, 2, 0.5, 1000L, 0.5, 60000L, 1);
+    }
+
+    private static HttpResponse response(int statusCode) {
+        return new BasicHttpResponse(new ProtocolVersion("HTTP", 1, 1), statusCode, null);
+    }
+
+    private void fail(String endpoint) throws Exception {
+        circuitBreaker.acquire(endpoint).complete(null, 0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsWindowSmallerThanMinimumCalls() throws Exception {
+        new CircuitBreaker(1, 2, 0.5, 1000L, 0.5, 60000L, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsFailureRateThresholdAboveOne() throws Exception {
+        new CircuitBreaker(2, 2, 1.5, 1000L, 0.5, 60000L, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroHalfOpenCalls() throws Exception {
+        new CircuitBreaker(2, 2, 0.5, 1000L, 0.5, 60000L, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeOpenDuration() throws Exception {
+        new CircuitBreaker(2, 2, 0.5, 1000L, 0.5, -1L, 1);
+    }
+
+    @Test(expected = CircuitOpen.class)
+    public void acquireThrowsCircuitOpenWhenCircuitIsOpen() throws Exception {
+        fail(AUTHS);
+        fail(AUTHS);
+        circuitBreaker.acquire(AUTHS);
+    }
+
+    @Test
+    public void endpointsHaveSeparateCircuits() throws Exception {
+        fail(SERVICES);
+        fail(SERVICES);
+        circuitBreaker.acquire(AUTHS);
+    }
+
+    @Test
+    public void serverErrorIsFailure() throws Exception {
+        circuitBreaker.acquire(AUTHS).complete(response(500), 0L);
+        assertEquals(1.0, circuitBreaker.getCircuits().get(AUTHS).getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void clientErrorIsNotFailure() throws Exception {
+        circuitBreaker.acquire(AUTHS).complete(response(404), 0L);
+        assertEquals(0.0, circuitBreaker.getCircuits().get(AUTHS).getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void exchangeOverSlowCallThresholdIsSlow() throws Exception {
+        circuitBreaker.acquire(AUTHS).complete(response(201), 1000000001L);
+        assertEquals(1.0, circuitBreaker.getCircuits().get(AUTHS).getSlowCallRate(), 0.0);
+    }
+
+    @Test
+    public void exchangeIsNotSlowWhenSlowCallThresholdIsZero() throws Exception {
+        circuitBreaker = new CircuitBreaker(2, 2, 0.5, 0L, 0.5, 60000L, 1);
+        circuitBreaker.acquire(AUTHS).complete(response(201), Long.MAX_VALUE);
+        assertEquals(0.0, circuitBreaker.getCircuits().get(AUTHS).getSlowCallRate(), 0.0);
+    }
+
+    @Test
+    public void callIsRecordedOnce() throws Exception {
+        CircuitBreaker.Call call = circuitBreaker.acquire(AUTHS);
+        call.complete(null, 0L);
+        call.complete(null, 0L);
+        call.cancel();
+        circuitBreaker.acquire(AUTHS).complete(response(201), 0L);
+        assertEquals(0.5, circuitBreaker.getCircuits().get(AUTHS).getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void getRejectedCountCountsRejectedCalls() throws Exception {
+        fail(AUTHS);
+        fail(AUTHS);
+        try {
+            circuitBreaker.acquire(AUTHS);
+        } catch (CircuitOpen e) {
+            // Expected
+        }
+        assertEquals(1L, circuitBreaker.getRejectedCount());
+    }
+
+    @Test
+    public void noCallDoesNothing() throws Exception {
+        CircuitBreaker.NO_CALL.complete(null, 0L);
+        CircuitBreaker.NO_CALL.cancel();
+    }
+}
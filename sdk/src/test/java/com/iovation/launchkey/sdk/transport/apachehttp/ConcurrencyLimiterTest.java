@@ -0,0 +1,107 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.RateLimited;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrencyLimiterTest {
+    private static final String ENTITY = "svc:49af9c38-31b3-11e7-93ae-92361f002671";
+    private static final String ENDPOINT = "GET /service/v3/auths/{id}";
+
+    private ConcurrencyLimiter limiter;
+
+    @Before
+    public void setUp() throws Exception {
+        limiter = new ConcurrencyLimiter(1, 1, 10, 0L, 0L, 0.0);
+    }
+
+    private static HttpResponse response(int statusCode) {
+        return new BasicHttpResponse(new ProtocolVersion("HTTP", 1, 1), statusCode, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsMinimumLimitBelowOne() throws Exception {
+        new ConcurrencyLimiter(1, 0, 10, 0L, 0L, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsInitialLimitAboveMaximum() throws Exception {
+        new ConcurrencyLimiter(11, 1, 10, 0L, 0L, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeQueueTimeout() throws Exception {
+        new ConcurrencyLimiter(1, 1, 10, 0L, -1L, 0.0);
+    }
+
+    @Test(expected = RateLimited.class)
+    public void acquireThrowsRateLimitedWhenLimitIsReached() throws Exception {
+        limiter.acquire(ENTITY, ENDPOINT);
+        limiter.acquire(ENTITY, ENDPOINT);
+    }
+
+    @Test
+    public void endpointsHaveSeparateLimits() throws Exception {
+        limiter.acquire(ENTITY, ENDPOINT);
+        limiter.acquire(ENTITY, "POST /service/v3/auths");
+    }
+
+    @Test
+    public void entitiesHaveSeparateLimits() throws Exception {
+        limiter.acquire(ENTITY, ENDPOINT);
+        limiter.acquire("svc:59af9c38-31b3-11e7-93ae-92361f002671", ENDPOINT);
+    }
+
+    @Test
+    public void releaseAllowsNextCall() throws Exception {
+        limiter.acquire(ENTITY, ENDPOINT).release(response(200));
+        limiter.acquire(ENTITY, ENDPOINT);
+    }
+
+    @Test
+    public void getLimitsExposesLimitByEntityAndEndpoint() throws Exception {
+        limiter = new ConcurrencyLimiter(4, 1, 10, 0L, 0L, 0.0);
+        limiter.acquire(ENTITY, ENDPOINT).release(response(429));
+        assertEquals(2, limiter.getLimits().get(ENTITY + " " + ENDPOINT).getLimit());
+    }
+
+    @Test
+    public void getRejectedCountCountsRejectedCalls() throws Exception {
+        limiter.acquire(ENTITY, ENDPOINT);
+        try {
+            limiter.acquire(ENTITY, ENDPOINT);
+        } catch (RateLimited e) {
+            // Expected
+        }
+        assertEquals(1L, limiter.getRejectedCount());
+    }
+
+    @Test(expected = RateLimited.class)
+    public void acquireThrowsRateLimitedWhenRateCapIsReached() throws Exception {
+        limiter = new ConcurrencyLimiter(10, 1, 10, 0L, 0L, 1.0);
+        limiter.acquire(ENTITY, ENDPOINT);
+        limiter.acquire(ENTITY, "POST /service/v3/auths");
+    }
+
+    @Test
+    public void callRejectedByConcurrencyLimitDoesNotUseRateCap() throws Exception {
+        limiter = new ConcurrencyLimiter(1, 1, 1, 0L, 0L, 2.0);
+        limiter.acquire(ENTITY, ENDPOINT);
+        try {
+            limiter.acquire(ENTITY, ENDPOINT);
+        } catch (RateLimited e) {
+            // Expected
+        }
+        limiter.acquire(ENTITY, "POST /service/v3/auths");
+    }
+
+    @Test
+    public void noPermitReleaseDoesNothing() throws Exception {
+        ConcurrencyLimiter.NO_PERMIT.release(null);
+    }
+}
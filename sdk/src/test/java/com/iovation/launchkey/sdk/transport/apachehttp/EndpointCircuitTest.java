@@ -0,0 +1,141 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EndpointCircuitTest {
+    private EndpointCircuit circuit;
+
+    @Before
+    public void setUp() throws Exception {
+        circuit = new EndpointCircuit(4, 2, 0.5, 0.5, 0L, 2);
+    }
+
+    private void call(boolean failed, boolean slow) {
+        long generation = circuit.acquire();
+        assertTrue(generation >= 0);
+        circuit.release(generation, failed, slow);
+    }
+
+    private void open() {
+        circuit = new EndpointCircuit(4, 2, 0.5, 0.5, Long.MAX_VALUE, 2);
+        call(true, false);
+        call(true, false);
+    }
+
+    @Test
+    public void startsClosed() throws Exception {
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    public void staysClosedBelowMinimumCalls() throws Exception {
+        call(true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    public void staysClosedBelowFailureRateThreshold() throws Exception {
+        call(false, false);
+        call(false, false);
+        call(true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+    }
+
+    @Test
+    public void opensAtFailureRateThreshold() throws Exception {
+        call(false, false);
+        call(true, false);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+    }
+
+    @Test
+    public void opensAtSlowCallRateThreshold() throws Exception {
+        call(false, true);
+        call(false, false);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+    }
+
+    @Test
+    public void oldCallsLeaveTheWindow() throws Exception {
+        circuit = new EndpointCircuit(2, 2, 1.0, 1.0, 0L, 1);
+        call(true, false);
+        call(false, false);
+        call(true, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+        assertEquals(0.5, circuit.getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void openCircuitRejectsCalls() throws Exception {
+        open();
+        assertEquals(-1L, circuit.acquire());
+        assertEquals(1L, circuit.getRejectedCount());
+    }
+
+    @Test
+    public void openCircuitIsHalfOpenAfterOpenDuration() throws Exception {
+        call(true, false);
+        call(true, false);
+        assertTrue(circuit.acquire() >= 0);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuit.getState());
+    }
+
+    @Test
+    public void halfOpenCircuitLimitsProbes() throws Exception {
+        call(true, false);
+        call(true, false);
+        assertTrue(circuit.acquire() >= 0);
+        assertTrue(circuit.acquire() >= 0);
+        assertEquals(-1L, circuit.acquire());
+    }
+
+    @Test
+    public void halfOpenCircuitClosesWhenProbesSucceed() throws Exception {
+        call(true, false);
+        call(true, false);
+        call(false, false);
+        call(false, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuit.getState());
+        assertEquals(0.0, circuit.getFailureRate(), 0.0);
+    }
+
+    @Test
+    public void halfOpenCircuitOpensWhenProbeFails() throws Exception {
+        call(true, false);
+        call(true, false);
+        call(false, false);
+        call(true, false);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+    }
+
+    @Test
+    public void halfOpenCircuitOpensWhenProbeIsSlow() throws Exception {
+        call(true, false);
+        call(true, false);
+        call(false, true);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+    }
+
+    @Test
+    public void cancelledProbeFreesItsPlace() throws Exception {
+        call(true, false);
+        call(true, false);
+        circuit.acquire();
+        long generation = circuit.acquire();
+        circuit.cancel(generation);
+        assertTrue(circuit.acquire() >= 0);
+    }
+
+    @Test
+    public void callsStartedBeforeOpeningAreIgnored() throws Exception {
+        circuit = new EndpointCircuit(4, 2, 0.5, 0.5, Long.MAX_VALUE, 2);
+        long generation = circuit.acquire();
+        call(true, false);
+        call(true, false);
+        circuit.release(generation, false, false);
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HexEncoderTest {
+
+    @Test
+    public void encodeMatchesCommonsCodecLowerCaseHex() throws Exception {
+        byte[] data = new byte[256];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        assertEquals(Hex.encodeHexString(data), HexEncoder.encode(data));
+    }
+
+    @Test
+    public void encodeEmptyArrayReturnsEmptyString() throws Exception {
+        assertEquals("", HexEncoder.encode(new byte[0]));
+    }
+
+    @Test
+    public void encodeAfterLargerInputOnlyReturnsCurrentInput() throws Exception {
+        HexEncoder.encode(new byte[]{1, 2, 3, 4});
+        assertEquals("0a", HexEncoder.encode(new byte[]{10}));
+    }
+}
@@ -0,0 +1,70 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class IdleConnectionEvictorTest {
+    @Mock private HttpClientConnectionManager connectionManager;
+    private IdleConnectionEvictor evictor;
+
+    @Before
+    public void setUp() throws Exception {
+        evictor = new IdleConnectionEvictor(connectionManager, 2, TimeUnit.SECONDS, 10, TimeUnit.MILLISECONDS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        evictor.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroIdleTime() throws Exception {
+        new IdleConnectionEvictor(connectionManager, 0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void evictClosesExpiredConnections() throws Exception {
+        evictor.evict();
+        verify(connectionManager).closeExpiredConnections();
+    }
+
+    @Test
+    public void evictClosesIdleConnections() throws Exception {
+        evictor.evict();
+        verify(connectionManager).closeIdleConnections(2000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void evictIgnoresErrors() throws Exception {
+        doThrow(new IllegalStateException()).when(connectionManager).closeExpiredConnections();
+        evictor.evict();
+        assertEquals(0L, evictor.getRunCount());
+    }
+
+    @Test
+    public void startEvictsPeriodically() throws Exception {
+        evictor.start();
+        verify(connectionManager, timeout(1000L).atLeast(2)).closeIdleConnections(2000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void shutdownStopsEviction() throws Exception {
+        evictor.start();
+        verify(connectionManager, timeout(1000L).atLeastOnce()).closeExpiredConnections();
+        evictor.shutdown();
+        long runs = evictor.getRunCount();
+        Thread.sleep(50L);
+        assertEquals(runs, evictor.getRunCount());
+    }
+}
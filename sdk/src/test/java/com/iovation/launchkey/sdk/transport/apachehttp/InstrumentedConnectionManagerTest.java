@@ -0,0 +1,186 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolListener;
+import com.iovation.launchkey.sdk.metrics.ConnectionPoolStats;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class InstrumentedConnectionManagerTest {
+    private static final HttpRoute ROUTE = new HttpRoute(new HttpHost("api.launchkey.com", 443, "https"));
+
+    @Mock private ConnectionPoolListener listener;
+    private InstrumentedConnectionManager connectionManager;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionManager = new InstrumentedConnectionManager(30, TimeUnit.SECONDS, 1, listener);
+        connectionManager.setMaxTotal(1);
+        connectionManager.setDefaultMaxPerRoute(1);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativePendingThreshold() throws Exception {
+        new InstrumentedConnectionManager(30, TimeUnit.SECONDS, -1, listener);
+    }
+
+    @Test
+    public void getPoolStatsReportsLeasedConnections() throws Exception {
+        lease();
+        assertEquals(new ConnectionPoolStats(1, 0, 0, 1), connectionManager.getPoolStats());
+    }
+
+    @Test
+    public void getPoolStatsReportsAvailableConnections() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            HttpRoute route = new HttpRoute(new HttpHost(server.getInetAddress(), server.getLocalPort()));
+            HttpClientConnection connection = connectionManager.requestConnection(route, null)
+                    .get(100, TimeUnit.MILLISECONDS);
+            connectionManager.connect(connection, route, 1000, new BasicHttpContext());
+            connectionManager.routeComplete(connection, route, new BasicHttpContext());
+            connectionManager.releaseConnection(connection, null, 30, TimeUnit.SECONDS);
+            assertEquals(new ConnectionPoolStats(0, 1, 0, 1), connectionManager.getPoolStats());
+        }
+    }
+
+    @Test
+    public void openConnectsToTargetAndReturnsConnectionsToPool() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            HttpHost target = new HttpHost(server.getInetAddress(), server.getLocalPort());
+            assertEquals(1, connectionManager.open(target, 1, 1000, 30000L));
+            assertEquals(new ConnectionPoolStats(0, 1, 0, 1), connectionManager.getPoolStats());
+        }
+    }
+
+    @Test
+    public void openCountsIdleConnectionsAndLimitsToMaximumPerRoute() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            HttpHost target = new HttpHost(server.getInetAddress(), server.getLocalPort());
+            connectionManager.open(target, 1, 1000, 30000L);
+            assertEquals(0, connectionManager.open(target, 5, 1000, 30000L));
+            assertEquals(new ConnectionPoolStats(0, 1, 0, 1), connectionManager.getPoolStats());
+        }
+    }
+
+    @Test
+    public void openReturnsConnectionsWhenConnectFails() throws Exception {
+        HttpHost target;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            target = new HttpHost(server.getInetAddress(), server.getLocalPort());
+        }
+        assertEquals(0, connectionManager.open(target, 1, 1000, 30000L));
+        assertEquals(0, connectionManager.getPoolStats().getLeased());
+    }
+
+    @Test
+    public void openDoesNotRecordLeaseWait() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            connectionManager.open(new HttpHost(server.getInetAddress(), server.getLocalPort()), 1, 1000, 30000L);
+            assertEquals(0L, connectionManager.getLeaseWaitHistogram().getCount());
+        }
+    }
+
+    @Test
+    public void leaseWaitIsRecorded() throws Exception {
+        lease();
+        assertEquals(1L, connectionManager.getLeaseWaitHistogram().getCount());
+    }
+
+    @Test
+    public void leaseTimeoutIsCounted() throws Exception {
+        lease();
+        try {
+            lease();
+            fail("Expected ConnectionPoolTimeoutException");
+        } catch (ConnectionPoolTimeoutException e) {
+            assertEquals(1L, connectionManager.getLeaseTimeoutCount());
+            assertEquals(2L, connectionManager.getLeaseWaitHistogram().getCount());
+        }
+    }
+
+    @Test
+    public void listenerIsNotifiedOnceWhenPendingExceedsThresholdAndOnceWhenCleared() throws Exception {
+        HttpClientConnection held = lease();
+        Future<?>[] waiting = new Future<?>[4];
+        for (int i = 0; i < waiting.length; i++) {
+            waiting[i] = executor.submit(new LeaseAndRelease());
+            waitForPending(i + 1);
+        }
+        ArgumentCaptor<ConnectionPoolStats> exceeded = ArgumentCaptor.forClass(ConnectionPoolStats.class);
+        verify(listener).pendingThresholdExceeded(exceeded.capture());
+        assertTrue(exceeded.getValue().getPending() > 1);
+        verify(listener, never()).pendingThresholdCleared(any(ConnectionPoolStats.class));
+
+        connectionManager.releaseConnection(held, null, 30, TimeUnit.SECONDS);
+        for (Future<?> future : waiting) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        verify(listener).pendingThresholdCleared(any(ConnectionPoolStats.class));
+        verify(listener).pendingThresholdExceeded(any(ConnectionPoolStats.class));
+    }
+
+    @Test(expected = ConnectionPoolTimeoutException.class)
+    public void listenerExceptionsDoNotInterruptLease() throws Exception {
+        connectionManager.shutdown();
+        connectionManager = new InstrumentedConnectionManager(30, TimeUnit.SECONDS, 0, listener);
+        connectionManager.setMaxTotal(1);
+        doThrow(new RuntimeException()).when(listener).pendingThresholdExceeded(any(ConnectionPoolStats.class));
+        lease();
+        executor.submit(new LeaseAndRelease());
+        waitForPending(1);
+        lease();
+    }
+
+    private HttpClientConnection lease() throws Exception {
+        return connectionManager.requestConnection(ROUTE, null).get(100, TimeUnit.MILLISECONDS);
+    }
+
+    private void waitForPending(int pending) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (connectionManager.getPoolStats().getPending() < pending && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+    }
+
+    private class LeaseAndRelease implements Callable<Void> {
+        @Override
+        public Void call() throws Exception {
+            HttpClientConnection connection = connectionManager.requestConnection(ROUTE, null)
+                    .get(5, TimeUnit.SECONDS);
+            connectionManager.releaseConnection(connection, null, 30, TimeUnit.SECONDS);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.junit.Test;
+
+import java.security.PublicKey;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class ParsedPublicKeyCacheTest {
+
+    @Test
+    public void getReturnsNullForUnknownFingerprint() throws Exception {
+        assertNull(new ParsedPublicKeyCache().get("unknown"));
+    }
+
+    @Test
+    public void getReturnsKeyPutForFingerprint() throws Exception {
+        ParsedPublicKeyCache cache = new ParsedPublicKeyCache();
+        PublicKey key = mock(PublicKey.class);
+        cache.put("fingerprint", key);
+        assertSame(key, cache.get("fingerprint"));
+    }
+
+    @Test
+    public void getReturnsNullForExpiredKeyAndRemovesIt() throws Exception {
+        ParsedPublicKeyCache cache = new ParsedPublicKeyCache(10, 0);
+        cache.put("fingerprint", mock(PublicKey.class));
+        assertNull(cache.get("fingerprint"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void putEvictsLeastRecentlyUsedKeyWhenFull() throws Exception {
+        ParsedPublicKeyCache cache = new ParsedPublicKeyCache(2, 60);
+        // Recency is kept in milliseconds
+        cache.put("first", mock(PublicKey.class));
+        Thread.sleep(5L);
+        cache.put("second", mock(PublicKey.class));
+        Thread.sleep(5L);
+        cache.get("first");
+        cache.put("third", mock(PublicKey.class));
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+    }
+
+    @Test
+    public void putReplacingCachedKeyWhenFullEvictsNothing() throws Exception {
+        ParsedPublicKeyCache cache = new ParsedPublicKeyCache(2, 60);
+        PublicKey replacement = mock(PublicKey.class);
+        cache.put("first", mock(PublicKey.class));
+        cache.put("second", mock(PublicKey.class));
+        cache.put("first", replacement);
+        assertSame(replacement, cache.get("first"));
+        assertNotNull(cache.get("second"));
+    }
+
+    @Test
+    public void getHitCountCountsOnlyGetsWhichReturnedKey() throws Exception {
+        ParsedPublicKeyCache cache = new ParsedPublicKeyCache();
+        cache.put("fingerprint", mock(PublicKey.class));
+        cache.get("fingerprint");
+        cache.get("fingerprint");
+        cache.get("unknown");
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void getHitCountCountsHitsOfConcurrentThreads() throws Exception {
+        final ParsedPublicKeyCache cache = new ParsedPublicKeyCache();
+        cache.put("fingerprint", mock(PublicKey.class));
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        cache.get("fingerprint");
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, cache.getHitCount());
+    }
+}
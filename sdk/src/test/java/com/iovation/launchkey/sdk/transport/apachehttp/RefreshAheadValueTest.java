@@ -0,0 +1,218 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RefreshAheadValueTest {
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private AtomicInteger loads;
+    private CountDownLatch loading;
+    private CountDownLatch release;
+    private volatile boolean fail;
+
+    @Before
+    public void setUp() throws Exception {
+        loads = new AtomicInteger();
+        loading = new CountDownLatch(1);
+        release = new CountDownLatch(0);
+        fail = false;
+    }
+
+    private RefreshAheadValue<Integer> value(int ttl, ScheduledExecutorService scheduler) {
+        return new RefreshAheadValue<Integer>(ttl, scheduler, "test value") {
+            @Override
+            Integer load() throws CommunicationErrorException {
+                int load = loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (fail) {
+                    throw new CommunicationErrorException("Failed", null, null);
+                }
+                return load;
+            }
+        };
+    }
+
+    @Test
+    public void getLoadsOnlyOnceWithinTTL() throws Exception {
+        RefreshAheadValue<Integer> value = value(60, null);
+        assertEquals(Integer.valueOf(1), value.get());
+        assertEquals(Integer.valueOf(1), value.get());
+        assertEquals(1L, value.getRefreshCount());
+    }
+
+    @Test
+    public void getLoadsEveryTimeWhenTTLIsZero() throws Exception {
+        RefreshAheadValue<Integer> value = value(0, scheduler);
+        value.get();
+        assertEquals(Integer.valueOf(2), value.get());
+        assertEquals(2L, value.getRefreshCount());
+    }
+
+    @Test
+    public void getServesExpiredValueWhileAnotherThreadIsLoading() throws Exception {
+        final RefreshAheadValue<Integer> value = value(0, null);
+        value.get();
+        loading = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        Thread loader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    value.get();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        loader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(1), value.get());
+        release.countDown();
+        loader.join(5000L);
+        assertEquals(2, loads.get());
+        assertEquals(1L, value.getStaleServeCount());
+    }
+
+    @Test
+    public void getSchedulesRefreshAheadOfExpiration() throws Exception {
+        value(60, scheduler).get();
+        verify(scheduler).schedule(any(Runnable.class), eq(48000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void scheduledRefreshLoadsNewValue() throws Exception {
+        RefreshAheadValue<Integer> value = value(60, scheduler);
+        value.get();
+        value.get();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        captor.getValue().run();
+        assertEquals(Integer.valueOf(2), value.get());
+        assertEquals(2L, value.getRefreshCount());
+    }
+
+    @Test
+    public void failedScheduledRefreshKeepsValueAndSchedulesRetry() throws Exception {
+        RefreshAheadValue<Integer> value = value(60, scheduler);
+        value.get();
+        value.get();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        fail = true;
+        captor.getValue().run();
+        assertEquals(Integer.valueOf(1), value.get());
+        verify(scheduler).schedule(any(Runnable.class), eq(RefreshAheadValue.RETRY_DELAY_MILLIS),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void scheduledRefreshOfValueNotReadSinceLoadDoesNotLoadOrReschedule() throws Exception {
+        RefreshAheadValue<Integer> value = value(60, scheduler);
+        value.get();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        captor.getValue().run();
+        assertEquals(1, loads.get());
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void closeCancelsScheduledRefresh() throws Exception {
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        doReturn(future).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        RefreshAheadValue<Integer> value = value(60, scheduler);
+        value.get();
+        value.close();
+        verify(future).cancel(false);
+    }
+
+    @Test
+    public void scheduledRefreshAfterCloseDoesNotLoad() throws Exception {
+        RefreshAheadValue<Integer> value = value(60, scheduler);
+        value.get();
+        value.get();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        value.close();
+        captor.getValue().run();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void scheduledRefreshDoesNotKeepValueFromBeingCollected() throws Exception {
+        RefreshAheadValue<Integer> value = value(60, scheduler);
+        value.get();
+        WeakReference<RefreshAheadValue<Integer>> reference = new WeakReference<>(value);
+        value = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        captor.getValue().run();
+        assertEquals(1, loads.get());
+    }
+
+    @Test(expected = CommunicationErrorException.class)
+    public void getThrowsWhenInitialLoadFails() throws Exception {
+        fail = true;
+        value(60, scheduler).get();
+    }
+
+    @Test
+    public void initialLoadFailureDoesNotScheduleRefresh() throws Exception {
+        fail = true;
+        try {
+            value(60, scheduler).get();
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        verify(scheduler, times(0)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.Assert.*;
+
+public class ReplayHttpResponseTest {
+    private static final byte[] BODY = "Hello World!".getBytes();
+
+    private HttpResponse httpResponse;
+    private ReplayHttpResponse.BufferCounters counters;
+
+    @Before
+    public void setUp() throws Exception {
+        httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        counters = new ReplayHttpResponse.BufferCounters();
+    }
+
+    @Test
+    public void getContentBytesReturnsBody() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity(BODY));
+        assertArrayEquals(BODY, new ReplayHttpResponse(httpResponse, counters).getContentBytes());
+    }
+
+    @Test
+    public void getContentBytesReturnsBodyWhenContentLengthIsUnknown() throws Exception {
+        httpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream(BODY), -1));
+        assertArrayEquals(BODY, new ReplayHttpResponse(httpResponse, counters).getContentBytes());
+    }
+
+    @Test
+    public void getContentBytesReturnsSameArrayForEveryCall() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity(BODY));
+        ReplayHttpResponse response = new ReplayHttpResponse(httpResponse, counters);
+        assertSame(response.getContentBytes(), response.getContentBytes());
+    }
+
+    @Test
+    public void getContentBytesReturnsEmptyArrayWhenThereIsNoEntity() throws Exception {
+        assertEquals(0, new ReplayHttpResponse(httpResponse, counters).getContentBytes().length);
+    }
+
+    @Test
+    public void entityCanBeReadRepeatedlyFromSingleStreamEntity() throws Exception {
+        httpResponse.setEntity(new InputStreamEntity(new ByteArrayInputStream(BODY), BODY.length));
+        ReplayHttpResponse response = new ReplayHttpResponse(httpResponse, counters);
+        assertEquals("Hello World!", EntityUtils.toString(response.getEntity()));
+        assertEquals("Hello World!", EntityUtils.toString(response.getEntity()));
+    }
+
+    @Test
+    public void countersRecordBodyBufferedOnceRegardlessOfReads() throws Exception {
+        httpResponse.setEntity(new ByteArrayEntity(BODY));
+        ReplayHttpResponse response = new ReplayHttpResponse(httpResponse, counters);
+        response.getContentBytes();
+        EntityUtils.toString(response.getEntity());
+        assertEquals(1L, counters.getBuffers());
+        assertEquals(BODY.length, counters.getBytes());
+    }
+}
@@ -0,0 +1,139 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTest {
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+    private CountDownLatch started;
+    private CountDownLatch release;
+    private AtomicInteger calls;
+
+    @Before
+    public void setUp() throws Exception {
+        coalescer = new RequestCoalescer();
+        executor = Executors.newCachedThreadPool();
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        calls = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private RequestCoalescer.Read<String> blockingRead(final String response, final RuntimeException failure) {
+        return new RequestCoalescer.Read<String>() {
+            @Override
+            public String read() {
+                calls.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+        };
+    }
+
+    private Future<String> submit(final String key, final RequestCoalescer.Read<String> read) {
+        return executor.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return coalescer.execute(key, read);
+            }
+        });
+    }
+
+    private void awaitCoalesced(long count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (coalescer.getCoalescedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    @Test
+    public void identicalCallsInFlightShareOneCall() throws Exception {
+        Future<String> first = submit("key", blockingRead("response", null));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> second = submit("key", blockingRead("other", null));
+        awaitCoalesced(1L);
+        release.countDown();
+        assertEquals("response", first.get(5, TimeUnit.SECONDS));
+        assertEquals("response", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1L, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void identicalCallsInFlightShareFailure() throws Exception {
+        RuntimeException failure = new IllegalStateException();
+        Future<String> first = submit("key", blockingRead(null, failure));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> second = submit("key", blockingRead("other", null));
+        awaitCoalesced(1L);
+        release.countDown();
+        try {
+            second.get(5, TimeUnit.SECONDS);
+            fail("Expected the failure of the shared call");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void differentCallsAreNotShared() throws Exception {
+        release.countDown();
+        assertEquals("first", coalescer.execute("first", blockingRead("first", null)));
+        assertEquals("second", coalescer.execute("second", blockingRead("second", null)));
+        assertEquals(2, calls.get());
+        assertEquals(0L, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void callAfterCompletionIsMadeAgain() throws Exception {
+        release.countDown();
+        coalescer.execute("key", blockingRead("first", null));
+        assertEquals("second", coalescer.execute("key", blockingRead("second", null)));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void completedCallIsNoLongerInFlight() throws Exception {
+        release.countDown();
+        coalescer.execute("key", blockingRead("response", null));
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void failedCallIsNoLongerInFlight() throws Exception {
+        release.countDown();
+        try {
+            coalescer.execute("key", new RequestCoalescer.Read<String>() {
+                @Override
+                public String read() throws CommunicationErrorException {
+                    throw new CommunicationErrorException(null, null, null);
+                }
+            });
+        } catch (CommunicationErrorException e) {
+            // Expected
+        }
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+}
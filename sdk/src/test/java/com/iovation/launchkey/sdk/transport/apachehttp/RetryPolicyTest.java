@@ -0,0 +1,92 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RetryPolicyTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsLessThanOneAttempt() throws Exception {
+        new RetryPolicy(0, 50L, 1000L, 0.1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeBaseDelay() throws Exception {
+        new RetryPolicy(3, -1L, 1000L, 0.1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsMaximumDelayLessThanBaseDelay() throws Exception {
+        new RetryPolicy(3, 50L, 49L, 0.1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeRetryRatio() throws Exception {
+        new RetryPolicy(3, 50L, 1000L, -0.1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeRetryBurst() throws Exception {
+        new RetryPolicy(3, 50L, 1000L, 0.1, -1);
+    }
+
+    @Test
+    public void defaultConstructorUsesDefaults() throws Exception {
+        RetryPolicy policy = new RetryPolicy();
+        assertEquals(RetryPolicy.DEFAULT_MAXIMUM_ATTEMPTS, policy.getMaximumAttempts());
+        assertEquals(RetryPolicy.DEFAULT_RETRY_BURST, policy.getRetryBudget());
+    }
+
+    @Test
+    public void budgetStartsFullAndIsSpentByRetries() throws Exception {
+        RetryPolicy policy = new RetryPolicy(3, 0L, 0L, 0.1, 2);
+        assertTrue(policy.tryRetry());
+        assertTrue(policy.tryRetry());
+        assertFalse(policy.tryRetry());
+        assertEquals(2L, policy.getRetryCount());
+        assertEquals(1L, policy.getBudgetExhaustedCount());
+    }
+
+    @Test
+    public void callsRefillBudgetByRetryRatio() throws Exception {
+        RetryPolicy policy = new RetryPolicy(3, 0L, 0L, 0.5, 1);
+        assertTrue(policy.tryRetry());
+        policy.callStarted();
+        assertFalse(policy.tryRetry());
+        policy.callStarted();
+        assertTrue(policy.tryRetry());
+    }
+
+    @Test
+    public void budgetDoesNotExceedRetryBurst() throws Exception {
+        RetryPolicy policy = new RetryPolicy(3, 0L, 0L, 1.0, 2);
+        for (int i = 0; i < 10; i++) {
+            policy.callStarted();
+        }
+        assertEquals(2L, policy.getRetryBudget());
+    }
+
+    @Test
+    public void delayIsWithinExponentialCeiling() throws Exception {
+        RetryPolicy policy = new RetryPolicy(5, 10L, 1000L, 0.1, 10);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.getDelayMillis(1) <= 10L);
+            assertTrue(policy.getDelayMillis(3) <= 40L);
+            assertTrue(policy.getDelayMillis(3) >= 0L);
+        }
+    }
+
+    @Test
+    public void delayDoesNotExceedMaximumDelay() throws Exception {
+        RetryPolicy policy = new RetryPolicy(100, 10L, 25L, 0.1, 10);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.getDelayMillis(64) <= 25L);
+        }
+    }
+
+    @Test
+    public void delayIsZeroWithoutBaseDelay() throws Exception {
+        assertEquals(0L, new RetryPolicy(3, 0L, 0L, 0.1, 10).getDelayMillis(2));
+    }
+}
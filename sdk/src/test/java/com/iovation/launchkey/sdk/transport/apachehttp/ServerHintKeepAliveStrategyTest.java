@@ -0,0 +1,60 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ServerHintKeepAliveStrategyTest {
+    private ServerHintKeepAliveStrategy strategy;
+    private HttpResponse response;
+
+    @Before
+    public void setUp() throws Exception {
+        strategy = new ServerHintKeepAliveStrategy(20000L, 60000L);
+        response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsZeroDefault() throws Exception {
+        new ServerHintKeepAliveStrategy(0L, 60000L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsMaximumLessThanDefault() throws Exception {
+        new ServerHintKeepAliveStrategy(20000L, 10000L);
+    }
+
+    @Test
+    public void usesDefaultWithoutHint() throws Exception {
+        assertEquals(20000L, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    public void usesServerHintShorterThanDefault() throws Exception {
+        response.addHeader("Keep-Alive", "timeout=5, max=100");
+        assertEquals(5000L, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    public void usesServerHintLongerThanDefault() throws Exception {
+        response.addHeader("Keep-Alive", "timeout=45");
+        assertEquals(45000L, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    public void limitsServerHintToMaximum() throws Exception {
+        response.addHeader("Keep-Alive", "timeout=300");
+        assertEquals(60000L, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    public void usesDefaultWithUnusableHint() throws Exception {
+        response.addHeader("Keep-Alive", "timeout=soon");
+        assertEquals(20000L, strategy.getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2017 iovation, Inc.
+ * <p>
+ * Licensed under the MIT License.
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located in the "LICENSE.txt" file accompanying
+ * this file. This file is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import com.iovation.launchkey.sdk.error.CommunicationErrorException;
+import com.iovation.launchkey.sdk.transport.Transport;
+import com.iovation.launchkey.sdk.transport.domain.PublicV3PingGetResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ServerTimeOffsetTest {
+    private static final long API_AHEAD_MILLIS = 60000L;
+
+    @Mock
+    private Transport transport;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        when(transport.publicV3PingGet()).thenAnswer(new Answer<PublicV3PingGetResponse>() {
+            @Override
+            public PublicV3PingGetResponse answer(InvocationOnMock invocation) {
+                return new PublicV3PingGetResponse(new Date(System.currentTimeMillis() + API_AHEAD_MILLIS));
+            }
+        });
+    }
+
+    @Test
+    public void getCurrentDateAppliesOffsetFromPing() throws Exception {
+        ServerTimeOffset offset = new ServerTimeOffset(transport, 60, null);
+        long drift = offset.getCurrentDate().getTime() - System.currentTimeMillis() - API_AHEAD_MILLIS;
+        assertTrue("Unexpected drift " + drift, Math.abs(drift) < 1000L);
+    }
+
+    @Test
+    public void getCurrentDatePingsOnlyOnceWithinTTL() throws Exception {
+        ServerTimeOffset offset = new ServerTimeOffset(transport, 60, null);
+        offset.getCurrentDate();
+        offset.getCurrentDate();
+        verify(transport, times(1)).publicV3PingGet();
+    }
+
+    @Test
+    public void getCurrentDatePingsEveryCallWhenTTLIsZero() throws Exception {
+        ServerTimeOffset offset = new ServerTimeOffset(transport, 0, scheduler);
+        offset.getCurrentDate();
+        offset.getCurrentDate();
+        verify(transport, times(2)).publicV3PingGet();
+        verifyZeroInteractions(scheduler);
+    }
+
+    @Test(expected = CommunicationErrorException.class)
+    public void getCurrentDateThrowsWhenInitialPingFails() throws Exception {
+        reset(transport);
+        when(transport.publicV3PingGet()).thenThrow(new CommunicationErrorException(null, null, null));
+        new ServerTimeOffset(transport, 60, scheduler).getCurrentDate();
+    }
+}
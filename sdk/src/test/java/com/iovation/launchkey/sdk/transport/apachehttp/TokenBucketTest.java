@@ -0,0 +1,49 @@
+package com.iovation.launchkey.sdk.transport.apachehttp;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+
+    @Test
+    public void acquireTakesTokensUpToCapacityWithoutWaiting() throws Exception {
+        TokenBucket bucket = new TokenBucket(1.0, 2);
+        assertTrue(bucket.acquire(System.nanoTime()));
+        assertTrue(bucket.acquire(System.nanoTime()));
+    }
+
+    @Test
+    public void acquireFailsWhenTokenIsNotAvailableBeforeDeadline() throws Exception {
+        TokenBucket bucket = new TokenBucket(1.0, 1);
+        assertTrue(bucket.acquire(System.nanoTime()));
+        assertFalse(bucket.acquire(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100L)));
+    }
+
+    @Test
+    public void acquireWaitsForNextToken() throws Exception {
+        TokenBucket bucket = new TokenBucket(100.0, 1);
+        assertTrue(bucket.acquire(System.nanoTime()));
+        long started = System.nanoTime();
+        assertTrue(bucket.acquire(started + TimeUnit.SECONDS.toNanos(1L)));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(5L));
+    }
+
+    @Test
+    public void refundReturnsTakenToken() throws Exception {
+        TokenBucket bucket = new TokenBucket(1.0, 1);
+        assertTrue(bucket.acquire(System.nanoTime()));
+        bucket.refund();
+        assertTrue(bucket.acquire(System.nanoTime()));
+    }
+
+    @Test
+    public void refundDoesNotFillBucketBeyondCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1.0, 1);
+        bucket.refund();
+        assertTrue(bucket.acquire(System.nanoTime()));
+        assertFalse(bucket.acquire(System.nanoTime()));
+    }
+}